@@ -0,0 +1,188 @@
+/*
+ * 10/18/2026
+ *
+ * CharsetList.java - The charsets available in this JVM.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import javax.swing.AbstractListModel;
+import javax.swing.ComboBoxModel;
+
+
+/**
+ * The names of all charsets available in this JVM, for choosing an encoding
+ * in dialogs such as {@link TextFilePropertiesDialog}.  Calling
+ * {@code Charset.availableCharsets()} loads every charset provider and
+ * builds a new sorted map each time, and adding its ~170 names to a combo
+ * box one at a time fires an event for each.  Instead, the list is built
+ * once, the first time it is needed, and shared.  Applications that want
+ * to avoid even that one-time cost when a dialog is first opened can call
+ * {@link #preload()} at startup.<p>
+ *
+ * The list is immutable.  Each combo box gets its own lightweight model
+ * backed by the shared list via {@link #createComboBoxModel()}, and
+ * charsets can be looked up by canonical name or any of their aliases,
+ * ignoring case, in constant time via {@link #indexOf(String)}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class CharsetList {
+
+	private final String[] names;
+	private final Map<String, Integer> indexes;
+
+
+	private CharsetList() {
+
+		SortedMap<String, Charset> charsets = Charset.availableCharsets();
+		names = charsets.keySet().toArray(new String[0]);
+
+		indexes = new HashMap<>();
+		for (int i = 0; i < names.length; i++) {
+			Charset charset = charsets.get(names[i]);
+			for (String alias : charset.aliases()) {
+				indexes.putIfAbsent(alias.toLowerCase(Locale.ROOT), i);
+			}
+		}
+		// Canonical names take precedence over other charsets' aliases
+		for (int i = 0; i < names.length; i++) {
+			indexes.put(names[i].toLowerCase(Locale.ROOT), i);
+		}
+	}
+
+
+	/**
+	 * Returns a new combo box model containing the names of all charsets.
+	 * Models share this list, so creating one is cheap.
+	 *
+	 * @return The model.  Nothing is initially selected.
+	 */
+	public ComboBoxModel<String> createComboBoxModel() {
+		return new CharsetComboBoxModel(names);
+	}
+
+
+	/**
+	 * Returns the shared list, building it if necessary.  This method may
+	 * be called from any thread.
+	 *
+	 * @return The list.
+	 * @see #preload()
+	 */
+	public static CharsetList get() {
+		return Holder.INSTANCE;
+	}
+
+
+	/**
+	 * Returns the canonical names of all charsets, sorted as by
+	 * {@code Charset.availableCharsets()}.
+	 *
+	 * @return The names.  This list is unmodifiable.
+	 */
+	public List<String> getNames() {
+		return Collections.unmodifiableList(Arrays.asList(names));
+	}
+
+
+	/**
+	 * Returns the index of a charset in this list.
+	 *
+	 * @param nameOrAlias The canonical name or an alias of the charset.  Case
+	 *        is ignored.  This may be {@code null}.
+	 * @return The index of the charset, or {@code -1} if it isn't available.
+	 * @see #getNames()
+	 */
+	public int indexOf(String nameOrAlias) {
+		if (nameOrAlias == null) {
+			return -1;
+		}
+		Integer index = indexes.get(nameOrAlias.toLowerCase(Locale.ROOT));
+		return index == null ? -1 : index;
+	}
+
+
+	/**
+	 * Starts building the shared list on a background thread, if it hasn't
+	 * been built already, so it's ready when first needed.  Applications
+	 * can call this at startup.
+	 *
+	 * @see #get()
+	 */
+	public static void preload() {
+		Thread t = new Thread(CharsetList::get, "CharsetListPreloader");
+		t.setDaemon(true);
+		t.setPriority(Thread.MIN_PRIORITY);
+		t.start();
+	}
+
+
+	/**
+	 * A combo box model backed by the shared list.
+	 */
+	private static final class CharsetComboBoxModel extends AbstractListModel<String>
+			implements ComboBoxModel<String> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String[] names;
+		private Object selectedItem;
+
+		CharsetComboBoxModel(String[] names) {
+			this.names = names;
+		}
+
+		@Override
+		public String getElementAt(int index) {
+			return names[index];
+		}
+
+		@Override
+		public Object getSelectedItem() {
+			return selectedItem;
+		}
+
+		@Override
+		public int getSize() {
+			return names.length;
+		}
+
+		@Override
+		public void setSelectedItem(Object item) {
+			if (!Objects.equals(selectedItem, item)) {
+				selectedItem = item;
+				fireContentsChanged(this, -1, -1);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Builds the shared list the first time it's needed.  Class
+	 * initialization is thread-safe, so the list is built exactly once.
+	 */
+	private static final class Holder {
+
+		private static final CharsetList INSTANCE = new CharsetList();
+
+		private Holder() {
+		}
+
+	}
+
+
+}
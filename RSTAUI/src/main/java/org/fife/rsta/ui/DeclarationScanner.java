@@ -0,0 +1,169 @@
+/*
+ * 10/18/2026
+ *
+ * DeclarationScanner.java - Finds the symbols declared on a line of code.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+
+
+/**
+ * Finds the tokens on a line that declare symbols, for {@link SymbolIndex}.
+ * A declaration is an identifier following a keyword such as {@code class}
+ * or {@code def}, or an identifier followed by {@code "("} and preceded by
+ * a type, as in {@code void foo(}, {@code int[] foo(} or
+ * {@code List<String> foo(}.<p>
+ *
+ * The line's non-whitespace tokens are passed to {@link #scan(Token, Token)}
+ * in order.  A {@code '>'} only counts as ending a type if it matches a
+ * {@code '<'} earlier in the same type, so comparisons such as
+ * {@code if (a > max(b))} aren't mistaken for declarations.  A new instance
+ * should be used for each line.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class DeclarationScanner {
+
+	private Token prev;
+	private boolean prevClosesGeneric;
+
+	/**
+	 * The number of {@code '<'}s that may open a generic type and haven't
+	 * been closed yet.
+	 */
+	private int genericDepth;
+
+	/**
+	 * Keywords in common languages that are followed by the name of the
+	 * symbol they declare.
+	 */
+	private static final Set<String> DECLARATION_KEYWORDS = new HashSet<>(
+		Arrays.asList("class", "interface", "enum", "record", "struct", "union",
+			"trait", "object", "module", "namespace", "def", "function",
+			"func", "fun", "fn", "sub", "proc", "procedure", "macro", "type",
+			"typedef", "impl"));
+
+	/**
+	 * Keywords that precede the name of a function or method when it's
+	 * followed by {@code "("}, as in {@code void foo(} or
+	 * {@code public Foo(}.
+	 */
+	private static final Set<String> METHOD_KEYWORDS = new HashSet<>(
+		Arrays.asList("void", "public", "protected", "private", "static",
+			"final", "abstract", "synchronized", "native", "override",
+			"virtual", "inline", "async"));
+
+
+	/**
+	 * Returns how many generic types a token could close: the number of
+	 * characters in it if they are all {@code '>'}, since nested types end
+	 * with {@code ">>"} or {@code ">>>"}, and {@code 0} otherwise.
+	 */
+	private static int getGenericCloserCount(Token t) {
+		char[] array = t.getTextArray();
+		int start = t.getTextOffset();
+		int count = t.length();
+		for (int i = 0; i < count; i++) {
+			if (array[start + i] != '>') {
+				return 0;
+			}
+		}
+		return count;
+	}
+
+
+	/**
+	 * Returns whether a token declares a symbol, given the token before it.
+	 */
+	private boolean isDeclaration(Token t, Token next) {
+
+		int type = t.getType();
+		if ((type != TokenTypes.IDENTIFIER && type != TokenTypes.FUNCTION) ||
+				prev == null) {
+			return false;
+		}
+
+		if (prev.getType() == TokenTypes.RESERVED_WORD &&
+				DECLARATION_KEYWORDS.contains(prev.getLexeme())) {
+			return true;
+		}
+
+		// "void foo(", "String foo(", "List<String> foo(", "int[] foo("
+		return next != null && next.isSingleChar('(') &&
+				(prevClosesGeneric || isTypeLike(prev));
+	}
+
+
+	private static boolean isTypeLike(Token t) {
+		switch (t.getType()) {
+			case TokenTypes.DATA_TYPE:
+			case TokenTypes.IDENTIFIER:
+			case TokenTypes.FUNCTION:
+				return true;
+			case TokenTypes.RESERVED_WORD:
+				return METHOD_KEYWORDS.contains(t.getLexeme());
+			default:
+				return t.isSingleChar(']');
+		}
+	}
+
+
+	/**
+	 * Returns whether a token can be part of the generic arguments of a
+	 * return type, such as {@code "? extends Foo.Bar<T>[]"}.
+	 */
+	private static boolean mayBeInGeneric(Token t) {
+		switch (t.getType()) {
+			case TokenTypes.DATA_TYPE:
+			case TokenTypes.IDENTIFIER:
+			case TokenTypes.RESERVED_WORD:
+			case TokenTypes.ANNOTATION:
+				return true;
+			default:
+				return t.isSingleChar(',') || t.isSingleChar('.') ||
+						t.isSingleChar('?') || t.isSingleChar('[') ||
+						t.isSingleChar(']');
+		}
+	}
+
+
+	/**
+	 * Returns whether a token declares a symbol, and moves past it.
+	 *
+	 * @param t The next non-whitespace token on the line.
+	 * @param next The non-whitespace token after {@code t}, or
+	 *        {@code null} if none.
+	 * @return Whether {@code t} declares a symbol.
+	 */
+	boolean scan(Token t, Token next) {
+
+		boolean declaration = isDeclaration(t, next);
+
+		int closers = getGenericCloserCount(t);
+		prevClosesGeneric = closers > 0 && closers <= genericDepth;
+		if (t.isSingleChar('<')) {
+			genericDepth++;
+		}
+		else if (prevClosesGeneric) {
+			genericDepth -= closers;
+		}
+		else if (!mayBeInGeneric(t)) {
+			genericDepth = 0; // e.g. "a < b", "a > b", "x = ", "foo("
+		}
+
+		prev = t;
+		return declaration;
+	}
+
+
+}
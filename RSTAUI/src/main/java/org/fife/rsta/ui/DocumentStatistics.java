@@ -0,0 +1,433 @@
+/*
+ * 10/18/2026
+ *
+ * DocumentStatistics.java - Keeps a text area's statistics up to date.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.EventListenerList;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.Segment;
+
+
+/**
+ * Keeps the {@link TextStatistics} of a text area, typically a
+ * {@code TextEditorPane}, up to date as it is edited.  The statistics are
+ * computed once when this tracker is installed, and after that, each edit
+ * only rescans the lines it touches.  Getting the current statistics is
+ * then a constant-time operation, so they can be shown in places such as a
+ * status bar, or in {@link TextFilePropertiesDialog} (which uses an
+ * installed tracker when there is one), without recounting.<p>
+ *
+ * A tracker is installed on a text area with {@link #install(JTextComponent)},
+ * and can be retrieved later with {@link #get(JTextComponent)}.  It follows
+ * the text area if its document is replaced.  Listeners can be notified
+ * whenever the statistics change.<p>
+ *
+ * The statistics are kept per line, so this uses a few bytes of memory per
+ * line in the document.  This class should only be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class DocumentStatistics {
+
+	private final JTextComponent textArea;
+	private final Listener listener;
+	private final EventListenerList listenerList;
+	private final TextStatistics.Counter counter;
+	private final Segment segment;
+
+	private Document doc;
+	private LineTable lines;
+	private long wordCount;
+	private long nonWhitespaceCharCount;
+	private int longestLineLength;
+	private int longestLineCount;
+	private boolean longestLineValid;
+	private TextStatistics statistics;
+
+	/**
+	 * The client property the tracker for a text area is stored under.
+	 */
+	private static final String CLIENT_PROPERTY = "DocumentStatistics";
+
+
+	private DocumentStatistics(JTextComponent textArea) {
+		this.textArea = textArea;
+		listener = new Listener();
+		listenerList = new EventListenerList();
+		counter = new TextStatistics.Counter();
+		segment = new Segment();
+	}
+
+
+	/**
+	 * Adds a listener notified whenever the statistics change.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	public void addChangeListener(ChangeListener l) {
+		listenerList.add(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Counts all lines in the current document.
+	 */
+	private void attach() {
+		doc = textArea.getDocument();
+		doc.addDocumentListener(listener);
+		lines = new LineTable();
+		wordCount = 0;
+		nonWhitespaceCharCount = 0;
+		longestLineLength = 0;
+		longestLineCount = 0;
+		longestLineValid = true;
+		int count = doc.getDefaultRootElement().getElementCount();
+		insertLines(0, count);
+		statistics = null;
+	}
+
+
+	private void fireStateChanged() {
+		ChangeListener[] listeners = listenerList.getListeners(
+				ChangeListener.class);
+		if (listeners.length > 0) {
+			ChangeEvent e = new ChangeEvent(this);
+			for (ChangeListener l : listeners) {
+				l.stateChanged(e);
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the tracker installed on a text area, if any.
+	 *
+	 * @param textArea The text area.
+	 * @return The tracker, or {@code null} if none is installed.
+	 * @see #install(JTextComponent)
+	 */
+	public static DocumentStatistics get(JTextComponent textArea) {
+		Object value = textArea.getClientProperty(CLIENT_PROPERTY);
+		return value instanceof DocumentStatistics ?
+				(DocumentStatistics)value : null;
+	}
+
+
+	/**
+	 * Returns the current statistics for the text area's document.
+	 *
+	 * @return The statistics.
+	 */
+	public TextStatistics getStatistics() {
+		if (statistics == null) {
+			if (!longestLineValid) {
+				updateLongestLine();
+			}
+			statistics = new TextStatistics((int)wordCount, lines.size(),
+					doc.getLength(), (int)nonWhitespaceCharCount,
+					longestLineLength);
+		}
+		return statistics;
+	}
+
+
+	/**
+	 * Returns the text area this tracker is installed on.
+	 *
+	 * @return The text area.
+	 */
+	public JTextComponent getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Handles an insert or remove in the document.
+	 */
+	private void handleEdit(DocumentEvent e) {
+
+		Element root = doc.getDefaultRootElement();
+		DocumentEvent.ElementChange change = e.getChange(root);
+		int index;
+		int removed;
+		int added;
+		if (change == null) { // Only a single line changed
+			index = root.getElementIndex(e.getOffset());
+			removed = added = 1;
+		}
+		else {
+			index = change.getIndex();
+			removed = change.getChildrenRemoved().length;
+			added = change.getChildrenAdded().length;
+		}
+
+		removeLines(index, removed);
+		insertLines(index, added);
+		statistics = null;
+		fireStateChanged();
+	}
+
+
+	/**
+	 * Counts lines in the document and adds them to the table.
+	 */
+	private void insertLines(int index, int count) {
+
+		Element root = doc.getDefaultRootElement();
+		lines.insert(index, count);
+
+		for (int i = index; i < index + count; i++) {
+			Element line = root.getElement(i);
+			int start = line.getStartOffset();
+			int length = line.getEndOffset() - start - 1; // Minus '\n'
+			counter.reset();
+			if (length > 0) {
+				try {
+					doc.getText(start, length, segment);
+					counter.add(segment.array, segment.offset, segment.count);
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+				}
+			}
+			int words = counter.getWordCount();
+			int nonWhitespace = counter.getNonWhitespaceCharCount();
+			lines.set(i, length, words, nonWhitespace);
+			wordCount += words;
+			nonWhitespaceCharCount += nonWhitespace;
+			// If the longest line is unknown, it's shorter than the previous one
+			if (length > longestLineLength ||
+					(length == longestLineLength && !longestLineValid)) {
+				longestLineLength = length;
+				longestLineCount = 1;
+				longestLineValid = true;
+			}
+			else if (length == longestLineLength) {
+				longestLineCount++;
+			}
+		}
+	}
+
+
+	/**
+	 * Installs a tracker on a text area, if one isn't already installed.
+	 * This counts the entire document, so may take a moment for very large
+	 * documents.
+	 *
+	 * @param textArea The text area.
+	 * @return The tracker for the text area.
+	 * @see #get(JTextComponent)
+	 * @see #uninstall()
+	 */
+	public static DocumentStatistics install(JTextComponent textArea) {
+		DocumentStatistics stats = get(textArea);
+		if (stats == null) {
+			stats = new DocumentStatistics(textArea);
+			stats.attach();
+			textArea.addPropertyChangeListener("document", stats.listener);
+			textArea.putClientProperty(CLIENT_PROPERTY, stats);
+		}
+		return stats;
+	}
+
+
+	/**
+	 * Removes lines from the table and subtracts their counts.
+	 */
+	private void removeLines(int index, int count) {
+		for (int i = index; i < index + count; i++) {
+			wordCount -= lines.get(i, LineTable.WORDS);
+			nonWhitespaceCharCount -= lines.get(i, LineTable.NON_WHITESPACE);
+			if (longestLineValid &&
+					lines.get(i, LineTable.LENGTH) == longestLineLength &&
+					--longestLineCount == 0) {
+				longestLineValid = false;
+			}
+		}
+		lines.remove(index, count);
+	}
+
+
+	/**
+	 * Removes a listener notified whenever the statistics change.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	public void removeChangeListener(ChangeListener l) {
+		listenerList.remove(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Uninstalls this tracker from its text area.  It should not be used
+	 * after this method is called.
+	 *
+	 * @see #install(JTextComponent)
+	 */
+	public void uninstall() {
+		doc.removeDocumentListener(listener);
+		textArea.removePropertyChangeListener("document", listener);
+		if (get(textArea) == this) {
+			textArea.putClientProperty(CLIENT_PROPERTY, null);
+		}
+	}
+
+
+	/**
+	 * Finds the longest line after it has been removed or shortened.  This
+	 * scans the length of each line, but not their text.
+	 */
+	private void updateLongestLine() {
+		longestLineLength = 0;
+		longestLineCount = 0;
+		for (int i = 0; i < lines.size(); i++) {
+			int length = lines.get(i, LineTable.LENGTH);
+			if (length > longestLineLength) {
+				longestLineLength = length;
+				longestLineCount = 1;
+			}
+			else if (length == longestLineLength) {
+				longestLineCount++;
+			}
+		}
+		longestLineValid = true;
+	}
+
+
+	/**
+	 * The length, word count and non-whitespace character count of each
+	 * line, stored in a gap buffer so edits that add or remove lines only
+	 * move the values near the edit.
+	 */
+	static final class LineTable {
+
+		static final int LENGTH = 0;
+		static final int WORDS = 1;
+		static final int NON_WHITESPACE = 2;
+		private static final int STRIDE = 3;
+
+		private int[] data;
+		private int gapStart;
+		private int gapEnd;
+
+		LineTable() {
+			data = new int[STRIDE * 16];
+			gapEnd = 16;
+		}
+
+		private int capacity() {
+			return data.length / STRIDE;
+		}
+
+		private void ensureGap(int count) {
+			if (gapEnd - gapStart < count) {
+				int newCapacity = Math.max(capacity() * 2, size() + count);
+				int[] newData = new int[newCapacity * STRIDE];
+				int tail = capacity() - gapEnd;
+				System.arraycopy(data, 0, newData, 0, gapStart * STRIDE);
+				System.arraycopy(data, gapEnd * STRIDE, newData,
+						(newCapacity - tail) * STRIDE, tail * STRIDE);
+				data = newData;
+				gapEnd = newCapacity - tail;
+			}
+		}
+
+		int get(int line, int field) {
+			return data[physical(line) * STRIDE + field];
+		}
+
+		void insert(int index, int count) {
+			moveGap(index);
+			ensureGap(count);
+			gapStart += count;
+		}
+
+		private void moveGap(int index) {
+			if (index < gapStart) {
+				int count = gapStart - index;
+				System.arraycopy(data, index * STRIDE, data,
+						(gapEnd - count) * STRIDE, count * STRIDE);
+				gapStart -= count;
+				gapEnd -= count;
+			}
+			else if (index > gapStart) {
+				int count = index - gapStart;
+				System.arraycopy(data, gapEnd * STRIDE, data,
+						gapStart * STRIDE, count * STRIDE);
+				gapStart += count;
+				gapEnd += count;
+			}
+		}
+
+		private int physical(int line) {
+			return line < gapStart ? line : line + gapEnd - gapStart;
+		}
+
+		void remove(int index, int count) {
+			moveGap(index);
+			gapEnd += count;
+		}
+
+		void set(int line, int length, int words, int nonWhitespace) {
+			int offs = physical(line) * STRIDE;
+			data[offs + LENGTH] = length;
+			data[offs + WORDS] = words;
+			data[offs + NON_WHITESPACE] = nonWhitespace;
+		}
+
+		int size() {
+			return capacity() - (gapEnd - gapStart);
+		}
+
+	}
+
+
+	/**
+	 * Listens for edits to the document, and for the document being
+	 * replaced.
+	 */
+	private final class Listener implements DocumentListener,
+			PropertyChangeListener {
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			// Attribute changes don't affect the statistics
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			handleEdit(e);
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			doc.removeDocumentListener(this);
+			attach();
+			fireStateChanged();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			handleEdit(e);
+		}
+
+	}
+
+
+}
@@ -0,0 +1,409 @@
+/*
+ * 10/18/2026
+ *
+ * EncodingProbe.java - Checks which encodings a file decodes cleanly with.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+
+/**
+ * Test-decodes a file with several candidate charsets, to help the user
+ * choose the right encoding for it.  For each charset, the number of
+ * malformed or unmappable byte sequences is counted, along with the number
+ * of decoded characters that are unlikely to appear in text (control
+ * characters other than whitespace, and non-characters), and a preview of
+ * the decoded text is kept.  The results are ranked with the charsets that
+ * decode the file most cleanly first.<p>
+ *
+ * Small files are read in full.  For large files, only a bounded number of
+ * evenly spaced chunks are read, so probing a multi-gigabyte file is still
+ * quick.  Files are read with a {@code FileChannel}, and each byte is read
+ * only once no matter how many charsets are tried.<p>
+ *
+ * Probing reads the file, so it should be done off the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see TextFilePropertiesDialog
+ */
+public final class EncodingProbe {
+
+	private final List<Result> results;
+	private final boolean sampled;
+
+	/**
+	 * The default number of chunks to read from large files.
+	 */
+	static final int SAMPLE_COUNT = 16;
+
+	/**
+	 * The default size of each chunk read, in bytes.
+	 */
+	static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * The maximum length of a preview, in characters.
+	 */
+	static final int PREVIEW_LENGTH = 2000;
+
+	/**
+	 * Errors this close to the edge of a chunk that was cut out of the
+	 * middle of a file may just be a character split by the cut.
+	 */
+	private static final int EDGE_SLOP = 4;
+
+	/**
+	 * Chunks start at multiples of this, so they don't split a UTF-16 or
+	 * UTF-32 character.
+	 */
+	private static final int ALIGNMENT = 4;
+
+
+	private EncodingProbe(List<Result> results, boolean sampled) {
+		this.results = Collections.unmodifiableList(results);
+		this.sampled = sampled;
+	}
+
+
+	/**
+	 * Adds a charset to a set of candidates, if it is supported.
+	 */
+	private static void addCandidate(Set<Charset> candidates, String name) {
+		if (name != null && CharsetList.get().indexOf(name) > -1) {
+			try {
+				candidates.add(Charset.forName(name));
+			} catch (UnsupportedCharsetException uce) { // Never happens
+				// Skip it
+			}
+		}
+	}
+
+
+	/**
+	 * Decodes a sample with a charset, counting problems.
+	 */
+	private static void decode(Charset charset, Sample sample, Result result) {
+
+		CharsetDecoder decoder = charset.newDecoder().
+				onMalformedInput(CodingErrorAction.REPORT).
+				onUnmappableCharacter(CodingErrorAction.REPORT);
+		ByteBuffer in = sample.bytes.duplicate();
+		CharBuffer out = CharBuffer.allocate(8 * 1024);
+
+		CoderResult cr;
+		do {
+			cr = decoder.decode(in, out, true);
+			if (cr.isUnderflow()) {
+				cr = decoder.flush(out);
+			}
+			result.countSuspicious(out);
+			if (cr.isError()) {
+				if (!sample.isAtCutEdge(in.position())) {
+					result.malformedCount++;
+				}
+				in.position(in.position() + cr.length());
+			}
+		} while (!cr.isUnderflow());
+	}
+
+
+	/**
+	 * Returns the charsets worth trying for a typical text file: UTF-8, the
+	 * ones specified, the platform default, windows-1252, ISO-8859-1 and
+	 * UTF-16.  Charsets not supported by this JVM are skipped.<p>
+	 *
+	 * UTF-8 comes first since single-byte charsets such as ISO-8859-1 decode
+	 * any file without errors, and ties are ranked in candidate order; text
+	 * that decodes cleanly as UTF-8 is very likely UTF-8.
+	 *
+	 * @param preferred The names of other charsets to try early, such as the
+	 *        file's current encoding.  Any of these may be {@code null}.
+	 * @return The charsets, with no duplicates.
+	 */
+	public static List<Charset> getDefaultCandidates(String... preferred) {
+		Set<Charset> candidates = new LinkedHashSet<>();
+		candidates.add(StandardCharsets.UTF_8);
+		for (String name : preferred) {
+			addCandidate(candidates, name);
+		}
+		candidates.add(Charset.defaultCharset());
+		addCandidate(candidates, "windows-1252");
+		candidates.add(StandardCharsets.ISO_8859_1);
+		candidates.add(StandardCharsets.UTF_16LE);
+		candidates.add(StandardCharsets.UTF_16);
+		return new ArrayList<>(candidates);
+	}
+
+
+	/**
+	 * Returns the result for a charset.
+	 *
+	 * @param charset The charset.
+	 * @return The result, or {@code null} if the charset wasn't tried.
+	 */
+	public Result getResult(Charset charset) {
+		for (Result result : results) {
+			if (result.charset.equals(charset)) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns the results for each charset tried, with the charsets that
+	 * decoded the file most cleanly first.  Charsets with the same counts
+	 * are in the order they were given in.
+	 *
+	 * @return The results.  This list is unmodifiable.
+	 */
+	public List<Result> getResults() {
+		return results;
+	}
+
+
+	/**
+	 * Returns whether only part of the file was read.  If so, the counts
+	 * are for that part of the file only.
+	 *
+	 * @return Whether only part of the file was read.
+	 */
+	public boolean isSampled() {
+		return sampled;
+	}
+
+
+	/**
+	 * Test-decodes a file with several charsets.
+	 *
+	 * @param file The file.
+	 * @param candidates The charsets to try.
+	 * @return The results.
+	 * @throws IOException If an IO error occurs reading the file.
+	 * @throws CancellationException If the calling thread is interrupted.
+	 * @see #getDefaultCandidates(String...)
+	 */
+	public static EncodingProbe probe(Path file,
+			Collection<Charset> candidates) throws IOException {
+		return probe(file, candidates, SAMPLE_COUNT, CHUNK_SIZE);
+	}
+
+
+	/**
+	 * Test-decodes a file with several charsets, reading at most
+	 * {@code sampleCount} chunks of it.
+	 *
+	 * @param file The file.
+	 * @param candidates The charsets to try.
+	 * @param sampleCount The maximum number of chunks to read.
+	 * @param chunkSize The size of each chunk, in bytes.
+	 * @return The results.
+	 * @throws IOException If an IO error occurs reading the file.
+	 * @throws CancellationException If the calling thread is interrupted.
+	 */
+	static EncodingProbe probe(Path file, Collection<Charset> candidates,
+			int sampleCount, int chunkSize) throws IOException {
+
+		List<Sample> samples = new ArrayList<>();
+		boolean sampled;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			sampled = size > (long)sampleCount * chunkSize;
+			if (sampled) {
+				long step = (size - chunkSize) / (sampleCount - 1);
+				for (int i = 0; i < sampleCount; i++) {
+					long pos = i * step / ALIGNMENT * ALIGNMENT;
+					samples.add(read(channel, pos, chunkSize, size));
+				}
+			}
+			else {
+				samples.add(read(channel, 0, (int)size, size));
+			}
+		} catch (ClosedByInterruptException cbie) {
+			throw new CancellationException();
+		}
+
+		List<Result> results = new ArrayList<>();
+		for (Charset charset : candidates) {
+			Result result = new Result(charset);
+			for (Sample sample : samples) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new CancellationException();
+				}
+				decode(charset, sample, result);
+			}
+			result.preview = samples.get(0).preview(charset);
+			results.add(result);
+		}
+
+		// A stable sort, so ties stay in the order they were given
+		results.sort(Comparator.comparingLong(Result::getMalformedCount).
+				thenComparingLong(Result::getSuspiciousCount));
+		return new EncodingProbe(results, sampled);
+	}
+
+
+	/**
+	 * Reads a chunk of a file.
+	 */
+	private static Sample read(FileChannel channel, long pos, int length,
+			long fileSize) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining() &&
+				channel.read(buffer, pos + buffer.position()) >= 0) {
+			// Keep reading
+		}
+		buffer.flip();
+		return new Sample(buffer, pos > 0,
+				pos + buffer.limit() < fileSize);
+	}
+
+
+	/**
+	 * The result of test-decoding a file with one charset.
+	 */
+	public static final class Result {
+
+		private final Charset charset;
+		private long malformedCount;
+		private long suspiciousCount;
+		private String preview;
+
+		private static final int NON_CHARACTER_MASK = 0xfffe;
+
+		Result(Charset charset) {
+			this.charset = charset;
+		}
+
+		private void countSuspicious(CharBuffer out) {
+			out.flip();
+			while (out.hasRemaining()) {
+				char ch = out.get();
+				if (isSuspicious(ch)) {
+					suspiciousCount++;
+				}
+			}
+			out.clear();
+		}
+
+		/**
+		 * Returns the charset.
+		 *
+		 * @return The charset.
+		 */
+		public Charset getCharset() {
+			return charset;
+		}
+
+		/**
+		 * Returns the number of malformed or unmappable byte sequences
+		 * found.
+		 *
+		 * @return The number of decoding errors.
+		 */
+		public long getMalformedCount() {
+			return malformedCount;
+		}
+
+		/**
+		 * Returns the start of the file, decoded with this charset.
+		 * Decoding errors are shown as replacement characters.
+		 *
+		 * @return The preview text.
+		 */
+		public String getPreview() {
+			return preview;
+		}
+
+		/**
+		 * Returns the number of decoded characters unlikely to appear in
+		 * text, such as control characters other than whitespace.  A high
+		 * count suggests the wrong charset was used, even if there were no
+		 * decoding errors.
+		 *
+		 * @return The number of suspicious characters.
+		 */
+		public long getSuspiciousCount() {
+			return suspiciousCount;
+		}
+
+		private static boolean isSuspicious(char ch) {
+			if (ch < 0x20) {
+				return ch != '\t' && ch != '\n' && ch != '\r' && ch != '\f';
+			}
+			return (ch >= 0x7f && ch < 0xa0) ||
+					(ch & NON_CHARACTER_MASK) == NON_CHARACTER_MASK;
+		}
+
+		@Override
+		public String toString() {
+			return "[Result: charset=" + charset +
+					", malformedCount=" + malformedCount +
+					", suspiciousCount=" + suspiciousCount +
+					"]";
+		}
+
+	}
+
+
+	/**
+	 * A chunk of a file.
+	 */
+	private static final class Sample {
+
+		private final ByteBuffer bytes;
+		private final boolean cutAtStart;
+		private final boolean cutAtEnd;
+
+		Sample(ByteBuffer bytes, boolean cutAtStart, boolean cutAtEnd) {
+			this.bytes = bytes;
+			this.cutAtStart = cutAtStart;
+			this.cutAtEnd = cutAtEnd;
+		}
+
+		boolean isAtCutEdge(int pos) {
+			return (cutAtStart && pos < EDGE_SLOP) ||
+					(cutAtEnd && bytes.limit() - pos < EDGE_SLOP);
+		}
+
+		String preview(Charset charset) {
+			CharsetDecoder decoder = charset.newDecoder().
+					onMalformedInput(CodingErrorAction.REPLACE).
+					onUnmappableCharacter(CodingErrorAction.REPLACE);
+			ByteBuffer in = bytes.duplicate();
+			CharBuffer out = CharBuffer.allocate(PREVIEW_LENGTH);
+			decoder.decode(in, out, true); // Stops when out is full
+			out.flip();
+			return out.toString();
+		}
+
+	}
+
+
+}
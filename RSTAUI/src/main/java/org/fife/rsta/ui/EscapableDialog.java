@@ -9,6 +9,7 @@ package org.fife.rsta.ui;
 
 import java.awt.Dialog;
 import java.awt.Frame;
+import java.awt.Window;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 
@@ -141,6 +142,18 @@ public abstract class EscapableDialog extends JDialog {
 	}
 
 
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent window.  This may be a dialog, a frame, or
+	 *        any other kind of window.
+	 */
+	public EscapableDialog(Window owner) {
+		super(owner);
+		init();
+	}
+
+
 	/**
 	 * Called when the Escape key is pressed in this dialog.  Subclasses
 	 * can override to handle any custom "Cancel" logic.  The default
@@ -12,9 +12,10 @@ import java.awt.ComponentOrientation;
 import java.awt.Container;
 import java.awt.Dialog;
 import java.awt.Frame;
-import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
 import java.util.ResourceBundle;
 
 import javax.swing.BorderFactory;
@@ -27,19 +28,39 @@ import javax.swing.JPanel;
 import javax.swing.JRootPane;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultEditorKit;
+import javax.swing.text.Document;
 import javax.swing.text.DocumentFilter;
+import javax.swing.text.JTextComponent;
+
+import org.fife.ui.rsyntaxtextarea.TextEditorPane;
 
 
 /**
  * A "Go To" dialog allowing you to go to a specific line number in an
  * instance of RSyntaxTextArea.<p>
  *
+ * If a text area is specified via {@link #setTextArea(JTextComponent)},
+ * the user can also enter any of the following, and the offset to go to
+ * is returned by {@link #getOffset()}:
+ * <ul>
+ *    <li>{@code line:column} - A 1-based line and column.
+ *    <li>{@code @offset} - A 0-based character offset.
+ *    <li>{@code #offset} - A 0-based byte offset in the text area's file,
+ *        for example from a log message or hex dump.
+ *    <li>{@code NN%} - The start of the line at a percentage of the way
+ *        through the document, such as {@code 50%} or {@code 12.5%}.
+ * </ul>
+ * These are resolved via a {@link LineStartIndex}, so they take the same
+ * time to resolve no matter how large the document is.<p>
+ *
  * Example usage:
  * <pre>
  * GoToDialog dialog = new GoToDialog(window);
@@ -55,6 +76,17 @@ import javax.swing.text.DocumentFilter;
  * }
  * </pre>
  *
+ * Or, to allow all kinds of targets:
+ * <pre>
+ * GoToDialog dialog = new GoToDialog(window);
+ * dialog.setTextArea(textArea);
+ * dialog.setVisible(true);
+ * int offset = dialog.getOffset();
+ * if (offset &gt; -1) {
+ *    textArea.setCaretPosition(offset);
+ * }
+ * </pre>
+ *
  * @author Robert Futrell
  * @version 1.0
  */
@@ -65,8 +97,17 @@ public class GoToDialog extends EscapableDialog {
 	private JTextField lineNumberField;
 	private int maxLineNumberAllowed;	// Number of lines in the document.
 	private int lineNumber;			// The line to go to, or -1 for Cancel.
+	private int offset;				// The offset to go to, or -1.
+	private LineStartIndex index;	// null if only line numbers are allowed
+	private ByteIndexWorker byteIndexWorker;
+	private JLabel formatsLabel;
 	private String errorDialogTitle;
 
+	/**
+	 * Characters allowed in targets other than line numbers.
+	 */
+	private static final String TARGET_CHARS = ":@#%.";
+
 	private static final ResourceBundle MSG = ResourceBundle.getBundle("org.fife.rsta.ui.GoToDialog");
 
 
@@ -98,6 +139,7 @@ public class GoToDialog extends EscapableDialog {
 									getOrientation(getLocale());
 
 		lineNumber = -1;
+		offset = -1;
 		maxLineNumberAllowed = 1; // Empty document has 1 line.
 		Listener l = new Listener();
 
@@ -108,8 +150,6 @@ public class GoToDialog extends EscapableDialog {
 
 		// Make a panel containing the "Line Number" edit box.
 		Box enterLineNumberPane = new Box(BoxLayout.LINE_AXIS);
-		enterLineNumberPane.setBorder(BorderFactory.createEmptyBorder(
-												0, 0, 20, 0));
 		lineNumberField = new JTextField(16);
 		lineNumberField.setText("1");
 		AbstractDocument doc = (AbstractDocument)lineNumberField.getDocument();
@@ -120,6 +160,15 @@ public class GoToDialog extends EscapableDialog {
 		enterLineNumberPane.add(Box.createHorizontalStrut(15));
 		enterLineNumberPane.add(lineNumberField);
 
+		// Describes the other targets, if a text area is specified
+		formatsLabel = new JLabel(MSG.getString("TargetFormats"));
+		formatsLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+		formatsLabel.setVisible(false);
+		JPanel topPanel = new JPanel(new BorderLayout());
+		topPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+		topPanel.add(enterLineNumberPane, BorderLayout.NORTH);
+		topPanel.add(formatsLabel, BorderLayout.SOUTH);
+
 		// Make a panel containing the OK and Cancel buttons.
 		okButton = UIUtil.newButton(MSG, "OK");
 		okButton.addActionListener(l);
@@ -128,7 +177,7 @@ public class GoToDialog extends EscapableDialog {
 		Container bottomPanel = createButtonPanel(okButton, cancelButton);
 
 		// Put everything into a neat little package.
-		contentPane.add(enterLineNumberPane, BorderLayout.NORTH);
+		contentPane.add(topPanel, BorderLayout.NORTH);
 		contentPane.add(bottomPanel, BorderLayout.SOUTH);
 		JRootPane rootPane = getRootPane();
 		rootPane.setDefaultButton(okButton);
@@ -151,6 +200,18 @@ public class GoToDialog extends EscapableDialog {
 	 */
 	private boolean attemptToGetGoToLine() {
 
+		if (index != null) {
+			offset = resolveTarget(lineNumberField.getText(), index);
+			if (offset == -1) {
+				lineNumber = -1;
+				displayInvalidLineNumberMessage();
+				return false;
+			}
+			lineNumber = index.getLineOfOffset(offset) + 1;
+			setVisible(false);
+			return true;
+		}
+
 		try {
 
 			lineNumber = Integer.parseInt(lineNumberField.getText());
@@ -199,12 +260,7 @@ public class GoToDialog extends EscapableDialog {
 	 * @return A panel containing the two buttons.
 	 */
 	protected Container createButtonPanel(JButton ok, JButton cancel) {
-		JPanel buttonPanel = new JPanel(new GridLayout(1,2, 5,5));
-		buttonPanel.add(ok);
-		buttonPanel.add(cancel);
-		JPanel bottomPanel = new JPanel(new BorderLayout());
-		bottomPanel.add(buttonPanel, BorderLayout.LINE_END);
-		return bottomPanel;
+		return UIUtil.createButtonPanel(ok, cancel);
 	}
 
 
@@ -215,9 +271,11 @@ public class GoToDialog extends EscapableDialog {
 	 * can override.
 	 */
 	protected void displayInvalidLineNumberMessage() {
-		JOptionPane.showMessageDialog(this,
-				MSG.getString("LineNumberRange") + maxLineNumberAllowed + ".",
-				getErrorDialogTitle(),
+		String message = index == null ?
+				MSG.getString("LineNumberRange") + maxLineNumberAllowed + "." :
+				MessageFormat.format(MSG.getString("InvalidTarget"),
+						maxLineNumberAllowed);
+		JOptionPane.showMessageDialog(this, message, getErrorDialogTitle(),
 				JOptionPane.ERROR_MESSAGE);
 	}
 
@@ -229,6 +287,7 @@ public class GoToDialog extends EscapableDialog {
 	@Override
 	protected void escapePressed() {
 		lineNumber = -1;
+		offset = -1;
 		super.escapePressed();
 	}
 
@@ -261,6 +320,20 @@ public class GoToDialog extends EscapableDialog {
 	}
 
 
+	/**
+	 * Returns the offset the user entered to go to.  For line numbers and
+	 * percentages, this is the start of the line.
+	 *
+	 * @return The offset, or {@code -1} if the dialog was canceled or no
+	 *         text area was specified.
+	 * @see #setTextArea(JTextComponent)
+	 * @see #getLineNumber()
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+
 	/**
 	 * Returns the maximum line number the user is allowed to enter.
 	 *
@@ -272,6 +345,60 @@ public class GoToDialog extends EscapableDialog {
 	}
 
 
+	/**
+	 * Resolves a target entered by the user to an offset.
+	 *
+	 * @param text The text entered.
+	 * @param index The index of the document's lines.
+	 * @return The offset, or {@code -1} if the text is invalid or out of
+	 *         range.
+	 */
+	static int resolveTarget(String text, LineStartIndex index) {
+		text = text.trim();
+		try {
+			if (text.endsWith("%")) {
+				return resolvePercentage(text.substring(0, text.length() - 1),
+						index);
+			}
+			else if (text.startsWith("@")) {
+				long offs = Long.parseLong(text.substring(1));
+				return offs >= 0 && offs <= index.getLength() ? (int)offs : -1;
+			}
+			else if (text.startsWith("#")) {
+				long byteOffs = Long.parseLong(text.substring(1));
+				return byteOffs < 0 ? -1 : index.getOffsetOfByte(byteOffs);
+			}
+			return resolveLineAndColumn(text, index);
+		} catch (NumberFormatException nfe) {
+			return -1;
+		}
+	}
+
+
+	private static int resolveLineAndColumn(String text, LineStartIndex index) {
+		int colon = text.indexOf(':');
+		int line = Integer.parseInt(colon > -1 ? text.substring(0, colon) : text);
+		int column = colon > -1 ? Integer.parseInt(text.substring(colon + 1)) : 1;
+		if (line < 1 || line > index.getLineCount()) {
+			return -1;
+		}
+		if (column < 1 || column > index.getLineLength(line - 1) + 1) {
+			return -1;
+		}
+		return index.getLineStartOffset(line - 1) + column - 1;
+	}
+
+
+	private static int resolvePercentage(String text, LineStartIndex index) {
+		double percent = Double.parseDouble(text);
+		if (!(percent >= 0 && percent <= 100)) { // Also catches NaN
+			return -1;
+		}
+		int offs = (int)Math.round(index.getLength() * percent / 100);
+		return index.getLineStartOffset(index.getLineOfOffset(offs));
+	}
+
+
 	/**
 	 * Sets the title for the error dialog.
 	 *
@@ -307,6 +434,50 @@ public class GoToDialog extends EscapableDialog {
 	}
 
 
+	/**
+	 * Sets the text area to go to a location in.  This lets the user enter
+	 * offsets and percentages as well as line numbers, and sets the maximum
+	 * line number allowed.  Byte offsets are computed with the text area's
+	 * encoding and line separator if it is a {@code TextEditorPane}.<p>
+	 *
+	 * This method should be called each time before this dialog is
+	 * displayed.  The byte offsets of the document's lines are computed in
+	 * the background, so they are usually ready by the time the user
+	 * enters one.
+	 *
+	 * @param textArea The text area.  If this is {@code null}, only line
+	 *        numbers are allowed.
+	 * @see #getOffset()
+	 */
+	public void setTextArea(JTextComponent textArea) {
+
+		stopByteIndexWorker();
+		if (textArea == null) {
+			index = null;
+		}
+		else {
+			Document doc = textArea.getDocument();
+			Charset charset = Charset.defaultCharset();
+			if (textArea instanceof TextEditorPane) {
+				String encoding = ((TextEditorPane)textArea).getEncoding();
+				if (CharsetList.get().indexOf(encoding) > -1) {
+					charset = Charset.forName(encoding);
+				}
+			}
+			Object separator = doc.getProperty(
+					DefaultEditorKit.EndOfLineStringProperty);
+			index = new LineStartIndex(doc, charset, separator instanceof String ?
+					(String)separator : System.lineSeparator());
+			setMaxLineNumberAllowed(index.getLineCount());
+			byteIndexWorker = new ByteIndexWorker(index);
+			byteIndexWorker.execute();
+		}
+
+		formatsLabel.setVisible(index != null);
+		pack();
+	}
+
+
 	/**
 	 * Overrides <code>JDialog</code>'s <code>setVisible</code> method; decides
 	 * whether buttons are enabled if the user is enabling the dialog.
@@ -315,16 +486,49 @@ public class GoToDialog extends EscapableDialog {
 	public void setVisible(boolean visible) {
 		if (visible) {
 			lineNumber = -1;
+			offset = -1;
 			okButton.setEnabled(lineNumberField.getDocument().getLength()>0);
 			SwingUtilities.invokeLater(() -> {
 				lineNumberField.requestFocusInWindow();
 				lineNumberField.selectAll();
 			});
 		}
+		else {
+			stopByteIndexWorker();
+		}
 		super.setVisible(visible);
 	}
 
 
+	private void stopByteIndexWorker() {
+		if (byteIndexWorker != null) {
+			byteIndexWorker.cancel(true);
+			byteIndexWorker = null;
+		}
+	}
+
+
+	/**
+	 * Computes the byte offsets of a document's lines, so the EDT doesn't
+	 * have to when the user enters a byte offset.
+	 */
+	private static final class ByteIndexWorker extends SwingWorker<Void, Void> {
+
+		private final LineStartIndex index;
+
+		ByteIndexWorker(LineStartIndex index) {
+			this.index = index;
+		}
+
+		@Override
+		protected Void doInBackground() {
+			index.getByteLength();
+			return null;
+		}
+
+	}
+
+
 	/**
 	 * Listens for events in this dialog.
 	 */
@@ -359,7 +563,8 @@ public class GoToDialog extends EscapableDialog {
 
 
 	/**
-	 * A document filter that only lets the user enter digits.
+	 * A document filter that only lets the user enter digits, and the other
+	 * characters used in targets if a text area was specified.
 	 */
 	private final class NumberDocumentFilter extends DocumentFilter {
 
@@ -367,7 +572,7 @@ public class GoToDialog extends EscapableDialog {
 			if (str!=null) {
 				int origLength = str.length();
 				for (int i=0; i<str.length(); i++) {
-					if (!Character.isDigit(str.charAt(i))) {
+					if (!isAllowed(str.charAt(i))) {
 						str = str.substring(0, i) + str.substring(i+1);
 						i--;
 					}
@@ -380,6 +585,11 @@ public class GoToDialog extends EscapableDialog {
 			return str;
 		}
 
+		private boolean isAllowed(char ch) {
+			return Character.isDigit(ch) ||
+					(index != null && TARGET_CHARS.indexOf(ch) > -1);
+		}
+
 		@Override
 		public void insertString(FilterBypass fb, int offset, String string,
 				AttributeSet attr) throws BadLocationException {
@@ -0,0 +1,405 @@
+/*
+ * 10/18/2026
+ *
+ * GoToSymbolDialog.java - A dialog allowing you to skip to a symbol by name.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.awt.BorderLayout;
+import java.awt.ComponentOrientation;
+import java.awt.Container;
+import java.awt.Dialog;
+import java.awt.Frame;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.ResourceBundle;
+import javax.swing.AbstractAction;
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.InputMap;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+
+
+/**
+ * A "Go To Symbol" dialog allowing you to go to a class, function or method
+ * in an instance of RSyntaxTextArea by typing part of its name.  Matching
+ * is fuzzy, so {@code gsc} finds {@code getSymbolCount}; see
+ * {@link SymbolIndex#find(String, int)} for details.<p>
+ *
+ * The symbols come from a {@link SymbolIndex} installed on the text area.
+ * If one isn't already installed, the dialog installs one, and leaves it
+ * installed so it's ready the next time the dialog is shown.  While the
+ * index is being built, the dialog says so, and shows the results as soon
+ * as it's ready.<p>
+ *
+ * Example usage:
+ * <pre>
+ * GoToSymbolDialog dialog = new GoToSymbolDialog(window, textArea);
+ * dialog.setVisible(true);
+ * SymbolIndex.Symbol symbol = dialog.getSelectedSymbol();
+ * if (symbol != null) {
+ *    textArea.setCaretPosition(symbol.getOffset());
+ * }
+ * </pre>
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class GoToSymbolDialog extends EscapableDialog {
+
+	private SymbolIndex index;
+	private JTextField queryField;
+	private JList<SymbolIndex.Symbol> resultList;
+	private DefaultListModel<SymbolIndex.Symbol> resultModel;
+	private JLabel statusLabel;
+	private JButton okButton;
+	private JButton cancelButton;
+	private SymbolIndex.Symbol selectedSymbol;
+	private Listener listener;
+
+	/**
+	 * The maximum number of symbols listed.
+	 */
+	private static final int MAX_RESULTS = 200;
+
+	private static final ResourceBundle MSG = ResourceBundle.getBundle("org.fife.rsta.ui.GoToDialog");
+
+
+	/**
+	 * Creates a new <code>GoToSymbolDialog</code>.
+	 *
+	 * @param owner The parent dialog.
+	 * @param textArea The text area to go to a symbol in.
+	 */
+	public GoToSymbolDialog(Dialog owner, RSyntaxTextArea textArea) {
+		super(owner);
+		init(textArea);
+	}
+
+
+	/**
+	 * Creates a new <code>GoToSymbolDialog</code>.
+	 *
+	 * @param owner The parent window.
+	 * @param textArea The text area to go to a symbol in.
+	 */
+	public GoToSymbolDialog(Frame owner, RSyntaxTextArea textArea) {
+		super(owner);
+		init(textArea);
+	}
+
+
+	private void init(RSyntaxTextArea textArea) {
+
+		ComponentOrientation orientation = ComponentOrientation.
+									getOrientation(getLocale());
+
+		index = SymbolIndex.install(textArea);
+		listener = new Listener();
+
+		JPanel contentPane = new ResizableFrameContentPane(new BorderLayout());
+		contentPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		setContentPane(contentPane);
+
+		// The query field, which moves through the results on Up and Down
+		Box queryPane = new Box(BoxLayout.LINE_AXIS);
+		queryField = new JTextField(30);
+		queryField.getDocument().addDocumentListener(listener);
+		InputMap im = queryField.getInputMap();
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "selectPrevious");
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "selectNext");
+		queryField.getActionMap().put("selectPrevious", new MoveSelectionAction(-1));
+		queryField.getActionMap().put("selectNext", new MoveSelectionAction(1));
+		JLabel label = UIUtil.newLabel(MSG, "Symbol", queryField);
+		queryPane.add(label);
+		queryPane.add(Box.createHorizontalStrut(15));
+		queryPane.add(queryField);
+		queryPane.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+
+		resultModel = new DefaultListModel<>();
+		resultList = new JList<>(resultModel);
+		resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		resultList.setVisibleRowCount(12);
+		resultList.setCellRenderer(new SymbolCellRenderer());
+		resultList.setFocusable(false);
+		resultList.addMouseListener(listener);
+		JScrollPane sp = new JScrollPane(resultList);
+
+		statusLabel = new JLabel(" ");
+		statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+		JPanel centerPanel = new JPanel(new BorderLayout());
+		centerPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+		centerPanel.add(sp);
+		centerPanel.add(statusLabel, BorderLayout.SOUTH);
+
+		okButton = UIUtil.newButton(MSG, "OK");
+		okButton.addActionListener(listener);
+		cancelButton = UIUtil.newButton(MSG, "Cancel");
+		cancelButton.addActionListener(listener);
+		Container bottomPanel = createButtonPanel(okButton, cancelButton);
+
+		contentPane.add(queryPane, BorderLayout.NORTH);
+		contentPane.add(centerPanel);
+		contentPane.add(bottomPanel, BorderLayout.SOUTH);
+		getRootPane().setDefaultButton(okButton);
+		setTitle(MSG.getString("GotoSymbolDialogTitle"));
+		setModal(true);
+		applyComponentOrientation(orientation);
+		pack();
+		setLocationRelativeTo(getParent());
+
+	}
+
+
+	/**
+	 * Programmatically clicks the Cancel button.  Used for testing purposes.
+	 */
+	void clickCancelButton() {
+		cancelButton.doClick(0);
+	}
+
+
+	/**
+	 * Programmatically clicks the OK button. Used for testing purposes.
+	 */
+	void clickOkButton() {
+		okButton.doClick(0);
+	}
+
+
+	/**
+	 * Returns a panel containing the OK and Cancel buttons.  This panel is
+	 * added to the bottom of this dialog.  Applications that don't like these
+	 * buttons right-aligned in the dialog can override this method to change
+	 * that behavior.
+	 *
+	 * @param ok The OK button.
+	 * @param cancel The Cancel button.
+	 * @return A panel containing the two buttons.
+	 */
+	protected Container createButtonPanel(JButton ok, JButton cancel) {
+		return UIUtil.createButtonPanel(ok, cancel);
+	}
+
+
+	/**
+	 * Called when the user clicks Cancel or hits the Escape key.  This
+	 * hides the dialog.
+	 */
+	@Override
+	protected void escapePressed() {
+		selectedSymbol = null;
+		super.escapePressed();
+	}
+
+
+	/**
+	 * Returns the symbol the user chose to go to.
+	 *
+	 * @return The symbol, or {@code null} if the dialog was canceled.
+	 */
+	public SymbolIndex.Symbol getSelectedSymbol() {
+		return selectedSymbol;
+	}
+
+
+	/**
+	 * Returns the query the user has typed.
+	 *
+	 * @return The query.
+	 * @see #setQuery(String)
+	 */
+	public String getQuery() {
+		return queryField.getText();
+	}
+
+
+	/**
+	 * Selects the highlighted symbol and hides this dialog, if a symbol is
+	 * highlighted.
+	 */
+	private void okPressed() {
+		SymbolIndex.Symbol symbol = resultList.getSelectedValue();
+		if (symbol != null) {
+			selectedSymbol = symbol;
+			setVisible(false);
+		}
+	}
+
+
+	/**
+	 * Re-runs the query against the index.
+	 */
+	private void refreshResults() {
+
+		resultModel.clear();
+		if (!index.isReady()) {
+			statusLabel.setText(MSG.getString("IndexingSymbols"));
+			okButton.setEnabled(false);
+			return;
+		}
+
+		List<SymbolIndex.Symbol> results = index.find(getQuery().trim(), MAX_RESULTS);
+		for (SymbolIndex.Symbol symbol : results) {
+			resultModel.addElement(symbol);
+		}
+		if (!results.isEmpty()) {
+			resultList.setSelectedIndex(0);
+			resultList.ensureIndexIsVisible(0);
+		}
+		statusLabel.setText(MessageFormat.format(MSG.getString("SymbolCount"),
+				index.getSymbolCount()));
+		okButton.setEnabled(!results.isEmpty());
+	}
+
+
+	/**
+	 * Sets the query, for example to the identifier at the caret.
+	 *
+	 * @param query The query.
+	 * @see #getQuery()
+	 */
+	public void setQuery(String query) {
+		queryField.setText(query);
+		queryField.selectAll();
+	}
+
+
+	/**
+	 * Overridden to listen for changes to the index while this dialog is
+	 * visible.
+	 */
+	@Override
+	public void setVisible(boolean visible) {
+		if (visible) {
+			selectedSymbol = null;
+			index.addChangeListener(listener);
+			refreshResults();
+			queryField.requestFocusInWindow();
+		}
+		else {
+			index.removeChangeListener(listener);
+		}
+		super.setVisible(visible);
+	}
+
+
+	/**
+	 * Listens for events in this dialog.
+	 */
+	private final class Listener extends MouseAdapter implements ActionListener,
+			ChangeListener, DocumentListener {
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			Object source = e.getSource();
+			if (okButton == source) {
+				okPressed();
+			}
+			else if (cancelButton == source) {
+				escapePressed();
+			}
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			refreshResults();
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			if (e.getClickCount() == 2 &&
+					resultList.locationToIndex(e.getPoint()) > -1) {
+				okPressed();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			refreshResults();
+		}
+
+		@Override
+		public void stateChanged(ChangeEvent e) {
+			refreshResults(); // The index was built or changed
+		}
+
+	}
+
+
+	/**
+	 * Moves the selection in the result list while focus is in the query
+	 * field.
+	 */
+	private final class MoveSelectionAction extends AbstractAction {
+
+		private final int delta;
+
+		MoveSelectionAction(int delta) {
+			this.delta = delta;
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			int size = resultModel.getSize();
+			if (size > 0) {
+				int selected = resultList.getSelectedIndex() + delta;
+				selected = Math.max(0, Math.min(size - 1, selected));
+				resultList.setSelectedIndex(selected);
+				resultList.ensureIndexIsVisible(selected);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Renders a symbol with the line it's declared on.
+	 */
+	private static final class SymbolCellRenderer extends DefaultListCellRenderer {
+
+		@Override
+		public JComponent getListCellRendererComponent(JList<?> list, Object value,
+				int index, boolean selected, boolean hasFocus) {
+			super.getListCellRendererComponent(list, value, index, selected, hasFocus);
+			if (value instanceof SymbolIndex.Symbol) {
+				SymbolIndex.Symbol symbol = (SymbolIndex.Symbol)value;
+				setText(symbol.getName() + "   " + MessageFormat.format(
+						MSG.getString("SymbolLocation"), symbol.getLine() + 1));
+			}
+			return this;
+		}
+
+	}
+
+
+}
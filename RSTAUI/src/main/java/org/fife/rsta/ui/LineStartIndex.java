@@ -0,0 +1,293 @@
+/*
+ * 10/18/2026
+ *
+ * LineStartIndex.java - Maps between lines and offsets in a document.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Segment;
+
+
+/**
+ * Maps between the lines and offsets of a document, used to resolve "go to"
+ * targets such as character offsets, byte offsets and percentages to lines
+ * in {@link GoToDialog}.  Lines are looked up in the document's own element
+ * structure, so creating an index is cheap, and lookups take
+ * {@code O(log n)} time no matter how large the document is.<p>
+ *
+ * Byte offsets are offsets in the document's file, as it would be saved:
+ * with a given encoding, and with each line terminated by a given line
+ * separator (documents themselves always use {@code "\n"}).  Any byte order
+ * mark written by the encoding is included.  The byte offsets of lines are
+ * only computed the first time a byte offset is looked up, since this
+ * requires encoding the entire document.  This can be done ahead of time on
+ * a worker thread by calling {@link #getByteLength()}.<p>
+ *
+ * The byte offsets are not updated when the document is modified; a new
+ * index should be created if it is.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class LineStartIndex {
+
+	private final Document doc;
+	private final Element root;
+	private final Charset charset;
+	private final String lineSeparator;
+	private long[] byteLineStarts;
+	private long byteLength;
+
+	/**
+	 * The number of lines encoded each time the document is locked when
+	 * computing byte offsets.
+	 */
+	private static final int LINES_PER_LOCK = 4096;
+
+
+	/**
+	 * Creates an index of a document's lines.
+	 *
+	 * @param doc The document.
+	 * @param charset The encoding used for byte offsets.
+	 * @param lineSeparator The line separator used for byte offsets.
+	 */
+	public LineStartIndex(Document doc, Charset charset, String lineSeparator) {
+		this.doc = doc;
+		this.root = doc.getDefaultRootElement();
+		this.charset = charset;
+		this.lineSeparator = lineSeparator;
+	}
+
+
+	/**
+	 * Returns the length of the document's file, in bytes.  The first call
+	 * to this method encodes the entire document.  This method can be
+	 * called from any thread.
+	 *
+	 * @return The length of the file.
+	 * @throws CancellationException If the document is being encoded, and
+	 *         the calling thread is interrupted.
+	 */
+	public long getByteLength() {
+		ensureByteIndex();
+		return byteLength;
+	}
+
+
+	/**
+	 * Returns the length of the byte order mark the encoding writes at the
+	 * start of its output, if any.  The byte index includes it, but encoding
+	 * from the start of a line other than the first shouldn't.
+	 */
+	private int getByteOrderMarkLength() {
+		int one = "a".getBytes(charset).length;
+		int two = "aa".getBytes(charset).length;
+		return 2 * one - two;
+	}
+
+
+	/**
+	 * Returns the length of the document.
+	 *
+	 * @return The length of the document.
+	 */
+	public int getLength() {
+		return doc.getLength();
+	}
+
+
+	/**
+	 * Returns the number of lines in the document.
+	 *
+	 * @return The number of lines.  This is always at least {@code 1}.
+	 */
+	public int getLineCount() {
+		return root.getElementCount();
+	}
+
+
+	/**
+	 * Returns the line containing an offset.
+	 *
+	 * @param offs The offset.  This is clamped to the document's bounds.
+	 * @return The 0-based line.
+	 */
+	public int getLineOfOffset(int offs) {
+		return root.getElementIndex(offs);
+	}
+
+
+	/**
+	 * Returns the length of a line, not including its terminator.
+	 *
+	 * @param line The 0-based line.
+	 * @return The length of the line.
+	 */
+	public int getLineLength(int line) {
+		Element elem = root.getElement(line);
+		return elem.getEndOffset() - 1 - elem.getStartOffset();
+	}
+
+
+	/**
+	 * Returns the offset of the start of a line.
+	 *
+	 * @param line The 0-based line.
+	 * @return The offset.
+	 */
+	public int getLineStartOffset(int line) {
+		return root.getElement(line).getStartOffset();
+	}
+
+
+	/**
+	 * Returns the character offset of the character containing a byte
+	 * offset in the document's file.  The first call to this method encodes
+	 * the entire document, unless {@link #getByteLength()} was called
+	 * first.
+	 *
+	 * @param byteOffs The byte offset.
+	 * @return The character offset, or {@code -1} if the byte offset is past
+	 *         the end of the file.
+	 * @see #getByteLength()
+	 */
+	public int getOffsetOfByte(long byteOffs) {
+
+		long length = getByteLength();
+		if (byteOffs < 0 || byteOffs >= length) {
+			return byteOffs == length ? getLength() : -1;
+		}
+
+		int index = Arrays.binarySearch(byteLineStarts, byteOffs);
+		int line = index >= 0 ? index : Math.max(0, -index - 2);
+		int offs = getLineStartOffset(line);
+		int lineLength = getLineLength(line);
+		Segment s = new Segment();
+		try {
+			doc.getText(offs, lineLength, s);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return offs;
+		}
+
+		// Walk the line a code point at a time, with a single encoder.  Like
+		// the one that built the index, it writes any byte order mark first
+		CharsetEncoder encoder = newEncoder();
+		ByteBuffer out = ByteBuffer.allocate(64);
+		CharBuffer in = CharBuffer.wrap(s);
+		long pos = byteLineStarts[line] - (line == 0 ? 0 : getByteOrderMarkLength());
+		for (int i = 0; i < lineLength; ) {
+			int cpLength = Character.charCount(Character.codePointAt(s, i));
+			in.limit(i + cpLength);
+			pos += encode(encoder, in, out, false);
+			if (pos > byteOffs) {
+				return offs + i;
+			}
+			i += cpLength;
+		}
+		return offs + lineLength; // In the line terminator
+	}
+
+
+	private CharsetEncoder newEncoder() {
+		return charset.newEncoder().
+				onMalformedInput(CodingErrorAction.REPLACE).
+				onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+
+	/**
+	 * Encodes characters, returning the number of bytes produced.
+	 */
+	private static int encode(CharsetEncoder encoder, CharBuffer in,
+			ByteBuffer out, boolean endOfInput) {
+		int count = 0;
+		CoderResult cr;
+		do {
+			cr = encoder.encode(in, out, endOfInput);
+			count += out.position();
+			out.clear();
+		} while (cr.isOverflow());
+		return count;
+	}
+
+
+	/**
+	 * Computes the byte offset of each line, in a single pass over the
+	 * document with one encoder.  The document is read-locked a batch of
+	 * lines at a time, so a worker thread doing this doesn't hold up edits
+	 * for long.
+	 *
+	 * @throws CancellationException If the calling thread is interrupted.
+	 */
+	private synchronized void ensureByteIndex() {
+
+		if (byteLineStarts != null) {
+			return;
+		}
+
+		int lineCount = getLineCount();
+		long[] starts = new long[lineCount];
+		CharsetEncoder encoder = newEncoder();
+		ByteBuffer out = ByteBuffer.allocate(8 * 1024);
+		CharBuffer separator = CharBuffer.wrap(lineSeparator);
+		Segment s = new Segment();
+		long[] pos = { 0 };
+
+		for (int first = 0; first < lineCount; first += LINES_PER_LOCK) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException();
+			}
+			int batchStart = first;
+			int batchEnd = Math.min(lineCount, first + LINES_PER_LOCK);
+			doc.render(() -> {
+				try {
+					for (int line = batchStart; line < batchEnd; line++) {
+						if (line > 0) {
+							pos[0] += encode(encoder, separator.duplicate(), out, false);
+						}
+						starts[line] = pos[0];
+						doc.getText(getLineStartOffset(line), getLineLength(line), s);
+						pos[0] += encode(encoder, CharBuffer.wrap(s), out, false);
+					}
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+				}
+			});
+		}
+		pos[0] += encode(encoder, CharBuffer.allocate(0), out, true);
+		pos[0] += flush(encoder, out);
+
+		byteLineStarts = starts;
+		byteLength = pos[0];
+	}
+
+
+	private static int flush(CharsetEncoder encoder, ByteBuffer out) {
+		int count = 0;
+		CoderResult cr;
+		do {
+			cr = encoder.flush(out);
+			count += out.position();
+			out.clear();
+		} while (cr.isOverflow());
+		return count;
+	}
+
+
+}
@@ -0,0 +1,277 @@
+/*
+ * 10/18/2026
+ *
+ * LineTerminatorCensus.java - Counts each kind of line terminator in text.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.CancellationException;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+import org.fife.rsta.ui.search.ChunkedReplaceAll;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * The number of each kind of line terminator ({@code "\r\n"}, {@code "\n"}
+ * and {@code "\r"}) in some text, so files with mixed line endings can be
+ * spotted.  Instances of this class are immutable.<p>
+ *
+ * Note that when a {@code TextEditorPane} loads a file, all of its line
+ * terminators are converted to {@code "\n"} in the document, and the first
+ * one found becomes the text area's line separator, used for every line when
+ * the file is saved.  So to see the line terminators actually in a file, it
+ * should be read with {@link #compute(Reader)}.  Documents can contain other
+ * terminators if text containing them is pasted or set programmatically;
+ * these are written to the file as-is, and can be converted with
+ * {@link #normalize(RTextArea)}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see TextFilePropertiesDialog
+ */
+public final class LineTerminatorCensus {
+
+	private final int crlfCount;
+	private final int lfCount;
+	private final int crCount;
+
+	/**
+	 * The number of characters read at a time.
+	 */
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param crlfCount The number of {@code "\r\n"} terminators.
+	 * @param lfCount The number of lone {@code "\n"} terminators.
+	 * @param crCount The number of lone {@code "\r"} terminators.
+	 */
+	LineTerminatorCensus(int crlfCount, int lfCount, int crCount) {
+		this.crlfCount = crlfCount;
+		this.lfCount = lfCount;
+		this.crCount = crCount;
+	}
+
+
+	/**
+	 * Counts the line terminators in some text.
+	 *
+	 * @param text The text.
+	 * @return The counts.
+	 */
+	public static LineTerminatorCensus compute(CharSequence text) {
+		Counter counter = new Counter();
+		for (int i = 0; i < text.length(); i++) {
+			counter.add(text.charAt(i));
+		}
+		return counter.finish();
+	}
+
+
+	/**
+	 * Counts the line terminators in a document, in a single pass over its
+	 * content under its read lock.  This method can be called from any
+	 * thread.
+	 *
+	 * @param doc The document.
+	 * @return The counts.
+	 * @throws CancellationException If the calling thread is interrupted.
+	 */
+	public static LineTerminatorCensus compute(Document doc) {
+
+		Counter counter = new Counter();
+
+		doc.render(() -> {
+			Segment s = new Segment();
+			s.setPartialReturn(true);
+			int length = doc.getLength();
+			try {
+				for (int offs = 0; offs < length; offs += s.count) {
+					if (Thread.currentThread().isInterrupted()) {
+						throw new CancellationException();
+					}
+					doc.getText(offs, Math.min(CHUNK_SIZE, length - offs), s);
+					counter.add(s.array, s.offset, s.count);
+				}
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		});
+
+		return counter.finish();
+	}
+
+
+	/**
+	 * Counts the line terminators in text read from a reader, such as a file
+	 * on disk.  The reader is read to the end, but not closed.
+	 *
+	 * @param r The reader.
+	 * @return The counts.
+	 * @throws IOException If an IO error occurs.
+	 * @throws CancellationException If the calling thread is interrupted.
+	 */
+	public static LineTerminatorCensus compute(Reader r) throws IOException {
+		Counter counter = new Counter();
+		char[] buf = new char[CHUNK_SIZE];
+		int count;
+		while ((count = r.read(buf)) > -1) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException();
+			}
+			counter.add(buf, 0, count);
+		}
+		return counter.finish();
+	}
+
+
+	/**
+	 * Returns the number of lone {@code "\r"} terminators.
+	 *
+	 * @return The number of CR terminators.
+	 */
+	public int getCRCount() {
+		return crCount;
+	}
+
+
+	/**
+	 * Returns the number of {@code "\r\n"} terminators.
+	 *
+	 * @return The number of CRLF terminators.
+	 */
+	public int getCRLFCount() {
+		return crlfCount;
+	}
+
+
+	/**
+	 * Returns the number of lone {@code "\n"} terminators.
+	 *
+	 * @return The number of LF terminators.
+	 */
+	public int getLFCount() {
+		return lfCount;
+	}
+
+
+	/**
+	 * Returns the total number of line terminators.
+	 *
+	 * @return The number of line terminators.
+	 */
+	public int getTotalCount() {
+		return crlfCount + lfCount + crCount;
+	}
+
+
+	/**
+	 * Returns whether there is more than one kind of line terminator.
+	 *
+	 * @return Whether the line terminators are mixed.
+	 */
+	public boolean isMixed() {
+		int kinds = (crlfCount > 0 ? 1 : 0) + (lfCount > 0 ? 1 : 0) +
+				(crCount > 0 ? 1 : 0);
+		return kinds > 1;
+	}
+
+
+	/**
+	 * Starts converting all {@code "\r\n"} and {@code "\r"} line terminators
+	 * in a text area's document to {@code "\n"}, the terminator documents
+	 * normally use.  Only the terminators themselves are edited, so the text
+	 * between them, and any highlights, folds or positions in it, are
+	 * untouched.<p>
+	 *
+	 * The terminators are found on a worker thread and converted in small,
+	 * time-boxed slices on the EDT by a {@link ChunkedReplaceAll}, so even
+	 * documents with hundreds of thousands of them don't freeze the UI.  All
+	 * edits are made in one atomic edit, so they are undone in one step.
+	 * This method returns immediately; listen to the returned object for
+	 * {@link ChunkedReplaceAll#RUNNING_PROPERTY} to know when it's done.<p>
+	 *
+	 * This method should be called on the EDT.
+	 *
+	 * @param textArea The text area.
+	 * @return The running conversion.  Its replaced count is the number of
+	 *         line terminators converted.
+	 */
+	public static ChunkedReplaceAll normalize(RTextArea textArea) {
+		SearchContext context = new SearchContext("\\r\\n?", true);
+		context.setRegularExpression(true);
+		context.setReplaceWith("\n");
+		ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+		replaceAll.start(context);
+		return replaceAll;
+	}
+
+
+	@Override
+	public String toString() {
+		return "[LineTerminatorCensus: crlf=" + crlfCount +
+				", lf=" + lfCount +
+				", cr=" + crCount +
+				"]";
+	}
+
+
+	/**
+	 * Counts line terminators as text is fed to it a chunk at a time.  A
+	 * {@code "\r\n"} split between two chunks is counted once.
+	 */
+	private static final class Counter {
+
+		private int crlfCount;
+		private int lfCount;
+		private int crCount;
+		private boolean prevCR;
+
+		void add(char ch) {
+			if (ch == '\n') {
+				if (prevCR) {
+					crlfCount++;
+				}
+				else {
+					lfCount++;
+				}
+				prevCR = false;
+			}
+			else {
+				if (prevCR) {
+					crCount++;
+				}
+				prevCR = ch == '\r';
+			}
+		}
+
+		void add(char[] array, int offset, int count) {
+			int end = offset + count;
+			for (int i = offset; i < end; i++) {
+				add(array[i]);
+			}
+		}
+
+		LineTerminatorCensus finish() {
+			if (prevCR) {
+				crCount++;
+				prevCR = false;
+			}
+			return new LineTerminatorCensus(crlfCount, lfCount, crCount);
+		}
+
+	}
+
+
+}
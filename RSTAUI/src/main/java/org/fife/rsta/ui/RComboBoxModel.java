@@ -9,6 +9,9 @@
  */
 package org.fife.rsta.ui;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Vector;
 
 import javax.swing.DefaultComboBoxModel;
@@ -24,7 +27,15 @@ import javax.swing.DefaultComboBoxModel;
  * It also won't let you add an item to the combo box twice (i.e., no
  * duplicates), and it adds new items to the beginning of the list, not
  * the end (as <code>JComboBox</code>'s do by default).<br><br>
- * It defaults to 8 elements remembered.
+ * It defaults to 8 elements remembered.<p>
+ *
+ * Items are kept in a ring buffer, with an index of each item's position,
+ * so adding a new item to the front (and dropping the last one if the
+ * model is full) and checking whether an item is already in the model take
+ * constant time.  Moving an item that's already in the model to the front
+ * only shifts the items before it.  Each of these operations fires a single
+ * <code>ListDataEvent</code>, so an open popup is only laid out once, even
+ * for models holding thousands of items.
  *
  * @author Robert Futrell
  * @version 0.8
@@ -39,12 +50,34 @@ public class RComboBoxModel<E> extends DefaultComboBoxModel<E> {
 	 */
 	private int maxNumElements;
 
+	/**
+	 * The items, in a ring buffer.  The item at absolute position
+	 * <code>p</code> is in slot <code>p mod ring.length</code>.
+	 */
+	private Object[] ring;
+
+	/**
+	 * The absolute position of the first item.  This is decremented when an
+	 * item is added to the front, so the positions of the other items don't
+	 * change.
+	 */
+	private long headPos;
+
+	private int size;
+
+	/**
+	 * Maps each item to its absolute position.
+	 */
+	private final Map<Object, Long> positions;
+
 
 	/**
 	 * Creates a new combo box model with a maximum element count of
 	 * <code>8</code>.
 	 */
 	public RComboBoxModel() {
+		ring = new Object[8];
+		positions = new HashMap<>();
 		setMaxNumElements(8);
 	}
 
@@ -56,8 +89,32 @@ public class RComboBoxModel<E> extends DefaultComboBoxModel<E> {
 	 * @param items The initial items to use to populate the combo box.
 	 */
 	public RComboBoxModel(E[] items) {
-		super(items);
-		setMaxNumElements(8);
+		this(items, 8);
+	}
+
+
+	/**
+	 * Creates a new combo box model.
+	 *
+	 * @param items The initial items to use to populate the combo box.
+	 *        Duplicates are ignored.
+	 * @param maxNumElements The maximum number of items this combo box can
+	 *        hold.  If there are more items than this, the last ones are
+	 *        dropped.
+	 * @see #setMaxNumElements(int)
+	 */
+	public RComboBoxModel(E[] items, int maxNumElements) {
+		this();
+		setMaxNumElements(maxNumElements);
+		for (E item : items) {
+			if (size < this.maxNumElements && !positions.containsKey(item)) {
+				ensureCapacity(size + 1);
+				set(size++, item);
+			}
+		}
+		if (size > 0) {
+			setSelectedItem(getElementAt(0));
+		}
 	}
 
 
@@ -67,9 +124,9 @@ public class RComboBoxModel<E> extends DefaultComboBoxModel<E> {
 	 *
 	 * @param v The initial items to use to populate the combo box.
 	 */
+	@SuppressWarnings("unchecked")
 	public RComboBoxModel(Vector<E> v) {
-		super(v);
-		setMaxNumElements(8);
+		this((E[])v.toArray(), 8);
 	}
 
 
@@ -86,12 +143,84 @@ public class RComboBoxModel<E> extends DefaultComboBoxModel<E> {
 
 
 	/**
-	 * Ensures the number if items remembered by this combo box is valid.
+	 * Adds items to the end of the list.  Items already in the list are
+	 * moved instead.
+	 *
+	 * @param c The items to add.
+	 */
+	// Overrides a method added in Java 11, without @Override for Java 8
+	public void addAll(Collection<? extends E> c) {
+		addAll(getSize(), c);
+	}
+
+
+	/**
+	 * Inserts items into the list.  Items already in the list are moved
+	 * instead.
+	 *
+	 * @param index The index to insert the items at.
+	 * @param c The items to add.
 	 */
-	private void ensureValidItemCount() {
-		while (getSize()>maxNumElements) {
-            removeElementAt(getSize() - 1);
-        }
+	// Overrides a method added in Java 11, without @Override for Java 8
+	public void addAll(int index, Collection<? extends E> c) {
+		for (E item : c) {
+			int max = getIndexOf(item)>-1 ? getSize() - 1 : getSize();
+			insertElementAt(item, Math.min(index, max));
+			int pos = getIndexOf(item);
+			if (pos==-1) { // The list is full
+				break;
+			}
+			index = pos + 1;
+		}
+	}
+
+
+	/**
+	 * Ensures the ring buffer can hold a number of items.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > ring.length) {
+			Object[] old = ring;
+			ring = new Object[Math.max(capacity, Math.min(2 * old.length,
+					maxNumElements))];
+			for (long p = headPos; p < headPos + size; p++) {
+				ring[slot(p)] = old[(int)Math.floorMod(p, (long)old.length)];
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the item at an index.
+	 *
+	 * @param index The index.
+	 * @return The item, or <code>null</code> if the index is out of bounds.
+	 */
+	@Override
+	public E getElementAt(int index) {
+		if (index >= 0 && index < size) {
+			return get(index);
+		}
+		return null;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private E get(int index) {
+		return (E)ring[slot(headPos + index)];
+	}
+
+
+	/**
+	 * Returns the index of an item.  This takes constant time.
+	 *
+	 * @param anObject The item.
+	 * @return The index, or <code>-1</code> if the item isn't in the list.
+	 */
+	@Override
+	public int getIndexOf(Object anObject) {
+		Long pos = positions.get(anObject);
+		return pos == null ? -1 : (int)(pos - headPos);
 	}
 
 
@@ -106,9 +235,21 @@ public class RComboBoxModel<E> extends DefaultComboBoxModel<E> {
 
 
 	/**
-	 * Adds an item at a specified index.  The implementation of this method
-	 * should notify all registered <code>ListDataListeners</code> that the
-	 * item has been added.
+	 * Returns the number of items in the list.
+	 *
+	 * @return The number of items.
+	 */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+
+	/**
+	 * Adds an item at a specified index.  If the item is already in the
+	 * list, it's moved to that index.  If the list is full, the last item is
+	 * dropped.  A single event is fired to registered
+	 * <code>ListDataListeners</code>.
 	 *
 	 * @param anObject The <code>Object</code> to be added.
 	 * @param index Location to add the object.
@@ -120,13 +261,166 @@ public class RComboBoxModel<E> extends DefaultComboBoxModel<E> {
 		if (oldPos==index) { // Already at the desired location.
 			return;
 		}
-		if (oldPos>-1) {	// Remove it first if it's somewhere else.
-			removeElement(anObject);
+		if (oldPos>-1) {
+			moveElement(oldPos, index);
+		}
+		else {
+			insertNewElement(anObject, index);
 		}
 
-		super.insertElementAt(anObject, index);
-		ensureValidItemCount();
+	}
 
+
+	/**
+	 * Inserts an item that isn't in the list yet.
+	 */
+	private void insertNewElement(E anObject, int index) {
+
+		if (index<0 || index>size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		boolean full = size==maxNumElements;
+		if (full) {
+			if (index==size) { // Would be dropped immediately
+				return;
+			}
+			positions.remove(get(size - 1));
+			ring[slot(headPos + size - 1)] = null;
+			size--;
+		}
+		ensureCapacity(size + 1);
+
+		// Shift whichever side of the insertion point is shorter
+		if (index <= size/2) {
+			headPos--;
+			for (int i=0; i<index; i++) {
+				set(i, get(i + 1));
+			}
+		}
+		else {
+			for (int i=size; i>index; i--) {
+				set(i, get(i - 1));
+			}
+		}
+		set(index, anObject);
+		size++;
+
+		if (full) {
+			fireContentsChanged(this, index, size - 1);
+		}
+		else {
+			fireIntervalAdded(this, index, index);
+		}
+
+	}
+
+
+	/**
+	 * Moves an item already in the list to another index.
+	 */
+	private void moveElement(int from, int to) {
+
+		if (to<0 || to>=size) {
+			throw new ArrayIndexOutOfBoundsException(to);
+		}
+		E item = get(from);
+		if (from > to) {
+			for (int i=from; i>to; i--) {
+				set(i, get(i - 1));
+			}
+		}
+		else {
+			for (int i=from; i<to; i++) {
+				set(i, get(i + 1));
+			}
+		}
+		set(to, item);
+		fireContentsChanged(this, Math.min(from, to), Math.max(from, to));
+
+	}
+
+
+	/**
+	 * Removes all items.
+	 */
+	@Override
+	public void removeAllElements() {
+		int oldSize = size;
+		ring = new Object[Math.min(ring.length, 8)];
+		positions.clear();
+		headPos = 0;
+		size = 0;
+		super.removeAllElements(); // Clears the selection
+		if (oldSize>0) {
+			fireIntervalRemoved(this, 0, oldSize - 1);
+		}
+	}
+
+
+	/**
+	 * Removes an item, if it's in the list.
+	 *
+	 * @param anObject The item to remove.
+	 */
+	@Override
+	public void removeElement(Object anObject) {
+		int index = getIndexOf(anObject);
+		if (index>-1) {
+			removeElementAt(index);
+		}
+	}
+
+
+	/**
+	 * Removes the item at an index.  If it's selected, the item before it
+	 * (or after it, if it's the first item) is selected.
+	 *
+	 * @param index The index of the item to remove.
+	 */
+	@Override
+	public void removeElementAt(int index) {
+
+		if (index<0 || index>=size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+
+		E item = get(index);
+		if (item==getSelectedItem()) {
+			if (index==0) {
+				setSelectedItem(size==1 ? null : get(1));
+			}
+			else {
+				setSelectedItem(get(index - 1));
+			}
+		}
+
+		positions.remove(item);
+		if (index < size/2) {
+			for (int i=index; i>0; i--) {
+				set(i, get(i - 1));
+			}
+			ring[slot(headPos)] = null;
+			headPos++;
+		}
+		else {
+			for (int i=index; i<size - 1; i++) {
+				set(i, get(i + 1));
+			}
+			ring[slot(headPos + size - 1)] = null;
+		}
+		size--;
+
+		fireIntervalRemoved(this, index, index);
+	}
+
+
+	/**
+	 * Puts an item at an index and records its position.
+	 */
+	private void set(int index, E item) {
+		long pos = headPos + index;
+		ring[slot(pos)] = item;
+		positions.put(item, pos);
 	}
 
 
@@ -139,7 +433,20 @@ public class RComboBoxModel<E> extends DefaultComboBoxModel<E> {
 	 */
 	public void setMaxNumElements(int numElements) {
 		maxNumElements = numElements<=0 ? 4 : numElements;
-		ensureValidItemCount();
+		int oldSize = size;
+		if (oldSize>maxNumElements) {
+			for (int i=maxNumElements; i<oldSize; i++) {
+				positions.remove(get(i));
+				ring[slot(headPos + i)] = null;
+			}
+			size = maxNumElements;
+			fireIntervalRemoved(this, maxNumElements, oldSize - 1);
+		}
+	}
+
+
+	private int slot(long pos) {
+		return (int)Math.floorMod(pos, (long)ring.length);
 	}
 
 
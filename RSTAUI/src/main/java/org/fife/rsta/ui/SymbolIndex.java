@@ -0,0 +1,753 @@
+/*
+ * 10/18/2026
+ *
+ * SymbolIndex.java - An index of the symbols declared in a text area.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingWorker;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.EventListenerList;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Segment;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+import org.fife.ui.rsyntaxtextarea.TokenTypes;
+
+
+/**
+ * An index of the symbols (classes, functions, methods and the like)
+ * declared in an {@code RSyntaxTextArea}, for {@link GoToSymbolDialog}.
+ * Symbols are found by scanning the text area's token stream for
+ * identifiers following declaration keywords such as {@code class} or
+ * {@code def}, and for identifiers followed by {@code "("} and preceded by
+ * a type or identifier, as in {@code void foo(} or {@code String foo(}.
+ * This works reasonably well for most C-like and scripting languages,
+ * without needing a parser for each.<p>
+ *
+ * The index is built in the background when it is installed, using a token
+ * maker of its own so the text area isn't affected.  After that, each edit
+ * only re-tokenizes the lines it touches (plus following lines, if the edit
+ * opens or closes a multi-line comment or string), so the index is always
+ * up to date.  Fuzzy queries via {@link #find(String, int)} check each
+ * symbol against a bit mask of the characters in its name before scoring
+ * it, and keep only the best results in a bounded heap, so they take well
+ * under a millisecond per thousand symbols.<p>
+ *
+ * An index is installed on a text area with {@link #install(RSyntaxTextArea)},
+ * and can be retrieved later with {@link #get(RSyntaxTextArea)}.  It follows
+ * the text area if its document or syntax style is changed.  This class
+ * should only be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class SymbolIndex {
+
+	private final RSyntaxTextArea textArea;
+	private final Listener listener;
+	private final EventListenerList listenerList;
+	private final AtomicInteger modCount;
+	private final Segment segment;
+
+	private Document doc;
+	private TokenMaker tokenMaker;
+	private List<Line> lines;
+	private int symbolCount;
+	private BuildWorker worker;
+
+	/**
+	 * The client property the index for a text area is stored under.
+	 */
+	private static final String CLIENT_PROPERTY = "SymbolIndex";
+
+	/**
+	 * Lines read from the document at a time while building the index.
+	 */
+	private static final int LINES_PER_CHUNK = 1000;
+
+	/**
+	 * The number of times building the index is restarted because the
+	 * document was modified, before giving up and holding its read lock
+	 * for the entire pass.
+	 */
+	private static final int MAX_RESTARTS = 3;
+
+
+	private SymbolIndex(RSyntaxTextArea textArea) {
+		this.textArea = textArea;
+		listener = new Listener();
+		listenerList = new EventListenerList();
+		modCount = new AtomicInteger();
+		segment = new Segment();
+	}
+
+
+	/**
+	 * Adds a listener notified when the index is built, and whenever it
+	 * changes after that.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	public void addChangeListener(ChangeListener l) {
+		listenerList.add(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Starts building the index for the current document in the background.
+	 */
+	private void attach() {
+		doc = textArea.getDocument();
+		tokenMaker = createTokenMaker();
+		lines = null;
+		symbolCount = 0;
+		startBuild(0);
+	}
+
+
+	private TokenMaker createTokenMaker() {
+		return TokenMakerFactory.getDefaultInstance().getTokenMaker(
+				textArea.getSyntaxEditingStyle());
+	}
+
+
+	/**
+	 * Returns the symbols best matching a query, best first.  The query's
+	 * characters must appear in a symbol's name in order, ignoring case, but
+	 * don't have to be adjacent; matches at the start of the name and of
+	 * words within it ({@code "gsc"} for {@code getSymbolCount}), and runs
+	 * of adjacent characters, rank higher.
+	 *
+	 * @param query The query.  If this is empty, the first symbols in the
+	 *        document are returned.
+	 * @param maxResults The maximum number of results to return.
+	 * @return The matching symbols.  This is empty if the index isn't ready.
+	 * @see #isReady()
+	 */
+	public List<Symbol> find(String query, int maxResults) {
+
+		if (lines == null || maxResults <= 0) {
+			return Collections.emptyList();
+		}
+
+		String lowerQuery = query.toLowerCase(Locale.ROOT);
+		long queryMask = SymbolMatcher.charMask(lowerQuery);
+		PriorityQueue<Match> best = new PriorityQueue<>(maxResults + 1,
+				Match.COMPARATOR);
+
+		for (int i = 0; i < lines.size(); i++) {
+			for (Entry entry : lines.get(i).symbols) {
+				if ((entry.mask & queryMask) != queryMask) {
+					continue;
+				}
+				int score = SymbolMatcher.score(lowerQuery, entry.name);
+				if (score != SymbolMatcher.NO_MATCH) {
+					best.add(new Match(entry, i, score));
+					if (best.size() > maxResults) {
+						best.poll(); // Removes the worst match
+					}
+				}
+			}
+		}
+
+		List<Match> matches = new ArrayList<>(best);
+		matches.sort(Collections.reverseOrder(Match.COMPARATOR));
+		Element root = doc.getDefaultRootElement();
+		List<Symbol> symbols = new ArrayList<>(matches.size());
+		for (Match match : matches) {
+			int offs = root.getElement(match.line).getStartOffset() +
+					match.entry.column;
+			symbols.add(new Symbol(match.entry.name, match.entry.type,
+					match.line, offs, match.score));
+		}
+		return symbols;
+	}
+
+
+	private void fireStateChanged() {
+		ChangeListener[] listeners = listenerList.getListeners(
+				ChangeListener.class);
+		if (listeners.length > 0) {
+			ChangeEvent e = new ChangeEvent(this);
+			for (ChangeListener l : listeners) {
+				l.stateChanged(e);
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the index installed on a text area, if any.
+	 *
+	 * @param textArea The text area.
+	 * @return The index, or {@code null} if none is installed.
+	 * @see #install(RSyntaxTextArea)
+	 */
+	public static SymbolIndex get(RSyntaxTextArea textArea) {
+		Object value = textArea.getClientProperty(CLIENT_PROPERTY);
+		return value instanceof SymbolIndex ? (SymbolIndex)value : null;
+	}
+
+
+	/**
+	 * Returns the number of symbols in the index.
+	 *
+	 * @return The number of symbols, or {@code 0} if the index isn't ready.
+	 */
+	public int getSymbolCount() {
+		return symbolCount;
+	}
+
+
+	/**
+	 * Returns the text area this index is installed on.
+	 *
+	 * @return The text area.
+	 */
+	public RSyntaxTextArea getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Handles an insert or remove in the document.
+	 */
+	private void handleEdit(DocumentEvent e) {
+
+		if (lines == null) { // Being built; the worker will start over
+			modCount.incrementAndGet();
+			return;
+		}
+
+		Element root = doc.getDefaultRootElement();
+		DocumentEvent.ElementChange change = e.getChange(root);
+		if (change == null) { // Only a single line changed
+			updateLines(root.getElementIndex(e.getOffset()), 1, 1);
+		}
+		else {
+			updateLines(change.getIndex(), change.getChildrenRemoved().length,
+					change.getChildrenAdded().length);
+		}
+		fireStateChanged();
+	}
+
+
+	/**
+	 * Installs an index on a text area, if one isn't already installed.
+	 * The index is built in the background; listeners are notified when
+	 * it's ready.
+	 *
+	 * @param textArea The text area.
+	 * @return The index for the text area.
+	 * @see #get(RSyntaxTextArea)
+	 * @see #uninstall()
+	 */
+	public static SymbolIndex install(RSyntaxTextArea textArea) {
+		SymbolIndex index = get(textArea);
+		if (index == null) {
+			index = new SymbolIndex(textArea);
+			index.attach();
+			index.doc.addDocumentListener(index.listener);
+			textArea.addPropertyChangeListener(index.listener);
+			textArea.putClientProperty(CLIENT_PROPERTY, index);
+		}
+		return index;
+	}
+
+
+	/**
+	 * Returns whether the index has been built.
+	 *
+	 * @return Whether the index is ready.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	public boolean isReady() {
+		return lines != null;
+	}
+
+
+	/**
+	 * Returns the first token at or after a token that isn't whitespace or
+	 * a comment.
+	 */
+	private static Token nextSignificant(Token t) {
+		while (t != null && (!t.isPaintable() || t.isCommentOrWhitespace())) {
+			t = t.getNextToken();
+		}
+		return t;
+	}
+
+
+	/**
+	 * Removes a listener notified when the index changes.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	public void removeChangeListener(ChangeListener l) {
+		listenerList.remove(ChangeListener.class, l);
+	}
+
+
+	/**
+	 * Starts building the index in the background.
+	 *
+	 * @param restarts The number of times the build has been restarted.
+	 */
+	private void startBuild(int restarts) {
+		if (worker != null) {
+			worker.cancel(true);
+		}
+		worker = new BuildWorker(createTokenMaker(), restarts);
+		worker.execute();
+	}
+
+
+	/**
+	 * Tokenizes a line and finds the symbols declared on it.
+	 *
+	 * @param tokenMaker The token maker to use.
+	 * @param text The text of the line, without its terminator.
+	 * @param initialTokenType The token type at the end of the previous line.
+	 * @return The line.
+	 */
+	static Line tokenize(TokenMaker tokenMaker, Segment text,
+			int initialTokenType) {
+
+		List<Entry> symbols = null;
+		DeclarationScanner scanner = new DeclarationScanner();
+		Token t = tokenMaker.getTokenList(text, initialTokenType, 0);
+		Token last = t;
+
+		// Token makers reuse their token lists, so this must be done in one pass
+		Token current = nextSignificant(t);
+		while (current != null) {
+			Token next = nextSignificant(current.getNextToken());
+			if (scanner.scan(current, next)) {
+				if (symbols == null) {
+					symbols = new ArrayList<>(1);
+				}
+				symbols.add(new Entry(current.getLexeme(), current.getType(),
+						current.getOffset()));
+			}
+			current = next;
+		}
+
+		while (last != null && last.getNextToken() != null) {
+			last = last.getNextToken();
+		}
+		int lastType = last == null ? TokenTypes.NULL : last.getType();
+		Entry[] entries = symbols == null ? Entry.NONE :
+				symbols.toArray(new Entry[0]);
+		return new Line(initialTokenType, lastType, entries);
+	}
+
+
+	/**
+	 * Re-tokenizes a line on the EDT.
+	 */
+	private Line tokenizeLine(Element root, int line, int initialTokenType) {
+		Element elem = root.getElement(line);
+		int start = elem.getStartOffset();
+		int length = elem.getEndOffset() - start - 1; // Minus '\n'
+		try {
+			doc.getText(start, length, segment);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			segment.count = 0;
+		}
+		return tokenize(tokenMaker, segment, initialTokenType);
+	}
+
+
+	/**
+	 * Uninstalls this index from its text area.  It should not be used
+	 * after this method is called.
+	 *
+	 * @see #install(RSyntaxTextArea)
+	 */
+	public void uninstall() {
+		if (worker != null) {
+			worker.cancel(true);
+			worker = null;
+		}
+		doc.removeDocumentListener(listener);
+		textArea.removePropertyChangeListener(listener);
+		if (get(textArea) == this) {
+			textArea.putClientProperty(CLIENT_PROPERTY, null);
+		}
+	}
+
+
+	/**
+	 * Replaces lines in the index after an edit.  Following lines are
+	 * re-tokenized too if the edit changed the state they start in, for
+	 * example by opening or closing a multi-line comment.
+	 *
+	 * @param index The index of the first line changed.
+	 * @param removed The number of lines removed.
+	 * @param added The number of lines added in their place.
+	 */
+	private void updateLines(int index, int removed, int added) {
+
+		List<Line> replaced = lines.subList(index, index + removed);
+		for (Line line : replaced) {
+			symbolCount -= line.symbols.length;
+		}
+		replaced.clear();
+
+		Element root = doc.getDefaultRootElement();
+		int initialType = index > 0 ?
+				lines.get(index - 1).lastTokenType : TokenTypes.NULL;
+		List<Line> newLines = new ArrayList<>(added);
+		for (int i = index; i < index + added; i++) {
+			Line line = tokenizeLine(root, i, initialType);
+			newLines.add(line);
+			symbolCount += line.symbols.length;
+			initialType = line.lastTokenType;
+		}
+		lines.addAll(index, newLines);
+
+		for (int i = index + added; i < lines.size(); i++) {
+			Line old = lines.get(i);
+			if (old.initialTokenType == initialType) {
+				break;
+			}
+			Line line = tokenizeLine(root, i, initialType);
+			lines.set(i, line);
+			symbolCount += line.symbols.length - old.symbols.length;
+			initialType = line.lastTokenType;
+		}
+	}
+
+
+	/**
+	 * Builds the index in the background.  The document is read a chunk of
+	 * lines at a time under its read lock, and tokenized outside of it.
+	 */
+	private final class BuildWorker extends SwingWorker<List<Line>, Void> {
+
+		private final TokenMaker tokenMaker;
+		private final int restarts;
+		private final int startModCount;
+
+		BuildWorker(TokenMaker tokenMaker, int restarts) {
+			this.tokenMaker = tokenMaker;
+			this.restarts = restarts;
+			startModCount = modCount.get();
+		}
+
+		@Override
+		protected List<Line> doInBackground() {
+
+			List<Line> result = new ArrayList<>();
+			String[] texts = new String[LINES_PER_CHUNK];
+			int[] lineCount = { 0 };
+			int initialType = TokenTypes.NULL;
+
+			if (restarts >= MAX_RESTARTS) {
+				// The document is being modified too often; lock it for the whole pass
+				doc.render(() -> buildLocked(result));
+				return result;
+			}
+
+			for (int first = 0; first == 0 || first < lineCount[0];
+					first += LINES_PER_CHUNK) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new CancellationException();
+				}
+				int start = first;
+				int[] count = { 0 };
+				doc.render(() -> {
+					Element root = doc.getDefaultRootElement();
+					lineCount[0] = root.getElementCount();
+					count[0] = Math.min(LINES_PER_CHUNK, lineCount[0] - start);
+					for (int i = 0; i < count[0]; i++) {
+						texts[i] = getLineText(root, start + i);
+					}
+				});
+				if (modCount.get() != startModCount) {
+					return null; // Modified since the last chunk
+				}
+				for (int i = 0; i < count[0]; i++) {
+					Segment s = new Segment(texts[i].toCharArray(), 0, texts[i].length());
+					Line line = tokenize(tokenMaker, s, initialType);
+					result.add(line);
+					initialType = line.lastTokenType;
+				}
+			}
+
+			return result;
+		}
+
+		/**
+		 * Builds the index in one pass.  The caller holds the read lock.
+		 */
+		private void buildLocked(List<Line> result) {
+			Element root = doc.getDefaultRootElement();
+			int initialType = TokenTypes.NULL;
+			for (int i = 0; i < root.getElementCount(); i++) {
+				String text = getLineText(root, i);
+				Segment s = new Segment(text.toCharArray(), 0, text.length());
+				Line line = tokenize(tokenMaker, s, initialType);
+				result.add(line);
+				initialType = line.lastTokenType;
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (worker != this) {
+				return; // Cancelled
+			}
+			worker = null;
+			List<Line> result;
+			try {
+				result = get();
+			} catch (CancellationException | InterruptedException e) {
+				return; // Uninstalled
+			} catch (ExecutionException ee) { // Never happens
+				ee.printStackTrace();
+				return;
+			}
+			if (result == null || modCount.get() != startModCount) {
+				startBuild(restarts + 1);
+				return;
+			}
+			lines = result;
+			symbolCount = 0;
+			for (Line line : lines) {
+				symbolCount += line.symbols.length;
+			}
+			fireStateChanged();
+		}
+
+		private String getLineText(Element root, int line) {
+			Element elem = root.getElement(line);
+			int start = elem.getStartOffset();
+			try {
+				return doc.getText(start, elem.getEndOffset() - start - 1);
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+				return "";
+			}
+		}
+
+	}
+
+
+	/**
+	 * A symbol in a line.  Its position is stored relative to the line's
+	 * start, so edits to other lines don't affect it.
+	 */
+	private static final class Entry {
+
+		private static final Entry[] NONE = new Entry[0];
+
+		private final String name;
+		private final int type;
+		private final int column;
+		private final long mask;
+
+		Entry(String name, int type, int column) {
+			this.name = name;
+			this.type = type;
+			this.column = column;
+			mask = SymbolMatcher.charMask(name);
+		}
+
+	}
+
+
+	/**
+	 * The symbols declared on a line, and the token types it starts and
+	 * ends in.
+	 */
+	static final class Line {
+
+		private final int initialTokenType;
+		private final int lastTokenType;
+		private final Entry[] symbols;
+
+		Line(int initialTokenType, int lastTokenType, Entry[] symbols) {
+			this.initialTokenType = initialTokenType;
+			this.lastTokenType = lastTokenType;
+			this.symbols = symbols;
+		}
+
+		/**
+		 * Returns the names of the symbols declared on this line.
+		 *
+		 * @return The names.
+		 */
+		List<String> getSymbolNames() {
+			List<String> names = new ArrayList<>(symbols.length);
+			for (Entry entry : symbols) {
+				names.add(entry.name);
+			}
+			return names;
+		}
+
+	}
+
+
+	/**
+	 * Listens for edits to the document, and for the document or syntax
+	 * style being changed.
+	 */
+	private final class Listener implements DocumentListener,
+			PropertyChangeListener {
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			// Attribute changes don't affect symbols
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			handleEdit(e);
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			String name = e.getPropertyName();
+			if ("document".equals(name) ||
+					RSyntaxTextArea.SYNTAX_STYLE_PROPERTY.equals(name)) {
+				doc.removeDocumentListener(this);
+				attach();
+				doc.addDocumentListener(this);
+				fireStateChanged();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			handleEdit(e);
+		}
+
+	}
+
+
+	/**
+	 * A symbol matching a query, and its score.
+	 */
+	private static final class Match {
+
+		/**
+		 * Orders matches worst first, so a heap's head is the one to drop.
+		 */
+		static final Comparator<Match> COMPARATOR = Comparator.
+				comparingInt((Match m) -> m.score).
+				thenComparingInt(m -> -m.line);
+
+		private final Entry entry;
+		private final int line;
+		private final int score;
+
+		Match(Entry entry, int line, int score) {
+			this.entry = entry;
+			this.line = line;
+			this.score = score;
+		}
+
+	}
+
+
+	/**
+	 * A symbol found by a query.
+	 */
+	public static final class Symbol {
+
+		private final String name;
+		private final int tokenType;
+		private final int line;
+		private final int offset;
+		private final int score;
+
+		Symbol(String name, int tokenType, int line, int offset, int score) {
+			this.name = name;
+			this.tokenType = tokenType;
+			this.line = line;
+			this.offset = offset;
+			this.score = score;
+		}
+
+		/**
+		 * Returns the 0-based line the symbol is declared on.
+		 *
+		 * @return The line.
+		 */
+		public int getLine() {
+			return line;
+		}
+
+		/**
+		 * Returns the name of the symbol.
+		 *
+		 * @return The name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the offset of the symbol's name in the document.
+		 *
+		 * @return The offset.
+		 */
+		public int getOffset() {
+			return offset;
+		}
+
+		/**
+		 * Returns how well the symbol matched the query.  Higher is better.
+		 *
+		 * @return The score.
+		 */
+		public int getScore() {
+			return score;
+		}
+
+		/**
+		 * Returns the type of the token the symbol's name was, such as
+		 * {@code TokenTypes.IDENTIFIER} or {@code TokenTypes.FUNCTION}.
+		 *
+		 * @return The token type.
+		 */
+		public int getTokenType() {
+			return tokenType;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,137 @@
+/*
+ * 10/18/2026
+ *
+ * SymbolMatcher.java - Fuzzy matching of symbol names against a query.
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+
+/**
+ * Scores how well symbol names match a query typed into a
+ * {@link GoToSymbolDialog}.  A name matches if it contains the query's
+ * characters in order, ignoring case; matches at the start of the name or
+ * of a word in it, and runs of consecutive matching characters, score
+ * higher.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see SymbolIndex#find(String, int)
+ */
+final class SymbolMatcher {
+
+	/**
+	 * Returned by {@link #score(String, String)} for names that don't match.
+	 */
+	static final int NO_MATCH = Integer.MIN_VALUE;
+
+
+	/**
+	 * Private constructor so we cannot instantiate this class.
+	 */
+	private SymbolMatcher() {
+	}
+
+
+	/**
+	 * Returns a bit mask of the characters in a string, ignoring case.
+	 * A string can only match a query if its mask contains the query's.
+	 */
+	static long charMask(String s) {
+		long mask = 0;
+		for (int i = 0; i < s.length(); i++) {
+			char ch = Character.toLowerCase(s.charAt(i));
+			int bit;
+			if (ch >= 'a' && ch <= 'z') {
+				bit = ch - 'a';
+			}
+			else if (ch >= '0' && ch <= '9') {
+				bit = 26 + ch - '0';
+			}
+			else {
+				bit = 36 + ch % 28;
+			}
+			mask |= 1L << bit;
+		}
+		return mask;
+	}
+
+
+	/**
+	 * Returns the score for a query character matching a character in a
+	 * symbol's name.
+	 *
+	 * @param name The symbol's name.
+	 * @param i The index of the matching character in the name.
+	 * @param consecutive Whether the previous character matched too.
+	 * @return The score.
+	 */
+	private static int getMatchScore(String name, int i, boolean consecutive) {
+		int score = 1;
+		if (i == 0) {
+			score += 8;
+		}
+		else if (isWordStart(name, i)) {
+			score += 6;
+		}
+		if (consecutive) {
+			score += 4;
+		}
+		return score;
+	}
+
+
+	/**
+	 * Returns whether a character starts a word in an identifier, as in
+	 * {@code fooBar} or {@code foo_bar}.
+	 */
+	private static boolean isWordStart(String name, int i) {
+		char prev = name.charAt(i - 1);
+		char ch = name.charAt(i);
+		return (Character.isUpperCase(ch) && !Character.isUpperCase(prev)) ||
+				(Character.isLetterOrDigit(ch) && !Character.isLetterOrDigit(prev));
+	}
+
+
+	/**
+	 * Scores how well a symbol's name matches a query.
+	 *
+	 * @param lowerQuery The query, in lower case.
+	 * @param name The symbol's name.
+	 * @return The score, or {@link #NO_MATCH} if the name doesn't contain
+	 *         the query's characters in order.
+	 */
+	static int score(String lowerQuery, String name) {
+
+		int queryLength = lowerQuery.length();
+		if (queryLength == 0) {
+			return 0; // Everything matches equally, so results are in document order
+		}
+		if (queryLength > name.length()) {
+			return NO_MATCH;
+		}
+
+		int score = 0;
+		int q = 0;
+		int prevMatch = -2;
+		for (int i = 0; i < name.length() && q < queryLength; i++) {
+			if (Character.toLowerCase(name.charAt(i)) == lowerQuery.charAt(q)) {
+				score += getMatchScore(name, i, prevMatch == i - 1);
+				prevMatch = i;
+				q++;
+			}
+		}
+
+		if (q < queryLength) {
+			return NO_MATCH;
+		}
+		if (queryLength == name.length()) {
+			score += 10; // Exact match, ignoring case
+		}
+		// Prefer shorter names when all else is equal
+		return score * 64 - Math.min(name.length(), 63);
+	}
+
+
+}
@@ -17,29 +17,35 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
-import java.text.BreakIterator;
-import java.text.CharacterIterator;
+import java.nio.file.Files;
 import java.text.MessageFormat;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SpringLayout;
 import javax.swing.SwingUtilities;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.Document;
-import javax.swing.text.Segment;
+import javax.swing.SwingWorker;
 
-import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
 import org.fife.ui.rsyntaxtextarea.TextEditorPane;
 
 
@@ -60,8 +66,27 @@ public class TextFilePropertiesDialog extends EscapableDialog
 	private JComboBox<String> terminatorCombo;
 	private JComboBox<String> encodingCombo;
 	private JButton okButton;
+	private JButton convertButton;
+	private JLabel wordsCountLabel;
+	private JLabel nonWhitespaceCountLabel;
+	private JLabel longestLineLabel;
+	private JLabel suggestedEncodingsLabel;
+	private JLabel terminatorsFoundLabel;
+	private JLabel decodingErrorsLabel;
+	private JTextArea previewArea;
 
 	private TextEditorPane textArea;
+	private StatisticsWorker statisticsWorker;
+	private ProbeWorker probeWorker;
+	private CensusWorker censusWorker;
+	private LineTerminatorCensus census;
+	private Map<Charset, EncodingProbe.Result> probeResults;
+	private boolean probeSampled;
+
+	/**
+	 * The maximum number of suggested encodings displayed.
+	 */
+	private static final int MAX_SUGGESTIONS = 3;
 
 	private static final ResourceBundle MSG = ResourceBundle.getBundle(
 							"org.fife.rsta.ui.TextFilePropertiesDialog");
@@ -117,6 +142,11 @@ public class TextFilePropertiesDialog extends EscapableDialog
 
 		else if ("encodingCombo".equals(command)) {
 			okButton.setEnabled(true);
+			updatePreview();
+		}
+
+		else if ("ConvertButton".equals(command)) {
+			convertLineTerminators();
 		}
 
 		else if ("OKButton".equals(command)) {
@@ -141,29 +171,32 @@ public class TextFilePropertiesDialog extends EscapableDialog
 	}
 
 
-	private int calculateWordCount(TextEditorPane textArea) {
-
-		int wordCount = 0;
-		RSyntaxDocument doc = (RSyntaxDocument)textArea.getDocument();
+	/**
+	 * Called when the user chooses to convert a file's mixed line
+	 * terminators.  Any {@code "\r\n"} or {@code "\r"} terminators in the
+	 * document are converted to {@code "\n"} in the background, the text
+	 * area is made to use the selected line terminator, and it is marked
+	 * dirty, so saving it writes the same terminator for every line.  Unlike
+	 * the other changes made in this dialog, this takes effect immediately.
+	 */
+	private void convertLineTerminators() {
 
-		BreakIterator bi = BreakIterator.getWordInstance();
-		bi.setText(new DocumentCharIterator(textArea.getDocument()));
-		for (int nextBoundary=bi.first(); nextBoundary!=BreakIterator.DONE;
-				nextBoundary=bi.next()) {
-			// getWordInstance() returns boundaries for both words and
-			// non-words (whitespace, punctuation, etc.)
-			try {
-				char ch = doc.charAt(nextBoundary);
-				if (Character.isLetterOrDigit(ch)) {
-					wordCount++;
-				}
-			} catch (BadLocationException ble) {
-				ble.printStackTrace();
-			}
+		convertButton.setEnabled(false);
+		String terminator = getSelectedLineTerminator();
+		if (terminator==null || textArea.isReadOnly()) {
+			return;
 		}
 
-		return wordCount;
-
+		// The census shown is usually of the file on disk, whose CRs were
+		// converted when it was loaded; the document rarely has any
+		LineTerminatorCensus.normalize(textArea);
+		String old = (String)textArea.getLineSeparator();
+		if (!terminator.equals(old)) {
+			textArea.setLineSeparator(terminator);
+		}
+		else {
+			textArea.setDirty(true);
+		}
 	}
 
 
@@ -253,6 +286,28 @@ public class TextFilePropertiesDialog extends EscapableDialog
 	}
 
 
+	/**
+	 * Returns the file being edited, if it exists.
+	 *
+	 * @return The file, or {@code null} if it hasn't been saved yet.
+	 */
+	private File getFile() {
+		File file = new File(textArea.getFileFullPath());
+		return file.isFile() ? file : null;
+	}
+
+
+	/**
+	 * Returns the charset selected in the encoding combo box.
+	 *
+	 * @return The charset, or {@code null} if none is selected.
+	 */
+	private Charset getSelectedCharset() {
+		String encoding = (String)encodingCombo.getSelectedItem();
+		return encoding == null ? null : Charset.forName(encoding);
+	}
+
+
 	private String getSelectedLineTerminator() {
 		return LINE_TERMINATORS[terminatorCombo.getSelectedIndex()];
 	}
@@ -286,9 +341,16 @@ public class TextFilePropertiesDialog extends EscapableDialog
 		JLabel charsCountLabel = new JLabel(
 						Integer.toString(textArea.getDocument().getLength()));
 
+		// Counted in the background, since this can take a while for
+		// large documents
+		String calculating = MSG.getString("Calculating");
 		JLabel wordsLabel = new JLabel(MSG.getString("Words"));
-		JLabel wordsCountLabel = new JLabel(
-				Integer.toString(calculateWordCount(textArea)));
+		wordsCountLabel = new JLabel(calculating);
+		JLabel nonWhitespaceLabel = new JLabel(
+				MSG.getString("NonWhitespaceCharacters"));
+		nonWhitespaceCountLabel = new JLabel(calculating);
+		JLabel longestLineTitleLabel = new JLabel(MSG.getString("LongestLine"));
+		longestLineLabel = new JLabel(calculating);
 
 		terminatorCombo = new JComboBox<>(LINE_TERMINATOR_LABELS);
 		if (textArea.isReadOnly()) {
@@ -300,24 +362,31 @@ public class TextFilePropertiesDialog extends EscapableDialog
 		terminatorCombo.addActionListener(this);
 		JLabel terminatorLabel = UIUtil.newLabel(MSG, "LineTerminator",
 				terminatorCombo);
-
-		encodingCombo = new JComboBox<>();
+		JLabel terminatorsFoundTitleLabel = new JLabel(
+				MSG.getString("LineTerminatorsFound"));
+		terminatorsFoundLabel = new JLabel(calculating);
+		convertButton = UIUtil.newButton(MSG, "ConvertLineEndings");
+		convertButton.setActionCommand("ConvertButton");
+		convertButton.addActionListener(this);
+		convertButton.setEnabled(false); // Until we know they're mixed
+		JPanel terminatorsFoundPanel = new JPanel(new BorderLayout(5, 0));
+		terminatorsFoundPanel.add(terminatorsFoundLabel);
+		terminatorsFoundPanel.add(convertButton, BorderLayout.LINE_END);
+
+		encodingCombo = new JComboBox<>(CharsetList.get().createComboBoxModel());
 		if (textArea.isReadOnly()) {
 			encodingCombo.setEnabled(false);
 		}
 		UIUtil.fixComboOrientation(encodingCombo);
-
-		// Populate the combo box with all available encodings.
-		Map<String, Charset> availableCharsets = Charset.availableCharsets();
-		Set<String> charsetNames = availableCharsets.keySet();
-		for (String charsetName : charsetNames) {
-			encodingCombo.addItem(charsetName);
-		}
 		setEncoding(textArea.getEncoding());
 		encodingCombo.setActionCommand("encodingCombo");
 		encodingCombo.addActionListener(this);
 		JLabel encodingLabel = UIUtil.newLabel(MSG, "Encoding", encodingCombo);
 
+		// Also found in the background, since the file must be read
+		JLabel suggestedLabel = new JLabel(MSG.getString("SuggestedEncodings"));
+		suggestedEncodingsLabel = new JLabel(calculating);
+
 		JLabel sizeLabel = new JLabel(MSG.getString("FileSize"));
 		File file = new File(textArea.getFileFullPath());
 		String size = "";
@@ -344,9 +413,13 @@ public class TextFilePropertiesDialog extends EscapableDialog
 			content2.add(filePathLabel);     content2.add(filePathField);
 			content2.add(linesLabel);        content2.add(linesCountLabel);
 			content2.add(charsLabel);        content2.add(charsCountLabel);
+			content2.add(nonWhitespaceLabel); content2.add(nonWhitespaceCountLabel);
 			content2.add(wordsLabel);        content2.add(wordsCountLabel);
+			content2.add(longestLineTitleLabel); content2.add(longestLineLabel);
 			content2.add(terminatorLabel);   content2.add(terminatorCombo);
+			content2.add(terminatorsFoundTitleLabel); content2.add(terminatorsFoundPanel);
 			content2.add(encodingLabel);     content2.add(encodingCombo);
+			content2.add(suggestedLabel);    content2.add(suggestedEncodingsLabel);
 			content2.add(sizeLabel);         content2.add(sizeLabel2);
 			content2.add(modifiedLabel);     content2.add(modified);
 		}
@@ -354,14 +427,33 @@ public class TextFilePropertiesDialog extends EscapableDialog
 			content2.add(filePathField);     content2.add(filePathLabel);
 			content2.add(linesCountLabel);   content2.add(linesLabel);
 			content2.add(charsCountLabel);   content2.add(charsLabel);
+			content2.add(nonWhitespaceCountLabel); content2.add(nonWhitespaceLabel);
 			content2.add(wordsCountLabel);   content2.add(wordsLabel);
+			content2.add(longestLineLabel);  content2.add(longestLineTitleLabel);
 			content2.add(terminatorCombo);   content2.add(terminatorLabel);
+			content2.add(terminatorsFoundPanel); content2.add(terminatorsFoundTitleLabel);
 			content2.add(encodingCombo);     content2.add(encodingLabel);
+			content2.add(suggestedEncodingsLabel); content2.add(suggestedLabel);
 			content2.add(sizeLabel2);        content2.add(sizeLabel);
 			content2.add(modified);          content2.add(modifiedLabel);
 		}
 
-		UIUtil.makeSpringCompactGrid(content2, 8,2, 0,0, 5,5);
+		UIUtil.makeSpringCompactGrid(content2, 12,2, 0,0, 5,5);
+
+		// A preview of the file decoded with the selected encoding
+		decodingErrorsLabel = new JLabel(calculating);
+		previewArea = new JTextArea(6, 40);
+		previewArea.setEditable(false);
+		JPanel previewPanel = new JPanel(new BorderLayout(0, 5));
+		previewPanel.setBorder(BorderFactory.createCompoundBorder(
+				BorderFactory.createTitledBorder(MSG.getString("Preview")),
+				UIUtil.getEmpty5Border()));
+		previewPanel.add(decodingErrorsLabel, BorderLayout.NORTH);
+		previewPanel.add(new JScrollPane(previewArea));
+		JPanel previewWrapper = new JPanel(new BorderLayout());
+		previewWrapper.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+		previewWrapper.add(previewPanel);
+		contentPane.add(previewWrapper);
 
 		// Make a panel for OK and cancel buttons.
 		okButton = UIUtil.newButton(MSG, "OK");
@@ -380,6 +472,11 @@ public class TextFilePropertiesDialog extends EscapableDialog
 		pack();
 		setLocationRelativeTo(getParent());
 
+		probeResults = new HashMap<>();
+		updateStatistics();
+		updateEncodingProbe();
+		updateLineTerminatorCensus();
+
 	}
 
 
@@ -396,21 +493,65 @@ public class TextFilePropertiesDialog extends EscapableDialog
 	/**
 	 * Sets the encoding selected by this dialog.
 	 *
-	 * @param encoding The desired encoding.
+	 * @param encoding The desired encoding.  This can be the canonical name
+	 *        or an alias of a charset.  If it isn't available in this JVM,
+	 *        the selection is not changed.
 	 */
 	protected void setEncoding(String encoding) {
+		int index = CharsetList.get().indexOf(encoding);
+		if (index > -1) {
+			encodingCombo.setSelectedIndex(index);
+		}
+	}
 
-		Charset cs1 = Charset.forName(encoding);
 
-		int count = encodingCombo.getItemCount();
-		for (int i=0; i<count; i++) {
-			String item = encodingCombo.getItemAt(i);
-			Charset cs2 = Charset.forName(item);
-			if (cs1.equals(cs2)) {
-				encodingCombo.setSelectedIndex(i);
-				return;
+	/**
+	 * Displays the number of each kind of line terminator found.
+	 *
+	 * @param census The counts.
+	 */
+	private void setLineTerminatorCensus(LineTerminatorCensus census) {
+
+		this.census = census;
+		int[] counts = { census.getCRCount(), census.getLFCount(),
+			census.getCRLFCount() };
+		List<String> parts = new ArrayList<>();
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				// LINE_TERMINATOR_LABELS[0] is "System Default"
+				parts.add(MessageFormat.format(MSG.getString("LineTerminatorCount"),
+						LINE_TERMINATOR_LABELS[i + 1], counts[i]));
 			}
 		}
+
+		String text = parts.isEmpty() ? MSG.getString("NoLineTerminators") :
+				String.join(", ", parts);
+		if (census.isMixed()) {
+			text = MessageFormat.format(MSG.getString("MixedLineTerminators"), text);
+			convertButton.setEnabled(!textArea.isReadOnly());
+		}
+		terminatorsFoundLabel.setText(text);
+	}
+
+
+	/**
+	 * Displays the result of probing the file with the selected encoding.
+	 *
+	 * @param result The result, or {@code null} if no preview is available.
+	 * @param sampled Whether only part of the file was read.
+	 */
+	private void setPreview(EncodingProbe.Result result, boolean sampled) {
+		if (result == null) {
+			decodingErrorsLabel.setText(MSG.getString("NoPreview"));
+			previewArea.setText(null);
+		}
+		else {
+			String key = sampled ? "DecodingErrorsSampled" : "DecodingErrors";
+			decodingErrorsLabel.setText(MessageFormat.format(MSG.getString(key),
+					result.getMalformedCount()));
+			previewArea.setText(result.getPreview());
+			previewArea.setCaretPosition(0);
+		}
 	}
 
 
@@ -433,98 +574,249 @@ public class TextFilePropertiesDialog extends EscapableDialog
 	@Override
 	public void setVisible(boolean visible) {
 		if (visible) {
+			if (statisticsWorker == null) { // Cancelled, or using a tracker
+				updateStatistics();
+			}
+			if (probeWorker == null && probeResults.isEmpty()) { // Cancelled
+				updateEncodingProbe();
+			}
+			if (censusWorker == null && census == null) { // Cancelled
+				updateLineTerminatorCensus();
+			}
 			SwingUtilities.invokeLater(() -> {
 				filePathField.requestFocusInWindow();
 				filePathField.selectAll();
 			});
 		}
+		else {
+			if (statisticsWorker != null && !statisticsWorker.isDone()) {
+				statisticsWorker.cancel(true);
+				statisticsWorker = null;
+			}
+			if (probeWorker != null && !probeWorker.isDone()) {
+				probeWorker.cancel(true);
+				probeWorker = null;
+			}
+			if (censusWorker != null && !censusWorker.isDone()) {
+				censusWorker.cancel(true);
+				censusWorker = null;
+			}
+		}
 		super.setVisible(visible);
 	}
 
 
+	private void setStatistics(TextStatistics stats) {
+		wordsCountLabel.setText(Integer.toString(stats.getWordCount()));
+		nonWhitespaceCountLabel.setText(
+				Integer.toString(stats.getNonWhitespaceCharCount()));
+		longestLineLabel.setText(
+				Integer.toString(stats.getLongestLineLength()));
+	}
+
+
+	/**
+	 * Starts checking which encodings the file decodes cleanly with in the
+	 * background.  The selected encoding, the file's current encoding and
+	 * other common encodings are tried.
+	 */
+	private void updateEncodingProbe() {
+		File file = getFile();
+		if (file == null) {
+			suggestedEncodingsLabel.setText(null);
+			setPreview(null, false);
+			return;
+		}
+		String selected = (String)encodingCombo.getSelectedItem();
+		probeWorker = new ProbeWorker(file, EncodingProbe.getDefaultCandidates(
+				selected, textArea.getEncoding()), true);
+		probeWorker.execute();
+	}
+
+
 	/**
-	 * Iterates over each character in a document.
+	 * Starts counting the line terminators in the file in the background.
+	 * If the file hasn't been saved, the document's line terminators are
+	 * counted instead.
 	 */
-	private static class DocumentCharIterator implements CharacterIterator {
+	private void updateLineTerminatorCensus() {
+		censusWorker = new CensusWorker(getFile());
+		censusWorker.execute();
+	}
+
+
+	/**
+	 * Displays a preview of the file decoded with the selected encoding,
+	 * probing the file with it in the background if it hasn't been already.
+	 */
+	private void updatePreview() {
+		Charset charset = getSelectedCharset();
+		EncodingProbe.Result result = probeResults.get(charset);
+		if (result != null) {
+			setPreview(result, probeSampled);
+		}
+		else if (probeWorker != null && !probeWorker.isDone()) {
+			// The preview is updated when the running probe completes
+			if (!probeWorker.candidates.contains(charset)) {
+				probeWorker.cancel(true);
+				updateEncodingProbe();
+			}
+		}
+		else {
+			File file = getFile();
+			if (file != null && charset != null) {
+				decodingErrorsLabel.setText(MSG.getString("Calculating"));
+				probeWorker = new ProbeWorker(file,
+						Collections.singletonList(charset), false);
+				probeWorker.execute();
+			}
+		}
+	}
 
-		private Document doc;
-		private int index;
-		private Segment s;
 
-		DocumentCharIterator(Document doc) {
-			this.doc = doc;
-			index = 0;
-			s = new Segment();
+	/**
+	 * Displays the statistics for the text area's document.  If a
+	 * {@link DocumentStatistics} is installed on the text area, they're
+	 * available immediately; otherwise they're computed in the background.
+	 */
+	private void updateStatistics() {
+		DocumentStatistics tracker = DocumentStatistics.get(textArea);
+		if (tracker != null) {
+			setStatistics(tracker.getStatistics());
+		}
+		else {
+			statisticsWorker = new StatisticsWorker();
+			statisticsWorker.execute();
+		}
+	}
+
+
+	/**
+	 * Counts the line terminators in the file in the background, and
+	 * displays the counts when done.  Files are read rather than the
+	 * document, since line terminators are normalized when a file is loaded.
+	 */
+	private final class CensusWorker extends SwingWorker<LineTerminatorCensus, Void> {
+
+		private final File file;
+
+		CensusWorker(File file) {
+			this.file = file;
 		}
 
 		@Override
-		public Object clone() {
-			try {
-				return super.clone();
-			} catch (CloneNotSupportedException cnse) { // Never happens
-				throw new InternalError("Clone not supported???");
+		protected LineTerminatorCensus doInBackground() throws IOException {
+			if (file == null) {
+				return LineTerminatorCensus.compute(textArea.getDocument());
+			}
+			String encoding = textArea.getEncoding();
+			Charset charset = CharsetList.get().indexOf(encoding) > -1 ?
+					Charset.forName(encoding) : Charset.defaultCharset();
+			try (Reader r = new InputStreamReader(
+					Files.newInputStream(file.toPath()), charset)) {
+				return LineTerminatorCensus.compute(r);
 			}
 		}
 
 		@Override
-		public char current() {
-			if (index>=getEndIndex()) {
-				return DONE;
+		protected void done() {
+			if (censusWorker != this) {
+				return; // Cancelled
 			}
 			try {
-				doc.getText(index, 1, s);
-				return s.first();
-			} catch (BadLocationException ble) {
-				return DONE;
+				setLineTerminatorCensus(get());
+			} catch (CancellationException | InterruptedException e) {
+				// Dialog was closed
+			} catch (ExecutionException ee) { // IOException reading the file
+				terminatorsFoundLabel.setText(null);
 			}
 		}
 
-		@Override
-		public char first() {
-			index = getBeginIndex();
-			return current();
-		}
+	}
 
-		@Override
-		public int getBeginIndex() {
-			return 0;
-		}
 
-		@Override
-		public int getEndIndex() {
-			return doc.getLength();
+	/**
+	 * Test-decodes the file with some encodings in the background, and
+	 * displays the results when done.
+	 */
+	private final class ProbeWorker extends SwingWorker<EncodingProbe, Void> {
+
+		private final File file;
+		private final List<Charset> candidates;
+		private final boolean suggest;
+
+		ProbeWorker(File file, List<Charset> candidates, boolean suggest) {
+			this.file = file;
+			this.candidates = candidates;
+			this.suggest = suggest;
 		}
 
 		@Override
-		public int getIndex() {
-			return index;
+		protected EncodingProbe doInBackground() throws IOException {
+			return EncodingProbe.probe(file.toPath(), candidates);
 		}
 
 		@Override
-		public char last() {
-			index = Math.max(0, getEndIndex() - 1);
-			return current();
+		protected void done() {
+			if (probeWorker != this) {
+				return; // Cancelled
+			}
+			try {
+				EncodingProbe probe = get();
+				probeSampled = probe.isSampled();
+				for (EncodingProbe.Result result : probe.getResults()) {
+					probeResults.put(result.getCharset(), result);
+				}
+				if (suggest) {
+					setSuggestions(probe.getResults());
+				}
+				setPreview(probeResults.get(getSelectedCharset()), probeSampled);
+			} catch (CancellationException | InterruptedException e) {
+				// Dialog was closed
+			} catch (ExecutionException ee) { // IOException reading the file
+				suggestedEncodingsLabel.setText(null);
+				setPreview(null, false);
+			}
 		}
 
-		@Override
-		public char next() {
-			index = Math.min(index+1, getEndIndex());
-			return current();
+		private void setSuggestions(List<EncodingProbe.Result> results) {
+			StringBuilder sb = new StringBuilder();
+			int count = Math.min(MAX_SUGGESTIONS, results.size());
+			for (int i = 0; i < count; i++) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(results.get(i).getCharset().name());
+			}
+			suggestedEncodingsLabel.setText(sb.toString());
 		}
 
+	}
+
+
+	/**
+	 * Computes the statistics for the text area's document in the
+	 * background, and displays them when done.
+	 */
+	private final class StatisticsWorker extends SwingWorker<TextStatistics, Void> {
+
 		@Override
-		public char previous() {
-			index = Math.max(index-1, getBeginIndex());
-			return current();
+		protected TextStatistics doInBackground() {
+			return TextStatistics.compute(textArea.getDocument());
 		}
 
 		@Override
-		public char setIndex(int pos) {
-			if (pos<getBeginIndex() || pos>getEndIndex()) {
-				throw new IllegalArgumentException("Illegal index: " + index);
+		protected void done() {
+			if (statisticsWorker != this) {
+				return; // Cancelled
+			}
+			try {
+				setStatistics(get());
+			} catch (CancellationException | InterruptedException e) {
+				// Dialog was closed
+			} catch (ExecutionException ee) { // Never happens
+				ee.printStackTrace();
 			}
-			index = pos;
-			return current();
 		}
 
 	}
@@ -0,0 +1,446 @@
+/*
+ * 10/18/2026
+ *
+ * TextStatistics.java - Word, line and character counts for a document.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+
+/**
+ * Statistics about some text: its number of words, lines, characters and
+ * non-whitespace characters, and the length of its longest line.  Instances
+ * of this class are immutable.<p>
+ *
+ * All statistics are computed in a single pass over the text, reading it a
+ * chunk at a time straight from the document's content, so no memory is
+ * allocated per character or per line.  This makes it practical to compute
+ * them for documents hundreds of megabytes in size, though that can still
+ * take long enough that it should be done off the EDT.<p>
+ *
+ * Words are counted as runs of letters and digits.  Underscores are
+ * considered part of words, as are apostrophes and periods between two
+ * letters or digits (as in "don't" or "3.14") and commas between two digits
+ * (as in "1,000").  Lines are terminated by {@code "\n"}, {@code "\r\n"} or
+ * a lone {@code "\r"}; line lengths don't include terminators.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see TextFilePropertiesDialog
+ */
+public final class TextStatistics {
+
+	private final int wordCount;
+	private final int lineCount;
+	private final int charCount;
+	private final int nonWhitespaceCharCount;
+	private final int longestLineLength;
+
+	/**
+	 * The number of characters read from a document at a time.
+	 */
+	static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * The number of times computing a document's statistics is restarted
+	 * because it was modified, before giving up and holding its read lock
+	 * for the entire pass.
+	 */
+	private static final int MAX_RESTARTS = 3;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param wordCount The number of words.
+	 * @param lineCount The number of lines.
+	 * @param charCount The number of characters.
+	 * @param nonWhitespaceCharCount The number of non-whitespace characters.
+	 * @param longestLineLength The length of the longest line.
+	 */
+	TextStatistics(int wordCount, int lineCount, int charCount,
+			int nonWhitespaceCharCount, int longestLineLength) {
+		this.wordCount = wordCount;
+		this.lineCount = lineCount;
+		this.charCount = charCount;
+		this.nonWhitespaceCharCount = nonWhitespaceCharCount;
+		this.longestLineLength = longestLineLength;
+	}
+
+
+	/**
+	 * Computes the statistics for some text.
+	 *
+	 * @param text The text.
+	 * @return The statistics.
+	 */
+	public static TextStatistics compute(CharSequence text) {
+		Counter counter = new Counter();
+		char[] buf = new char[Math.min(text.length(), CHUNK_SIZE)];
+		for (int offs = 0; offs < text.length(); offs += buf.length) {
+			int len = Math.min(buf.length, text.length() - offs);
+			for (int i = 0; i < len; i++) {
+				buf[i] = text.charAt(offs + i);
+			}
+			counter.add(buf, 0, len);
+		}
+		return counter.finish();
+	}
+
+
+	/**
+	 * Computes the statistics for a document.  This method can be called
+	 * from any thread.  The document is read a chunk at a time, each under
+	 * its read lock, so it isn't locked for long periods; if it is modified
+	 * while being read, computing its statistics starts over.<p>
+	 *
+	 * If the calling thread is interrupted, this method stops early by
+	 * throwing a {@code CancellationException}.  This allows it to be used
+	 * from a {@code SwingWorker} that is cancelled.
+	 *
+	 * @param doc The document.
+	 * @return The statistics.
+	 * @throws CancellationException If the calling thread is interrupted.
+	 */
+	public static TextStatistics compute(Document doc) {
+		return compute(doc, CHUNK_SIZE);
+	}
+
+
+	/**
+	 * Computes the statistics for a document, reading it a given number of
+	 * characters at a time.
+	 *
+	 * @param doc The document.
+	 * @param chunkSize The number of characters to read at a time.
+	 * @return The statistics.
+	 * @throws CancellationException If the calling thread is interrupted.
+	 * @see #compute(Document)
+	 */
+	static TextStatistics compute(Document doc, int chunkSize) {
+
+		AtomicBoolean modified = new AtomicBoolean();
+		DocumentListener listener = new ModificationListener(modified);
+		doc.addDocumentListener(listener);
+
+		try {
+			for (int i = 0; i < MAX_RESTARTS; i++) {
+				modified.set(false);
+				TextStatistics stats = computeInChunks(doc, chunkSize, modified);
+				if (stats != null) {
+					return stats;
+				}
+			}
+		} finally {
+			doc.removeDocumentListener(listener);
+		}
+
+		// The document is being modified too often; lock it for the whole pass
+		TextStatistics[] stats = new TextStatistics[1];
+		doc.render(() -> stats[0] = computeInChunks(doc, chunkSize, null));
+		return stats[0];
+	}
+
+
+	/**
+	 * Makes one pass over a document.
+	 *
+	 * @param doc The document.
+	 * @param chunkSize The number of characters to read at a time.
+	 * @param modified Set if the document is modified during the pass.  If
+	 *        this is {@code null}, the caller must hold the document's read
+	 *        lock.
+	 * @return The statistics, or {@code null} if the document was modified.
+	 */
+	private static TextStatistics computeInChunks(Document doc, int chunkSize,
+			AtomicBoolean modified) {
+
+		Counter counter = new Counter();
+		Segment s = new Segment();
+		s.setPartialReturn(true);
+		boolean[] ok = { true };
+
+		for (int offs = 0; ok[0]; offs += s.count) {
+
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException();
+			}
+
+			int start = offs;
+			Runnable readChunk = () -> {
+				int len = Math.min(chunkSize, doc.getLength() - start);
+				if (len <= 0 || (modified != null && modified.get())) {
+					ok[0] = false;
+					return;
+				}
+				try {
+					doc.getText(start, len, s);
+					counter.add(s.array, s.offset, s.count);
+				} catch (BadLocationException ble) { // Modified since last chunk
+					ok[0] = false;
+				}
+			};
+			if (modified == null) {
+				readChunk.run(); // Caller holds the read lock
+			}
+			else {
+				doc.render(readChunk);
+			}
+		}
+
+		return modified != null && modified.get() ? null : counter.finish();
+	}
+
+
+	/**
+	 * Returns the number of characters.
+	 *
+	 * @return The number of characters.
+	 * @see #getNonWhitespaceCharCount()
+	 */
+	public int getCharCount() {
+		return charCount;
+	}
+
+
+	/**
+	 * Returns the number of lines.  Empty text has a single line.
+	 *
+	 * @return The number of lines.
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+
+	/**
+	 * Returns the length of the longest line, not including its terminator.
+	 *
+	 * @return The length of the longest line.
+	 */
+	public int getLongestLineLength() {
+		return longestLineLength;
+	}
+
+
+	/**
+	 * Returns the number of characters that aren't whitespace.
+	 *
+	 * @return The number of non-whitespace characters.
+	 * @see #getCharCount()
+	 */
+	public int getNonWhitespaceCharCount() {
+		return nonWhitespaceCharCount;
+	}
+
+
+	/**
+	 * Returns the number of words.
+	 *
+	 * @return The number of words.
+	 */
+	public int getWordCount() {
+		return wordCount;
+	}
+
+
+	@Override
+	public String toString() {
+		return "[TextStatistics: words=" + wordCount +
+				", lines=" + lineCount +
+				", chars=" + charCount +
+				", nonWhitespaceChars=" + nonWhitespaceCharCount +
+				", longestLine=" + longestLineLength +
+				"]";
+	}
+
+
+	/**
+	 * Accumulates statistics as text is fed to it a chunk at a time.
+	 */
+	static final class Counter {
+
+		private static final int RIGHT_SINGLE_QUOTE = 0x2019;
+
+		private int wordCount;
+		private int lineCount;
+		private int charCount;
+		private int nonWhitespaceCharCount;
+		private int longestLineLength;
+		private int lineLength;
+		private boolean prevCR;
+
+		/**
+		 * Whether the last character was part of a word.
+		 */
+		private boolean inWord;
+
+		/**
+		 * Whether the last character was a digit in a word.
+		 */
+		private boolean inNumber;
+
+		/**
+		 * If nonzero, a character that will join the current word with the
+		 * next one if the next character is a letter or digit.
+		 */
+		private char pendingJoiner;
+
+		/**
+		 * Adds a chunk of text.
+		 *
+		 * @param array The array containing the text.
+		 * @param offset The offset of the text in the array.
+		 * @param count The length of the text.
+		 */
+		void add(char[] array, int offset, int count) {
+			int end = offset + count;
+			for (int i = offset; i < end; i++) {
+				char ch = array[i];
+				if (ch == '\n' || ch == '\r') {
+					endLine(ch);
+				}
+				else {
+					lineLength++;
+					prevCR = false;
+				}
+				if (!Character.isWhitespace(ch)) {
+					nonWhitespaceCharCount++;
+				}
+				updateWord(ch);
+			}
+			charCount += count;
+		}
+
+		private void endLine(char ch) {
+			if (ch == '\n' && prevCR) {
+				prevCR = false; // Second half of "\r\n"
+				return;
+			}
+			lineCount++;
+			longestLineLength = Math.max(longestLineLength, lineLength);
+			lineLength = 0;
+			prevCR = ch == '\r';
+		}
+
+		/**
+		 * Returns the number of non-whitespace characters added so far.
+		 *
+		 * @return The number of non-whitespace characters.
+		 */
+		int getNonWhitespaceCharCount() {
+			return nonWhitespaceCharCount;
+		}
+
+		/**
+		 * Returns the number of words added so far.
+		 *
+		 * @return The number of words.
+		 */
+		int getWordCount() {
+			return wordCount;
+		}
+
+		/**
+		 * Returns the statistics for all text added.
+		 *
+		 * @return The statistics.
+		 */
+		TextStatistics finish() {
+			return new TextStatistics(wordCount, lineCount + 1, charCount,
+					nonWhitespaceCharCount,
+					Math.max(longestLineLength, lineLength));
+		}
+
+		private static boolean isWordChar(char ch) {
+			return Character.isLetterOrDigit(ch) || ch == '_' ||
+					Character.isSurrogate(ch);
+		}
+
+		/**
+		 * Returns whether a character can join the current word with the
+		 * next one.
+		 */
+		private boolean isJoiner(char ch) {
+			if (ch == ',') {
+				return inNumber;
+			}
+			return ch == '\'' || ch == '.' || ch == RIGHT_SINGLE_QUOTE;
+		}
+
+		/**
+		 * Resets this counter so it can be reused.
+		 */
+		void reset() {
+			wordCount = lineCount = charCount = 0;
+			nonWhitespaceCharCount = longestLineLength = lineLength = 0;
+			prevCR = inWord = inNumber = false;
+			pendingJoiner = 0;
+		}
+
+		private void updateWord(char ch) {
+
+			if (isWordChar(ch)) {
+				boolean digit = Character.isDigit(ch);
+				if (!inWord || (pendingJoiner == ',' && !(inNumber && digit))) {
+					wordCount++;
+				}
+				inWord = true;
+				inNumber = digit;
+				pendingJoiner = 0;
+			}
+
+			else if (inWord && pendingJoiner == 0 && isJoiner(ch)) {
+				pendingJoiner = ch;
+			}
+
+			else {
+				inWord = false;
+				inNumber = false;
+				pendingJoiner = 0;
+			}
+		}
+
+	}
+
+
+	/**
+	 * Notes when a document is modified.
+	 */
+	private static final class ModificationListener implements DocumentListener {
+
+		private final AtomicBoolean modified;
+
+		ModificationListener(AtomicBoolean modified) {
+			this.modified = modified;
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			// Attribute changes don't affect the statistics
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			modified.set(true);
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			modified.set(true);
+		}
+
+	}
+
+
+}
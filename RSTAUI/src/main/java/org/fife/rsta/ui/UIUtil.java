@@ -17,6 +17,7 @@ import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
+import javax.swing.JPanel;
 import javax.swing.ListCellRenderer;
 import javax.swing.Spring;
 import javax.swing.SpringLayout;
@@ -98,6 +99,24 @@ public final class UIUtil {
 	}
 
 
+	/**
+	 * Returns a panel containing a dialog's OK and Cancel buttons,
+	 * right-aligned and of equal size.
+	 *
+	 * @param ok The OK button.
+	 * @param cancel The Cancel button.
+	 * @return A panel containing the two buttons.
+	 */
+	static Container createButtonPanel(JButton ok, JButton cancel) {
+		JPanel buttonPanel = new JPanel(new GridLayout(1,2, 5,5));
+		buttonPanel.add(ok);
+		buttonPanel.add(cancel);
+		JPanel bottomPanel = new JPanel(new BorderLayout());
+		bottomPanel.add(buttonPanel, BorderLayout.LINE_END);
+		return bottomPanel;
+	}
+
+
 	/**
 	 * Fixes the orientation of the renderer of a combo box.  I can't believe
 	 * Swing standard LaFs don't handle this on their own.
@@ -179,9 +198,7 @@ public final class UIUtil {
 	 * @return The color to use.
 	 */
 	public static Color getErrorTextForeground() {
-		Color defaultFG = UIManager.getColor("TextField.foreground");
-		if (defaultFG.getRed()>=160 && defaultFG.getGreen()>=160 &&
-				defaultFG.getBlue()>=160) {
+		if (isDarkLookAndFeel()) {
 			return new Color(255, 160, 160);
 		}
 		return Color.RED;
@@ -218,6 +235,19 @@ public final class UIUtil {
 	}
 
 
+	/**
+	 * Returns whether the current LookAndFeel displays light text on a dark
+	 * background.
+	 *
+	 * @return Whether the LookAndFeel is dark.
+	 */
+	public static boolean isDarkLookAndFeel() {
+		Color defaultFG = UIManager.getColor("TextField.foreground");
+		return defaultFG.getRed()>=160 && defaultFG.getGreen()>=160 &&
+				defaultFG.getBlue()>=160;
+	}
+
+
 	/**
 	 * This method is ripped off from <code>SpringUtilities.java</code> found
 	 * on Sun's Java Tutorial pages.  It takes a component whose layout is
@@ -9,6 +9,7 @@
 package org.fife.rsta.ui.search;
 
 import java.awt.BorderLayout;
+import java.awt.Cursor;
 import java.awt.Dialog;
 import java.awt.Frame;
 import java.awt.event.ActionEvent;
@@ -29,11 +30,14 @@ import javax.swing.JRadioButton;
 import javax.swing.JRootPane;
 import javax.swing.KeyStroke;
 import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.EventListenerList;
 import javax.swing.text.JTextComponent;
 
 import org.fife.rsta.ui.UIUtil;
 import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchResult;
 
 
 /**
@@ -64,11 +68,21 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 	 */
 	protected JCheckBox markAllCheckBox;
 
+	/**
+	 * The "in selection" check box.
+	 */
+	protected JCheckBox selectionOnlyCheckBox;
+
 	/**
 	 * Folks listening for events in this dialog.
 	 */
 	private EventListenerList listenerList;
 
+	/**
+	 * Tracks the results of {@link AsyncSearchListener}s.
+	 */
+	private PendingSearch pendingSearch;
+
 
 	/**
 	 * Constructor.
@@ -164,8 +178,9 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 
 	/**
 	 * Notifies all listeners that have registered interest in notification for
-	 * this event type. The event instance is lazily created using the
-	 * <code>event</code> parameter.
+	 * this event type.  The results of any {@link AsyncSearchListener}s are
+	 * tracked until they complete, and the results of the previous event
+	 * that are still pending are cancelled.
 	 *
 	 * @param type The type of search.
 	 * @param context The search context to fire.  If this is {@code null}, this
@@ -180,20 +195,10 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 			context = this.context;
 		}
 
-		// Guaranteed to return a non-null array
-		Object[] listeners = listenerList.getListenerList();
-		SearchEvent e = null;
 		// Process the listeners last to first, notifying
 		// those that are interested in this event
-		for (int i = listeners.length - 2; i >= 0; i -= 2) {
-			if (listeners[i] == SearchListener.class) {
-				// Lazily create the event:
-				if (e == null) {
-					e = new SearchEvent(this, type, context);
-				}
-				((SearchListener)listeners[i+1]).searchEvent(e);
-			}
-		}
+		SearchEvent e = new SearchEvent(this, type, context);
+		pendingSearch.fire(e, listenerList.getListeners(SearchListener.class));
 	}
 
 
@@ -241,6 +246,23 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Returns the part of the document to search, as selected by the
+	 * "In selection" check box.  The check box is only shown by dialogs
+	 * that search in that part of the document themselves, so this is
+	 * always {@link SearchScope#DOCUMENT} if it is hidden.  Search events
+	 * fired to listeners are always for the whole document.
+	 *
+	 * @return The search scope.
+	 * @see #setSearchScope(SearchScope)
+	 */
+	public SearchScope getSearchScope() {
+		return selectionOnlyCheckBox.isVisible() &&
+				selectionOnlyCheckBox.isSelected() ? SearchScope.SELECTION :
+				SearchScope.DOCUMENT;
+	}
+
+
 	/**
 	 * Returns the text for the "Up" radio button.
 	 *
@@ -281,13 +303,44 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Called when the results of an {@link AsyncSearchListener} start or stop
+	 * being pending.  The default implementation shows a wait cursor while
+	 * results are pending, and disables the buttons that search.
+	 * Subclasses can override.
+	 *
+	 * @param pending Whether results are pending.
+	 * @see #isSearchPending()
+	 */
+	protected void handleSearchPendingChanged(boolean pending) {
+		setCursor(pending ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) :
+				null);
+		handleToggleButtons();
+	}
+
+
+	/**
+	 * Called when the result of an {@link AsyncSearchListener} is available.
+	 * The default implementation gives error feedback if nothing was found,
+	 * the search wrapped, or the operation failed.  Subclasses can override.
+	 *
+	 * @param e The event the result is for.
+	 * @param result The result, or {@code null} if the operation failed.
+	 */
+	protected void handleSearchResult(SearchEvent e, SearchResult result) {
+		if (SearchUtil.isFailure(e, result) || result.isWrapped()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(findTextCombo);
+		}
+	}
+
+
 	@Override
 	protected FindReplaceButtonsEnableResult handleToggleButtons() {
 
 		FindReplaceButtonsEnableResult er = super.handleToggleButtons();
 		boolean enable = er.getEnable();
 
-		findNextButton.setEnabled(enable);
+		findNextButton.setEnabled(enable && !isSearchPending());
 
 		// setBackground doesn't show up with XP Look and Feel!
 		JTextComponent tc = UIUtil.getTextComponent(findTextCombo);
@@ -305,6 +358,9 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 	private void init() {
 
 		listenerList = new EventListenerList();
+		PendingSearchListener psl = new PendingSearchListener();
+		pendingSearch = new PendingSearch(psl);
+		UIUtil.getTextComponent(findTextCombo).getDocument().addDocumentListener(psl);
 
 		// Make a panel containing the "search up/down" radio buttons.
 		dirPanel = new JPanel();
@@ -330,6 +386,14 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 		markAllCheckBox.setActionCommand("MarkAll");
 		markAllCheckBox.addActionListener(this);
 
+		// Initialize the "in selection" check box.  SearchContext has no
+		// such property, so it's only stored here.  It's hidden unless a
+		// subclass searches in the selection itself.
+		selectionOnlyCheckBox = new JCheckBox(getString("InSelection"));
+		selectionOnlyCheckBox.setMnemonic((int)getString("InSelectionMnemonic").charAt(0));
+		selectionOnlyCheckBox.setToolTipText(getString("InSelection.ToolTip"));
+		selectionOnlyCheckBox.setVisible(false);
+
 		// Rearrange the search conditions panel.
 		searchConditionsPanel.removeAll();
 		searchConditionsPanel.setLayout(new BorderLayout());
@@ -343,6 +407,7 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 		temp.setLayout(new BoxLayout(temp, BoxLayout.PAGE_AXIS));
 		temp.add(regexCheckBox);
 		temp.add(markAllCheckBox);
+		temp.add(selectionOnlyCheckBox);
 		searchConditionsPanel.add(temp, BorderLayout.LINE_END);
 
 		// Create the "Find what" label.
@@ -399,6 +464,19 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Returns whether the results of an {@link AsyncSearchListener} are
+	 * pending.  While they are, the buttons that search are disabled.
+	 * Results are cancelled when another search event is fired, or the text
+	 * to search for is edited.
+	 *
+	 * @return Whether results are pending.
+	 */
+	public boolean isSearchPending() {
+		return pendingSearch!=null && pendingSearch.isPending();
+	}
+
+
 	/**
 	 * Overridden to initialize UI elements specific to this subclass.
 	 */
@@ -471,6 +549,17 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Sets the part of the document to search.
+	 *
+	 * @param scope The search scope.  This cannot be {@code null}.
+	 * @see #getSearchScope()
+	 */
+	public void setSearchScope(SearchScope scope) {
+		selectionOnlyCheckBox.setSelected(scope == SearchScope.SELECTION);
+	}
+
+
 	/**
 	 * Sets the text label for the "Up" radio button.
 	 *
@@ -482,4 +571,38 @@ public abstract class AbstractFindReplaceDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Cancels pending search results when the text to search for is edited,
+	 * and updates the UI when results arrive.
+	 */
+	private final class PendingSearchListener implements DocumentListener,
+			PendingSearch.Listener {
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			pendingSearch.cancel();
+		}
+
+		@Override
+		public void pendingChanged(boolean pending) {
+			handleSearchPendingChanged(pending);
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			pendingSearch.cancel();
+		}
+
+		@Override
+		public void searchCompleted(SearchEvent e, SearchResult result) {
+			handleSearchResult(e, result);
+		}
+
+	}
+
+
 }
@@ -18,7 +18,6 @@ import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import javax.imageio.ImageIO;
@@ -32,7 +31,6 @@ import javax.swing.text.JTextComponent;
 
 import org.fife.rsta.ui.EscapableDialog;
 import org.fife.rsta.ui.UIUtil;
-import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
 import org.fife.ui.rtextarea.SearchContext;
 
 
@@ -330,6 +328,7 @@ public class AbstractSearchDialog extends EscapableDialog
 		// "Content assist" support
 		boolean b = regexCheckBox.isSelected();
 		findTextCombo.setAutoCompleteEnabled(b);
+		findTextCombo.setRegexHighlightingEnabled(b);
 	}
 
 
@@ -399,10 +398,13 @@ public class AbstractSearchDialog extends EscapableDialog
 		}
 		if (regexCheckBox.isSelected()) {
 			try {
-				Pattern.compile(text);
+				SearchMatcher.getPattern(text, true, caseCheckBox.isSelected());
 			} catch (PatternSyntaxException pse) {
 				return new FindReplaceButtonsEnableResult(false, pse.getMessage());
 			}
+			// Valid, but might hang the search
+			return new FindReplaceButtonsEnableResult(true,
+					SearchUtil.getNestedQuantifierWarning(findTextCombo));
 		}
 		return new FindReplaceButtonsEnableResult(true, null);
 	}
@@ -442,32 +444,9 @@ public class AbstractSearchDialog extends EscapableDialog
 
 
 	protected boolean matchesSearchFor(String text) {
-		if (text==null || text.isEmpty()) {
-			return false;
-		}
-		String searchFor = findTextCombo.getSelectedString();
-		if (searchFor!=null && !searchFor.isEmpty()) {
-			boolean matchCase = caseCheckBox.isSelected();
-			if (regexCheckBox.isSelected()) {
-				int flags = Pattern.MULTILINE; // '^' and '$' are done per line.
-				flags = RSyntaxUtilities.getPatternFlags(matchCase, flags);
-				Pattern pattern;
-				try {
-					pattern = Pattern.compile(searchFor, flags);
-				} catch (PatternSyntaxException pse) {
-					pse.printStackTrace(); // Never happens
-					return false;
-				}
-				return pattern.matcher(text).matches();
-			}
-			else {
-				if (matchCase) {
-					return searchFor.equals(text);
-				}
-				return searchFor.equalsIgnoreCase(text);
-			}
-		}
-		return false;
+		return SearchUtil.matchesSearchFor(text,
+				findTextCombo.getSelectedString(), caseCheckBox.isSelected(),
+				regexCheckBox.isSelected());
 	}
 
 
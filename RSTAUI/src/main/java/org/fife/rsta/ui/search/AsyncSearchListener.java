@@ -0,0 +1,78 @@
+/*
+ * 10/18/2026
+ *
+ * AsyncSearchListener - Listens for events in find/replace dialogs and
+ * toolbars, and handles them asynchronously.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.fife.ui.rtextarea.SearchResult;
+
+
+/**
+ * A {@link SearchListener} that does its work asynchronously.  Find and
+ * Replace dialogs and toolbars call {@link #searchEventAsync(SearchEvent)}
+ * instead of {@link #searchEvent(SearchEvent)} for listeners implementing
+ * this interface.  While the returned future is pending, the dialog or
+ * toolbar disables its Find and Replace buttons and shows that a search is
+ * in progress.  When the future completes, its {@code SearchResult} is
+ * reported to the user; for example, if nothing was found, error feedback
+ * is given.<p>
+ *
+ * If the user fires another search event, or edits the text to search for,
+ * before the future completes, the future is cancelled and its result is
+ * ignored.  Implementations doing their work on another thread should stop
+ * when that happens.<p>
+ *
+ * Example usage:
+ * <pre>
+ * public CompletableFuture&lt;SearchResult&gt; searchEventAsync(SearchEvent e) {
+ *    CompletableFuture&lt;SearchResult&gt; future = new CompletableFuture&lt;&gt;();
+ *    // Search a copy of the document on another thread, then select the
+ *    // match on the EDT and complete the future with the SearchResult
+ *    ...
+ *    return future;
+ * }
+ * </pre>
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see AbstractFindReplaceDialog#isSearchPending()
+ * @see FindToolBar#isSearchPending()
+ */
+public interface AsyncSearchListener extends SearchListener {
+
+
+	/**
+	 * Calls {@link #searchEventAsync(SearchEvent)} and ignores the result,
+	 * so this listener can also be used where only {@code SearchListener}s
+	 * are supported.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	default void searchEvent(SearchEvent e) {
+		searchEventAsync(e);
+	}
+
+
+	/**
+	 * Called on the EDT whenever a search event occurs.  This should start
+	 * the operation and return without waiting for it to complete.
+	 *
+	 * @param e The event.
+	 * @return A future that completes with the result of the operation.  It
+	 *         may be completed on any thread; the result is always reported
+	 *         on the EDT.  If it completes exceptionally, the operation is
+	 *         treated as having failed.  This may be {@code null} if the
+	 *         event was ignored.
+	 */
+	CompletableFuture<SearchResult> searchEventAsync(SearchEvent e);
+
+
+}
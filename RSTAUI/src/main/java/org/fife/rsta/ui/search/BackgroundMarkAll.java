@@ -0,0 +1,560 @@
+/*
+ * 10/18/2026
+ *
+ * BackgroundMarkAll - Performs "mark all" operations on a worker thread.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchResult;
+
+
+/**
+ * Highlights all occurrences of searched-for text in a text area without
+ * blocking the EDT.  The text area's content is snapshotted and searched on a
+ * worker thread (the snapshot is only copied out of the document again after
+ * an edit); matches are handed back to the EDT in batches, so the first
+ * occurrences are highlighted almost immediately even in very large
+ * documents.<p>
+ *
+ * Only one search runs at a time.  Starting a new one cancels the one in
+ * progress, as does calling {@link #cancel()}.  If the text area's document
+ * is modified while a search is running, that search's results would be
+ * stale, so it is discarded and the search is restarted after a short
+ * delay.<p>
+ *
+ * The offsets of the matches found are also kept, and are updated as the
+ * document is edited, so {@link #find(SearchContext)} can usually select the
+ * next or previous match without searching the document again.<p>
+ *
+ * If finding a single match takes too long, which usually means a regular
+ * expression is backtracking catastrophically, the search stops, and the
+ * occurrences found so far remain highlighted.  See
+ * {@link #wasTimedOut()}.<p>
+ *
+ * All methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindToolBar#setTextArea(RTextArea)
+ */
+public class BackgroundMarkAll {
+
+	private RTextArea textArea;
+	private DocumentSnapshot snapshot;
+	private boolean ownsSnapshot;
+	private Listener listener;
+	private MarkAllWorker worker;
+	private SearchContext restartContext;
+	private Timer restartTimer;
+	private int markedCount;
+	private MatchOffsetIndex index;
+	private Pattern indexPattern;
+	private boolean indexWholeWord;
+	private boolean timedOut;
+	private List<ChangeListener> changeListeners;
+
+	/**
+	 * The number of matches found before they are handed to the EDT.
+	 */
+	private static final int BATCH_SIZE = 1024;
+
+	/**
+	 * The delay after a document edit before an interrupted search is
+	 * restarted, in milliseconds.
+	 */
+	private static final int RESTART_DELAY = 500;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to mark occurrences in.  This cannot be
+	 *        {@code null}.
+	 */
+	public BackgroundMarkAll(RTextArea textArea) {
+		this(textArea, null);
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to mark occurrences in.  This cannot be
+	 *        {@code null}.
+	 * @param snapshot A snapshot of the text area's content shared with
+	 *        other searches, or {@code null} to create one.  A shared
+	 *        snapshot isn't uninstalled by {@link #uninstall()}.
+	 */
+	BackgroundMarkAll(RTextArea textArea, DocumentSnapshot snapshot) {
+		this.textArea = textArea;
+		ownsSnapshot = snapshot == null;
+		this.snapshot = ownsSnapshot ? new DocumentSnapshot(textArea) : snapshot;
+		listener = new Listener();
+		textArea.addPropertyChangeListener("document", listener);
+		textArea.getDocument().addDocumentListener(listener);
+		restartTimer = new Timer(RESTART_DELAY, e -> {
+			if (restartContext != null) {
+				markAll(restartContext);
+			}
+		});
+		restartTimer.setRepeats(false);
+		changeListeners = new CopyOnWriteArrayList<>();
+	}
+
+
+	/**
+	 * Adds a listener notified when a search completes or is cancelled.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	void addChangeListener(ChangeListener l) {
+		changeListeners.add(l);
+	}
+
+
+	/**
+	 * Cancels the search in progress, if any.  Any occurrences already
+	 * highlighted remain highlighted.
+	 */
+	public void cancel() {
+		boolean wasRunning = isRunning();
+		restartTimer.stop();
+		restartContext = null;
+		if (worker != null) {
+			worker.interrupt();
+			worker = null;
+		}
+		if (wasRunning) {
+			fireStateChanged();
+		}
+	}
+
+
+	private void clear() {
+		textArea.clearMarkAllHighlights();
+		markedCount = 0;
+		index = null;
+	}
+
+
+	/**
+	 * Selects the next or previous match of a search using the offsets found
+	 * by the most recent "mark all" search, rather than by searching the
+	 * document.  This is only possible if that search was for the same text
+	 * with the same options, and has completed, and if no edits since then
+	 * could affect the result; otherwise {@code null} is returned and the
+	 * caller should search the document as usual.
+	 *
+	 * @param context The search context.  Its direction and "wrap" options
+	 *        are honored.
+	 * @return The result of the search, or {@code null} if the search could
+	 *         not be done with the known match offsets.
+	 */
+	public SearchResult find(SearchContext context) {
+
+		if (index == null || !isIndexFor(context)) {
+			return null;
+		}
+
+		int i;
+		boolean wrapped = false;
+		if (context.getSearchForward()) {
+			i = index.next(textArea.getSelectionEnd());
+			if (i == -1 && context.getSearchWrap()) {
+				i = index.next(0);
+				wrapped = true;
+			}
+		}
+		else {
+			i = index.previous(textArea.getSelectionStart());
+			if (i == -1 && context.getSearchWrap()) {
+				i = index.previous(textArea.getDocument().getLength());
+				wrapped = true;
+			}
+		}
+
+		if (i == MatchOffsetIndex.UNKNOWN) {
+			return null;
+		}
+		if (i == -1) {
+			return new SearchResult(null, 0, markedCount);
+		}
+		DocumentRange range = new DocumentRange(index.getStart(i), index.getEnd(i));
+		RSyntaxUtilities.selectAndPossiblyCenter(textArea, range, true);
+		return new SearchResult(range, 1, markedCount, wrapped);
+	}
+
+
+	private void fireStateChanged() {
+		if (!changeListeners.isEmpty()) {
+			ChangeEvent e = new ChangeEvent(this);
+			for (ChangeListener l : changeListeners) {
+				l.stateChanged(e);
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the offsets of the matches found by the most recent search, if
+	 * they are known to be exactly the matches of a search context in the
+	 * current document.  This is only the case if that search was for the
+	 * same text with the same options, and has completed, and the document
+	 * hasn't been edited since then.
+	 *
+	 * @param context The search context.
+	 * @return The match offsets, or {@code null} if they aren't known.  The
+	 *         index is updated as the document is edited, so callers should
+	 *         not keep it past the next edit.
+	 */
+	MatchOffsetIndex getIndex(SearchContext context) {
+		if (index == null || index.isDirty() || !isIndexFor(context)) {
+			return null;
+		}
+		return index;
+	}
+
+
+	/**
+	 * Returns the number of occurrences highlighted by the most recent
+	 * search.  If a search is still running, this is the number highlighted
+	 * so far.
+	 *
+	 * @return The number of highlighted occurrences.
+	 */
+	public int getMarkedCount() {
+		return markedCount;
+	}
+
+
+	/**
+	 * Returns the occurrences found by the most recent search, without
+	 * searching the document again.  This is only possible if that search
+	 * was for the same text with the same options, and has completed, and
+	 * the document hasn't been edited since then.
+	 *
+	 * @param context The search context.
+	 * @return The occurrences, in document order, or {@code null} if they
+	 *         aren't known.
+	 */
+	public List<DocumentRange> getOccurrences(SearchContext context) {
+		MatchOffsetIndex index = getIndex(context);
+		if (index == null) {
+			return null;
+		}
+		List<DocumentRange> ranges = new ArrayList<>(index.size());
+		for (int i = 0; i < index.size(); i++) {
+			ranges.add(new DocumentRange(index.getStart(i), index.getEnd(i)));
+		}
+		return ranges;
+	}
+
+
+	/**
+	 * Returns the text area occurrences are marked in.
+	 *
+	 * @return The text area.
+	 */
+	public RTextArea getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Returns whether the match offsets are for the same search as a search
+	 * context.
+	 */
+	private boolean isIndexFor(SearchContext context) {
+		Pattern pattern;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			return false;
+		}
+		return context.getWholeWord() == indexWholeWord &&
+				pattern.flags() == indexPattern.flags() &&
+				pattern.pattern().equals(indexPattern.pattern());
+	}
+
+
+	/**
+	 * Returns whether a search is currently running (or waiting to be
+	 * restarted after a document edit).
+	 *
+	 * @return Whether a search is running.
+	 */
+	public boolean isRunning() {
+		return worker != null || restartTimer.isRunning();
+	}
+
+
+	/**
+	 * Highlights all occurrences of the text described by a search context,
+	 * cancelling any search in progress.  If the context does not have
+	 * "mark all" enabled, doesn't specify any text to search for, or
+	 * specifies an invalid regular expression, any existing highlights are
+	 * simply cleared.
+	 *
+	 * @param context The search context.
+	 */
+	public void markAll(SearchContext context) {
+
+		cancel();
+
+		String searchFor = context.getSearchFor();
+		if (!context.getMarkAll() || searchFor == null || searchFor.isEmpty()) {
+			clear();
+			return;
+		}
+
+		Pattern pattern;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			clear();
+			return;
+		}
+
+		String text = snapshot.getText();
+
+		restartContext = context;
+		markedCount = 0;
+		index = null;
+		timedOut = false;
+		int reach = context.isRegularExpression() ?
+				MatchOffsetIndex.UNBOUNDED_REACH : searchFor.length() + 1;
+		worker = new MarkAllWorker(pattern, context.getWholeWord(), text,
+				new MatchOffsetIndex(reach));
+		worker.execute();
+	}
+
+
+	/**
+	 * Removes a listener notified when a search completes or is cancelled.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	void removeChangeListener(ChangeListener l) {
+		changeListeners.remove(l);
+	}
+
+
+	/**
+	 * Stops listening to the text area, and cancels any search in progress.
+	 * This instance should not be used after this method is called.
+	 */
+	public void uninstall() {
+		cancel();
+		textArea.removePropertyChangeListener("document", listener);
+		textArea.getDocument().removeDocumentListener(listener);
+		if (ownsSnapshot) {
+			snapshot.uninstall();
+		}
+	}
+
+
+	/**
+	 * Returns whether the most recent search stopped because finding a
+	 * match took too long.
+	 *
+	 * @return Whether the search timed out.
+	 */
+	public boolean wasTimedOut() {
+		return timedOut;
+	}
+
+
+	/**
+	 * Listens for changes to the text area's document.
+	 */
+	private final class Listener implements DocumentListener,
+			PropertyChangeListener {
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		private void handleDocumentChange(DocumentEvent e) {
+			if (index != null) {
+				if (e.getType() == DocumentEvent.EventType.INSERT) {
+					index.insertUpdate(e.getOffset(), e.getLength());
+				}
+				else {
+					index.removeUpdate(e.getOffset(), e.getLength());
+				}
+			}
+			if (worker != null) {
+				SearchContext context = restartContext;
+				cancel();
+				restartContext = context;
+				restartTimer.restart();
+			}
+			else if (restartTimer.isRunning()) {
+				restartTimer.restart();
+			}
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			handleDocumentChange(e);
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			cancel();
+			index = null;
+			Document old = (Document)e.getOldValue();
+			if (old != null) {
+				old.removeDocumentListener(this);
+			}
+			Document doc = (Document)e.getNewValue();
+			if (doc != null) {
+				doc.addDocumentListener(this);
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			handleDocumentChange(e);
+		}
+
+	}
+
+
+	/**
+	 * Searches a snapshot of the document, handing matches to the EDT in
+	 * batches.  Batches are posted with {@code invokeLater()} rather than
+	 * {@code publish()}, since the latter does not guarantee that all
+	 * chunks are processed before {@code done()} is called.
+	 */
+	private final class MarkAllWorker extends SwingWorker<Void, Void> {
+
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private final InterruptibleCharSequence text;
+		private final List<DocumentRange> ranges;
+		private final MatchOffsetIndex offsets;
+		private volatile boolean matchTimedOut;
+
+		/**
+		 * The number of ranges in {@code ranges} that have been applied to
+		 * the text area.
+		 */
+		private int applied;
+
+		MarkAllWorker(Pattern pattern, boolean wholeWord, String text,
+				MatchOffsetIndex offsets) {
+			this.pattern = pattern;
+			this.wholeWord = wholeWord;
+			this.text = new InterruptibleCharSequence(text);
+			this.offsets = offsets;
+			ranges = new ArrayList<>();
+		}
+
+		/**
+		 * Re-highlights everything found so far.  To keep the total work
+		 * linear in the number of matches, this is only done each time the
+		 * number of matches doubles.
+		 *
+		 * @param force Whether to apply the ranges even if their count
+		 *        hasn't doubled.
+		 */
+		private void applyRanges(boolean force) {
+			int count = ranges.size();
+			if (count > applied && (force || count >= 2 * applied)) {
+				textArea.markAll(ranges);
+				applied = count;
+				markedCount = count;
+			}
+		}
+
+		@Override
+		protected Void doInBackground() {
+			SearchMatcher matcher = new SearchMatcher(pattern, wholeWord, text);
+			List<DocumentRange> batch = new ArrayList<>(BATCH_SIZE);
+			try {
+				while (matcher.find()) {
+					batch.add(new DocumentRange(matcher.start(), matcher.end()));
+					if (batch.size() == BATCH_SIZE) {
+						post(batch, false);
+						batch = new ArrayList<>(BATCH_SIZE);
+					}
+				}
+			} catch (MatchTimeoutException mte) {
+				matchTimedOut = true;
+			} catch (CancellationException ce) {
+				return null; // A newer search has replaced us
+			}
+			post(batch, true);
+			return null;
+		}
+
+		private void handleBatch(List<DocumentRange> batch, boolean last) {
+			if (worker != this) {
+				return;
+			}
+			ranges.addAll(batch);
+			for (DocumentRange range : batch) {
+				offsets.add(range.getStartOffset(), range.getEndOffset());
+			}
+			if (last) {
+				worker = null;
+				restartContext = null;
+				applyRanges(true);
+				if (ranges.isEmpty()) {
+					clear();
+				}
+				if (matchTimedOut) {
+					timedOut = true; // Keep what we found, but it's incomplete
+				}
+				else {
+					index = offsets;
+					indexPattern = pattern;
+					indexWholeWord = wholeWord;
+				}
+				fireStateChanged();
+			}
+			else {
+				applyRanges(false);
+			}
+		}
+
+		void interrupt() {
+			text.interrupt();
+			cancel(false);
+		}
+
+		private void post(List<DocumentRange> batch, boolean last) {
+			SwingUtilities.invokeLater(() -> handleBatch(batch, last));
+		}
+
+	}
+
+
+}
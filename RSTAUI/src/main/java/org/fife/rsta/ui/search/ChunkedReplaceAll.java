@@ -0,0 +1,669 @@
+/*
+ * 10/18/2026
+ *
+ * ChunkedReplaceAll - Performs "replace all" operations without blocking
+ * the EDT.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Replaces all occurrences of searched-for text in a text area without
+ * locking up the UI.  Matches are found in a snapshot of the document on a
+ * worker thread, and streamed back to the EDT, where they are applied in
+ * small, time-boxed slices.  All replacements are made in a single atomic
+ * edit, so they can be undone in one step, even if the operation was
+ * cancelled part of the way through.<p>
+ *
+ * The text area is made non-editable while the operation runs.  If its
+ * document is modified by anything else anyway, the operation is
+ * cancelled.  If finding a single match takes too long, which usually
+ * means a regular expression is backtracking catastrophically, the
+ * operation stops after replacing the matches found so far; see
+ * {@link #wasTimedOut()}.<p>
+ *
+ * Replacements can be restricted to the selected text; see
+ * {@link #start(SearchContext, SearchScope)}.  Only the lines containing
+ * the selection are copied and scanned, so this is fast even in huge
+ * documents.  Replacements reviewed in a {@link ReplacePreview} are made
+ * the same way; see {@link ReplacePreview#apply(ChunkedReplaceAll)}.<p>
+ *
+ * Progress can be monitored by listening for
+ * {@link #PROGRESS_PROPERTY} and {@link #RUNNING_PROPERTY} property
+ * change events.  All methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ReplaceDialog#setTextArea(RTextArea)
+ * @see ReplaceToolBar#setTextArea(RTextArea)
+ */
+public class ChunkedReplaceAll {
+
+	/**
+	 * Property fired when the percentage of the document processed changes.
+	 */
+	public static final String PROGRESS_PROPERTY = "ChunkedReplaceAll.progress";
+
+	/**
+	 * Property fired when an operation starts or finishes.
+	 */
+	public static final String RUNNING_PROPERTY = "ChunkedReplaceAll.running";
+
+	private RTextArea textArea;
+	private PropertyChangeSupport support;
+	private Listener listener;
+	private Producer worker;
+	private Deque<Chunk> pending;
+	private boolean applyScheduled;
+	private boolean applying;
+	private boolean wasEditable;
+
+	private String replaceWith;
+	private boolean selectionOnly;
+	private int rangeStart;
+	private int rangeEnd;
+	private int base;
+	private int delta;
+	private int progress;
+	private int replacedCount;
+	private long startNanos;
+	private long elapsedNanos;
+	private boolean cancelled;
+	private boolean timedOut;
+
+	/**
+	 * The maximum number of matches handed to the EDT at once.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+
+	/**
+	 * The longest we'll spend replacing matches before yielding the EDT.
+	 */
+	private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to replace text in.  This cannot be
+	 *        {@code null}.
+	 */
+	public ChunkedReplaceAll(RTextArea textArea) {
+		this.textArea = textArea;
+		support = new PropertyChangeSupport(this);
+		listener = new Listener();
+		pending = new ArrayDeque<>();
+	}
+
+
+	/**
+	 * Adds a listener for property changes in this object.
+	 *
+	 * @param l The listener to add.
+	 * @see #removePropertyChangeListener(PropertyChangeListener)
+	 */
+	public void addPropertyChangeListener(PropertyChangeListener l) {
+		support.addPropertyChangeListener(l);
+	}
+
+
+	/**
+	 * Replaces as many pending matches as possible in one slice of time,
+	 * then either reschedules itself or finishes the operation.
+	 */
+	private void applySlice() {
+
+		applyScheduled = false;
+		if (worker == null) { // Cancelled
+			return;
+		}
+
+		long deadline = System.nanoTime() + SLICE_NANOS;
+		int lastEnd = -1;
+		applying = true;
+		try {
+			while (!pending.isEmpty() && System.nanoTime() < deadline) {
+				Chunk chunk = pending.peek();
+				for (int i = 0; i < 64 && chunk.next < chunk.count; i++) {
+					lastEnd = replace(chunk, chunk.next++);
+				}
+				if (chunk.next == chunk.count) {
+					pending.remove();
+				}
+			}
+		} catch (RuntimeException re) {
+			// Don't leave the atomic edit open and the text area read-only
+			cancel();
+			throw re;
+		} finally {
+			applying = false;
+		}
+
+		if (lastEnd > -1) {
+			setProgress((int)(100L * (base + lastEnd - rangeStart) /
+					Math.max(1, rangeEnd - rangeStart)));
+		}
+		if (!pending.isEmpty()) {
+			scheduleApply();
+		}
+		else if (worker.searchDone) {
+			timedOut = worker.matchTimedOut;
+			finish(timedOut);
+		}
+	}
+
+
+	/**
+	 * Starts an operation whose replacements are produced by a worker.
+	 * {@code base}, the range and the replacement template must already
+	 * be set.
+	 *
+	 * @param worker The worker.
+	 */
+	private void begin(Producer worker) {
+
+		delta = base;
+		replacedCount = 0;
+		cancelled = false;
+		timedOut = false;
+		progress = 0;
+		startNanos = System.nanoTime();
+
+		textArea.beginAtomicEdit();
+		wasEditable = textArea.isEditable();
+		textArea.setEditable(false);
+		textArea.addPropertyChangeListener("document", listener);
+		textArea.getDocument().addDocumentListener(listener);
+
+		this.worker = worker;
+		worker.execute();
+		support.firePropertyChange(RUNNING_PROPERTY, false, true);
+	}
+
+
+	/**
+	 * Cancels the operation in progress, if any.  Any replacements already
+	 * made are kept.
+	 */
+	public void cancel() {
+		if (worker != null) {
+			worker.interrupt();
+			finish(true);
+		}
+	}
+
+
+	/**
+	 * Cleans up after an operation completes or is cancelled.
+	 *
+	 * @param cancelled Whether the operation was cancelled.
+	 */
+	private void finish(boolean cancelled) {
+		this.cancelled = cancelled;
+		elapsedNanos = System.nanoTime() - startNanos;
+		worker = null;
+		pending.clear();
+		textArea.removePropertyChangeListener("document", listener);
+		textArea.getDocument().removeDocumentListener(listener);
+		textArea.setEditable(wasEditable);
+		textArea.endAtomicEdit();
+		if (selectionOnly) { // Select the new text, so it can be searched again
+			int end = Math.min(rangeEnd + delta - base,
+					textArea.getDocument().getLength());
+			textArea.select(rangeStart, end);
+		}
+		if (!cancelled) {
+			setProgress(100);
+		}
+		support.firePropertyChange(RUNNING_PROPERTY, true, false);
+	}
+
+
+	/**
+	 * Returns the number of matches replaced per second by the most recent
+	 * operation.
+	 *
+	 * @return The number of matches replaced per second.
+	 * @see #getReplacedCount()
+	 */
+	public long getMatchesPerSecond() {
+		long nanos = Math.max(1, elapsedNanos);
+		return replacedCount * TimeUnit.SECONDS.toNanos(1) / nanos;
+	}
+
+
+	/**
+	 * Returns the percentage of the document processed by the current
+	 * operation.
+	 *
+	 * @return The progress, from {@code 0} to {@code 100}.
+	 */
+	public int getProgress() {
+		return progress;
+	}
+
+
+	/**
+	 * Returns the number of matches replaced by the current or most recent
+	 * operation.
+	 *
+	 * @return The number of matches replaced.
+	 * @see #getMatchesPerSecond()
+	 */
+	public int getReplacedCount() {
+		return replacedCount;
+	}
+
+
+	/**
+	 * Returns the text area text is replaced in.
+	 *
+	 * @return The text area.
+	 */
+	public RTextArea getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Returns whether an operation is running.
+	 *
+	 * @return Whether an operation is running.
+	 */
+	public boolean isRunning() {
+		return worker != null;
+	}
+
+
+	/**
+	 * Removes a property change listener from this object.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addPropertyChangeListener(PropertyChangeListener)
+	 */
+	public void removePropertyChangeListener(PropertyChangeListener l) {
+		support.removePropertyChangeListener(l);
+	}
+
+
+	/**
+	 * Replaces a single match.
+	 *
+	 * @param chunk The chunk containing the match.
+	 * @param index The index of the match in the chunk.
+	 * @return The end offset of the match in the original text.
+	 */
+	private int replace(Chunk chunk, int index) {
+		int start = chunk.starts[index];
+		int end = chunk.ends[index];
+		String replacement = chunk.replacements[index];
+		if (replacement == null) {
+			replacement = replaceWith;
+		}
+		textArea.replaceRange(replacement, start + delta, end + delta);
+		delta += replacement.length() - (end - start);
+		replacedCount++;
+		return end;
+	}
+
+
+	private void scheduleApply() {
+		if (!applyScheduled) {
+			applyScheduled = true;
+			SwingUtilities.invokeLater(this::applySlice);
+		}
+	}
+
+
+	private void setProgress(int progress) {
+		int old = this.progress;
+		this.progress = progress;
+		support.firePropertyChange(PROGRESS_PROPERTY, old, progress);
+	}
+
+
+	/**
+	 * Starts replacing all occurrences of the text described by a search
+	 * context, cancelling any operation in progress.  This method returns
+	 * immediately.
+	 *
+	 * @param context The search context.
+	 * @return Whether the operation was started.  This will be
+	 *         {@code false} if the context does not specify any text to
+	 *         search for, or specifies an invalid regular expression.
+	 * @see #start(SearchContext, SearchScope)
+	 */
+	public boolean start(SearchContext context) {
+		return start(context, SearchScope.DOCUMENT);
+	}
+
+
+	/**
+	 * Starts replacing all occurrences of the text described by a search
+	 * context in part of the document, cancelling any operation in
+	 * progress.  This method returns immediately.<p>
+	 *
+	 * If the scope is {@link SearchScope#SELECTION}, only text in the
+	 * current selection is replaced, and the selection is updated to
+	 * cover the new text when the operation finishes.
+	 *
+	 * @param context The search context.
+	 * @param scope The part of the document to replace text in.
+	 * @return Whether the operation was started.  This will be
+	 *         {@code false} if the context does not specify any text to
+	 *         search for, specifies an invalid regular expression, or if
+	 *         the scope is the selection and no text is selected.
+	 */
+	public boolean start(SearchContext context, SearchScope scope) {
+
+		cancel();
+
+		String searchFor = context.getSearchFor();
+		if (searchFor == null || searchFor.isEmpty()) {
+			return false;
+		}
+		Pattern pattern;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			return false;
+		}
+
+		Document doc = textArea.getDocument();
+		selectionOnly = scope == SearchScope.SELECTION;
+		rangeStart = selectionOnly ? textArea.getSelectionStart() : 0;
+		rangeEnd = selectionOnly ? textArea.getSelectionEnd() : doc.getLength();
+		if (selectionOnly && rangeStart == rangeEnd) {
+			return false;
+		}
+
+		// Only the lines containing the range are needed for '^', '$' and
+		// whole word checks to work as they do when searching everything
+		Element root = doc.getDefaultRootElement();
+		base = root.getElement(root.getElementIndex(rangeStart)).getStartOffset();
+		int limit = Math.min(doc.getLength(),
+				root.getElement(root.getElementIndex(rangeEnd)).getEndOffset());
+		String text;
+		try {
+			text = doc.getText(base, limit - base);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return false;
+		}
+
+		replaceWith = context.getReplaceWith();
+		if (replaceWith == null) {
+			replaceWith = "";
+		}
+		begin(new FindWorker(pattern, context.getWholeWord(), text,
+				rangeStart - base, rangeEnd - base));
+		return true;
+	}
+
+
+	/**
+	 * Starts making replacements that were found ahead of time, cancelling
+	 * any operation in progress.  The replacements are made just like
+	 * those found by {@link #start(SearchContext)}: in time-boxed slices,
+	 * in a single atomic edit.  This method returns immediately.
+	 *
+	 * @param starts The start offsets of the text to replace, in
+	 *        increasing order.
+	 * @param ends The end offsets of the text to replace.  No two ranges
+	 *        can overlap.
+	 * @param replacements The text to replace each range with.
+	 * @param count The number of replacements.  The arrays must not be
+	 *        modified while the operation runs.
+	 * @return Whether the operation was started.  This will be
+	 *         {@code false} if {@code count} is {@code 0}.
+	 * @see ReplacePreview#apply(ChunkedReplaceAll)
+	 */
+	boolean start(int[] starts, int[] ends, String[] replacements, int count) {
+
+		cancel();
+		if (count == 0) {
+			return false;
+		}
+
+		selectionOnly = false;
+		base = 0;
+		rangeStart = starts[0];
+		rangeEnd = ends[count - 1];
+		replaceWith = "";
+		begin(new ListWorker(starts, ends, replacements, count));
+		return true;
+	}
+
+
+	/**
+	 * Returns whether the most recent operation was cancelled before all
+	 * occurrences were replaced.
+	 *
+	 * @return Whether the operation was cancelled.
+	 */
+	public boolean wasCancelled() {
+		return cancelled;
+	}
+
+
+	/**
+	 * Returns whether the most recent operation stopped because finding a
+	 * match took too long.  Operations that time out are also considered
+	 * cancelled.
+	 *
+	 * @return Whether the operation timed out.
+	 * @see #wasCancelled()
+	 */
+	public boolean wasTimedOut() {
+		return timedOut;
+	}
+
+
+	/**
+	 * A batch of matches to replace.  Replacements are {@code null} when
+	 * the replacement template should be used verbatim.
+	 */
+	private static final class Chunk {
+
+		private final int[] starts;
+		private final int[] ends;
+		private final String[] replacements;
+		private int count;
+		private int next;
+
+		Chunk() {
+			starts = new int[CHUNK_SIZE];
+			ends = new int[CHUNK_SIZE];
+			replacements = new String[CHUNK_SIZE];
+		}
+
+	}
+
+
+	/**
+	 * Cancels the operation if the document is modified by anything but
+	 * us.
+	 */
+	private final class Listener implements DocumentListener,
+			PropertyChangeListener {
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			if (!applying) {
+				cancel();
+			}
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			// Our listener must come off the old document
+			Document doc = (Document)e.getOldValue();
+			if (doc != null) {
+				doc.removeDocumentListener(this);
+			}
+			cancel();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			if (!applying) {
+				cancel();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Finds matches in a snapshot of the document, and computes their
+	 * replacement text.
+	 */
+	private final class FindWorker extends Producer {
+
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private final InterruptibleCharSequence text;
+		private final String template;
+		private final int start;
+		private final int end;
+
+		FindWorker(Pattern pattern, boolean wholeWord, String text, int start,
+				int end) {
+			this.pattern = pattern;
+			this.wholeWord = wholeWord;
+			this.text = new InterruptibleCharSequence(text);
+			this.template = replaceWith;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected Void doInBackground() {
+			SearchMatcher matcher = new SearchMatcher(pattern, wholeWord, text);
+			matcher.setRange(start, end);
+			boolean literal = (pattern.flags() & Pattern.LITERAL) != 0;
+			Chunk chunk = new Chunk();
+			try {
+				while (matcher.find()) {
+					chunk.starts[chunk.count] = matcher.start();
+					chunk.ends[chunk.count] = matcher.end();
+					if (!literal) {
+						chunk.replacements[chunk.count] =
+								matcher.getReplacement(template);
+					}
+					if (++chunk.count == CHUNK_SIZE) {
+						post(chunk, false);
+						chunk = new Chunk();
+					}
+				}
+			} catch (MatchTimeoutException mte) {
+				matchTimedOut = true; // Replace what we found
+			} catch (CancellationException ce) {
+				return null;
+			}
+			post(chunk, true);
+			return null;
+		}
+
+		@Override
+		void interrupt() {
+			text.interrupt();
+			super.interrupt();
+		}
+
+	}
+
+
+	/**
+	 * Hands replacements that were found ahead of time to the EDT in
+	 * chunks.
+	 */
+	private final class ListWorker extends Producer {
+
+		private final int[] starts;
+		private final int[] ends;
+		private final String[] replacements;
+		private final int count;
+
+		ListWorker(int[] starts, int[] ends, String[] replacements, int count) {
+			this.starts = starts;
+			this.ends = ends;
+			this.replacements = replacements;
+			this.count = count;
+		}
+
+		@Override
+		protected Void doInBackground() {
+			for (int i = 0; i < count && !isCancelled(); i += CHUNK_SIZE) {
+				Chunk chunk = new Chunk();
+				chunk.count = Math.min(CHUNK_SIZE, count - i);
+				System.arraycopy(starts, i, chunk.starts, 0, chunk.count);
+				System.arraycopy(ends, i, chunk.ends, 0, chunk.count);
+				System.arraycopy(replacements, i, chunk.replacements, 0, chunk.count);
+				post(chunk, i + chunk.count == count);
+			}
+			return null;
+		}
+
+	}
+
+
+	/**
+	 * Produces the replacements to make on a worker thread.  Chunks are
+	 * posted with {@code invokeLater()} so they are guaranteed to arrive
+	 * in order, and before we're told the producer is done.
+	 */
+	private abstract class Producer extends SwingWorker<Void, Void> {
+
+		boolean searchDone;
+		volatile boolean matchTimedOut;
+
+		private void handleChunk(Chunk chunk, boolean last) {
+			if (worker == this) {
+				if (chunk.count > 0) {
+					pending.add(chunk);
+				}
+				searchDone = last;
+				scheduleApply(); // Finishes once all chunks are applied
+			}
+		}
+
+		void interrupt() {
+			cancel(false);
+		}
+
+		void post(Chunk chunk, boolean last) {
+			SwingUtilities.invokeLater(() -> handleChunk(chunk, last));
+		}
+
+	}
+
+
+}
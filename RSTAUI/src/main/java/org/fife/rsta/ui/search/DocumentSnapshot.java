@@ -0,0 +1,177 @@
+/*
+ * 10/18/2026
+ *
+ * DocumentSnapshot - Tracks the version of a text component's content.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+
+
+/**
+ * Tracks a "version" of a text component's content that is incremented on
+ * every edit, and caches an immutable copy of that content for searching on
+ * background threads.  Copying a large document is expensive, so operations
+ * that search the same, unmodified content repeatedly (e.g. once per
+ * keystroke in a "Find" field) should share an instance of this class.<p>
+ *
+ * The cached copy is released as soon as the document is modified, and
+ * registered {@code ChangeListener}s are notified.  All methods of this class
+ * should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class DocumentSnapshot implements DocumentListener,
+		PropertyChangeListener {
+
+	private final JTextComponent textComponent;
+	private int version;
+	private String text;
+	private List<ChangeListener> listeners;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textComponent The text component to track.
+	 */
+	DocumentSnapshot(JTextComponent textComponent) {
+		this.textComponent = textComponent;
+		listeners = new CopyOnWriteArrayList<>();
+		textComponent.addPropertyChangeListener("document", this);
+		textComponent.getDocument().addDocumentListener(this);
+	}
+
+
+	/**
+	 * Adds a listener notified whenever the content changes.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	void addChangeListener(ChangeListener l) {
+		listeners.add(l);
+	}
+
+
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+	}
+
+
+	/**
+	 * Returns the text component being tracked.
+	 *
+	 * @return The text component.
+	 */
+	JTextComponent getTextComponent() {
+		return textComponent;
+	}
+
+
+	/**
+	 * Returns the content of the text component.  This is only copied out
+	 * of the document if it has changed since the last call.
+	 *
+	 * @return The content.
+	 * @see #getVersion()
+	 */
+	String getText() {
+		if (text == null) {
+			Document doc = textComponent.getDocument();
+			try {
+				text = doc.getText(0, doc.getLength());
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+				text = "";
+			}
+		}
+		return text;
+	}
+
+
+	/**
+	 * Returns the version of the content.  This changes every time the
+	 * document is modified or replaced.
+	 *
+	 * @return The version.
+	 */
+	int getVersion() {
+		return version;
+	}
+
+
+	private void handleChange() {
+		version++;
+		text = null;
+		if (!listeners.isEmpty()) {
+			ChangeEvent e = new ChangeEvent(this);
+			for (ChangeListener l : listeners) {
+				l.stateChanged(e);
+			}
+		}
+	}
+
+
+	@Override
+	public void insertUpdate(DocumentEvent e) {
+		handleChange();
+	}
+
+
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+		Document old = (Document)e.getOldValue();
+		if (old != null) {
+			old.removeDocumentListener(this);
+		}
+		Document doc = (Document)e.getNewValue();
+		if (doc != null) {
+			doc.addDocumentListener(this);
+		}
+		handleChange();
+	}
+
+
+	/**
+	 * Removes a listener notified whenever the content changes.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	void removeChangeListener(ChangeListener l) {
+		listeners.remove(l);
+	}
+
+
+	@Override
+	public void removeUpdate(DocumentEvent e) {
+		handleChange();
+	}
+
+
+	/**
+	 * Stops tracking the text component.
+	 */
+	void uninstall() {
+		textComponent.removePropertyChangeListener("document", this);
+		textComponent.getDocument().removeDocumentListener(this);
+		text = null;
+	}
+
+
+}
@@ -0,0 +1,127 @@
+/*
+ * 10/18/2026
+ *
+ * FileMatch - A match found by a "find in files" search.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.nio.file.Path;
+
+
+/**
+ * A match found in a file by a {@link FindInFilesSearch}.  Along with the
+ * location of the match, the text of the line containing it is kept, so it
+ * can be displayed without reading the file again.  For very long lines,
+ * only the part of the line around the match is kept.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class FileMatch {
+
+	private final Path file;
+	private final int line;
+	private final int startOffset;
+	private final int endOffset;
+	private final String text;
+	private final int textOffset;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file The file containing the match.
+	 * @param line The 1-based line number of the match.
+	 * @param startOffset The offset of the start of the match.
+	 * @param endOffset The offset of the end of the match.
+	 * @param text The text of the line containing the match.
+	 * @param textOffset The offset of {@code text} in the file.
+	 */
+	public FileMatch(Path file, int line, int startOffset, int endOffset,
+			String text, int textOffset) {
+		this.file = file;
+		this.line = line;
+		this.startOffset = startOffset;
+		this.endOffset = endOffset;
+		this.text = text;
+		this.textOffset = textOffset;
+	}
+
+
+	/**
+	 * Returns the character offset of the end of the match in the file.
+	 *
+	 * @return The end offset.
+	 * @see #getStartOffset()
+	 */
+	public int getEndOffset() {
+		return endOffset;
+	}
+
+
+	/**
+	 * Returns the file containing the match.
+	 *
+	 * @return The file.
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+
+	/**
+	 * Returns the line number of the match.
+	 *
+	 * @return The 1-based line number.
+	 */
+	public int getLine() {
+		return line;
+	}
+
+
+	/**
+	 * Returns the character offset of the start of the match in the file.
+	 *
+	 * @return The start offset.
+	 * @see #getEndOffset()
+	 */
+	public int getStartOffset() {
+		return startOffset;
+	}
+
+
+	/**
+	 * Returns the text of the line containing the match, or the part of it
+	 * around the match if the line is very long.  This does not include the
+	 * line terminator.
+	 *
+	 * @return The text.
+	 * @see #getTextOffset()
+	 */
+	public String getText() {
+		return text;
+	}
+
+
+	/**
+	 * Returns the character offset in the file of the text returned by
+	 * {@link #getText()}.  The match starts at index
+	 * {@code getStartOffset() - getTextOffset()} of that text.
+	 *
+	 * @return The offset of the text.
+	 */
+	public int getTextOffset() {
+		return textOffset;
+	}
+
+
+	@Override
+	public String toString() {
+		return file + ":" + line + ": " + text;
+	}
+
+
+}
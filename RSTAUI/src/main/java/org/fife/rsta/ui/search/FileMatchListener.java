@@ -0,0 +1,36 @@
+/*
+ * 10/18/2026
+ *
+ * FileMatchListener - Listens for the user choosing a match in a file.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.EventListener;
+
+
+/**
+ * Listens for the user choosing a match found by a
+ * {@link FindInFilesSearch}, in a {@link FindInFilesDialog} or a
+ * {@link SearchResultsPanel}.  Applications will typically open the file
+ * and select the match.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindInFilesListener
+ */
+public interface FileMatchListener extends EventListener {
+
+
+	/**
+	 * Called on the EDT when the user chooses a match, for example by
+	 * double-clicking on it.
+	 *
+	 * @param match The match.
+	 */
+	void matchSelected(FileMatch match);
+
+
+}
@@ -0,0 +1,723 @@
+/*
+ * 10/18/2026
+ *
+ * FindInFilesDialog - Dialog for finding text in the files in a directory.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.Dialog;
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.GridLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import javax.swing.AbstractListModel;
+import javax.swing.BorderFactory;
+import javax.swing.BoxLayout;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.SpringLayout;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.EventListenerList;
+import javax.swing.text.JTextComponent;
+
+import org.fife.rsta.ui.AssistanceIconPanel;
+import org.fife.rsta.ui.CharsetList;
+import org.fife.rsta.ui.ResizableFrameContentPane;
+import org.fife.rsta.ui.UIUtil;
+
+
+/**
+ * A "Find in Files" dialog.  The user enters text to search for, using the
+ * same options and search history as the other search dialogs, and a folder
+ * to search.  All matches in the files in that folder are listed in the
+ * dialog as they are found; choosing one notifies
+ * {@link FileMatchListener}s, which will typically open the file and
+ * select the match.<p>
+ *
+ * Searching is done by a {@link FindInFilesSearch}, so it happens in the
+ * background, and in parallel across all available cores.  The user can
+ * stop a search at any time.  The list of matches only renders the rows
+ * that are visible, so it stays responsive even with many thousands of
+ * matches.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class FindInFilesDialog extends AbstractSearchDialog {
+
+	private static final long serialVersionUID = 1L;
+
+	private FindInFilesSearch search;
+	private EventListenerList listenerList;
+	private Listener listener;
+	private Path searchedDir;
+
+	private JTextField dirField;
+	private JButton browseButton;
+	private JTextField fileNamesField;
+	private JComboBox<String> charsetCombo;
+	private JCheckBox subfoldersCheckBox;
+	private JButton findButton;
+	private ResultsListModel resultsModel;
+	private JList<FileMatch> resultsList;
+	private JLabel statusLabel;
+	private Timer statusTimer;
+
+	/**
+	 * How often the status is updated while searching, in milliseconds.
+	 */
+	private static final int STATUS_UPDATE_DELAY = 250;
+
+	/**
+	 * The maximum number of characters of a line shown before, in and after
+	 * a match in the results list.
+	 */
+	private static final int MAX_TEXT_CHARS = 120;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The dialog that owns this dialog.
+	 */
+	public FindInFilesDialog(Dialog owner) {
+		super(owner);
+		init();
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The window that owns this dialog.
+	 */
+	public FindInFilesDialog(Frame owner) {
+		super(owner);
+		init();
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+
+		String command = e.getActionCommand();
+
+		if ("FindInFiles".equals(command)) {
+			doSearch();
+		}
+
+		else if ("Browse".equals(command)) {
+			browse();
+		}
+
+		else if ("FlipSubfolders".equals(command)) {
+			// Nothing to do; only read when searching
+		}
+
+		else {
+			super.actionPerformed(e);
+		}
+
+	}
+
+
+	/**
+	 * Adds a listener to be notified when the user chooses a match.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeFileMatchListener(FileMatchListener)
+	 */
+	public void addFileMatchListener(FileMatchListener l) {
+		listenerList.add(FileMatchListener.class, l);
+	}
+
+
+	/**
+	 * Adds a listener to be notified of search results.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeFindInFilesListener(FindInFilesListener)
+	 */
+	public void addFindInFilesListener(FindInFilesListener l) {
+		listenerList.add(FindInFilesListener.class, l);
+	}
+
+
+	private void addRow(JPanel panel, ComponentOrientation orientation,
+			JLabel label, Component comp) {
+		if (orientation.isLeftToRight()) {
+			panel.add(label);
+			panel.add(comp);
+		}
+		else {
+			panel.add(comp);
+			panel.add(label);
+		}
+	}
+
+
+	private void browse() {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+		String dir = dirField.getText().trim();
+		if (!dir.isEmpty()) {
+			chooser.setCurrentDirectory(new File(dir));
+		}
+		if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+			dirField.setText(chooser.getSelectedFile().getAbsolutePath());
+		}
+	}
+
+
+	private JPanel createResultsPanel() {
+
+		resultsModel = new ResultsListModel();
+		resultsList = new JList<>(resultsModel);
+		resultsList.setCellRenderer(new ResultsRenderer());
+		// A fixed cell size means only visible rows are ever rendered
+		resultsList.setPrototypeCellValue(new FileMatch(Paths.get("Prototype.txt"),
+				99999, 0, 0, String.format("%100s", "Prototype"), 0));
+		ResultsMouseListener ml = new ResultsMouseListener();
+		resultsList.addMouseListener(ml);
+		resultsList.addKeyListener(ml.keyListener);
+
+		JScrollPane sp = new JScrollPane(resultsList);
+		sp.setPreferredSize(new Dimension(500, 250));
+		statusLabel = new JLabel(" ");
+
+		JPanel panel = new JPanel(new BorderLayout());
+		panel.setBorder(UIUtil.getEmpty5Border());
+		panel.add(sp);
+		panel.add(statusLabel, BorderLayout.SOUTH);
+		return panel;
+	}
+
+
+	/**
+	 * Returns the HTML displayed for a match in the results list: its file,
+	 * line number and line, with the match in bold.  The file name and line
+	 * come from the files searched, so they are escaped.
+	 *
+	 * @param match The match.
+	 * @param file The file to display, which may be relative to the folder
+	 *        searched.
+	 * @return The HTML.
+	 */
+	static String describe(FileMatch match, Path file) {
+
+		String text = match.getText();
+		int length = text.length();
+		int start = Math.max(0, Math.min(match.getStartOffset() - match.getTextOffset(), length));
+		int end = Math.max(start, Math.min(match.getEndOffset() - match.getTextOffset(), length));
+		int lineStart = 0; // Leading and trailing whitespace isn't shown
+		while (lineStart < start && Character.isWhitespace(text.charAt(lineStart))) {
+			lineStart++;
+		}
+		int lineEnd = length;
+		while (lineEnd > end && Character.isWhitespace(text.charAt(lineEnd - 1))) {
+			lineEnd--;
+		}
+
+		StringBuilder sb = new StringBuilder("<html><nobr>");
+		SearchUtil.escapeHtml(sb, file.toString(), Integer.MAX_VALUE);
+		sb.append(':').append(match.getLine()).append(": ");
+		SearchUtil.escapeHtml(sb, text.substring(lineStart, start), MAX_TEXT_CHARS);
+		sb.append("<b>");
+		SearchUtil.escapeHtml(sb, text.substring(start, end), MAX_TEXT_CHARS);
+		sb.append("</b>");
+		SearchUtil.escapeHtml(sb, text.substring(end, lineEnd), MAX_TEXT_CHARS);
+		return sb.toString();
+	}
+
+
+	private void doSearch() {
+
+		if (search.isRunning()) {
+			search.cancel(); // Button is a "Stop" button while searching
+			return;
+		}
+
+		JTextComponent tc = UIUtil.getTextComponent(findTextCombo);
+		findTextCombo.addItem(tc.getText());
+		context.setSearchFor(getSearchString());
+
+		Path dir = getDirectory();
+		if (dir == null || !Files.isDirectory(dir)) {
+			statusLabel.setText(MessageFormat.format(getString("InvalidFolder"),
+					dirField.getText()));
+			UIManager.getLookAndFeel().provideErrorFeedback(dirField);
+			return;
+		}
+
+		resultsModel.clear();
+		searchedDir = dir;
+		if (search.start(context, dir, fileNamesField.getText(),
+				subfoldersCheckBox.isSelected(), getCharset())) {
+			findButton.setText(getString("Stop"));
+			statusTimer.start();
+			updateStatus();
+		}
+		else {
+			UIManager.getLookAndFeel().provideErrorFeedback(fileNamesField);
+		}
+	}
+
+
+	private void fireFileSearched(Path file, List<FileMatch> matches) {
+		FindInFilesListener[] listeners = listenerList.getListeners(
+				FindInFilesListener.class);
+		for (FindInFilesListener l : listeners) {
+			l.fileSearched(file, matches);
+		}
+	}
+
+
+	private void fireFileTimedOut(Path file) {
+		FindInFilesListener[] listeners = listenerList.getListeners(
+				FindInFilesListener.class);
+		for (FindInFilesListener l : listeners) {
+			l.fileTimedOut(file);
+		}
+	}
+
+
+	private void fireMatchSelected(FileMatch match) {
+		FileMatchListener[] listeners = listenerList.getListeners(
+				FileMatchListener.class);
+		for (FileMatchListener l : listeners) {
+			l.matchSelected(match);
+		}
+	}
+
+
+	private void fireSearchCompleted(boolean cancelled) {
+		FindInFilesListener[] listeners = listenerList.getListeners(
+				FindInFilesListener.class);
+		for (FindInFilesListener l : listeners) {
+			l.searchCompleted(cancelled);
+		}
+	}
+
+
+	/**
+	 * Returns the charset files are decoded with.
+	 *
+	 * @return The charset.
+	 * @see #setCharset(Charset)
+	 */
+	public Charset getCharset() {
+		return Charset.forName((String)charsetCombo.getSelectedItem());
+	}
+
+
+	/**
+	 * Returns the folder to search in.
+	 *
+	 * @return The folder, or {@code null} if the user hasn't entered a
+	 *         valid path.
+	 * @see #setDirectory(Path)
+	 */
+	public Path getDirectory() {
+		String dir = dirField.getText().trim();
+		if (dir.isEmpty()) {
+			return null;
+		}
+		try {
+			return Paths.get(dir);
+		} catch (InvalidPathException ipe) {
+			return null;
+		}
+	}
+
+
+	/**
+	 * Returns the glob patterns for the names of the files to search.
+	 *
+	 * @return The patterns, separated by commas.
+	 * @see #setFileNamePatterns(String)
+	 */
+	public String getFileNamePatterns() {
+		return fileNamesField.getText();
+	}
+
+
+	/**
+	 * Returns the search engine used by this dialog.
+	 *
+	 * @return The search engine.
+	 */
+	public FindInFilesSearch getSearch() {
+		return search;
+	}
+
+
+	@Override
+	protected FindReplaceButtonsEnableResult handleToggleButtons() {
+
+		FindReplaceButtonsEnableResult er = super.handleToggleButtons();
+		boolean enable = er.getEnable();
+
+		findButton.setEnabled(enable || search.isRunning());
+
+		JTextComponent tc = UIUtil.getTextComponent(findTextCombo);
+		tc.setForeground(enable ? UIManager.getColor("TextField.foreground") :
+									UIUtil.getErrorTextForeground());
+		tc.setToolTipText(SearchUtil.getToolTip(er)); // Always set, even if null
+
+		return er;
+	}
+
+
+	private void init() {
+
+		search = new FindInFilesSearch();
+		listenerList = new EventListenerList();
+		listener = new Listener();
+		search.addFindInFilesListener(listener);
+		statusTimer = new Timer(STATUS_UPDATE_DELAY, e -> updateStatus());
+
+		ComponentOrientation orientation = ComponentOrientation.
+									getOrientation(getLocale());
+
+		// The "Wrap" option doesn't apply to this dialog
+		searchConditionsPanel.remove(wrapCheckBox);
+		subfoldersCheckBox = new JCheckBox(getString("IncludeSubfolders"), true);
+		subfoldersCheckBox.setMnemonic((int)getString("IncludeSubfoldersMnemonic").charAt(0));
+		subfoldersCheckBox.setActionCommand("FlipSubfolders");
+		subfoldersCheckBox.addActionListener(this);
+		searchConditionsPanel.add(subfoldersCheckBox);
+
+		// The fields describing what to search for, and where
+		JTextComponent textField = UIUtil.getTextComponent(findTextCombo);
+		textField.getDocument().addDocumentListener(listener);
+		JPanel temp = new JPanel(new BorderLayout());
+		temp.add(findTextCombo);
+		temp.add(new AssistanceIconPanel(findTextCombo), BorderLayout.LINE_START);
+		dirField = new JTextField(30);
+		browseButton = UIUtil.newButton(getBundle(), "Browse");
+		browseButton.setActionCommand("Browse");
+		browseButton.addActionListener(this);
+		JPanel dirPanel = new JPanel(new BorderLayout(5, 0));
+		dirPanel.add(dirField);
+		dirPanel.add(browseButton, BorderLayout.LINE_END);
+		fileNamesField = new JTextField("*", 30);
+		charsetCombo = new JComboBox<>(CharsetList.get().createComboBoxModel());
+		setCharset(StandardCharsets.UTF_8);
+
+		JPanel enterTextPane = new JPanel(new SpringLayout());
+		enterTextPane.setBorder(BorderFactory.createEmptyBorder(0,5,5,5));
+		ResourceBundle msg = getBundle();
+		addRow(enterTextPane, orientation,
+				UIUtil.newLabel(msg, "FindWhat", findTextCombo), temp);
+		addRow(enterTextPane, orientation,
+				UIUtil.newLabel(msg, "InFolder", dirField), dirPanel);
+		addRow(enterTextPane, orientation,
+				UIUtil.newLabel(msg, "FileNames", fileNamesField), fileNamesField);
+		addRow(enterTextPane, orientation,
+				UIUtil.newLabel(msg, "Encoding", charsetCombo), charsetCombo);
+		UIUtil.makeSpringCompactGrid(enterTextPane, 4, 2,	//rows, cols
+											0,0,		//initX, initY
+											6, 6);	//xPad, yPad
+
+		JPanel leftPanel = new JPanel();
+		leftPanel.setLayout(new BoxLayout(leftPanel, BoxLayout.Y_AXIS));
+		leftPanel.add(enterTextPane);
+		JPanel bottomPanel = new JPanel(new BorderLayout());
+		bottomPanel.setBorder(UIUtil.getEmpty5Border());
+		bottomPanel.add(searchConditionsPanel, BorderLayout.LINE_START);
+		leftPanel.add(bottomPanel);
+
+		// The action buttons
+		findButton = UIUtil.newButton(getBundle(), "Find");
+		findButton.setActionCommand("FindInFiles");
+		findButton.addActionListener(this);
+		findButton.setEnabled(false);
+		JPanel buttonPanel = new JPanel(new GridLayout(2,1, 5,5));
+		buttonPanel.add(findButton);
+		buttonPanel.add(cancelButton);
+		JPanel rightPanel = new JPanel(new BorderLayout());
+		rightPanel.add(buttonPanel, BorderLayout.NORTH);
+
+		// Put everything into a neat little package.
+		JPanel topPanel = new JPanel(new BorderLayout());
+		if (orientation.isLeftToRight()) {
+			topPanel.setBorder(BorderFactory.createEmptyBorder(5,0,0,5));
+		}
+		else {
+			topPanel.setBorder(BorderFactory.createEmptyBorder(5,5,0,0));
+		}
+		topPanel.add(leftPanel);
+		topPanel.add(rightPanel, BorderLayout.LINE_END);
+		JPanel contentPane = new ResizableFrameContentPane(new BorderLayout());
+		contentPane.add(topPanel, BorderLayout.NORTH);
+		contentPane.add(createResultsPanel());
+		setContentPane(contentPane);
+		getRootPane().setDefaultButton(findButton);
+		setTitle(getString("FindInFilesDialogTitle"));
+		setResizable(true);
+		pack();
+		setLocationRelativeTo(getParent());
+
+		applyComponentOrientation(orientation);
+
+	}
+
+
+	/**
+	 * Removes a listener notified when the user chooses a match.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addFileMatchListener(FileMatchListener)
+	 */
+	public void removeFileMatchListener(FileMatchListener l) {
+		listenerList.remove(FileMatchListener.class, l);
+	}
+
+
+	/**
+	 * Removes a listener notified of search results.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addFindInFilesListener(FindInFilesListener)
+	 */
+	public void removeFindInFilesListener(FindInFilesListener l) {
+		listenerList.remove(FindInFilesListener.class, l);
+	}
+
+
+	/**
+	 * Sets the charset files are decoded with.
+	 *
+	 * @param charset The charset.
+	 * @see #getCharset()
+	 */
+	public void setCharset(Charset charset) {
+		charsetCombo.setSelectedItem(charset.name());
+	}
+
+
+	/**
+	 * Sets the folder to search in.
+	 *
+	 * @param dir The folder.  This may be {@code null}.
+	 * @see #getDirectory()
+	 */
+	public void setDirectory(Path dir) {
+		dirField.setText(dir == null ? "" : dir.toString());
+	}
+
+
+	/**
+	 * Sets the glob patterns for the names of the files to search.
+	 *
+	 * @param patterns The patterns, separated by commas or semicolons, for
+	 *        example {@code "*.java, *.xml"}.
+	 * @see #getFileNamePatterns()
+	 */
+	public void setFileNamePatterns(String patterns) {
+		fileNamesField.setText(patterns);
+	}
+
+
+	/**
+	 * Overridden to stop any search in progress when this dialog is hidden.
+	 *
+	 * @param visible Whether the dialog should be visible.
+	 */
+	@Override
+	public void setVisible(boolean visible) {
+		if (visible) {
+			handleToggleButtons();
+			super.setVisible(true);
+			focusFindTextField();
+		}
+		else {
+			search.cancel();
+			super.setVisible(false);
+		}
+	}
+
+
+	private void updateStatus() {
+		String key = search.isRunning() ? "FindInFilesSearching" : "FindInFilesResult";
+		String status = MessageFormat.format(getString(key),
+				search.getMatchCount(), search.getMatchingFileCount(),
+				search.getFileCount());
+		if (search.getTimedOutFileCount() > 0) {
+			status = MessageFormat.format(getString("FindInFilesTimedOut"),
+					status, search.getTimedOutFileCount());
+		}
+		statusLabel.setText(status);
+	}
+
+
+	/**
+	 * Listens for search results and edits to the "Find" field.
+	 */
+	private final class Listener implements FindInFilesListener,
+			DocumentListener {
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		@Override
+		public void fileSearched(Path file, List<FileMatch> matches) {
+			resultsModel.addAll(matches);
+			fireFileSearched(file, matches);
+		}
+
+		@Override
+		public void fileTimedOut(Path file) {
+			fireFileTimedOut(file);
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			handleToggleButtons();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			handleToggleButtons();
+		}
+
+		@Override
+		public void searchCompleted(boolean cancelled) {
+			statusTimer.stop();
+			findButton.setText(getString("Find"));
+			handleToggleButtons();
+			updateStatus();
+			fireSearchCompleted(cancelled);
+		}
+
+	}
+
+
+	/**
+	 * The matches found.  Matches are added a file at a time, with a single
+	 * event for each file.
+	 */
+	private static final class ResultsListModel extends AbstractListModel<FileMatch> {
+
+		private static final long serialVersionUID = 1L;
+
+		private List<FileMatch> matches = new ArrayList<>();
+
+		void addAll(List<FileMatch> newMatches) {
+			int start = matches.size();
+			matches.addAll(newMatches);
+			fireIntervalAdded(this, start, matches.size() - 1);
+		}
+
+		void clear() {
+			int size = matches.size();
+			if (size > 0) {
+				matches = new ArrayList<>();
+				fireIntervalRemoved(this, 0, size - 1);
+			}
+		}
+
+		@Override
+		public FileMatch getElementAt(int index) {
+			return matches.get(index);
+		}
+
+		@Override
+		public int getSize() {
+			return matches.size();
+		}
+
+	}
+
+
+	/**
+	 * Notifies listeners when the user double-clicks a match or presses
+	 * Enter on it.
+	 */
+	private final class ResultsMouseListener extends MouseAdapter {
+
+		private final KeyAdapter keyListener = new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent e) {
+				if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+					selectMatch();
+					e.consume(); // Don't press the default button
+				}
+			}
+		};
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			if (e.getClickCount() == 2) {
+				selectMatch();
+			}
+		}
+
+		private void selectMatch() {
+			FileMatch match = resultsList.getSelectedValue();
+			if (match != null) {
+				fireMatchSelected(match);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Renders a match as its file, line number and line text.
+	 */
+	private final class ResultsRenderer extends DefaultListCellRenderer {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list,
+				Object value, int index, boolean selected, boolean focused) {
+			super.getListCellRendererComponent(list, value, index, selected,
+					focused);
+			FileMatch match = (FileMatch)value;
+			Path file = match.getFile();
+			if (searchedDir != null && file.startsWith(searchedDir)) {
+				file = searchedDir.relativize(file);
+			}
+			setText(describe(match, file));
+			return this;
+		}
+
+	}
+
+
+}
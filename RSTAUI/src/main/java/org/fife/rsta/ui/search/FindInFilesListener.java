@@ -0,0 +1,59 @@
+/*
+ * 10/18/2026
+ *
+ * FindInFilesListener - Listens for results of a "find in files" search.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.nio.file.Path;
+import java.util.EventListener;
+import java.util.List;
+
+
+/**
+ * Listens for the results of a {@link FindInFilesSearch}.  All methods are
+ * called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FileMatchListener
+ */
+public interface FindInFilesListener extends EventListener {
+
+
+	/**
+	 * Called when matches are found in a file.  Files are reported in the
+	 * order in which their searches complete.  Files without any matches
+	 * are not reported.
+	 *
+	 * @param file The file.
+	 * @param matches The matches found, in the order they occur in the
+	 *        file.
+	 */
+	void fileSearched(Path file, List<FileMatch> matches);
+
+
+	/**
+	 * Called when searching a file stopped early, because finding a single
+	 * match took too long.  This usually means a regular expression is
+	 * backtracking catastrophically.  Any matches found before then have
+	 * just been passed to {@link #fileSearched(Path, List)}.
+	 *
+	 * @param file The file.
+	 */
+	void fileTimedOut(Path file);
+
+
+	/**
+	 * Called when a search completes, either because all files have been
+	 * searched or because it was cancelled.
+	 *
+	 * @param cancelled Whether the search was cancelled.
+	 */
+	void searchCompleted(boolean cancelled);
+
+
+}
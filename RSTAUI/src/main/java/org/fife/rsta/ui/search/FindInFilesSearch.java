@@ -0,0 +1,624 @@
+/*
+ * 10/18/2026
+ *
+ * FindInFilesSearch - Searches the files in a directory tree in parallel.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingUtilities;
+import javax.swing.event.EventListenerList;
+
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Finds all occurrences of searched-for text in the files in a directory
+ * tree.  The tree is walked on a {@code ForkJoinPool}, and each matching
+ * file is read, decoded and searched by its own task, so files are searched
+ * in parallel across all available cores.  The bytes of large files are
+ * memory-mapped rather than copied into the heap, though the text decoded
+ * from them, which is what is searched, is always on the heap.  Matches are
+ * handed to {@link FindInFilesListener}s on the EDT one file at a time, as
+ * soon as each file has been searched.<p>
+ *
+ * Files that look binary (that is, contain a NUL byte near their start) are
+ * skipped, as are files that can't be read.  Bytes that are invalid in the
+ * chosen charset are decoded as replacement characters.<p>
+ *
+ * Only one search runs at a time.  Starting a new search cancels the one in
+ * progress, as does calling {@link #cancel()}.  All methods of this class
+ * should be called on the EDT, except where noted.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindInFilesDialog
+ */
+public class FindInFilesSearch {
+
+	private ForkJoinPool pool;
+	private EventListenerList listenerList;
+	private SearchRun run;
+	private AtomicInteger fileCount;
+	private int matchCount;
+	private int matchingFileCount;
+	private int timedOutFileCount;
+
+	/**
+	 * Files at least this large have their bytes memory-mapped rather than
+	 * read.  Their decoded text is still on the heap.
+	 */
+	private static final int MAP_THRESHOLD = 1024 * 1024;
+
+	/**
+	 * The number of bytes at the start of a file checked for NUL bytes.
+	 */
+	private static final int BINARY_CHECK_LENGTH = 8 * 1024;
+
+	/**
+	 * The maximum length of the line text kept for a match.
+	 */
+	private static final int MAX_TEXT_LENGTH = 256;
+
+	/**
+	 * How much of a long line before a match is kept for it.
+	 */
+	private static final int MAX_TEXT_LEAD = 64;
+
+
+	/**
+	 * Constructor.  Searches will run on the common {@code ForkJoinPool}.
+	 */
+	public FindInFilesSearch() {
+		this(ForkJoinPool.commonPool());
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pool The pool to run searches on.  This cannot be
+	 *        {@code null}.
+	 */
+	public FindInFilesSearch(ForkJoinPool pool) {
+		this.pool = pool;
+		listenerList = new EventListenerList();
+		fileCount = new AtomicInteger();
+	}
+
+
+	/**
+	 * Adds a listener to be notified of search results.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeFindInFilesListener(FindInFilesListener)
+	 */
+	public void addFindInFilesListener(FindInFilesListener l) {
+		listenerList.add(FindInFilesListener.class, l);
+	}
+
+
+	/**
+	 * Cancels the search in progress, if any.  Listeners are notified that
+	 * the search completed and was cancelled.
+	 */
+	public void cancel() {
+		if (run != null) {
+			run.cancel();
+			run = null;
+			fireSearchCompleted(true);
+		}
+	}
+
+
+	/**
+	 * Returns a matcher for file names matching any of a list of glob
+	 * patterns, such as {@code "*.java, *.xml"}.  Each glob gets its own
+	 * matcher, since globs can't be nested in a single group, so globs
+	 * with groups, such as {@code "*.{java,xml}"}, work.
+	 *
+	 * @param patterns The patterns, separated by commas or semicolons
+	 *        outside of groups.  If this is {@code null} or empty, all files
+	 *        match.
+	 * @return The matcher.
+	 * @throws PatternSyntaxException If a pattern is invalid.
+	 */
+	static PathMatcher createFileNameMatcher(String patterns) {
+
+		List<PathMatcher> matchers = new ArrayList<>();
+		if (patterns != null) {
+			int depth = 0;
+			int start = 0;
+			for (int i = 0; i <= patterns.length(); i++) {
+				char ch = i < patterns.length() ? patterns.charAt(i) : ',';
+				if (ch == '\\' && i + 1 < patterns.length()) {
+					i++; // Escaped char
+				}
+				else if (ch == '{') {
+					depth++;
+				}
+				else if (ch == '}') {
+					depth = Math.max(0, depth - 1);
+				}
+				else if ((ch == ',' || ch == ';') && (depth == 0 || i == patterns.length())) {
+					String glob = patterns.substring(start, Math.min(i, patterns.length())).trim();
+					if (!glob.isEmpty()) {
+						matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+					}
+					start = i + 1;
+				}
+			}
+		}
+
+		if (matchers.isEmpty()) {
+			return FileSystems.getDefault().getPathMatcher("glob:*");
+		}
+		if (matchers.size() == 1) {
+			return matchers.get(0);
+		}
+		return path -> matchers.stream().anyMatch(m -> m.matches(path));
+	}
+
+
+	private void fireFileSearched(Path file, List<FileMatch> matches) {
+		FindInFilesListener[] listeners = listenerList.getListeners(
+				FindInFilesListener.class);
+		for (FindInFilesListener l : listeners) {
+			l.fileSearched(file, matches);
+		}
+	}
+
+
+	private void fireFileTimedOut(Path file) {
+		FindInFilesListener[] listeners = listenerList.getListeners(
+				FindInFilesListener.class);
+		for (FindInFilesListener l : listeners) {
+			l.fileTimedOut(file);
+		}
+	}
+
+
+	private void fireSearchCompleted(boolean cancelled) {
+		FindInFilesListener[] listeners = listenerList.getListeners(
+				FindInFilesListener.class);
+		for (FindInFilesListener l : listeners) {
+			l.searchCompleted(cancelled);
+		}
+	}
+
+
+	/**
+	 * Returns the number of files searched so far by the current or most
+	 * recent search.  This method may be called from any thread.
+	 *
+	 * @return The number of files searched.
+	 * @see #getMatchingFileCount()
+	 */
+	public int getFileCount() {
+		return fileCount.get();
+	}
+
+
+	/**
+	 * Returns the number of matches found so far by the current or most
+	 * recent search.
+	 *
+	 * @return The number of matches.
+	 * @see #getMatchingFileCount()
+	 */
+	public int getMatchCount() {
+		return matchCount;
+	}
+
+
+	/**
+	 * Returns the number of files with matches found so far by the current
+	 * or most recent search.
+	 *
+	 * @return The number of files with matches.
+	 * @see #getFileCount()
+	 * @see #getMatchCount()
+	 */
+	public int getMatchingFileCount() {
+		return matchingFileCount;
+	}
+
+
+	/**
+	 * Returns the number of files whose search timed out so far in the
+	 * current or most recent search.
+	 *
+	 * @return The number of files that timed out.
+	 * @see FindInFilesListener#fileTimedOut(Path)
+	 */
+	public int getTimedOutFileCount() {
+		return timedOutFileCount;
+	}
+
+
+	/**
+	 * Returns whether the start of a file's content looks binary.
+	 */
+	private static boolean isBinary(ByteBuffer buffer, Charset charset) {
+		String name = charset.name();
+		if (name.startsWith("UTF-16") || name.startsWith("UTF-32")) {
+			return false; // NUL bytes are common
+		}
+		int end = Math.min(buffer.limit(), BINARY_CHECK_LENGTH);
+		for (int i = 0; i < end; i++) {
+			if (buffer.get(i) == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Returns whether a search is currently running.
+	 *
+	 * @return Whether a search is running.
+	 */
+	public boolean isRunning() {
+		return run != null;
+	}
+
+
+	/**
+	 * Reads and decodes a file.  The bytes of large files are mapped rather
+	 * than read, but the decoded text is always on the heap.  This method
+	 * may be called from any thread.
+	 *
+	 * @param file The file to read.
+	 * @param charset The charset to decode the file with.
+	 * @return The file's content, or {@code null} if it looks binary or is
+	 *         too large to search.
+	 * @throws IOException If an IO error occurs.
+	 */
+	static CharBuffer read(Path file, Charset charset) throws IOException {
+
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				return null;
+			}
+			if (size >= MAP_THRESHOLD) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			else {
+				buffer = ByteBuffer.allocate((int)size);
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+					// Keep reading
+				}
+				buffer.flip();
+			}
+		}
+
+		if (isBinary(buffer, charset)) {
+			return null;
+		}
+		CharsetDecoder decoder = charset.newDecoder().
+				onMalformedInput(CodingErrorAction.REPLACE).
+				onUnmappableCharacter(CodingErrorAction.REPLACE);
+		try {
+			return decoder.decode(buffer);
+		} catch (CharacterCodingException cce) { // Never happens with REPLACE
+			throw new IOException(cce);
+		}
+	}
+
+
+	/**
+	 * Removes a listener notified of search results.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addFindInFilesListener(FindInFilesListener)
+	 */
+	public void removeFindInFilesListener(FindInFilesListener l) {
+		listenerList.remove(FindInFilesListener.class, l);
+	}
+
+
+	/**
+	 * Reports the matches found in a file to listeners.
+	 *
+	 * @param file The file.
+	 * @param matches The matches.
+	 * @param timedOut Whether the search of the file timed out.
+	 */
+	private void report(Path file, List<FileMatch> matches, boolean timedOut) {
+		if (!matches.isEmpty()) {
+			matchingFileCount++;
+			matchCount += matches.size();
+			fireFileSearched(file, matches);
+		}
+		if (timedOut) {
+			timedOutFileCount++;
+			fireFileTimedOut(file);
+		}
+	}
+
+
+	/**
+	 * Searches the content of a file.  This method may be called from any
+	 * thread.
+	 *
+	 * @param file The file, used for the matches.
+	 * @param text The file's content.
+	 * @param matcher The matcher to use.
+	 * @param matches The list to add the matches to.
+	 * @throws MatchTimeoutException If finding a match takes too long.  The
+	 *         matches found before then have been added to the list.
+	 */
+	static void search(Path file, CharSequence text, SearchMatcher matcher,
+			List<FileMatch> matches) {
+
+		int line = 1;
+		int lineStart = 0;
+		int pos = 0; // Characters before here have been counted for lines
+
+		while (matcher.find()) {
+
+			int start = matcher.start();
+			for (; pos < start; pos++) {
+				char ch = text.charAt(pos);
+				if (ch == '\n' || (ch == '\r' &&
+						(pos + 1 == text.length() || text.charAt(pos + 1) != '\n'))) {
+					line++;
+					lineStart = pos + 1;
+				}
+			}
+
+			int textStart = Math.max(lineStart, start - MAX_TEXT_LEAD);
+			int textEnd = textStart;
+			int max = Math.min(text.length(), textStart + MAX_TEXT_LENGTH);
+			while (textEnd < max && text.charAt(textEnd) != '\n' &&
+					text.charAt(textEnd) != '\r') {
+				textEnd++;
+			}
+			String lineText = text.subSequence(textStart, textEnd).toString();
+
+			matches.add(new FileMatch(file, line, start, matcher.end(),
+					lineText, textStart));
+		}
+	}
+
+
+	/**
+	 * Starts searching the files in a directory for the text described by a
+	 * search context, cancelling any search in progress.  The context's
+	 * "match case," "whole word" and "regular expression" options are
+	 * honored; its direction and "mark all" options are ignored.
+	 *
+	 * @param context The search context.
+	 * @param dir The directory to search in.
+	 * @param fileNamePatterns Glob patterns for the names of the files to
+	 *        search, separated by commas or semicolons, for example
+	 *        {@code "*.java, *.xml"}.  If this is {@code null} or empty, all
+	 *        files are searched.
+	 * @param recursive Whether to search subdirectories.
+	 * @param charset The charset to decode files with.
+	 * @return Whether a search was started.  This is {@code false} if
+	 *         {@code context} doesn't specify any text to search for or
+	 *         specifies an invalid regular expression, or if
+	 *         {@code fileNamePatterns} is invalid.
+	 */
+	public boolean start(SearchContext context, Path dir,
+			String fileNamePatterns, boolean recursive, Charset charset) {
+
+		cancel();
+		fileCount = new AtomicInteger(); // Old tasks may still be running
+		matchCount = 0;
+		matchingFileCount = 0;
+		timedOutFileCount = 0;
+
+		String searchFor = context.getSearchFor();
+		if (searchFor == null || searchFor.isEmpty()) {
+			return false;
+		}
+		Pattern pattern;
+		PathMatcher fileNameMatcher;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+			fileNameMatcher = createFileNameMatcher(fileNamePatterns);
+		} catch (PatternSyntaxException pse) {
+			return false;
+		}
+
+		run = new SearchRun(pattern, context.getWholeWord(), dir,
+				fileNameMatcher, recursive, charset);
+		pool.execute(run);
+		return true;
+	}
+
+
+	/**
+	 * Reads and searches a single file.
+	 */
+	private final class FileTask extends RecursiveAction {
+
+		private final SearchRun owner;
+		private final Path file;
+
+		FileTask(SearchRun owner, Path file) {
+			this.owner = owner;
+			this.file = file;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (owner.cancelled) {
+				return;
+			}
+
+			CharBuffer content;
+			try {
+				content = read(file, owner.charset);
+			} catch (IOException ioe) {
+				content = null; // Unreadable files are skipped
+			}
+			owner.fileCount.incrementAndGet();
+			if (content == null) {
+				return;
+			}
+
+			InterruptibleCharSequence text = new InterruptibleCharSequence(content);
+			owner.active.add(text);
+			List<FileMatch> matches = new ArrayList<>();
+			boolean timedOut = false;
+			try {
+				if (owner.cancelled) {
+					return; // Cancelled while we were reading
+				}
+				SearchMatcher matcher = new SearchMatcher(owner.pattern,
+						owner.wholeWord, text);
+				search(file, text, matcher, matches);
+			} catch (MatchTimeoutException mte) {
+				timedOut = true; // Still report the matches found so far
+			} catch (CancellationException ce) {
+				return;
+			} finally {
+				owner.active.remove(text);
+			}
+
+			if (!matches.isEmpty() || timedOut) {
+				List<FileMatch> result = Collections.unmodifiableList(matches);
+				boolean reportTimeout = timedOut;
+				SwingUtilities.invokeLater(() -> {
+					if (run == owner) {
+						report(file, result, reportTimeout);
+					}
+				});
+			}
+		}
+
+	}
+
+
+	/**
+	 * Walks the directory tree, forking a task for each file to search, then
+	 * notifies listeners when all files have been searched.
+	 */
+	private final class SearchRun extends RecursiveAction {
+
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private final Path dir;
+		private final PathMatcher fileNameMatcher;
+		private final boolean recursive;
+		private final Charset charset;
+		private final AtomicInteger fileCount;
+		private final Set<InterruptibleCharSequence> active;
+		private volatile boolean cancelled;
+
+		SearchRun(Pattern pattern, boolean wholeWord, Path dir,
+				PathMatcher fileNameMatcher, boolean recursive, Charset charset) {
+			this.pattern = pattern;
+			this.wholeWord = wholeWord;
+			this.dir = dir;
+			this.fileNameMatcher = fileNameMatcher;
+			this.recursive = recursive;
+			this.charset = charset;
+			fileCount = FindInFilesSearch.this.fileCount;
+			active = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		}
+
+		void cancel() {
+			cancelled = true;
+			for (InterruptibleCharSequence text : active) {
+				text.interrupt();
+			}
+		}
+
+		@Override
+		protected void compute() {
+
+			List<FileTask> tasks = new ArrayList<>();
+			try {
+				walk(tasks);
+				for (FileTask task : tasks) {
+					task.join();
+				}
+			} finally {
+				SwingUtilities.invokeLater(() -> {
+					if (run == this) {
+						run = null;
+						fireSearchCompleted(false);
+					}
+				});
+			}
+		}
+
+		/**
+		 * Forks a task for each file to search.
+		 */
+		private void walk(List<FileTask> tasks) {
+			try {
+				int depth = recursive ? Integer.MAX_VALUE : 1;
+				Files.walkFileTree(dir, EnumSet.noneOf(FileVisitOption.class),
+						depth, new SimpleFileVisitor<Path>() {
+
+					@Override
+					public FileVisitResult visitFile(Path file,
+							BasicFileAttributes attrs) {
+						if (cancelled) {
+							return FileVisitResult.TERMINATE;
+						}
+						if (attrs.isRegularFile() &&
+								fileNameMatcher.matches(file.getFileName())) {
+							FileTask task = new FileTask(SearchRun.this, file);
+							task.fork();
+							tasks.add(task);
+						}
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(Path file,
+							IOException e) {
+						return FileVisitResult.CONTINUE; // Skip unreadable files
+					}
+
+				});
+			} catch (IOException ioe) {
+				ioe.printStackTrace(); // Never happens, failures are skipped
+			}
+		}
+
+	}
+
+
+}
@@ -0,0 +1,171 @@
+/*
+ * 10/18/2026
+ *
+ * FindInTextArea - Performs "Find" operations of a FindToolBar in its text
+ * area directly.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import javax.swing.UIManager;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchResult;
+
+
+/**
+ * Makes "Find Next" and "Find Previous" in a {@link FindToolBar} select the
+ * match in the toolbar's text area directly, rather than firing
+ * {@code FIND} events to its listeners.  If "mark all" has found all
+ * matches, and no edit since then could affect the result, the next match
+ * is selected using the offsets it found, without searching the document
+ * again.  Otherwise the document is searched once on the EDT, with a short,
+ * fixed time limit, so a regular expression that backtracks
+ * catastrophically is reported rather than hanging the application.<p>
+ *
+ * "Replace" in a {@link ReplaceToolBar} is handled the same way, instead of
+ * firing {@code REPLACE} events: the selected match is replaced, and the
+ * next one is selected, with the same time limit for each search.<p>
+ *
+ * Applications whose listeners do more than select the match should not
+ * use this class.  Nothing happens unless the toolbar has a text area:
+ *
+ * <pre>
+ * findToolBar.setTextArea(textArea);
+ * new FindInTextArea(findToolBar);
+ * </pre>
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindToolBar#setTextArea(RTextArea)
+ */
+public final class FindInTextArea {
+
+	private final FindToolBar toolBar;
+
+
+	/**
+	 * Constructor.  "Find" operations are done in the text area until
+	 * {@link #uninstall()} is called.
+	 *
+	 * @param toolBar The toolbar whose "Find" operations we perform.
+	 */
+	public FindInTextArea(FindToolBar toolBar) {
+		this.toolBar = toolBar;
+		toolBar.getToolBarSearch().setFindInTextArea(this);
+	}
+
+
+	/**
+	 * Selects the next or previous match in the text area.
+	 *
+	 * @param context The search context.
+	 * @return Whether the search was done.  If this is {@code false}, there
+	 *         is no text area, and a {@code FIND} event should be fired as
+	 *         usual.
+	 */
+	boolean find(SearchContext context) {
+
+		ToolBarSearch search = toolBar.getToolBarSearch();
+		BackgroundMarkAll markAll = search.getBackgroundMarkAll();
+		if (markAll == null) {
+			return false;
+		}
+
+		RTextArea textArea = markAll.getTextArea();
+		SearchResult result = markAll.find(context);
+		if (result == null) {
+			result = SearchUtil.find(textArea, search.getSnapshot().getText(),
+					context);
+		}
+		report(textArea, result);
+		return true;
+	}
+
+
+	/**
+	 * Handles a search event from the toolbar, if it is one we perform.
+	 *
+	 * @param e The event.
+	 * @return Whether the event was handled.  If this is {@code false}, it
+	 *         should be fired to the toolbar's listeners as usual.
+	 */
+	boolean handle(SearchEvent e) {
+		switch (e.getType()) {
+			case FIND:
+				return find(e.getSearchContext());
+			case REPLACE:
+				return replace(e.getSearchContext());
+			default:
+				return false;
+		}
+	}
+
+
+	/**
+	 * Replaces the selected match in the text area, and selects the next
+	 * one.
+	 *
+	 * @param context The search context.
+	 * @return Whether the replacement was done.  If this is {@code false},
+	 *         there is no text area, and a {@code REPLACE} event should be
+	 *         fired as usual.
+	 */
+	boolean replace(SearchContext context) {
+
+		ToolBarSearch search = toolBar.getToolBarSearch();
+		BackgroundMarkAll markAll = search.getBackgroundMarkAll();
+		if (markAll == null) {
+			return false;
+		}
+
+		RTextArea textArea = markAll.getTextArea();
+		if (!textArea.isEditable() || !textArea.isEnabled()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+			return true;
+		}
+		report(textArea, SearchUtil.replace(textArea, search.getSnapshot(),
+				context));
+		return true;
+	}
+
+
+	/**
+	 * Displays the result of a search in the toolbar.
+	 *
+	 * @param textArea The text area searched.
+	 * @param result The result, or {@code null} if the search timed out.
+	 */
+	private void report(RTextArea textArea, SearchResult result) {
+		ToolBarSearch search = toolBar.getToolBarSearch();
+		if (result == null || !result.wasFound() || result.isWrapped()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+		}
+		if (result == null) {
+			search.setInfoText(FindToolBar.MSG.getString("SearchTimedOut"));
+		}
+		else if (!result.wasFound()) {
+			search.setInfoText(FindToolBar.MSG.getString("NotFound"));
+		}
+		else {
+			search.setInfoText(null);
+			search.getMatchCounter().scheduleUpdate();
+		}
+	}
+
+
+	/**
+	 * Goes back to firing {@code FIND} events from the toolbar.
+	 */
+	public void uninstall() {
+		ToolBarSearch search = toolBar.getToolBarSearch();
+		if (search.getFindInTextArea() == this) {
+			search.setFindInTextArea(null);
+		}
+	}
+
+
+}
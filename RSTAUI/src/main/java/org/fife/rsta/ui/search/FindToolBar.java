@@ -21,7 +21,6 @@ import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ResourceBundle;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import javax.swing.BorderFactory;
@@ -43,6 +42,7 @@ import javax.swing.text.JTextComponent;
 
 import org.fife.rsta.ui.AssistanceIconPanel;
 import org.fife.rsta.ui.UIUtil;
+import org.fife.ui.rtextarea.RTextArea;
 import org.fife.ui.rtextarea.SearchContext;
 
 
@@ -70,6 +70,7 @@ public class FindToolBar extends JPanel {
 	protected JCheckBox wrapCheckBox;
 	private JLabel infoLabel;
 	private Timer markAllTimer;
+	private ToolBarSearch toolBarSearch;
 
 	/**
 	 * Flag to prevent double-modification of SearchContext when e.g. a
@@ -94,6 +95,7 @@ public class FindToolBar extends JPanel {
 
 		markAllTimer = new Timer(300, new MarkAllEventNotifier());
 		markAllTimer.setRepeats(false);
+		toolBarSearch = new ToolBarSearch(this);
 
 		setLayout(new BorderLayout());
 		setBorder(BorderFactory.createEmptyBorder(2, 5, 2, 5));
@@ -118,7 +120,7 @@ public class FindToolBar extends JPanel {
 		rest.add(createButtonPanel());
 		rest.add(Box.createHorizontalStrut(15));
 
-		JLabel infoLabel = new JLabel();
+		infoLabel = toolBarSearch.getInfoLabel();
 		rest.add(infoLabel);
 
 		rest.add(Box.createHorizontalGlue());
@@ -263,9 +265,13 @@ public class FindToolBar extends JPanel {
 
 
 	/**
-	 * Fires a "mark all" search event.
+	 * Fires a "mark all" search event, or marks all occurrences in the
+	 * background if a text area has been set.
 	 */
 	private void fireMarkAllEvent() {
+		if (toolBarSearch.markAll(context)) {
+			return;
+		}
 		SearchEvent se = new SearchEvent(this, SearchEvent.Type.MARK_ALL,
 				context);
 		fireSearchEvent(se);
@@ -281,14 +287,7 @@ public class FindToolBar extends JPanel {
 	 *        child component.
 	 */
 	protected void fireSearchEvent(SearchEvent e) {
-		// Process the listeners last to first, notifying
-		// those that are interested in this event
-		SearchListener[] listeners = listenerList.
-								getListeners(SearchListener.class);
-		int count = listeners==null ? 0 : listeners.length;
-		for (int i=count-1; i>=0; i--) {
-			listeners[i].searchEvent(e);
-		}
+		toolBarSearch.fire(e, listenerList.getListeners(SearchListener.class));
 	}
 
 
@@ -317,6 +316,17 @@ public class FindToolBar extends JPanel {
 	}
 
 
+	/**
+	 * Returns the text area this toolbar searches in, if any.
+	 *
+	 * @return The text area, or {@code null} if none has been set.
+	 * @see #setTextArea(RTextArea)
+	 */
+	public RTextArea getTextArea() {
+		return toolBarSearch.getTextArea();
+	}
+
+
 	/**
 	 * Returns the search context for this toolbar.
 	 *
@@ -328,6 +338,11 @@ public class FindToolBar extends JPanel {
 	}
 
 
+	ToolBarSearch getToolBarSearch() {
+		return toolBarSearch;
+	}
+
+
 	/**
 	 * Called when the regex checkbox is clicked (or its value is modified
 	 * via a change to the search context).  Subclasses can override
@@ -338,6 +353,7 @@ public class FindToolBar extends JPanel {
 		// "Content assist" support
 		boolean b = regexCheckBox.isSelected();
 		findCombo.setAutoCompleteEnabled(b);
+		findCombo.setRegexHighlightingEnabled(b);
 	}
 
 
@@ -360,34 +376,24 @@ public class FindToolBar extends JPanel {
 			type = SearchEvent.Type.FIND;
 			int mods = e.getModifiers();
 			forward = (mods&allowedModifiers)==0;
-			// Add the item to the combo box's list, if it isn't already there.
-			JTextComponent tc = UIUtil.getTextComponent(findCombo);
-			findCombo.addItem(tc.getText());
 		}
 		else if ("FindPrevious".equals(action)) {
 			type = SearchEvent.Type.FIND;
 			forward = false;
-			// Add the item to the combo box's list, if it isn't already there.
-			JTextComponent tc = UIUtil.getTextComponent(findCombo);
-			findCombo.addItem(tc.getText());
 		}
 		else if ("Replace".equals(action)) {
 			type = SearchEvent.Type.REPLACE;
 			int mods = e.getModifiers();
 			forward = (mods&allowedModifiers)==0;
-			// Add the item to the combo box's list, if it isn't already there.
-			JTextComponent tc = UIUtil.getTextComponent(findCombo);
-			findCombo.addItem(tc.getText());
-			tc = UIUtil.getTextComponent(replaceCombo);
-			replaceCombo.addItem(tc.getText());
 		}
 		else if ("ReplaceAll".equals(action)) {
 			type = SearchEvent.Type.REPLACE_ALL;
-			// Add the item to the combo box's list, if it isn't already there.
-			JTextComponent tc = UIUtil.getTextComponent(findCombo);
-			findCombo.addItem(tc.getText());
-			tc = UIUtil.getTextComponent(replaceCombo);
-			replaceCombo.addItem(tc.getText());
+		}
+
+		// Add the items to the combo boxes' lists, if they aren't already there.
+		findCombo.addItem(getFindText());
+		if (type==SearchEvent.Type.REPLACE || type==SearchEvent.Type.REPLACE_ALL) {
+			replaceCombo.addItem(getReplaceText());
 		}
 
 		context.setSearchFor(getFindText());
@@ -431,7 +437,10 @@ public class FindToolBar extends JPanel {
 		}
 		else if (regexCheckBox.isSelected()) {
 			try {
-				Pattern.compile(text);
+				SearchMatcher.getPattern(text, true, matchCaseCheckBox.isSelected());
+				// Valid, but might hang the search
+				result = new FindReplaceButtonsEnableResult(true,
+						SearchUtil.getNestedQuantifierWarning(findCombo));
 			} catch (PatternSyntaxException pse) {
 				result = new FindReplaceButtonsEnableResult(false,
 						pse.getMessage());
@@ -439,8 +448,8 @@ public class FindToolBar extends JPanel {
 		}
 
 		boolean enable = result.getEnable();
-		findButton.setEnabled(enable);
-		findPrevButton.setEnabled(enable);
+		findButton.setEnabled(enable && !isSearchPending());
+		findPrevButton.setEnabled(enable && !isSearchPending());
 
 		// setBackground doesn't show up with XP Look and Feel!
 		JTextComponent tc = UIUtil.getTextComponent(findCombo);
@@ -476,6 +485,17 @@ public class FindToolBar extends JPanel {
 	}
 
 
+	/**
+	 * Returns whether the results of an {@link AsyncSearchListener} are
+	 * pending.  While they are, the Find and Replace buttons are disabled.
+	 *
+	 * @return Whether results are pending.
+	 */
+	public boolean isSearchPending() {
+		return toolBarSearch.isSearchPending();
+	}
+
+
 	/**
 	 * Makes the Enter key activate the button.  In Swing, this is a
 	 * complicated thing.  It's LAF-dependent whether this works
@@ -596,6 +616,25 @@ public class FindToolBar extends JPanel {
 		this.context = context;
 		this.context.addPropertyChangeListener(listener);
 		initUIFromContext();
+		toolBarSearch.getMatchCounter().searchContextChanged();
+	}
+
+
+	/**
+	 * Sets the text area this toolbar searches in.  If this is set, "mark
+	 * all" is done by this toolbar on a background thread, rather than by
+	 * firing {@code MARK_ALL} events, and the number of matches is displayed
+	 * in this toolbar.  Other search events are still fired as usual.
+	 *
+	 * @param textArea The text area.  This may be {@code null} to go back
+	 *        to firing {@code MARK_ALL} events.
+	 * @see #getTextArea()
+	 * @see FindInTextArea
+	 * @see IncrementalFind
+	 * @see OccurrenceActions
+	 */
+	public void setTextArea(RTextArea textArea) {
+		toolBarSearch.setTextArea(textArea);
 	}
 
 
@@ -655,6 +694,7 @@ public class FindToolBar extends JPanel {
 
 			// A property changed on the context itself.
 			String prop = e.getPropertyName();
+			toolBarSearch.propertyChange(e);
 
 			if (SearchContext.PROPERTY_MATCH_CASE.equals(prop)) {
 				boolean newValue = (Boolean) e.getNewValue();
@@ -740,11 +780,13 @@ public class FindToolBar extends JPanel {
 		}
 
 		protected void handleDocumentEvent(DocumentEvent e) {
+			toolBarSearch.cancelPendingSearch(); // New input makes results stale
 			handleToggleButtons();
 			if (!settingFindTextFromEvent) {
 				JTextComponent findField = UIUtil.getTextComponent(findCombo);
 				if (e.getDocument()==findField.getDocument()) {
 					context.setSearchFor(findField.getText());
+					toolBarSearch.cancelMarkAll(); // Results are now stale
 					if (context.getMarkAll()) {
 						doMarkAll(true);
 					}
@@ -771,7 +813,7 @@ public class FindToolBar extends JPanel {
 
 		@Override
 		public void keyTyped(KeyEvent e) {
-			if (e.getKeyChar()=='\n') {
+			if (e.getKeyChar()=='\n' && !e.isAltDown()) {
 				int mod = e.getModifiers();
 				int ctrlShift = InputEvent.CTRL_MASK|InputEvent.SHIFT_MASK;
 				boolean forward = (mod&ctrlShift) == 0;
@@ -0,0 +1,262 @@
+/*
+ * 10/18/2026
+ *
+ * IncrementalFind - Selects matches as the user types in a "Find" field.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Implements "search as you type" for a {@link FindToolBar}.  Each time the
+ * text to search for changes, a short timer is restarted; when it fires,
+ * the next match at or after the start of the text area's selection is
+ * found on a worker thread and selected.  Searching from the start of the
+ * selection means that as the user types more characters, the same match
+ * remains selected as long as it still matches.<p>
+ *
+ * Only the latest query is ever searched for.  Keystrokes during the delay
+ * simply restart the timer, and a new query interrupts any search still
+ * running for an older one, rather than waiting for it.<p>
+ *
+ * Searching is done in the toolbar's text area, so nothing happens unless
+ * one has been set:
+ *
+ * <pre>
+ * findToolBar.setTextArea(textArea);
+ * new IncrementalFind(findToolBar).setEnabled(true);
+ * </pre>
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindToolBar#setTextArea(org.fife.ui.rtextarea.RTextArea)
+ */
+public final class IncrementalFind implements PropertyChangeListener {
+
+	private final FindToolBar toolBar;
+	private boolean enabled;
+	private Timer timer;
+	private boolean searchScheduled;
+	private FindWorker worker;
+
+	/**
+	 * The delay after the last keystroke before searching, in milliseconds.
+	 */
+	private static final int DELAY = 150;
+
+
+	/**
+	 * Constructor.  Incremental searching is disabled until
+	 * {@link #setEnabled(boolean)} is called.
+	 *
+	 * @param toolBar The toolbar whose search context we search for.
+	 * @see #uninstall()
+	 */
+	public IncrementalFind(FindToolBar toolBar) {
+		this.toolBar = toolBar;
+		timer = new Timer(DELAY, e -> search());
+		timer.setRepeats(false);
+		toolBar.getToolBarSearch().addPropertyChangeListener(this);
+	}
+
+
+	/**
+	 * Stops any pending or running search.
+	 */
+	private void cancel() {
+		timer.stop();
+		searchScheduled = false;
+		if (worker != null) {
+			worker.interrupt();
+			worker = null;
+		}
+	}
+
+
+	/**
+	 * Returns whether incremental searching is enabled.
+	 *
+	 * @return Whether incremental searching is enabled.
+	 * @see #setEnabled(boolean)
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+
+	/**
+	 * Returns whether a search is scheduled or running.
+	 *
+	 * @return Whether a search is pending.
+	 */
+	boolean isSearching() {
+		return searchScheduled || worker != null;
+	}
+
+
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+		if (SearchContext.PROPERTY_SEARCH_FOR.equals(e.getPropertyName()) &&
+				enabled && toolBar.getToolBarSearch().getSnapshot() != null) {
+			// Search if the query doesn't change again in the next few ms
+			cancel(); // The running search, if any, is now stale
+			scheduleSearch();
+		}
+	}
+
+
+	private void scheduleSearch() {
+		timer.restart();
+		searchScheduled = true;
+	}
+
+
+	private void search() {
+
+		searchScheduled = false;
+		DocumentSnapshot snapshot = toolBar.getToolBarSearch().getSnapshot();
+		if (snapshot == null) {
+			return;
+		}
+		SearchContext context = toolBar.getSearchContext();
+		String searchFor = context.getSearchFor();
+		if (searchFor == null || searchFor.isEmpty()) {
+			toolBar.getToolBarSearch().setInfoText(null);
+			return;
+		}
+		Pattern pattern;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			return; // The toolbar already flags the regex as invalid
+		}
+
+		RTextArea textArea = (RTextArea)snapshot.getTextComponent();
+		worker = new FindWorker(pattern, context, snapshot,
+				textArea.getSelectionStart());
+		worker.execute();
+	}
+
+
+	/**
+	 * Toggles incremental searching.  When enabled, the next match is
+	 * selected in the toolbar's text area shortly after the user stops
+	 * typing in the "Find" field.
+	 *
+	 * @param enabled Whether incremental searching is enabled.
+	 * @see #isEnabled()
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			cancel();
+		}
+	}
+
+
+	/**
+	 * Stops searching incrementally, and stops listening to the toolbar.
+	 * This should be called if this object is no longer needed but the
+	 * toolbar is still in use.
+	 */
+	public void uninstall() {
+		cancel();
+		toolBar.getToolBarSearch().removePropertyChangeListener(this);
+	}
+
+
+	/**
+	 * Finds the first match at or after an offset, wrapping if allowed.
+	 */
+	private final class FindWorker extends SwingWorker<DocumentRange, Void> {
+
+		private final SearchMatcher matcher;
+		private final InterruptibleCharSequence text;
+		private final DocumentSnapshot snapshot;
+		private final int version;
+		private final int from;
+		private final boolean wrap;
+		private volatile boolean timedOut;
+
+		FindWorker(Pattern pattern, SearchContext context,
+				DocumentSnapshot snapshot, int from) {
+			String text = snapshot.getText();
+			this.text = new InterruptibleCharSequence(text);
+			this.matcher = new SearchMatcher(pattern, context.getWholeWord(),
+					this.text);
+			this.snapshot = snapshot;
+			this.version = snapshot.getVersion();
+			this.from = Math.min(from, text.length());
+			this.wrap = context.getSearchWrap();
+		}
+
+		@Override
+		protected DocumentRange doInBackground() {
+			try {
+				if (matcher.find(from) || (wrap && from > 0 && matcher.find(0))) {
+					return new DocumentRange(matcher.start(), matcher.end());
+				}
+			} catch (MatchTimeoutException mte) {
+				timedOut = true;
+			} catch (CancellationException ce) {
+				// Superseded by a newer query
+			}
+			return null;
+		}
+
+		@Override
+		protected void done() {
+			if (worker != this || isCancelled()) {
+				return;
+			}
+			worker = null;
+			if (snapshot != toolBar.getToolBarSearch().getSnapshot()) { // Text area changed
+				return;
+			}
+			if (version != snapshot.getVersion()) { // Edited while searching
+				scheduleSearch();
+				return;
+			}
+			DocumentRange range;
+			try {
+				range = get();
+			} catch (Exception e) { // Never happens
+				e.printStackTrace();
+				return;
+			}
+			if (range != null) {
+				// Clear any old message first, as selecting updates the count
+				toolBar.getToolBarSearch().setInfoText(null);
+				RTextArea textArea = (RTextArea)snapshot.getTextComponent();
+				RSyntaxUtilities.selectAndPossiblyCenter(textArea, range, true);
+			}
+			else {
+				toolBar.getToolBarSearch().setInfoText(FindToolBar.MSG.getString(
+						timedOut ? "SearchTimedOut" : "NotFound"));
+			}
+		}
+
+		void interrupt() {
+			text.interrupt();
+			cancel(false);
+		}
+
+	}
+
+
+}
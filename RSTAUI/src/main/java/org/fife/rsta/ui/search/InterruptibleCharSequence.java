@@ -0,0 +1,179 @@
+/*
+ * 10/18/2026
+ *
+ * InterruptibleCharSequence - A character sequence that aborts regex
+ * matching when interrupted.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A view of a character sequence that throws a
+ * {@code CancellationException} from {@link #charAt(int)} once it has been
+ * interrupted.  Since {@code java.util.regex.Matcher} reads its input
+ * exclusively through {@code charAt()}, wrapping the text being searched in
+ * one of these allows a single, long-running {@code find()} call on another
+ * thread to be stopped promptly.<p>
+ *
+ * Each match attempt also has a budget, so a pathological regular
+ * expression can't search forever.  {@link SearchMatcher} restarts the
+ * budget (see {@link #startBudget()}) before each match it looks for; if
+ * finding that match reads more than {@link #READS_PER_CHAR} characters
+ * per character of text (plus {@link #MIN_READS}), or takes longer than
+ * {@link #TIME_BUDGET} milliseconds (plus {@link #NANOS_PER_CHAR}
+ * nanoseconds per character), a {@link MatchTimeoutException} is thrown.
+ * Searches done on the EDT should also limit the total time all match
+ * attempts may take; see {@link #setTotalBudget(long)}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class InterruptibleCharSequence implements CharSequence {
+
+	private final CharSequence text;
+	private volatile boolean interrupted;
+	private int reads;
+	private final long readBudget;
+	private final long timeBudgetNanos;
+	private long budgetReads;
+	private long deadline;
+	private boolean hasTotalDeadline;
+	private long totalDeadline;
+
+	/**
+	 * How often (in calls to {@code charAt()}) to check the interrupted flag.
+	 * Reading a volatile on every character slows matching down noticeably.
+	 */
+	private static final int CHECK_INTERVAL = 64 * 1024;
+
+	/**
+	 * The base time a single match attempt may take, in milliseconds.
+	 */
+	static final long TIME_BUDGET = 1000;
+
+	/**
+	 * The additional time a single match attempt may take per character of
+	 * text, in nanoseconds, so that scanning a very large document for a
+	 * match isn't mistaken for backtracking.
+	 */
+	static final long NANOS_PER_CHAR = 50;
+
+	/**
+	 * The base number of characters a single match attempt may read.
+	 */
+	static final long MIN_READS = 10_000_000;
+
+	/**
+	 * The additional number of characters a single match attempt may read
+	 * per character of text.
+	 */
+	static final long READS_PER_CHAR = 100;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param text The text to wrap.
+	 */
+	InterruptibleCharSequence(CharSequence text) {
+		this(text, TIME_BUDGET);
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param text The text to wrap.
+	 * @param timeBudget The base time a single match attempt may take, in
+	 *        milliseconds.
+	 */
+	InterruptibleCharSequence(CharSequence text, long timeBudget) {
+		this.text = text;
+		readBudget = MIN_READS + READS_PER_CHAR * text.length();
+		timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudget) +
+				NANOS_PER_CHAR * text.length();
+		startBudget();
+	}
+
+
+	@Override
+	public char charAt(int index) {
+		if (++reads == CHECK_INTERVAL) {
+			reads = 0;
+			if (interrupted) {
+				throw new CancellationException();
+			}
+			checkBudget();
+		}
+		return text.charAt(index);
+	}
+
+
+	private void checkBudget() {
+		budgetReads += CHECK_INTERVAL;
+		long now = System.nanoTime();
+		if (budgetReads > readBudget || now - deadline > 0 ||
+				(hasTotalDeadline && now - totalDeadline > 0)) {
+			throw new MatchTimeoutException();
+		}
+	}
+
+
+	/**
+	 * Interrupts any operation reading this sequence.  This method may be
+	 * called from any thread.
+	 */
+	void interrupt() {
+		interrupted = true;
+	}
+
+
+	@Override
+	public int length() {
+		return text.length();
+	}
+
+
+	/**
+	 * Limits the total time all match attempts may take from now on, no
+	 * matter how long the text is.  Unlike the budget for each match
+	 * attempt, this doesn't grow with the length of the text, so it should
+	 * be used for searches done on the EDT.
+	 *
+	 * @param millis The time all match attempts may take, in milliseconds.
+	 */
+	void setTotalBudget(long millis) {
+		hasTotalDeadline = true;
+		totalDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+
+
+	/**
+	 * Restarts the budget for a match attempt.  This should be called
+	 * before each call to {@code Matcher.find()}.
+	 */
+	void startBudget() {
+		budgetReads = 0;
+		deadline = System.nanoTime() + timeBudgetNanos;
+	}
+
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return text.subSequence(start, end);
+	}
+
+
+	@Override
+	public String toString() {
+		return text.toString();
+	}
+
+
+}
@@ -0,0 +1,265 @@
+/*
+ * 10/18/2026
+ *
+ * LinkedOccurrenceEdit - Edits all occurrences of a search at once.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import javax.swing.event.CaretEvent;
+import javax.swing.event.CaretListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Document;
+import javax.swing.text.Highlighter;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.RTextArea;
+
+
+/**
+ * Lets the user edit all occurrences of a search at once.
+ * {@code RTextArea} only supports a single caret, so one occurrence (the
+ * "primary" one) is selected and edited as usual, and the others are
+ * highlighted with the selection color.  When the user presses Enter, or
+ * moves the caret out of the primary occurrence, its new text is copied to
+ * all other occurrences in a single, atomic edit.  Pressing Escape, or
+ * editing text outside of the primary occurrence, ends the edit without
+ * touching the other occurrences.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see OccurrenceActions#selectAll()
+ */
+final class LinkedOccurrenceEdit {
+
+	private final RTextArea textArea;
+	private final int[] starts;
+	private final int[] ends;
+	private final int primary;
+	private int primaryEnd;
+	private Document doc;
+	private Object[] highlights;
+	private Listener listener;
+
+
+	/**
+	 * Constructor.  Call {@link #start()} to begin editing.
+	 *
+	 * @param textArea The text area.
+	 * @param ranges The occurrences, in document order.  This cannot be
+	 *        empty.
+	 */
+	LinkedOccurrenceEdit(RTextArea textArea, List<DocumentRange> ranges) {
+		this.textArea = textArea;
+		starts = new int[ranges.size()];
+		ends = new int[ranges.size()];
+		int caret = textArea.getSelectionStart();
+		int atCaret = -1;
+		for (int i = 0; i < starts.length; i++) {
+			DocumentRange range = ranges.get(i);
+			starts[i] = range.getStartOffset();
+			ends[i] = range.getEndOffset();
+			if (atCaret == -1 && ends[i] >= caret) {
+				atCaret = i;
+			}
+		}
+		primary = atCaret == -1 ? starts.length - 1 : atCaret;
+		primaryEnd = ends[primary];
+	}
+
+
+	/**
+	 * Copies the primary occurrence's text to all other occurrences, and
+	 * ends the edit.
+	 *
+	 * @return Whether any text was changed.
+	 */
+	boolean commit() {
+
+		if (!isActive()) {
+			return false;
+		}
+		stop();
+		if (starts.length == 1) {
+			return false;
+		}
+
+		// Replace from the end back, so earlier offsets stay valid.  The
+		// caret is left where the user put it, shifted by the edits before it
+		int primaryStart = starts[primary];
+		int delta = primaryEnd - ends[primary];
+		try {
+			String newText = textArea.getText(primaryStart, primaryEnd - primaryStart);
+			textArea.beginAtomicEdit();
+			try {
+				for (int i = starts.length - 1; i >= 0; i--) {
+					if (i != primary) {
+						int offs = i > primary ? delta : 0;
+						textArea.replaceRange(newText, starts[i] + offs, ends[i] + offs);
+					}
+				}
+			} finally {
+				textArea.endAtomicEdit();
+			}
+		} catch (BadLocationException ble) {
+			ble.printStackTrace(); // Never happens
+			return false;
+		}
+		return true;
+	}
+
+
+	/**
+	 * Returns the number of occurrences being edited.
+	 *
+	 * @return The number of occurrences.
+	 */
+	int getOccurrenceCount() {
+		return starts.length;
+	}
+
+
+	/**
+	 * Returns whether this edit is in progress.
+	 *
+	 * @return Whether this edit is in progress.
+	 * @see #start()
+	 * @see #stop()
+	 */
+	boolean isActive() {
+		return listener != null;
+	}
+
+
+	/**
+	 * Selects the primary occurrence, highlights the others, and starts
+	 * listening for the user's edits.
+	 */
+	void start() {
+
+		textArea.select(starts[primary], ends[primary]);
+
+		Highlighter.HighlightPainter painter = new DefaultHighlighter.
+				DefaultHighlightPainter(textArea.getSelectionColor());
+		Highlighter h = textArea.getHighlighter();
+		highlights = new Object[starts.length];
+		for (int i = 0; i < starts.length; i++) {
+			if (i != primary) {
+				try {
+					highlights[i] = h.addHighlight(starts[i], ends[i], painter);
+				} catch (BadLocationException ble) {
+					ble.printStackTrace(); // Never happens
+				}
+			}
+		}
+
+		listener = new Listener();
+		doc = textArea.getDocument();
+		doc.addDocumentListener(listener);
+		textArea.addCaretListener(listener);
+		textArea.addKeyListener(listener);
+		textArea.addPropertyChangeListener("document", listener);
+	}
+
+
+	/**
+	 * Ends this edit without changing the other occurrences.
+	 */
+	void stop() {
+		if (!isActive()) {
+			return;
+		}
+		doc.removeDocumentListener(listener);
+		textArea.removeCaretListener(listener);
+		textArea.removeKeyListener(listener);
+		textArea.removePropertyChangeListener("document", listener);
+		listener = null;
+		doc = null;
+		Highlighter h = textArea.getHighlighter();
+		for (Object tag : highlights) {
+			if (tag != null) {
+				h.removeHighlight(tag);
+			}
+		}
+		highlights = null;
+	}
+
+
+	/**
+	 * Follows edits to the primary occurrence, and ends the edit when
+	 * appropriate.
+	 */
+	private final class Listener extends KeyAdapter implements CaretListener,
+			DocumentListener, PropertyChangeListener {
+
+		@Override
+		public void caretUpdate(CaretEvent e) {
+			int min = Math.min(e.getDot(), e.getMark());
+			int max = Math.max(e.getDot(), e.getMark());
+			if (min < starts[primary] || max > primaryEnd) {
+				// The document can't be modified while it's being modified
+				SwingUtilities.invokeLater(LinkedOccurrenceEdit.this::commit);
+			}
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			int offs = e.getOffset();
+			if (offs >= starts[primary] && offs <= primaryEnd) {
+				primaryEnd += e.getLength();
+			}
+			else {
+				stop();
+			}
+		}
+
+		@Override
+		public void keyPressed(KeyEvent e) {
+			if (e.getModifiersEx() != 0) {
+				return;
+			}
+			if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+				e.consume();
+				commit();
+			}
+			else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+				e.consume();
+				stop();
+			}
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			stop();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			int offs = e.getOffset();
+			if (offs >= starts[primary] && offs + e.getLength() <= primaryEnd) {
+				primaryEnd -= e.getLength();
+			}
+			else {
+				stop();
+			}
+		}
+
+	}
+
+
+}
@@ -0,0 +1,472 @@
+/*
+ * 10/18/2026
+ *
+ * MatchCounter - Displays "match n of m" information in a FindToolBar.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.text.MessageFormat;
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.CaretEvent;
+import javax.swing.event.CaretListener;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.text.JTextComponent;
+
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Counts the occurrences of the text being searched for in a
+ * {@link FindToolBar}, and displays "Match 37 of 12,408" in the toolbar as
+ * the user navigates between matches.<p>
+ *
+ * If the toolbar's {@link BackgroundMarkAll} has found the matches of the
+ * same search in the current document, they are counted from its
+ * {@link MatchOffsetIndex} rather than by searching the document a second
+ * time; if it is still searching, counting waits for it to finish.
+ * Otherwise, counting is done on a worker thread.  Either way the result is
+ * cached per document version and search parameters, so it is only redone
+ * when one of them changes, and the index of the selected match is found
+ * with a binary search whenever the selection changes.  To bound memory and
+ * CPU usage, the worker stops after {@link #MAX_COUNT} matches or
+ * {@link #TIME_LIMIT} milliseconds, in which case the count is displayed as
+ * a lower bound.  If finding a single match takes too long (see
+ * {@link InterruptibleCharSequence}), "Search timed out" is displayed
+ * instead.<p>
+ *
+ * Nothing is counted while the toolbar isn't showing, since copying the
+ * document for the worker is done on the EDT.  A count never replaces a
+ * message displayed by the toolbar itself, such as the result of a
+ * "Replace All", until the search context changes.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MatchCounter implements CaretListener, ChangeListener,
+		HierarchyListener {
+
+	private final FindToolBar toolBar;
+	private final ToolBarSearch search;
+	private DocumentSnapshot snapshot;
+	private BackgroundMarkAll markAll;
+	private Timer timer;
+	private boolean updateScheduled;
+	private boolean waitingForMarkAll;
+	private CountWorker worker;
+	private Key lastKey;
+	private Counts counts;
+	private String displayedText;
+
+	/**
+	 * The maximum number of matches counted.
+	 */
+	static final int MAX_COUNT = 1_000_000;
+
+	/**
+	 * The maximum time spent counting, in milliseconds.
+	 */
+	static final int TIME_LIMIT = 1000;
+
+	/**
+	 * The delay before recounting after a change, in milliseconds.
+	 */
+	private static final int DELAY = 200;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param toolBar The toolbar whose search context we count matches of.
+	 * @param search Displays the count in the toolbar.
+	 */
+	MatchCounter(FindToolBar toolBar, ToolBarSearch search) {
+		this.toolBar = toolBar;
+		this.search = search;
+		timer = new Timer(DELAY, e -> update());
+		timer.setRepeats(false);
+		toolBar.addHierarchyListener(this);
+	}
+
+
+	private void cancel() {
+		timer.stop();
+		updateScheduled = false;
+		waitingForMarkAll = false;
+		if (worker != null) {
+			worker.interrupt(false);
+			worker = null;
+		}
+	}
+
+
+	@Override
+	public void caretUpdate(CaretEvent e) {
+		if (toolBar.isShowing() && counts != null && counts.key.version == snapshot.getVersion()) {
+			displayCounts();
+		}
+	}
+
+
+	/**
+	 * Displays the count, and the index of the selected match if a match
+	 * is selected.
+	 */
+	private void displayCounts() {
+
+		if (counts.matchTimedOut) {
+			setInfoText(FindToolBar.MSG.getString("SearchTimedOut"));
+			return;
+		}
+		if (counts.count == 0) {
+			setInfoText(FindToolBar.MSG.getString("NoMatches"));
+			return;
+		}
+
+		JTextComponent textArea = snapshot.getTextComponent();
+		int start = textArea.getSelectionStart();
+		int index = -1;
+		if (textArea.getSelectionEnd() > start) {
+			index = counts.matches.indexOf(start);
+		}
+
+		String suffix = counts.complete ? "" : "+";
+		String text;
+		if (index >= 0) {
+			text = MessageFormat.format(FindToolBar.MSG.getString("MatchIndex"),
+					index + 1, counts.count, suffix);
+		}
+		else {
+			text = MessageFormat.format(FindToolBar.MSG.getString("MatchCount"),
+					counts.count, suffix);
+		}
+		setInfoText(text);
+	}
+
+
+	/**
+	 * Returns the number of matches found by the most recent count.
+	 *
+	 * @return The number of matches, or {@code -1} if no count is
+	 *         available.
+	 */
+	int getCount() {
+		return counts == null ? -1 : counts.count;
+	}
+
+
+	@Override
+	public void hierarchyChanged(HierarchyEvent e) {
+		if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+			if (toolBar.isShowing()) {
+				scheduleUpdate();
+			}
+			else {
+				cancel();
+			}
+		}
+	}
+
+
+	/**
+	 * Returns whether a recount is scheduled or in progress.
+	 *
+	 * @return Whether a recount is pending.
+	 */
+	boolean isUpdatePending() {
+		return updateScheduled || waitingForMarkAll || worker != null;
+	}
+
+
+	/**
+	 * Schedules a recount, for example after a search.  Changes to the
+	 * document are picked up automatically.  Nothing happens if the toolbar
+	 * isn't showing; a recount is done when it is shown.
+	 */
+	void scheduleUpdate() {
+		if (snapshot != null && toolBar.isShowing()) {
+			cancel();
+			timer.restart();
+			updateScheduled = true;
+		}
+	}
+
+
+	/**
+	 * Called when the search context changes.  The message displayed by the
+	 * toolbar, if any, is considered read, and a recount is scheduled.
+	 */
+	void searchContextChanged() {
+		if (snapshot != null) {
+			displayedText = search.getInfoText();
+			scheduleUpdate();
+		}
+	}
+
+
+	/**
+	 * Displays text in the toolbar, unless it is displaying a message of its
+	 * own the user hasn't seen yet.
+	 *
+	 * @param text The text to display.  This may be {@code null}.
+	 */
+	private void setInfoText(String text) {
+		String current = search.getInfoText();
+		if (current == null || current.isEmpty() || current.equals(displayedText)) {
+			displayedText = text;
+			search.setInfoText(text);
+		}
+	}
+
+
+	/**
+	 * Sets the document to count matches in.
+	 *
+	 * @param snapshot The document.  This may be {@code null}.
+	 * @param markAll Marks all occurrences in the document.  Its matches
+	 *        are counted when possible, rather than searching the document.
+	 *        This may be {@code null}.
+	 */
+	void setSnapshot(DocumentSnapshot snapshot, BackgroundMarkAll markAll) {
+		cancel();
+		if (this.snapshot != null) {
+			this.snapshot.getTextComponent().removeCaretListener(this);
+			this.snapshot.removeChangeListener(this);
+		}
+		if (this.markAll != null) {
+			this.markAll.removeChangeListener(this);
+		}
+		this.snapshot = snapshot;
+		this.markAll = markAll;
+		counts = null;
+		lastKey = null;
+		if (snapshot != null) {
+			snapshot.getTextComponent().addCaretListener(this);
+			snapshot.addChangeListener(this);
+		}
+		if (markAll != null) {
+			markAll.addChangeListener(this);
+		}
+	}
+
+
+	@Override
+	public void stateChanged(ChangeEvent e) {
+		// The document was modified, or a "mark all" search finished
+		scheduleUpdate();
+	}
+
+
+	/**
+	 * Recounts matches, unless the document and search parameters are
+	 * unchanged since the last count.
+	 */
+	private void update() {
+
+		updateScheduled = false;
+		waitingForMarkAll = false;
+		if (!toolBar.isShowing()) {
+			return;
+		}
+		SearchContext context = toolBar.getSearchContext();
+		Key key = new Key(context, snapshot.getVersion());
+		if (key.equals(lastKey)) {
+			if (counts != null) {
+				displayCounts();
+			}
+			return;
+		}
+		cancel();
+		lastKey = key;
+		counts = null;
+
+		String searchFor = context.getSearchFor();
+		if (searchFor == null || searchFor.isEmpty()) {
+			setInfoText(null);
+			return;
+		}
+		Pattern pattern;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			setInfoText(null);
+			return;
+		}
+
+		if (markAll != null) {
+			MatchOffsetIndex matches = markAll.getIndex(context);
+			if (matches != null) {
+				counts = new Counts(key, matches, true, false);
+				displayCounts();
+				return;
+			}
+			if (context.getMarkAll() && markAll.isRunning()) {
+				// Count its matches when it's done, rather than searching too
+				lastKey = null;
+				waitingForMarkAll = true;
+				return;
+			}
+		}
+
+		worker = new CountWorker(key, pattern, snapshot.getText());
+		worker.execute();
+	}
+
+
+	/**
+	 * The result of a count.  The matches may be those of a
+	 * {@link BackgroundMarkAll}, which are updated as the document is
+	 * edited, so they are only looked at while {@code key} is for the
+	 * current document version.
+	 */
+	private static final class Counts {
+
+		private final Key key;
+		private final MatchOffsetIndex matches;
+		private final int count;
+		private final boolean complete;
+		private final boolean matchTimedOut;
+
+		Counts(Key key, MatchOffsetIndex matches, boolean complete,
+				boolean matchTimedOut) {
+			this.key = key;
+			this.matches = matches;
+			this.count = matches.size();
+			this.complete = complete;
+			this.matchTimedOut = matchTimedOut;
+		}
+
+	}
+
+
+	/**
+	 * Identifies the document version and search parameters a count was
+	 * done for.
+	 */
+	private static final class Key {
+
+		private final String searchFor;
+		private final boolean matchCase;
+		private final boolean wholeWord;
+		private final boolean regex;
+		private final int version;
+
+		Key(SearchContext context, int version) {
+			searchFor = context.getSearchFor();
+			matchCase = context.getMatchCase();
+			wholeWord = context.getWholeWord();
+			regex = context.isRegularExpression();
+			this.version = version;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)o;
+			return version == other.version && matchCase == other.matchCase &&
+					wholeWord == other.wholeWord && regex == other.regex &&
+					String.valueOf(searchFor).equals(String.valueOf(other.searchFor));
+		}
+
+		@Override
+		public int hashCode() {
+			return String.valueOf(searchFor).hashCode() * 31 + version;
+		}
+
+	}
+
+
+	/**
+	 * Counts matches in a snapshot of the document.
+	 */
+	private final class CountWorker extends SwingWorker<Counts, Void> {
+
+		private final Key key;
+		private final SearchMatcher matcher;
+		private final InterruptibleCharSequence text;
+		private final Timer timeLimitTimer;
+		private volatile boolean timedOut;
+
+		CountWorker(Key key, Pattern pattern, String text) {
+			this.key = key;
+			this.text = new InterruptibleCharSequence(text);
+			matcher = new SearchMatcher(pattern, key.wholeWord, this.text);
+			timeLimitTimer = new Timer(TIME_LIMIT, e -> interrupt(true));
+			timeLimitTimer.setRepeats(false);
+			timeLimitTimer.start();
+		}
+
+		@Override
+		protected Counts doInBackground() {
+			// Never edited, so its reach doesn't matter
+			MatchOffsetIndex matches = new MatchOffsetIndex(MatchOffsetIndex.UNBOUNDED_REACH);
+			boolean complete = true;
+			boolean matchTimedOut = false;
+			try {
+				while (matcher.find()) {
+					if (matches.size() == MAX_COUNT) {
+						complete = false;
+						break;
+					}
+					matches.add(matcher.start(), matcher.end());
+				}
+			} catch (MatchTimeoutException mte) {
+				complete = false;
+				matchTimedOut = true;
+			} catch (CancellationException ce) {
+				if (!timedOut) {
+					return null; // Superseded
+				}
+				complete = false;
+			}
+			return new Counts(key, matches, complete, matchTimedOut);
+		}
+
+		@Override
+		protected void done() {
+			timeLimitTimer.stop();
+			if (worker != this) {
+				return;
+			}
+			worker = null;
+			try {
+				counts = get();
+			} catch (Exception e) { // Never happens
+				e.printStackTrace();
+				return;
+			}
+			if (counts != null) {
+				displayCounts();
+			}
+		}
+
+		/**
+		 * Stops counting.
+		 *
+		 * @param timedOut Whether the time limit was reached, in which case
+		 *        the matches found so far are kept.
+		 */
+		void interrupt(boolean timedOut) {
+			this.timedOut = timedOut;
+			text.interrupt();
+			if (!timedOut) {
+				timeLimitTimer.stop();
+				cancel(false);
+			}
+		}
+
+	}
+
+
+}
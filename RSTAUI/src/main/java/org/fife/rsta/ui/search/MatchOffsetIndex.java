@@ -0,0 +1,350 @@
+/*
+ * 10/18/2026
+ *
+ * MatchOffsetIndex - A compact, sorted index of match positions.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.Arrays;
+
+
+/**
+ * The start and end offsets of all matches of a search in a document, kept
+ * in sorted {@code int} arrays so the next or previous match from any offset
+ * is found with a binary search rather than by searching the document
+ * again.<p>
+ *
+ * Rather than being rebuilt, the index is updated as the document is edited
+ * via {@link #insertUpdate(int, int)} and {@link #removeUpdate(int, int)}:
+ * matches after an edit are shifted, and matches touching it are dropped.
+ * Shifting is done lazily: the matches from some index on share a pending
+ * shift, which only has to be moved past the matches between one edit and
+ * the next, so typing costs time proportional to how far the caret moves
+ * rather than to the number of matches.<p>
+ *
+ * An edit can also create new matches, so the area around each edit is
+ * remembered as "dirty"; {@link #next(int)} and {@link #previous(int)}
+ * return {@link #UNKNOWN} when their answer depends on a dirty area.  How
+ * far from an edit a match can be affected is given by the index's
+ * <em>reach</em>.  For regular expressions this cannot be bounded, so any
+ * edit makes the entire index dirty, and the matches are discarded.<p>
+ *
+ * This class is not thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MatchOffsetIndex {
+
+	private final int reach;
+	private int[] starts;
+	private int[] ends;
+	private int size;
+	private int dirtyStart;
+	private int dirtyEnd;
+
+	/**
+	 * The index of the first match whose offsets in {@code starts} and
+	 * {@code ends} have yet to be shifted by {@code shift}.
+	 */
+	private int shiftFrom;
+	private int shift;
+
+	/**
+	 * Returned by {@link #next(int)} and {@link #previous(int)} if the
+	 * answer depends on edited text, meaning the document must be searched.
+	 */
+	static final int UNKNOWN = -2;
+
+	/**
+	 * The reach of an index for which any edit can affect any match.
+	 */
+	static final int UNBOUNDED_REACH = -1;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param reach How many characters before or after an edit a match
+	 *        can be affected by it, or {@link #UNBOUNDED_REACH}.
+	 */
+	MatchOffsetIndex(int reach) {
+		this.reach = reach;
+		starts = new int[64];
+		ends = new int[64];
+		dirtyStart = Integer.MAX_VALUE;
+		dirtyEnd = -1;
+	}
+
+
+	/**
+	 * Adds a match.  Matches must be added in document order, and must not
+	 * overlap.
+	 *
+	 * @param start The start offset of the match.
+	 * @param end The end offset of the match.
+	 */
+	void add(int start, int end) {
+		if (size == starts.length) {
+			starts = Arrays.copyOf(starts, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+		}
+		// shiftFrom <= size, so this match will be shifted by shift
+		starts[size] = start - shift;
+		ends[size] = end - shift;
+		size++;
+	}
+
+
+	/**
+	 * Drops the matches in the range {@code [from, to)}.  {@code from} must
+	 * be {@code shiftFrom}, so the matches moved down keep their shift.
+	 */
+	private void drop(int from, int to) {
+		if (to > from) {
+			System.arraycopy(starts, to, starts, from, size - to);
+			System.arraycopy(ends, to, ends, from, size - to);
+			size -= to - from;
+		}
+	}
+
+
+	/**
+	 * Returns the end offset of a match.
+	 *
+	 * @param index The index of the match.
+	 * @return The end offset.
+	 */
+	int getEnd(int index) {
+		return index < shiftFrom ? ends[index] : ends[index] + shift;
+	}
+
+
+	/**
+	 * Returns the start offset of a match.
+	 *
+	 * @param index The index of the match.
+	 * @return The start offset.
+	 */
+	int getStart(int index) {
+		return index < shiftFrom ? starts[index] : starts[index] + shift;
+	}
+
+
+	/**
+	 * Returns the match starting at an offset.
+	 *
+	 * @param start The offset.
+	 * @return The index of the match, or {@code -1} if no match starts
+	 *         there.
+	 */
+	int indexOf(int start) {
+		int index = lowerBound(starts, start);
+		return index < size && getStart(index) == start ? index : -1;
+	}
+
+
+	/**
+	 * Updates the index for text inserted into the document.
+	 *
+	 * @param offset The offset of the insertion.
+	 * @param length The length of the inserted text.
+	 */
+	void insertUpdate(int offset, int length) {
+
+		if (reach == UNBOUNDED_REACH) {
+			markFullyDirty();
+			return;
+		}
+
+		// Matches touching the insertion may no longer match
+		int first = lowerBound(ends, offset);
+		int last = lowerBound(starts, offset + 1);
+		moveShift(first);
+		drop(first, last);
+		shift += length;
+
+		if (isDirty()) {
+			dirtyStart = dirtyStart > offset ? dirtyStart + length : dirtyStart;
+			dirtyEnd = dirtyEnd >= offset ? dirtyEnd + length : dirtyEnd;
+		}
+		markDirty(offset, offset + length);
+	}
+
+
+	/**
+	 * Returns whether any edits have been made since the index was built.
+	 *
+	 * @return Whether the index is dirty.
+	 */
+	boolean isDirty() {
+		return dirtyEnd >= 0;
+	}
+
+
+	/**
+	 * Returns whether any edit can affect any match, and there has been an
+	 * edit.
+	 */
+	private boolean isFullyDirty() {
+		return reach == UNBOUNDED_REACH && isDirty();
+	}
+
+
+	/**
+	 * Returns the index of the first of the matches' start or end offsets
+	 * that is greater than or equal to a value.  Matches never overlap and
+	 * are never empty, so both arrays are strictly increasing.
+	 */
+	private int lowerBound(int[] array, int value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			int midValue = mid < shiftFrom ? array[mid] : array[mid] + shift;
+			if (midValue < value) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+
+	private void markDirty(int start, int end) {
+		dirtyStart = Math.min(dirtyStart, Math.max(0, start - reach));
+		dirtyEnd = Math.max(dirtyEnd, end + reach);
+	}
+
+
+	/**
+	 * Marks the entire index as dirty.  No match can be trusted after that,
+	 * so they are all discarded rather than shifted by later edits.
+	 */
+	private void markFullyDirty() {
+		dirtyStart = 0;
+		dirtyEnd = Integer.MAX_VALUE;
+		size = 0;
+		shiftFrom = 0;
+		shift = 0;
+	}
+
+
+	/**
+	 * Moves the start of the pending shift to a match, applying it to or
+	 * removing it from the matches in between.
+	 *
+	 * @param index The index of the match the shift should start at.
+	 */
+	private void moveShift(int index) {
+		if (shift != 0) {
+			for (int i = shiftFrom; i < index; i++) {
+				starts[i] += shift;
+				ends[i] += shift;
+			}
+			for (int i = index; i < shiftFrom; i++) {
+				starts[i] -= shift;
+				ends[i] -= shift;
+			}
+		}
+		shiftFrom = index;
+	}
+
+
+	/**
+	 * Returns the first match starting at or after an offset.
+	 *
+	 * @param offset The offset.
+	 * @return The index of the match, {@code -1} if there is no such match,
+	 *         or {@link #UNKNOWN} if the answer depends on edited text.
+	 * @see #previous(int)
+	 */
+	int next(int offset) {
+		if (isFullyDirty()) {
+			return UNKNOWN;
+		}
+		int index = lowerBound(starts, offset);
+		int limit = index == size ? Integer.MAX_VALUE : getStart(index);
+		// A new match between offset and limit would overlap the dirty area
+		if (offset < limit && offset <= dirtyEnd && limit > dirtyStart) {
+			return UNKNOWN;
+		}
+		return index == size ? -1 : index;
+	}
+
+
+	/**
+	 * Returns the last match ending at or before an offset.
+	 *
+	 * @param offset The offset.
+	 * @return The index of the match, {@code -1} if there is no such match,
+	 *         or {@link #UNKNOWN} if the answer depends on edited text.
+	 * @see #next(int)
+	 */
+	int previous(int offset) {
+		if (isFullyDirty()) {
+			return UNKNOWN;
+		}
+		int index = lowerBound(ends, offset + 1) - 1;
+		int limit = index == -1 ? 0 : getEnd(index);
+		// A new match between limit and offset would overlap the dirty area
+		if (limit < offset && offset > dirtyStart && limit <= dirtyEnd) {
+			return UNKNOWN;
+		}
+		return index;
+	}
+
+
+	/**
+	 * Updates the index for text removed from the document.
+	 *
+	 * @param offset The offset of the removal.
+	 * @param length The length of the removed text.
+	 */
+	void removeUpdate(int offset, int length) {
+
+		if (reach == UNBOUNDED_REACH) {
+			markFullyDirty();
+			return;
+		}
+
+		// Matches touching the removed text may no longer match
+		int end = offset + length;
+		int first = lowerBound(ends, offset);
+		int last = lowerBound(starts, end + 1);
+		moveShift(first);
+		drop(first, last);
+		shift -= length;
+
+		if (isDirty()) {
+			dirtyStart = shiftForRemove(dirtyStart, offset, end);
+			dirtyEnd = shiftForRemove(dirtyEnd, offset, end);
+		}
+		markDirty(offset, offset);
+	}
+
+
+	private static int shiftForRemove(int pos, int offset, int end) {
+		if (pos >= end) {
+			return pos - (end - offset);
+		}
+		return Math.min(pos, offset);
+	}
+
+
+	/**
+	 * Returns the number of matches in this index.
+	 *
+	 * @return The number of matches.
+	 */
+	int size() {
+		return size;
+	}
+
+
+}
@@ -0,0 +1,39 @@
+/*
+ * 10/18/2026
+ *
+ * MatchTimeoutException - Thrown when a single match attempt exceeds its
+ * budget.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.concurrent.CancellationException;
+
+
+/**
+ * Thrown by {@link InterruptibleCharSequence} when a single match attempt
+ * reads too many characters or takes too long, which usually means a
+ * regular expression is backtracking catastrophically.  This is a
+ * {@code CancellationException}, so code that only expects to be
+ * interrupted simply stops; code that reports the problem to the user
+ * catches this first.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MatchTimeoutException extends CancellationException {
+
+	private static final long serialVersionUID = 1L;
+
+
+	/**
+	 * Constructor.
+	 */
+	MatchTimeoutException() {
+		super("Search timed out");
+	}
+
+
+}
@@ -0,0 +1,340 @@
+/*
+ * 10/18/2026
+ *
+ * MultiDocumentSearch - Searches many documents in parallel.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingUtilities;
+import javax.swing.event.EventListenerList;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Finds all occurrences of searched-for text in many text areas at once,
+ * such as every editor open in an application.  Each document is copied and
+ * searched by a separate task on a {@code ForkJoinPool}, so the work is
+ * spread across all available cores, and results are handed back to
+ * {@link MultiDocumentSearchListener}s on the EDT one document at a time, as
+ * soon as each document has been searched.<p>
+ *
+ * Only one search runs at a time.  Starting a new search cancels the one in
+ * progress, as does calling {@link #cancel()}.  Documents are copied while
+ * holding their read locks, so they can safely be edited while a search
+ * runs; however, the reported offsets are those of the document at the time
+ * it was copied.<p>
+ *
+ * All methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class MultiDocumentSearch {
+
+	private ForkJoinPool pool;
+	private EventListenerList listenerList;
+	private SearchRun run;
+	private int matchCount;
+	private int documentCount;
+	private int timedOutCount;
+
+
+	/**
+	 * Constructor.  Searches will run on the common {@code ForkJoinPool}.
+	 */
+	public MultiDocumentSearch() {
+		this(ForkJoinPool.commonPool());
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pool The pool to run searches on.  This cannot be
+	 *        {@code null}.
+	 */
+	public MultiDocumentSearch(ForkJoinPool pool) {
+		this.pool = pool;
+		listenerList = new EventListenerList();
+	}
+
+
+	/**
+	 * Adds a listener to be notified of search results.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeMultiDocumentSearchListener(MultiDocumentSearchListener)
+	 */
+	public void addMultiDocumentSearchListener(MultiDocumentSearchListener l) {
+		listenerList.add(MultiDocumentSearchListener.class, l);
+	}
+
+
+	/**
+	 * Cancels the search in progress, if any.  Listeners are notified that
+	 * the search completed and was cancelled.
+	 */
+	public void cancel() {
+		if (run != null) {
+			run.cancel();
+			run = null;
+			fireSearchCompleted(true);
+		}
+	}
+
+
+	private void fireDocumentSearched(JTextComponent textArea,
+			List<DocumentRange> matches) {
+		MultiDocumentSearchListener[] listeners = listenerList.getListeners(
+				MultiDocumentSearchListener.class);
+		for (MultiDocumentSearchListener l : listeners) {
+			l.documentSearched(textArea, matches);
+		}
+	}
+
+
+	private void fireDocumentTimedOut(JTextComponent textArea) {
+		MultiDocumentSearchListener[] listeners = listenerList.getListeners(
+				MultiDocumentSearchListener.class);
+		for (MultiDocumentSearchListener l : listeners) {
+			l.documentTimedOut(textArea);
+		}
+	}
+
+
+	private void fireSearchCompleted(boolean cancelled) {
+		MultiDocumentSearchListener[] listeners = listenerList.getListeners(
+				MultiDocumentSearchListener.class);
+		for (MultiDocumentSearchListener l : listeners) {
+			l.searchCompleted(cancelled);
+		}
+	}
+
+
+	/**
+	 * Returns the number of documents searched so far by the current or
+	 * most recent search.
+	 *
+	 * @return The number of documents searched.
+	 * @see #getMatchCount()
+	 */
+	public int getDocumentCount() {
+		return documentCount;
+	}
+
+
+	/**
+	 * Returns the number of matches found so far by the current or most
+	 * recent search.
+	 *
+	 * @return The number of matches found.
+	 * @see #getDocumentCount()
+	 */
+	public int getMatchCount() {
+		return matchCount;
+	}
+
+
+	/**
+	 * Returns the number of documents whose search timed out so far in the
+	 * current or most recent search.
+	 *
+	 * @return The number of documents that timed out.
+	 * @see MultiDocumentSearchListener#documentTimedOut(JTextComponent)
+	 */
+	public int getTimedOutCount() {
+		return timedOutCount;
+	}
+
+
+	/**
+	 * Returns whether a search is currently running.
+	 *
+	 * @return Whether a search is running.
+	 */
+	public boolean isRunning() {
+		return run != null;
+	}
+
+
+	/**
+	 * Removes a listener notified of search results.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addMultiDocumentSearchListener(MultiDocumentSearchListener)
+	 */
+	public void removeMultiDocumentSearchListener(MultiDocumentSearchListener l) {
+		listenerList.remove(MultiDocumentSearchListener.class, l);
+	}
+
+
+	/**
+	 * Starts searching a set of text areas for the text described by a
+	 * search context, cancelling any search in progress.  The context's
+	 * "match case," "whole word" and "regular expression" options are
+	 * honored; its direction and "mark all" options are ignored.
+	 *
+	 * @param context The search context.
+	 * @param textAreas The text areas to search.
+	 * @return Whether a search was started.  This is {@code false} if
+	 *         {@code context} doesn't specify any text to search for or
+	 *         specifies an invalid regular expression, or if
+	 *         {@code textAreas} is empty.
+	 */
+	public boolean start(SearchContext context,
+			Collection<? extends JTextComponent> textAreas) {
+
+		cancel();
+		matchCount = 0;
+		documentCount = 0;
+		timedOutCount = 0;
+
+		String searchFor = context.getSearchFor();
+		if (searchFor == null || searchFor.isEmpty() || textAreas.isEmpty()) {
+			return false;
+		}
+		Pattern pattern;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			return false;
+		}
+
+		run = new SearchRun(pattern, context.getWholeWord(), textAreas);
+		pool.execute(run);
+		return true;
+	}
+
+
+	/**
+	 * Searches one document.
+	 */
+	private final class DocumentTask extends RecursiveAction {
+
+		private final SearchRun owner;
+		private final JTextComponent textArea;
+		private final Document doc;
+		private volatile InterruptibleCharSequence text;
+
+		DocumentTask(SearchRun owner, JTextComponent textArea) {
+			this.owner = owner;
+			this.textArea = textArea;
+			this.doc = textArea.getDocument();
+		}
+
+		@Override
+		protected void compute() {
+
+			String[] content = new String[1];
+			doc.render(() -> {
+				try {
+					content[0] = doc.getText(0, doc.getLength());
+				} catch (BadLocationException ble) { // Never happens
+					ble.printStackTrace();
+					content[0] = "";
+				}
+			});
+			text = new InterruptibleCharSequence(content[0]);
+			if (owner.cancelled) {
+				return; // Cancelled while we were copying
+			}
+
+			SearchMatcher matcher = new SearchMatcher(owner.pattern,
+					owner.wholeWord, text);
+			List<DocumentRange> matches = new ArrayList<>();
+			boolean timedOut = false;
+			try {
+				while (matcher.find()) {
+					matches.add(new DocumentRange(matcher.start(), matcher.end()));
+				}
+			} catch (MatchTimeoutException mte) {
+				timedOut = true; // Still report the matches found so far
+			} catch (CancellationException ce) {
+				return;
+			}
+
+			List<DocumentRange> result = Collections.unmodifiableList(matches);
+			boolean reportTimeout = timedOut;
+			SwingUtilities.invokeLater(() -> {
+				if (run == owner) {
+					documentCount++;
+					matchCount += result.size();
+					fireDocumentSearched(textArea, result);
+					if (reportTimeout) {
+						timedOutCount++;
+						fireDocumentTimedOut(textArea);
+					}
+				}
+			});
+		}
+
+		void interrupt() {
+			InterruptibleCharSequence seq = text;
+			if (seq != null) {
+				seq.interrupt();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Searches all documents, then notifies listeners that the search has
+	 * completed.
+	 */
+	private final class SearchRun extends RecursiveAction {
+
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private final List<DocumentTask> tasks;
+		private volatile boolean cancelled;
+
+		SearchRun(Pattern pattern, boolean wholeWord,
+				Collection<? extends JTextComponent> textAreas) {
+			this.pattern = pattern;
+			this.wholeWord = wholeWord;
+			tasks = new ArrayList<>(textAreas.size());
+			for (JTextComponent textArea : textAreas) {
+				tasks.add(new DocumentTask(this, textArea));
+			}
+		}
+
+		void cancel() {
+			cancelled = true;
+			for (DocumentTask task : tasks) {
+				task.interrupt();
+			}
+		}
+
+		@Override
+		protected void compute() {
+			invokeAll(tasks);
+			SwingUtilities.invokeLater(() -> {
+				if (run == this) {
+					run = null;
+					fireSearchCompleted(false);
+				}
+			});
+		}
+
+	}
+
+
+}
@@ -0,0 +1,61 @@
+/*
+ * 10/18/2026
+ *
+ * MultiDocumentSearchListener - Listens for results of a search over many
+ * documents.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.EventListener;
+import java.util.List;
+import javax.swing.text.JTextComponent;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+
+
+/**
+ * Listens for the results of a {@link MultiDocumentSearch}.  All methods are
+ * called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public interface MultiDocumentSearchListener extends EventListener {
+
+
+	/**
+	 * Called when a document has been searched.  Documents are reported in
+	 * the order in which their searches complete, which is not necessarily
+	 * the order in which they were given to the search.
+	 *
+	 * @param textArea The text area whose document was searched.
+	 * @param matches The matches found, in document order.  This may be
+	 *        empty.
+	 */
+	void documentSearched(JTextComponent textArea, List<DocumentRange> matches);
+
+
+	/**
+	 * Called when searching a document stopped early, because finding a
+	 * single match took too long.  This usually means a regular expression
+	 * is backtracking catastrophically.  The matches found before then have
+	 * just been passed to {@link #documentSearched(JTextComponent, List)}.
+	 *
+	 * @param textArea The text area whose document was being searched.
+	 */
+	void documentTimedOut(JTextComponent textArea);
+
+
+	/**
+	 * Called when a search completes, either because all documents have
+	 * been searched or because it was cancelled.
+	 *
+	 * @param cancelled Whether the search was cancelled.
+	 */
+	void searchCompleted(boolean cancelled);
+
+
+}
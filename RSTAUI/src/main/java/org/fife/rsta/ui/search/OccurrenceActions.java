@@ -0,0 +1,194 @@
+/*
+ * 10/18/2026
+ *
+ * OccurrenceActions - "Select all occurrences" and "copy all occurrences"
+ * for a FindToolBar.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.text.MessageFormat;
+import java.util.List;
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.KeyStroke;
+import javax.swing.UIManager;
+import javax.swing.text.BadLocationException;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Adds "select all occurrences" and "copy all occurrences" actions to a
+ * {@link FindToolBar}.  Both work on the toolbar's text area, and use the
+ * offsets found by "mark all" if it has found all occurrences, rather than
+ * searching the document again.  Alt+Enter anywhere in the toolbar
+ * selects all occurrences:
+ *
+ * <pre>
+ * findToolBar.setTextArea(textArea);
+ * OccurrenceActions actions = new OccurrenceActions(findToolBar);
+ * copyMenuItem.addActionListener(e -&gt; actions.copyAll());
+ * </pre>
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindToolBar#setTextArea(RTextArea)
+ * @see LinkedOccurrenceEdit
+ */
+public final class OccurrenceActions {
+
+	private final FindToolBar toolBar;
+	private LinkedOccurrenceEdit edit;
+
+	private static final KeyStroke SELECT_ALL_KEY = KeyStroke.getKeyStroke(
+			KeyEvent.VK_ENTER, InputEvent.ALT_DOWN_MASK);
+
+	private static final String SELECT_ALL_ACTION = "selectAllOccurrences";
+
+
+	/**
+	 * Constructor.  Binds Alt+Enter in the toolbar until
+	 * {@link #uninstall()} is called.
+	 *
+	 * @param toolBar The toolbar whose search context we search for.
+	 */
+	public OccurrenceActions(FindToolBar toolBar) {
+		this.toolBar = toolBar;
+		toolBar.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).
+				put(SELECT_ALL_KEY, SELECT_ALL_ACTION);
+		toolBar.getActionMap().put(SELECT_ALL_ACTION, new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				selectAll();
+			}
+		});
+	}
+
+
+	/**
+	 * Copies all occurrences of the text being searched for in the text
+	 * area to the clipboard, one per line.
+	 *
+	 * @return The number of occurrences copied.  If this is zero, nothing
+	 *         is copied.
+	 * @see #selectAll()
+	 */
+	public int copyAll() {
+
+		List<DocumentRange> ranges = getOccurrences();
+		if (ranges == null) {
+			return 0;
+		}
+
+		RTextArea textArea = toolBar.getTextArea();
+		StringBuilder sb = new StringBuilder();
+		try {
+			for (DocumentRange range : ranges) {
+				int start = range.getStartOffset();
+				sb.append(textArea.getText(start, range.getEndOffset() - start)).append('\n');
+			}
+		} catch (BadLocationException ble) {
+			ble.printStackTrace(); // Never happens
+			return 0;
+		}
+		textArea.getToolkit().getSystemClipboard().setContents(
+				new StringSelection(sb.toString()), null);
+		toolBar.getToolBarSearch().setInfoText(MessageFormat.format(
+				FindToolBar.MSG.getString("OccurrencesCopied"), ranges.size()));
+		return ranges.size();
+	}
+
+
+	/**
+	 * Returns all occurrences of the text being searched for in the text
+	 * area.  If there are none, or the search timed out, error feedback is
+	 * given.
+	 *
+	 * @return The occurrences, or {@code null} if there are none, the
+	 *         search timed out, or there is no text area.
+	 */
+	private List<DocumentRange> getOccurrences() {
+		ToolBarSearch search = toolBar.getToolBarSearch();
+		BackgroundMarkAll markAll = search.getBackgroundMarkAll();
+		if (markAll == null) {
+			return null;
+		}
+		RTextArea textArea = markAll.getTextArea();
+		SearchContext context = toolBar.getSearchContext();
+		List<DocumentRange> ranges = markAll.getOccurrences(context);
+		if (ranges == null) {
+			try {
+				ranges = SearchUtil.findAll(search.getSnapshot().getText(), context);
+			} catch (MatchTimeoutException mte) {
+				UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+				search.setInfoText(FindToolBar.MSG.getString("SearchTimedOut"));
+				return null;
+			}
+		}
+		if (ranges == null || ranges.isEmpty()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+			search.setInfoText(FindToolBar.MSG.getString("NotFound"));
+			return null;
+		}
+		return ranges;
+	}
+
+
+	/**
+	 * Lets the user edit all occurrences of the text being searched for in
+	 * the text area at once.  The occurrence at or after the caret is
+	 * selected, and the others are highlighted.  When the user presses
+	 * Enter in the text area, or moves the caret out of the selected
+	 * occurrence, its new text is copied to the other occurrences.  Pressing
+	 * Escape leaves the other occurrences alone.
+	 *
+	 * @return The number of occurrences selected.  If this is zero, nothing
+	 *         is selected.
+	 * @see #copyAll()
+	 */
+	public int selectAll() {
+
+		List<DocumentRange> ranges = getOccurrences();
+		if (ranges == null) {
+			return 0;
+		}
+
+		if (edit != null) {
+			edit.stop();
+		}
+		RTextArea textArea = toolBar.getTextArea();
+		edit = new LinkedOccurrenceEdit(textArea, ranges);
+		edit.start();
+		textArea.requestFocusInWindow();
+		toolBar.getToolBarSearch().setInfoText(MessageFormat.format(
+				FindToolBar.MSG.getString("OccurrencesSelected"), ranges.size()));
+		return ranges.size();
+	}
+
+
+	/**
+	 * Removes the Alt+Enter binding from the toolbar, and ends any edit
+	 * in progress.  This should be called if this object is no longer
+	 * needed but the toolbar is still in use.
+	 */
+	public void uninstall() {
+		if (edit != null) {
+			edit.stop();
+			edit = null;
+		}
+		toolBar.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).
+				remove(SELECT_ALL_KEY);
+		toolBar.getActionMap().remove(SELECT_ALL_ACTION);
+	}
+
+
+}
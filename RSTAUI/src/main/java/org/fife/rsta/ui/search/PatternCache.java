@@ -0,0 +1,186 @@
+/*
+ * 10/18/2026
+ *
+ * PatternCache - A cache of compiled regular expressions.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+
+/**
+ * A bounded, least-recently-used cache of compiled {@code Pattern}s, keyed
+ * on pattern text and flags.  The search dialogs and toolbars validate the
+ * text in their "Find" fields on every keystroke, and the same patterns are
+ * then used to do the searching, so sharing compiled patterns avoids a lot
+ * of redundant compilation on the EDT.<p>
+ *
+ * Invalid patterns are not cached.  This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see #getSharedInstance()
+ */
+public final class PatternCache {
+
+	private final Map<Key, Pattern> cache;
+	private final int maxSize;
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * The default maximum number of patterns cached.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 32;
+
+	private static final PatternCache SHARED_INSTANCE =
+			new PatternCache(DEFAULT_MAX_SIZE);
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxSize The maximum number of patterns to cache.  This must
+	 *        be greater than zero.
+	 * @see #getSharedInstance()
+	 */
+	public PatternCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be > 0");
+		}
+		this.maxSize = maxSize;
+		cache = new LinkedHashMap<Key, Pattern>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Pattern> e) {
+				return size() > PatternCache.this.maxSize;
+			}
+		};
+	}
+
+
+	/**
+	 * Removes all patterns from this cache.  The hit and miss counts are
+	 * not reset.
+	 */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+
+	/**
+	 * Returns a compiled pattern, compiling it only if it isn't already
+	 * cached.
+	 *
+	 * @param regex The regular expression.
+	 * @param flags The flags to compile with, as in
+	 *        {@code Pattern.compile(String, int)}.
+	 * @return The compiled pattern.
+	 * @throws PatternSyntaxException If the regular expression is invalid.
+	 */
+	public synchronized Pattern compile(String regex, int flags) {
+		Key key = new Key(regex, flags);
+		Pattern pattern = cache.get(key);
+		if (pattern != null) {
+			hitCount++;
+			return pattern;
+		}
+		missCount++;
+		pattern = Pattern.compile(regex, flags);
+		cache.put(key, pattern);
+		return pattern;
+	}
+
+
+	/**
+	 * Returns the number of calls to {@link #compile(String, int)} that
+	 * returned a cached pattern.
+	 *
+	 * @return The hit count.
+	 * @see #getMissCount()
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+
+	/**
+	 * Returns the maximum number of patterns this cache holds.
+	 *
+	 * @return The maximum size of this cache.
+	 * @see #getSize()
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+
+	/**
+	 * Returns the number of calls to {@link #compile(String, int)} that
+	 * had to compile a pattern.
+	 *
+	 * @return The miss count.
+	 * @see #getHitCount()
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+
+	/**
+	 * Returns the cache shared by all search dialogs and toolbars.
+	 *
+	 * @return The shared cache.
+	 */
+	public static PatternCache getSharedInstance() {
+		return SHARED_INSTANCE;
+	}
+
+
+	/**
+	 * Returns the number of patterns currently cached.
+	 *
+	 * @return The number of patterns cached.
+	 * @see #getMaxSize()
+	 */
+	public synchronized int getSize() {
+		return cache.size();
+	}
+
+
+	/**
+	 * A key into the cache.
+	 */
+	private static final class Key {
+
+		private final String regex;
+		private final int flags;
+
+		Key(String regex, int flags) {
+			this.regex = regex;
+			this.flags = flags;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)o;
+			return flags == other.flags && regex.equals(other.regex);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * regex.hashCode() + flags;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,166 @@
+/*
+ * 10/18/2026
+ *
+ * PendingSearch - Dispatches search events and tracks asynchronous results.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.swing.SwingUtilities;
+
+import org.fife.ui.rtextarea.SearchResult;
+
+
+/**
+ * Notifies {@link SearchListener}s of a search event, and keeps track of the
+ * results of any {@link AsyncSearchListener}s among them.  This is shared by
+ * the Find and Replace dialogs and toolbars.  Only one event is tracked at a
+ * time; firing another event cancels the pending results of the previous
+ * one.<p>
+ *
+ * All methods of this class should be called on the EDT, and its listener is
+ * always notified on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class PendingSearch {
+
+	private final Listener listener;
+	private final List<CompletableFuture<SearchResult>> futures;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param listener Notified when results are pending, and when they
+	 *        arrive.
+	 */
+	PendingSearch(Listener listener) {
+		this.listener = listener;
+		futures = new ArrayList<>(1);
+	}
+
+
+	/**
+	 * Cancels the pending results, if any.  Their results are ignored.
+	 */
+	void cancel() {
+		if (!futures.isEmpty()) {
+			List<CompletableFuture<SearchResult>> cancelled = new ArrayList<>(futures);
+			futures.clear();
+			for (CompletableFuture<SearchResult> future : cancelled) {
+				future.cancel(true);
+			}
+			listener.pendingChanged(false);
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when a future completes.
+	 */
+	private void completed(SearchEvent e, CompletableFuture<SearchResult> future) {
+		if (futures.remove(future)) { // Not cancelled or superseded
+			deliver(e, future);
+			if (futures.isEmpty()) {
+				listener.pendingChanged(false);
+			}
+		}
+	}
+
+
+	/**
+	 * Passes the result of a completed future to the listener.
+	 */
+	private void deliver(SearchEvent e, CompletableFuture<SearchResult> future) {
+		SearchResult result;
+		try {
+			result = future.join();
+		} catch (CancellationException ce) {
+			return; // Cancelled by the search listener itself
+		} catch (CompletionException ce) {
+			result = null;
+		}
+		listener.searchCompleted(e, result);
+	}
+
+
+	/**
+	 * Notifies search listeners of an event, last to first, cancelling the
+	 * pending results of the previous event.  Results that are available
+	 * immediately are reported before this method returns.
+	 *
+	 * @param e The event.
+	 * @param listeners The listeners to notify.
+	 */
+	void fire(SearchEvent e, SearchListener[] listeners) {
+
+		cancel();
+
+		for (int i = listeners.length - 1; i >= 0; i--) {
+			if (listeners[i] instanceof AsyncSearchListener) {
+				CompletableFuture<SearchResult> future =
+						((AsyncSearchListener)listeners[i]).searchEventAsync(e);
+				if (future != null && future.isDone()) {
+					deliver(e, future);
+				}
+				else if (future != null) {
+					futures.add(future);
+					future.whenComplete((result, t) ->
+						SwingUtilities.invokeLater(() -> completed(e, future)));
+				}
+			}
+			else {
+				listeners[i].searchEvent(e);
+			}
+		}
+
+		if (!futures.isEmpty()) {
+			listener.pendingChanged(true);
+		}
+	}
+
+
+	/**
+	 * Returns whether the results of a search event are pending.
+	 *
+	 * @return Whether results are pending.
+	 */
+	boolean isPending() {
+		return !futures.isEmpty();
+	}
+
+
+	/**
+	 * Notified when results are pending, and when they arrive.
+	 */
+	interface Listener {
+
+		/**
+		 * Called when results start or stop being pending.  When results
+		 * arrive, this is called after {@link #searchCompleted}.
+		 *
+		 * @param pending Whether results are pending.
+		 */
+		void pendingChanged(boolean pending);
+
+		/**
+		 * Called when the result of a search event is available.
+		 *
+		 * @param e The event.
+		 * @param result The result, or {@code null} if the search failed.
+		 */
+		void searchCompleted(SearchEvent e, SearchResult result);
+
+	}
+
+
+}
@@ -0,0 +1,84 @@
+/*
+ * 10/18/2026
+ *
+ * PendingSearchStatus - Shows the state of asynchronous searches in a
+ * FindToolBar.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.text.MessageFormat;
+import javax.swing.UIManager;
+
+import org.fife.ui.rtextarea.SearchResult;
+
+
+/**
+ * Shows the state of the results of {@link AsyncSearchListener}s in a
+ * {@link FindToolBar}.  While results are pending, the toolbar says so and
+ * its Find buttons are disabled.  When results arrive, error feedback is
+ * given if nothing was found, the search wrapped, or the operation failed,
+ * and the result is described in the toolbar.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindToolBar#isSearchPending()
+ */
+final class PendingSearchStatus implements PendingSearch.Listener {
+
+	private final FindToolBar toolBar;
+	private final ToolBarSearch search;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param toolBar The toolbar to update.
+	 * @param search Displays the results in the toolbar, and updates its
+	 *        match count after a successful search.
+	 */
+	PendingSearchStatus(FindToolBar toolBar, ToolBarSearch search) {
+		this.toolBar = toolBar;
+		this.search = search;
+	}
+
+
+	@Override
+	public void pendingChanged(boolean pending) {
+		String msg = FindToolBar.MSG.getString("SearchPending");
+		if (pending) {
+			search.setInfoText(msg);
+		}
+		else if (msg.equals(search.getInfoText())) {
+			search.setInfoText(null); // Cancelled
+		}
+		toolBar.handleToggleButtons();
+	}
+
+
+	@Override
+	public void searchCompleted(SearchEvent e, SearchResult result) {
+		boolean failed = SearchUtil.isFailure(e, result);
+		if (failed || result.isWrapped()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(toolBar.getTextArea());
+		}
+		if (result==null) {
+			search.setInfoText(FindToolBar.MSG.getString("SearchFailed"));
+		}
+		else if (e.getType()==SearchEvent.Type.REPLACE_ALL) {
+			search.setInfoText(MessageFormat.format(
+					FindToolBar.MSG.getString("OccurrencesReplaced"), result.getCount()));
+		}
+		else if (failed) {
+			search.setInfoText(FindToolBar.MSG.getString("NotFound"));
+		}
+		else {
+			search.setInfoText(null);
+			search.getMatchCounter().scheduleUpdate();
+		}
+	}
+
+
+}
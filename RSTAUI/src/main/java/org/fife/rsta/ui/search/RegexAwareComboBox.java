@@ -9,21 +9,35 @@
 package org.fife.rsta.ui.search;
 
 import javax.swing.ComboBoxModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
 import javax.swing.text.JTextComponent;
 
 import org.fife.rsta.ui.ContentAssistable;
 import org.fife.rsta.ui.MaxWidthComboBox;
 import org.fife.rsta.ui.RComboBoxModel;
+import org.fife.rsta.ui.UIUtil;
 import org.fife.ui.autocomplete.AutoCompletion;
 import org.fife.ui.autocomplete.BasicCompletion;
 import org.fife.ui.autocomplete.CompletionProvider;
 import org.fife.ui.autocomplete.DefaultCompletionProvider;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
- * A combo box that offers content assistance for regular expressions.
+ * A combo box that offers content assistance for regular expressions.<p>
+ *
+ * "Find" combo boxes can also highlight the structure of the regular
+ * expression being typed:  groups, character classes, errors, and nested
+ * quantifiers that can make a search take a very long time (see
+ * {@link RegexStructure}).  The structure is kept between keystrokes, and
+ * only the changed part of the pattern is re-tokenized.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -37,6 +51,8 @@ public class RegexAwareComboBox<E> extends MaxWidthComboBox<E>
 	private AutoCompletion ac;
 	private RegexAwareProvider provider;
 	private Image contentAssistImage;
+	private RegexStructure regexStructure;
+	private RegexHighlighter regexHighlighter;
 
 
 	/**
@@ -171,6 +187,22 @@ public class RegexAwareComboBox<E> extends MaxWidthComboBox<E>
 	}
 
 
+	/**
+	 * Returns the structure of the regular expression in this combo box's
+	 * text field.  This is updated incrementally as the text changes.
+	 *
+	 * @return The structure.
+	 */
+	public RegexStructure getRegexStructure() {
+		if (regexStructure==null) {
+			regexStructure = new RegexStructure();
+		}
+		JTextComponent tc = UIUtil.getTextComponent(this);
+		regexStructure.update(tc.getText());
+		return regexStructure;
+	}
+
+
     /**
      * Returns the image to display by this text field when content
      * assistance is available.
@@ -207,6 +239,18 @@ public class RegexAwareComboBox<E> extends MaxWidthComboBox<E>
 	}
 
 
+	/**
+	 * Returns whether the regular expression in this combo box is
+	 * highlighted.
+	 *
+	 * @return Whether highlighting is enabled.
+	 * @see #setRegexHighlightingEnabled(boolean)
+	 */
+	public boolean isRegexHighlightingEnabled() {
+		return regexHighlighter!=null;
+	}
+
+
 	/**
 	 * Toggles whether regex auto-complete is enabled.  This method will fire
 	 * a property change event of type
@@ -259,6 +303,28 @@ public class RegexAwareComboBox<E> extends MaxWidthComboBox<E>
 	}
 
 
+	/**
+	 * Toggles whether the regular expression in this combo box is
+	 * highlighted.  This does nothing for "replace" combo boxes.
+	 *
+	 * @param enabled Whether to highlight the regular expression.
+	 * @see #isRegexHighlightingEnabled()
+	 * @see #getRegexStructure()
+	 */
+	public void setRegexHighlightingEnabled(boolean enabled) {
+		if (!replace && enabled!=isRegexHighlightingEnabled()) {
+			if (enabled) {
+				regexHighlighter = new RegexHighlighter(
+						UIUtil.getTextComponent(this));
+			}
+			else {
+				regexHighlighter.uninstall();
+				regexHighlighter = null;
+			}
+		}
+	}
+
+
 	/**
 	 * A completion provider for regular expressions.
 	 */
@@ -287,6 +353,106 @@ public class RegexAwareComboBox<E> extends MaxWidthComboBox<E>
 	}
 
 
+	/**
+	 * Highlights the groups, character classes, errors and nested quantifiers
+	 * in the regular expression in the text field.
+	 */
+	private final class RegexHighlighter implements DocumentListener {
+
+		private final JTextComponent textField;
+		private final List<Object> tags;
+		private final Highlighter.HighlightPainter charClassPainter;
+		private final Highlighter.HighlightPainter groupPainter;
+		private final Highlighter.HighlightPainter errorPainter;
+		private final Highlighter.HighlightPainter nestedQuantifierPainter;
+
+		RegexHighlighter(JTextComponent textField) {
+			this.textField = textField;
+			tags = new ArrayList<>();
+			boolean dark = UIUtil.isDarkLookAndFeel();
+			charClassPainter = createPainter(dark ? new Color(40, 70, 110) :
+					new Color(215, 230, 255));
+			groupPainter = createPainter(dark ? new Color(40, 90, 40) :
+					new Color(210, 245, 210));
+			errorPainter = createPainter(dark ? new Color(120, 40, 40) :
+					new Color(255, 200, 200));
+			nestedQuantifierPainter = createPainter(dark ? new Color(120, 80, 30) :
+					new Color(255, 220, 170));
+			textField.getDocument().addDocumentListener(this);
+			refresh();
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		private Highlighter.HighlightPainter createPainter(Color color) {
+			return new DefaultHighlighter.DefaultHighlightPainter(color);
+		}
+
+		private Highlighter.HighlightPainter getPainter(RegexStructure.Token t) {
+			if (t.getError()!=null) {
+				return errorPainter;
+			}
+			else if (t.isNestedQuantifier()) {
+				return nestedQuantifierPainter;
+			}
+			switch (t.getType()) {
+				case CHAR_CLASS:
+					return t.getEnd() - t.getStart()>1 ? charClassPainter : null;
+				case GROUP_START:
+				case GROUP_END:
+					return groupPainter;
+				default:
+					return null;
+			}
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			refresh();
+		}
+
+		private void refresh() {
+
+			removeHighlights();
+
+			Highlighter h = textField.getHighlighter();
+			for (RegexStructure.Token t : getRegexStructure().getTokens()) {
+				Highlighter.HighlightPainter painter = getPainter(t);
+				if (painter!=null) {
+					// Nested quantifiers are highlighted with the group they repeat
+					int start = t.isNestedQuantifier() ? t.getMatch().getStart() : t.getStart();
+					try {
+						tags.add(h.addHighlight(start, t.getEnd(), painter));
+					} catch (BadLocationException ble) {
+						ble.printStackTrace(); // Never happens
+					}
+				}
+			}
+		}
+
+		private void removeHighlights() {
+			Highlighter h = textField.getHighlighter();
+			for (Object tag : tags) {
+				h.removeHighlight(tag);
+			}
+			tags.clear();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			refresh();
+		}
+
+		void uninstall() {
+			textField.getDocument().removeDocumentListener(this);
+			removeHighlights();
+		}
+
+	}
+
+
 	/**
 	 * A completion representing a regular expression.
 	 */
@@ -0,0 +1,651 @@
+/*
+ * 10/18/2026
+ *
+ * RegexStructure - The tokens and groups in a regular expression.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+
+/**
+ * The tokens in a regular expression, such as groups, character classes
+ * and quantifiers, and the problems found in it.  {@link RegexAwareComboBox}
+ * uses this to highlight a pattern as it's typed.<p>
+ *
+ * Two kinds of problems are found:
+ * <ul>
+ *    <li>Errors, such as unbalanced parentheses, unclosed character classes
+ *        and quantifiers with nothing to repeat.  These are only errors
+ *        {@code Pattern} would also report; the pattern should still be
+ *        compiled to find all errors.
+ *    <li>Nested quantifiers, such as {@code (a+)+} or {@code (\w+\s?)*}.
+ *        These are valid, but can take exponential time to fail to match
+ *        some text ("catastrophic backtracking"), so searching with them can
+ *        hang the application.  Possessive quantifiers and atomic groups,
+ *        which don't backtrack, aren't flagged.
+ * </ul>
+ *
+ * The tokens are cached between calls to {@link #update(String)}.  Since
+ * patterns are usually edited by typing at the end, only the tokens from
+ * the first changed character on are re-tokenized.  Finding the problems
+ * is a single pass over the tokens.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class RegexStructure {
+
+	private String pattern;
+	private final List<Token> tokens;
+	private Token firstError;
+	private Token firstNestedQuantifier;
+
+
+	/**
+	 * Constructor.
+	 */
+	public RegexStructure() {
+		pattern = "";
+		tokens = new ArrayList<>();
+	}
+
+
+	/**
+	 * Finds the problems in the pattern, and pairs up group starts and ends.
+	 */
+	private void analyze() {
+
+		firstError = null;
+		firstNestedQuantifier = null;
+
+		Deque<Group> groups = new ArrayDeque<>();
+		Group current = new Group(null);
+		Token prev = null;
+
+		for (Token t : tokens) {
+
+			t.reset();
+			switch (t.type) {
+				case GROUP_START:
+					groups.push(current);
+					current = new Group(t);
+					break;
+				case GROUP_END:
+					if (current.start == null) {
+						t.setError("Unmatched closing ')'");
+					}
+					else {
+						t.match = current.start;
+						current.start.match = t;
+						Group inner = current;
+						current = groups.pop();
+						current.lastClosed = inner;
+						if (inner.repeatsInside && !inner.start.isAtomicGroup()) {
+							current.repeatsInside = true;
+						}
+					}
+					break;
+				case QUANTIFIER:
+					analyzeQuantifier(prev, t, current);
+					break;
+				default:
+					break;
+			}
+
+			if (t.error != null && firstError == null) {
+				firstError = t;
+			}
+			if (t.nestedQuantifier && firstNestedQuantifier == null) {
+				firstNestedQuantifier = t;
+			}
+			prev = t;
+		}
+
+		while (current.start != null) {
+			current.start.setError("Unclosed group");
+			if (firstError == null || current.start.start < firstError.start) {
+				firstError = current.start;
+			}
+			current = groups.pop();
+		}
+	}
+
+
+	/**
+	 * Checks what a quantifier repeats.
+	 */
+	private static void analyzeQuantifier(Token prev, Token t, Group current) {
+
+		if (isDangling(prev, t)) {
+			t.setError("Dangling meta character '" + t.getText().charAt(0) + "'");
+			return;
+		}
+
+		if (t.isUnboundedQuantifier()) {
+			// A group that repeats, and contains something that repeats
+			if (prev.type == TokenType.GROUP_END && prev.match != null &&
+					current.lastClosed.repeatsInside &&
+					!prev.match.isAtomicGroup()) {
+				t.nestedQuantifier = true;
+				t.match = prev.match;
+			}
+			current.repeatsInside = true;
+		}
+	}
+
+
+	private char charAt(int offs) {
+		return offs < pattern.length() ? pattern.charAt(offs) : 0;
+	}
+
+
+	/**
+	 * Returns whether a quantifier has nothing to repeat.
+	 */
+	private static boolean isDangling(Token prev, Token t) {
+		if (prev == null) {
+			return true;
+		}
+		switch (prev.type) {
+			case GROUP_START:
+			case ALTERNATION:
+			case FLAGS:
+				return true;
+			case QUANTIFIER: // "a**" is an error, but "a{2}{3}" isn't
+				return t.getText().charAt(0) != '{';
+			default:
+				return false;
+		}
+	}
+
+
+	/**
+	 * Returns the first error in the pattern.
+	 *
+	 * @return The token with the error, or {@code null} if none were found.
+	 */
+	public Token getFirstError() {
+		return firstError;
+	}
+
+
+	/**
+	 * Returns the first quantifier that repeats a group containing another
+	 * unbounded quantifier, such as the last {@code +} in {@code (a+)+}.
+	 *
+	 * @return The quantifier, or {@code null} if there are none.
+	 */
+	public Token getFirstNestedQuantifier() {
+		return firstNestedQuantifier;
+	}
+
+
+	/**
+	 * Returns the pattern last passed to {@link #update(String)}.
+	 *
+	 * @return The pattern.
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+
+	/**
+	 * Returns the tokens in the pattern.
+	 *
+	 * @return The tokens.
+	 */
+	public List<Token> getTokens() {
+		return Collections.unmodifiableList(tokens);
+	}
+
+
+	/**
+	 * Returns the offset just past a run of characters ending in a closing
+	 * character, such as the {@code '}'} in {@code \p{Alpha}}.
+	 */
+	private int scanTo(int offs, char end) {
+		int i = pattern.indexOf(end, offs);
+		return i == -1 ? pattern.length() : i + 1;
+	}
+
+
+	/**
+	 * Returns the end of a character class starting at an offset.
+	 */
+	private int scanCharClass(int offs) {
+		int depth = 0;
+		int i = offs;
+		while (i < pattern.length()) {
+			char ch = pattern.charAt(i);
+			if (ch == '\\') {
+				i += 2;
+				continue;
+			}
+			if (ch == '[') {
+				depth++;
+				if (charAt(i + 1) == '^') {
+					i++;
+				}
+				if (charAt(i + 1) == ']') {
+					i++; // A ']' right after '[' or "[^" is a literal
+				}
+			}
+			else if (ch == ']' && --depth == 0) {
+				return i + 1;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the token starting at an offset.
+	 */
+	private Token scanToken(int offs) {
+
+		char ch = pattern.charAt(offs);
+		switch (ch) {
+			case '\\':
+				return scanEscape(offs);
+			case '[':
+				int end = scanCharClass(offs);
+				return end == -1 ?
+						Token.error(offs, pattern.length(), "Unclosed character class") :
+						new Token(TokenType.CHAR_CLASS, offs, end);
+			case '.':
+				return new Token(TokenType.CHAR_CLASS, offs, offs + 1);
+			case '(':
+				return scanGroupStart(offs);
+			case ')':
+				return new Token(TokenType.GROUP_END, offs, offs + 1);
+			case '*':
+			case '+':
+			case '?':
+				return new Token(TokenType.QUANTIFIER, offs, scanQuantifierSuffix(offs + 1));
+			case '{':
+				return scanBoundedQuantifier(offs);
+			case '|':
+				return new Token(TokenType.ALTERNATION, offs, offs + 1);
+			case '^':
+			case '$':
+				return new Token(TokenType.ANCHOR, offs, offs + 1);
+			default:
+				return new Token(TokenType.LITERAL, offs, offs + 1);
+		}
+	}
+
+
+	/**
+	 * Scans a quantifier such as {@code {2}}, {@code {2,}} or {@code {2,5}}.
+	 */
+	private Token scanBoundedQuantifier(int offs) {
+		int i = offs + 1;
+		while (Character.isDigit(charAt(i))) {
+			i++;
+		}
+		boolean valid = i > offs + 1;
+		if (valid && charAt(i) == ',') {
+			i++;
+			while (Character.isDigit(charAt(i))) {
+				i++;
+			}
+		}
+		if (!valid || charAt(i) != '}') {
+			return Token.error(offs, Math.min(i + 1, pattern.length()), "Illegal repetition");
+		}
+		return new Token(TokenType.QUANTIFIER, offs, scanQuantifierSuffix(i + 1));
+	}
+
+
+	/**
+	 * Scans an escape, such as {@code \d}, {@code \p{Alpha}} or
+	 * {@code \Q...\E}.
+	 */
+	private Token scanEscape(int offs) {
+
+		if (offs + 1 == pattern.length()) {
+			return Token.error(offs, offs + 1, "Trailing backslash");
+		}
+
+		char next = pattern.charAt(offs + 1);
+		switch (next) {
+			case 'Q':
+				int end = pattern.indexOf("\\E", offs + 2);
+				return new Token(TokenType.LITERAL, offs,
+						end == -1 ? pattern.length() : end + 2);
+			case 'p':
+			case 'P':
+			case 'x':
+				if (charAt(offs + 2) == '{') {
+					return new Token(TokenType.ESCAPE, offs, scanTo(offs + 3, '}'));
+				}
+				break;
+			case 'k':
+				return new Token(TokenType.ESCAPE, offs, scanTo(offs + 2, '>'));
+			case 'b':
+			case 'B':
+			case 'A':
+			case 'z':
+			case 'Z':
+			case 'G':
+				return new Token(TokenType.ANCHOR, offs, offs + 2);
+			default:
+				break;
+		}
+		return new Token(TokenType.ESCAPE, offs, offs + 2);
+	}
+
+
+	/**
+	 * Scans the start of a group, such as {@code (}, {@code (?:} or
+	 * {@code (?<name>}, or inline flags such as {@code (?i)}.
+	 */
+	private Token scanGroupStart(int offs) {
+
+		if (charAt(offs + 1) != '?') {
+			return new Token(TokenType.GROUP_START, offs, offs + 1);
+		}
+
+		int i = offs + 2;
+		if (charAt(i) == '<' && Character.isLetter(charAt(i + 1))) {
+			return new Token(TokenType.GROUP_START, offs, scanTo(i, '>')); // Named group
+		}
+		while (i < pattern.length() && "-imsuxdU".indexOf(pattern.charAt(i)) > -1) {
+			i++;
+		}
+		if (charAt(i) == ')' && i > offs + 2) {
+			return new Token(TokenType.FLAGS, offs, i + 1);
+		}
+		if (charAt(i) == '<') {
+			i++; // Lookbehind
+		}
+		return new Token(TokenType.GROUP_START, offs, Math.min(i + 1, pattern.length()));
+	}
+
+
+	/**
+	 * Returns the end of a quantifier, including any trailing {@code '?'}
+	 * (lazy) or {@code '+'} (possessive).
+	 */
+	private int scanQuantifierSuffix(int offs) {
+		char ch = charAt(offs);
+		return ch == '?' || ch == '+' ? offs + 1 : offs;
+	}
+
+
+	/**
+	 * Updates this structure for a new pattern.  Tokens before the first
+	 * changed character are kept.
+	 *
+	 * @param pattern The new pattern.
+	 * @return Whether the pattern changed.
+	 */
+	public boolean update(String pattern) {
+
+		if (pattern.equals(this.pattern)) {
+			return false;
+		}
+
+		int prefix = 0;
+		int max = Math.min(pattern.length(), this.pattern.length());
+		while (prefix < max && pattern.charAt(prefix) == this.pattern.charAt(prefix)) {
+			prefix++;
+		}
+		this.pattern = pattern;
+
+		// A token ending at the first change might be extended by it, e.g.
+		// "\" becoming "\d", so it's re-tokenized too
+		int keep = tokens.size();
+		while (keep > 0 && tokens.get(keep - 1).end >= prefix) {
+			keep--;
+		}
+		tokens.subList(keep, tokens.size()).clear();
+
+		int offs = keep > 0 ? tokens.get(keep - 1).end : 0;
+		while (offs < pattern.length()) {
+			Token t = scanToken(offs);
+			t.text = pattern;
+			tokens.add(t);
+			offs = t.end;
+		}
+		for (int i = 0; i < keep; i++) {
+			tokens.get(i).text = pattern;
+		}
+
+		analyze();
+		return true;
+	}
+
+
+	/**
+	 * A group being analyzed.
+	 */
+	private static final class Group {
+
+		private final Token start;
+
+		/**
+		 * The most recently closed group directly in this one.
+		 */
+		private Group lastClosed;
+
+		/**
+		 * Whether this group contains an unbounded quantifier, at any
+		 * depth (other than in atomic groups).
+		 */
+		private boolean repeatsInside;
+
+		Group(Token start) {
+			this.start = start;
+		}
+
+	}
+
+
+	/**
+	 * A token in a pattern.
+	 */
+	public static final class Token {
+
+		private final TokenType type;
+		private final int start;
+		private final int end;
+		private final String lexError;
+		private String text;
+		private String error;
+		private Token match;
+		private boolean nestedQuantifier;
+
+		Token(TokenType type, int start, int end) {
+			this(type, start, end, null);
+		}
+
+		private Token(TokenType type, int start, int end, String lexError) {
+			this.type = type;
+			this.start = start;
+			this.end = end;
+			this.lexError = lexError;
+		}
+
+		static Token error(int start, int end, String error) {
+			return new Token(TokenType.ERROR, start, end, error);
+		}
+
+		/**
+		 * Returns the offset just past the end of this token.
+		 *
+		 * @return The end offset.
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+		/**
+		 * Returns a description of the error in this token.
+		 *
+		 * @return The error, or {@code null} if there is none.
+		 */
+		public String getError() {
+			return error;
+		}
+
+		/**
+		 * For group starts and ends, returns the token at the other end of
+		 * the group.  For nested quantifiers, returns the start of the group
+		 * they repeat.
+		 *
+		 * @return The matching token, or {@code null} if there is none.
+		 */
+		public Token getMatch() {
+			return match;
+		}
+
+		/**
+		 * Returns the offset of the start of this token.
+		 *
+		 * @return The start offset.
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * Returns the text of this token.
+		 *
+		 * @return The text.
+		 */
+		public String getText() {
+			return text.substring(start, end);
+		}
+
+		/**
+		 * Returns the type of this token.
+		 *
+		 * @return The type.
+		 */
+		public TokenType getType() {
+			return type;
+		}
+
+		private boolean isAtomicGroup() {
+			return type == TokenType.GROUP_START && text.startsWith("(?>", start);
+		}
+
+		/**
+		 * Returns whether this token is a quantifier repeating a group that
+		 * contains another unbounded quantifier.
+		 *
+		 * @return Whether this is a nested quantifier.
+		 * @see RegexStructure#getFirstNestedQuantifier()
+		 */
+		public boolean isNestedQuantifier() {
+			return nestedQuantifier;
+		}
+
+		/**
+		 * Returns whether this is a backtracking quantifier with no upper
+		 * bound, such as {@code *}, {@code +?} or {@code {2,}}.
+		 */
+		private boolean isUnboundedQuantifier() {
+			String q = getText();
+			if (q.length() > 1 && q.endsWith("+")) {
+				return false; // Possessive quantifiers don't backtrack
+			}
+			switch (q.charAt(0)) {
+				case '*':
+				case '+':
+					return true;
+				case '{':
+					return q.charAt(q.indexOf('}') - 1) == ',';
+				default:
+					return false;
+			}
+		}
+
+		private void reset() {
+			error = lexError;
+			match = null;
+			nestedQuantifier = false;
+		}
+
+		private void setError(String error) {
+			this.error = error;
+		}
+
+		@Override
+		public String toString() {
+			return type + "[" + start + "," + end + ")";
+		}
+
+	}
+
+
+	/**
+	 * The types of tokens in a pattern.
+	 */
+	public enum TokenType {
+
+		/**
+		 * A literal character, or quoted text such as {@code \Q...\E}.
+		 */
+		LITERAL,
+
+		/**
+		 * An escape, such as {@code \d} or {@code \p{Alpha}}.
+		 */
+		ESCAPE,
+
+		/**
+		 * A character class, such as {@code [a-z]} or {@code .}.
+		 */
+		CHAR_CLASS,
+
+		/**
+		 * The start of a group, such as {@code (} or {@code (?:}.
+		 */
+		GROUP_START,
+
+		/**
+		 * The end of a group.
+		 */
+		GROUP_END,
+
+		/**
+		 * Inline flags, such as {@code (?i)}.
+		 */
+		FLAGS,
+
+		/**
+		 * A quantifier, such as {@code *}, {@code +?} or {@code {2,5}}.
+		 */
+		QUANTIFIER,
+
+		/**
+		 * The {@code |} operator.
+		 */
+		ALTERNATION,
+
+		/**
+		 * A boundary, such as {@code ^} or {@code \b}.
+		 */
+		ANCHOR,
+
+		/**
+		 * Text that can't be tokenized.
+		 */
+		ERROR
+
+	}
+
+
+}
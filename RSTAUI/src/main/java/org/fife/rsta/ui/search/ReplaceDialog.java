@@ -12,14 +12,18 @@ import java.awt.event.ActionEvent;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.text.MessageFormat;
 import java.util.ResourceBundle;
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.SpringLayout;
 import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.JTextComponent;
@@ -27,8 +31,10 @@ import javax.swing.text.JTextComponent;
 import org.fife.rsta.ui.AssistanceIconPanel;
 import org.fife.rsta.ui.ResizableFrameContentPane;
 import org.fife.rsta.ui.UIUtil;
+import org.fife.ui.rtextarea.RTextArea;
 import org.fife.ui.rtextarea.SearchContext;
 import org.fife.ui.rtextarea.SearchEngine;
+import org.fife.ui.rtextarea.SearchResult;
 
 
 /**
@@ -70,10 +76,18 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 
 	private JButton replaceButton;
 	private JButton replaceAllButton;
+	private JButton previewButton;
+	private JPanel buttonPanel;
 	private JLabel replaceFieldLabel;
 
 	private SearchComboBox replaceWithCombo;
 
+	private ChunkedReplaceAll replaceAll;
+	private JPanel statusPanel;
+	private JLabel statusLabel;
+	private JProgressBar progressBar;
+	private String replaceAllButtonText;
+
 	/**
 	 * Our search listener, cached, so we can grab its selected text easily.
 	 */
@@ -109,7 +123,16 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 
 		String command = e.getActionCommand();
 
-		if (SearchEvent.Type.REPLACE.name().equals(command) ||
+		if (SearchEvent.Type.REPLACE_ALL.name().equals(command) &&
+				replaceAll!=null && replaceAll.isRunning()) {
+			replaceAll.cancel(); // Button is a "Stop" button while running
+		}
+
+		else if ("ReplacePreview".equals(command)) {
+			doPreview();
+		}
+
+		else if (SearchEvent.Type.REPLACE.name().equals(command) ||
 				SearchEvent.Type.REPLACE_ALL.name().equals(command)) {
 			doReplace(SearchEvent.Type.valueOf(command));
 		}
@@ -124,6 +147,30 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 	}
 
 
+	/**
+	 * Shows the replacements "Replace All" would make, and lets the user
+	 * pick which ones to make.  This is only possible if a text area has
+	 * been set.
+	 *
+	 * @see #setTextArea(RTextArea)
+	 */
+	protected void doPreview() {
+
+		updateContextFromUI();
+
+		ReplacePreview preview = new ReplacePreview(getTextArea());
+		if (!preview.start(context, getSearchScope())) {
+			UIManager.getLookAndFeel().provideErrorFeedback(findTextCombo);
+			return;
+		}
+		ReplacePreviewDialog dialog = new ReplacePreviewDialog(this, preview,
+				replaceAll);
+		dialog.setVisible(true); // Progress is shown by our ReplaceAllListener
+		handleToggleButtons();
+
+	}
+
+
 	/**
 	 * Performs either a replace or "replace all," depending on the {@code type}
 	 * argument.
@@ -131,16 +178,14 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 	 * @param type The type of replacement to perform.
 	 */
 	protected void doReplace(SearchEvent.Type type) {
-		context.setSearchFor(getSearchString());
-		context.setReplaceWith(replaceWithCombo.getSelectedString());
 
-		JTextComponent tc = UIUtil.getTextComponent(findTextCombo);
-		findTextCombo.addItem(tc.getText());
+		updateContextFromUI();
 
-		tc = UIUtil.getTextComponent(replaceWithCombo);
-		String replaceText = tc.getText();
-		if (!replaceText.isEmpty()) {
-			replaceWithCombo.addItem(replaceText);
+		if (type==SearchEvent.Type.REPLACE_ALL && replaceAll!=null) {
+			if (!replaceAll.start(context, getSearchScope())) {
+				UIManager.getLookAndFeel().provideErrorFeedback(findTextCombo);
+			}
+			return;
 		}
 
 		// Let parent app know
@@ -204,6 +249,18 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 	}
 
 
+	/**
+	 * Returns the text area "Replace All" operations are performed on
+	 * directly, if any.
+	 *
+	 * @return The text area, or {@code null} if none has been set.
+	 * @see #setTextArea(RTextArea)
+	 */
+	public RTextArea getTextArea() {
+		return replaceAll==null ? null : replaceAll.getTextArea();
+	}
+
+
 	/**
 	 * Returns the label on the "Replace with" text field.
 	 *
@@ -253,12 +310,59 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 	}
 
 
+	/**
+	 * Overridden to show an indeterminate progress bar while the results of
+	 * an {@link AsyncSearchListener} are pending.
+	 *
+	 * @param pending Whether results are pending.
+	 */
+	@Override
+	protected void handleSearchPendingChanged(boolean pending) {
+		super.handleSearchPendingChanged(pending);
+		progressBar.setIndeterminate(pending);
+		progressBar.setVisible(pending || (replaceAll!=null && replaceAll.isRunning()));
+		if (pending) {
+			statusLabel.setText(getString("SearchPending"));
+		}
+		else if (getString("SearchPending").equals(statusLabel.getText())) {
+			statusLabel.setText(" "); // Cancelled
+		}
+	}
+
+
+	/**
+	 * Overridden to describe the result of an {@link AsyncSearchListener}
+	 * in the status bar.
+	 *
+	 * @param e The event the result is for.
+	 * @param result The result, or {@code null} if the operation failed.
+	 */
+	@Override
+	protected void handleSearchResult(SearchEvent e, SearchResult result) {
+		super.handleSearchResult(e, result);
+		String text = " ";
+		if (result==null) {
+			text = getString("SearchFailed");
+		}
+		else if (e.getType()==SearchEvent.Type.REPLACE_ALL) {
+			text = MessageFormat.format(getString("OccurrencesReplaced"),
+					result.getCount());
+		}
+		else if (SearchUtil.isFailure(e, result)) {
+			text = getString("NotFound");
+		}
+		statusLabel.setText(text);
+	}
+
+
 	@Override
 	protected FindReplaceButtonsEnableResult handleToggleButtons() {
 
 		FindReplaceButtonsEnableResult er = super.handleToggleButtons();
-		boolean shouldReplace = er.getEnable();
-		replaceAllButton.setEnabled(shouldReplace);
+		boolean shouldReplace = er.getEnable() && !isSearchPending();
+		boolean running = replaceAll!=null && replaceAll.isRunning();
+		replaceAllButton.setEnabled(shouldReplace || running);
+		previewButton.setEnabled(shouldReplace && !running);
 
 		// "Replace" is only enabled if text to search for is selected in
 		// the UI.
@@ -353,7 +457,7 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 		leftPanel.add(bottomPanel);
 
 		// Make a panel containing the action buttons.
-		JPanel buttonPanel = new JPanel();
+		buttonPanel = new JPanel();
 		buttonPanel.setLayout(new GridLayout(4,1, 5,5));
 		ResourceBundle msg = getBundle();
 		replaceButton = UIUtil.newButton(msg, "Replace");
@@ -368,6 +472,10 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 		replaceAllButton.setEnabled(false);
 		replaceAllButton.setIcon(null);
 		replaceAllButton.setToolTipText(null);
+		previewButton = UIUtil.newButton(msg, "ReplacePreview");
+		previewButton.setActionCommand("ReplacePreview");
+		previewButton.addActionListener(this);
+		previewButton.setEnabled(false);
 		buttonPanel.add(findNextButton);
 		buttonPanel.add(replaceButton);
 		buttonPanel.add(replaceAllButton);
@@ -375,11 +483,23 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 		JPanel rightPanel = new JPanel(new BorderLayout());
 		rightPanel.add(buttonPanel, BorderLayout.NORTH);
 
+		// A status area for "Replace All" progress and results, only shown
+		// if we are performing that operation ourselves.
+		statusPanel = new JPanel(new BorderLayout(5, 5));
+		statusPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+		statusLabel = new JLabel(" ");
+		statusPanel.add(statusLabel);
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setVisible(false);
+		statusPanel.add(progressBar, BorderLayout.LINE_END);
+		statusPanel.setVisible(false);
+
 		// Put it all together!
 		JPanel contentPane = new JPanel(new BorderLayout());
 		contentPane.setBorder(BorderFactory.createEmptyBorder(5,5,0,5));
 		contentPane.add(leftPanel);
 		contentPane.add(rightPanel, BorderLayout.LINE_END);
+		contentPane.add(statusPanel, BorderLayout.SOUTH);
 		temp = new ResizableFrameContentPane(new BorderLayout());
 		temp.add(contentPane, BorderLayout.NORTH);
 		setContentPane(temp);
@@ -448,6 +568,46 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 	}
 
 
+	/**
+	 * Sets the text area this dialog replaces text in.  If this is set,
+	 * "Replace All" is performed by this dialog directly, in chunks that
+	 * don't lock up the UI, rather than by firing a {@code REPLACE_ALL}
+	 * event to listeners.  Progress is displayed in this dialog, and the
+	 * "Replace All" button can be used to stop the operation.  All
+	 * replacements can be undone in a single step.  A "Preview" button is
+	 * also added, which shows the replacements "Replace All" would make,
+	 * so the user can pick which ones to make, and an "In selection" check
+	 * box limits both to the selected text.
+	 *
+	 * @param textArea The text area.  This may be {@code null} to go back
+	 *        to firing {@code REPLACE_ALL} events.
+	 * @see #getTextArea()
+	 */
+	public void setTextArea(RTextArea textArea) {
+		if (replaceAll!=null) {
+			replaceAll.cancel();
+			replaceAll = null;
+		}
+		if (textArea!=null) {
+			replaceAll = new ChunkedReplaceAll(textArea);
+			replaceAll.addPropertyChangeListener(new ReplaceAllListener());
+		}
+		selectionOnlyCheckBox.setVisible(textArea!=null);
+		if (statusPanel.isVisible() != (textArea!=null)) {
+			statusPanel.setVisible(textArea!=null);
+			if (textArea!=null) {
+				buttonPanel.add(previewButton, 3); // Before "Cancel"
+			}
+			else {
+				buttonPanel.remove(previewButton);
+			}
+			((GridLayout)buttonPanel.getLayout()).setRows(
+					buttonPanel.getComponentCount());
+			pack();
+		}
+	}
+
+
 	/**
 	 * Overrides <code>JDialog</code>'s <code>setVisible</code> method; decides
 	 * whether buttons are enabled.
@@ -470,6 +630,7 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 				findNextButton.setEnabled(false);
 				replaceButton.setEnabled(false);
 				replaceAllButton.setEnabled(false);
+				previewButton.setEnabled(false);
 			}
 			else {
 				handleToggleButtons();
@@ -487,6 +648,25 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 	}
 
 
+	/**
+	 * Updates the search context with the text to find and replace with,
+	 * and adds them to their combo boxes' histories.
+	 */
+	private void updateContextFromUI() {
+		context.setSearchFor(getSearchString());
+		context.setReplaceWith(replaceWithCombo.getSelectedString());
+
+		JTextComponent tc = UIUtil.getTextComponent(findTextCombo);
+		findTextCombo.addItem(tc.getText());
+
+		tc = UIUtil.getTextComponent(replaceWithCombo);
+		String replaceText = tc.getText();
+		if (!replaceText.isEmpty()) {
+			replaceWithCombo.addItem(replaceText);
+		}
+	}
+
+
 	/**
 	 * This method should be called whenever the <code>LookAndFeel</code> of
 	 * the application changes.  This calls
@@ -517,6 +697,32 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 	}
 
 
+	/**
+	 * Updates the UI as "Replace All" operations progress.
+	 */
+	private final class ReplaceAllListener implements PropertyChangeListener {
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			if (ChunkedReplaceAll.RUNNING_PROPERTY.equals(e.getPropertyName())) {
+				boolean running = (Boolean)e.getNewValue();
+				if (running) {
+					replaceAllButtonText = replaceAllButton.getText();
+					replaceAllButton.setText(getString("Stop"));
+				}
+				else {
+					replaceAllButton.setText(replaceAllButtonText);
+					handleToggleButtons();
+				}
+				progressBar.setVisible(running);
+			}
+			progressBar.setValue(replaceAll.getProgress());
+			statusLabel.setText(SearchUtil.getReplaceAllText(replaceAll));
+		}
+
+	}
+
+
 	/**
 	 * Listens for changes in the text field (find search field).
 	 */
@@ -540,6 +746,7 @@ public class ReplaceDialog extends AbstractFindReplaceDialog {
 				findNextButton.setEnabled(false);
 				replaceButton.setEnabled(false);
 				replaceAllButton.setEnabled(false);
+				previewButton.setEnabled(false);
 			}
 			else {
 				handleToggleButtons();
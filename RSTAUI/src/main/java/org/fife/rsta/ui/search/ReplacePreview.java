@@ -0,0 +1,703 @@
+/*
+ * 10/18/2026
+ *
+ * ReplacePreview - The pending replacements of a "Replace All" operation.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * The replacements a "Replace All" operation would make in a text area,
+ * so they can be reviewed before they are made.  Each replacement (or
+ * "hunk") has the offsets of the matched text, and the text it would be
+ * replaced with, with any regular expression groups expanded.<p>
+ *
+ * Hunks are found in a snapshot of the document on a worker thread, and
+ * are added to this model in chunks as they are found, so a list displaying
+ * them fills in while the search runs.  Hunks are stored in a few parallel
+ * arrays rather than as objects; the {@link Hunk}s returned by
+ * {@link #getElementAt(int)} are created on demand, so a list with a fixed
+ * cell size only ever creates objects for the rows that are visible, even
+ * if there are hundreds of thousands of hunks.<p>
+ *
+ * Every hunk is included by default.  Once the search finishes,
+ * {@link #apply(ChunkedReplaceAll)} replaces the included hunks in a
+ * single atomic edit, which can be undone in one step.  If the document
+ * is modified after the preview is started, the preview is out of date
+ * and can no longer be applied; see {@link #isStale()}.<p>
+ *
+ * Previews can be restricted to the selected text; see
+ * {@link #start(SearchContext, SearchScope)}.<p>
+ *
+ * All methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ReplacePreviewDialog
+ */
+public class ReplacePreview extends AbstractListModel<ReplacePreview.Hunk> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Property fired when the search for hunks starts or finishes.
+	 */
+	public static final String RUNNING_PROPERTY = "ReplacePreview.running";
+
+	/**
+	 * Property fired when the preview goes out of date.
+	 */
+	public static final String STALE_PROPERTY = "ReplacePreview.stale";
+
+	private transient RTextArea textArea;
+	private transient PropertyChangeSupport support;
+	private transient Listener listener;
+	private transient PreviewWorker worker;
+
+	private String text;
+	private String replaceWith;
+	private int[] starts;
+	private int[] ends;
+	private int[] lines;
+	private String[] replacements;
+	private int size;
+	private BitSet excluded;
+	private boolean stale;
+	private boolean timedOut;
+
+	/**
+	 * The maximum number of hunks handed to the EDT at once.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area replacements are previewed for.  This
+	 *        cannot be {@code null}.
+	 */
+	public ReplacePreview(RTextArea textArea) {
+		this.textArea = textArea;
+		support = new PropertyChangeSupport(this);
+		listener = new Listener();
+		excluded = new BitSet();
+		starts = ends = lines = new int[0];
+		replacements = new String[0];
+	}
+
+
+	/**
+	 * Adds a listener for property changes in this object.
+	 *
+	 * @param l The listener to add.
+	 * @see #removePropertyChangeListener(PropertyChangeListener)
+	 */
+	public void addPropertyChangeListener(PropertyChangeListener l) {
+		support.addPropertyChangeListener(l);
+	}
+
+
+	/**
+	 * Adds a chunk of hunks found by the worker to this model.
+	 */
+	private void addChunk(Chunk chunk) {
+		if (chunk.count == 0) {
+			return;
+		}
+		int newSize = size + chunk.count;
+		if (newSize > starts.length) {
+			int capacity = Math.max(newSize, 2 * starts.length);
+			starts = Arrays.copyOf(starts, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			lines = Arrays.copyOf(lines, capacity);
+			replacements = Arrays.copyOf(replacements, capacity);
+		}
+		System.arraycopy(chunk.starts, 0, starts, size, chunk.count);
+		System.arraycopy(chunk.ends, 0, ends, size, chunk.count);
+		System.arraycopy(chunk.lines, 0, lines, size, chunk.count);
+		System.arraycopy(chunk.replacements, 0, replacements, size, chunk.count);
+		int oldSize = size;
+		size = newSize;
+		fireIntervalAdded(this, oldSize, newSize - 1);
+	}
+
+
+	/**
+	 * Starts replacing all included hunks in the text area.  The
+	 * replacements are made by a {@link ChunkedReplaceAll}, in time-boxed
+	 * slices and in a single atomic edit, so its listeners are told of
+	 * their progress just as for a "Replace All."  Only the hunks
+	 * themselves are replaced, so the text between them, and excluded
+	 * hunks, are untouched.  The preview is cleared immediately.
+	 *
+	 * @param replaceAll Makes the replacements.  This must be for the same
+	 *        text area as this preview.
+	 * @return The number of hunks being replaced.  This is {@code 0} if no
+	 *         hunks are included, the search for hunks is still running, or
+	 *         the preview is out of date.
+	 * @throws IllegalArgumentException If {@code replaceAll} is for another
+	 *         text area.
+	 * @see #isStale()
+	 */
+	public int apply(ChunkedReplaceAll replaceAll) {
+
+		if (replaceAll.getTextArea() != textArea) {
+			throw new IllegalArgumentException("replaceAll is for another text area");
+		}
+		if (isRunning() || stale) {
+			return 0;
+		}
+
+		int count = getIncludedCount();
+		if (count == 0) {
+			return 0;
+		}
+		int[] includedStarts = new int[count];
+		int[] includedEnds = new int[count];
+		String[] includedReplacements = new String[count];
+		count = 0;
+		for (int i = excluded.nextClearBit(0); i < size; i = excluded.nextClearBit(i + 1)) {
+			includedStarts[count] = starts[i];
+			includedEnds[count] = ends[i];
+			includedReplacements[count++] = getNewText(i);
+		}
+
+		clear(); // Our own edits don't make the preview stale
+		replaceAll.start(includedStarts, includedEnds, includedReplacements, count);
+		return count;
+	}
+
+
+	/**
+	 * Stops searching for hunks, if a search is running.  The hunks already
+	 * found are kept.
+	 *
+	 * @see #clear()
+	 */
+	public void cancel() {
+		if (worker != null) {
+			worker.interrupt();
+			finish();
+		}
+	}
+
+
+	/**
+	 * Cancels any search in progress and removes all hunks.
+	 */
+	public void clear() {
+		cancel();
+		stopListening();
+		int oldSize = size;
+		text = null;
+		size = 0;
+		starts = ends = lines = new int[0];
+		replacements = new String[0];
+		excluded.clear();
+		stale = false;
+		timedOut = false;
+		if (oldSize > 0) {
+			fireIntervalRemoved(this, 0, oldSize - 1);
+		}
+	}
+
+
+	private void finish() {
+		worker = null;
+		support.firePropertyChange(RUNNING_PROPERTY, true, false);
+	}
+
+
+	/**
+	 * Returns the hunk at an index.  The returned object is a lightweight
+	 * view of this model, created each time this method is called.
+	 *
+	 * @param index The index of the hunk.
+	 * @return The hunk.
+	 */
+	@Override
+	public Hunk getElementAt(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Invalid index: " + index);
+		}
+		return new Hunk(index);
+	}
+
+
+	/**
+	 * Returns the number of hunks that are included.
+	 *
+	 * @return The number of included hunks.
+	 * @see #setIncluded(int, boolean)
+	 */
+	public int getIncludedCount() {
+		return size - excluded.cardinality();
+	}
+
+
+	private String getNewText(int index) {
+		String replacement = replacements[index];
+		return replacement == null ? replaceWith : replacement;
+	}
+
+
+	/**
+	 * Returns the number of hunks found so far.
+	 *
+	 * @return The number of hunks.
+	 */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+
+	/**
+	 * Returns the snapshot of the document the hunks were found in.
+	 *
+	 * @return The snapshot, or {@code null} if no preview has been started.
+	 */
+	String getSnapshot() {
+		return text;
+	}
+
+
+	/**
+	 * Returns the text area replacements are previewed for.
+	 *
+	 * @return The text area.
+	 */
+	public RTextArea getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Returns whether a hunk is included.
+	 *
+	 * @param index The index of the hunk.
+	 * @return Whether the hunk is included.
+	 * @see #setIncluded(int, boolean)
+	 */
+	public boolean isIncluded(int index) {
+		return !excluded.get(index);
+	}
+
+
+	/**
+	 * Returns whether the search for hunks is running.
+	 *
+	 * @return Whether the search is running.
+	 */
+	public boolean isRunning() {
+		return worker != null;
+	}
+
+
+	/**
+	 * Returns whether the document has been modified since this preview was
+	 * started.  Stale previews can't be applied.
+	 *
+	 * @return Whether this preview is out of date.
+	 */
+	public boolean isStale() {
+		return stale;
+	}
+
+
+	private void markStale() {
+		cancel();
+		stopListening();
+		stale = true;
+		support.firePropertyChange(STALE_PROPERTY, false, true);
+	}
+
+
+	/**
+	 * Removes a property change listener from this object.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addPropertyChangeListener(PropertyChangeListener)
+	 */
+	public void removePropertyChangeListener(PropertyChangeListener l) {
+		support.removePropertyChangeListener(l);
+	}
+
+
+	/**
+	 * Includes or excludes all hunks.
+	 *
+	 * @param included Whether all hunks should be included.
+	 * @see #setIncluded(int, boolean)
+	 */
+	public void setAllIncluded(boolean included) {
+		if (included) {
+			excluded.clear();
+		}
+		else {
+			excluded.set(0, size);
+		}
+		if (size > 0) {
+			fireContentsChanged(this, 0, size - 1);
+		}
+	}
+
+
+	/**
+	 * Includes or excludes a hunk.
+	 *
+	 * @param index The index of the hunk.
+	 * @param included Whether the hunk should be included.
+	 * @see #isIncluded(int)
+	 * @see #setAllIncluded(boolean)
+	 */
+	public void setIncluded(int index, boolean included) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Invalid index: " + index);
+		}
+		if (included == excluded.get(index)) {
+			excluded.set(index, !included);
+			fireContentsChanged(this, index, index);
+		}
+	}
+
+
+	/**
+	 * Starts searching for the hunks "Replace All" would replace for a
+	 * search context, discarding the current preview.  This method returns
+	 * immediately.
+	 *
+	 * @param context The search context.
+	 * @return Whether the search was started.  This will be {@code false}
+	 *         if the context does not specify any text to search for, or
+	 *         specifies an invalid regular expression.
+	 * @see #start(SearchContext, SearchScope)
+	 */
+	public boolean start(SearchContext context) {
+		return start(context, SearchScope.DOCUMENT);
+	}
+
+
+	/**
+	 * Starts searching for the hunks "Replace All" would replace for a
+	 * search context in part of the document, discarding the current
+	 * preview.  This method returns immediately.
+	 *
+	 * @param context The search context.
+	 * @param scope The part of the document to search.  If this is
+	 *        {@link SearchScope#SELECTION}, only the selected text is
+	 *        searched.
+	 * @return Whether the search was started.  This will be {@code false}
+	 *         if the context does not specify any text to search for,
+	 *         specifies an invalid regular expression, or if the scope is
+	 *         the selection and no text is selected.
+	 */
+	public boolean start(SearchContext context, SearchScope scope) {
+
+		clear();
+
+		String searchFor = context.getSearchFor();
+		if (searchFor == null || searchFor.isEmpty()) {
+			return false;
+		}
+		Pattern pattern;
+		try {
+			pattern = SearchMatcher.createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			return false;
+		}
+
+		Document doc = textArea.getDocument();
+		boolean selectionOnly = scope == SearchScope.SELECTION;
+		int rangeStart = selectionOnly ? textArea.getSelectionStart() : 0;
+		int rangeEnd = selectionOnly ? textArea.getSelectionEnd() : doc.getLength();
+		if (selectionOnly && rangeStart == rangeEnd) {
+			return false;
+		}
+		int firstLine = doc.getDefaultRootElement().getElementIndex(rangeStart);
+
+		try {
+			text = doc.getText(0, doc.getLength());
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return false;
+		}
+		replaceWith = context.getReplaceWith();
+		if (replaceWith == null) {
+			replaceWith = "";
+		}
+
+		textArea.addPropertyChangeListener("document", listener);
+		doc.addDocumentListener(listener);
+
+		worker = new PreviewWorker(pattern, context.getWholeWord(), text,
+				rangeStart, rangeEnd, firstLine);
+		worker.execute();
+		support.firePropertyChange(RUNNING_PROPERTY, false, true);
+		return true;
+	}
+
+
+	private void stopListening() {
+		textArea.removePropertyChangeListener("document", listener);
+		textArea.getDocument().removeDocumentListener(listener);
+	}
+
+
+	/**
+	 * Returns whether the most recent search stopped early because finding
+	 * a match took too long.  The hunks found before that are kept.
+	 *
+	 * @return Whether the search timed out.
+	 */
+	public boolean wasTimedOut() {
+		return timedOut;
+	}
+
+
+	/**
+	 * A batch of hunks found by the worker.  Replacements are {@code null}
+	 * when the replacement template is used verbatim.
+	 */
+	private static final class Chunk {
+
+		private final int[] starts;
+		private final int[] ends;
+		private final int[] lines;
+		private final String[] replacements;
+		private int count;
+
+		Chunk() {
+			starts = new int[CHUNK_SIZE];
+			ends = new int[CHUNK_SIZE];
+			lines = new int[CHUNK_SIZE];
+			replacements = new String[CHUNK_SIZE];
+		}
+
+	}
+
+
+	/**
+	 * A single pending replacement.
+	 */
+	public final class Hunk {
+
+		private final int index;
+
+		private Hunk(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Returns the end offset of the text to replace.
+		 *
+		 * @return The end offset, exclusive.
+		 */
+		public int getEnd() {
+			return ends[index];
+		}
+
+		/**
+		 * Returns the index of this hunk in the preview.
+		 *
+		 * @return The index.
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns the line the text to replace starts on.
+		 *
+		 * @return The line, starting at {@code 0}.
+		 */
+		public int getLine() {
+			return lines[index];
+		}
+
+		/**
+		 * Returns the replacement text, with any regular expression groups
+		 * expanded.
+		 *
+		 * @return The replacement text.
+		 */
+		public String getNewText() {
+			return ReplacePreview.this.getNewText(index);
+		}
+
+		/**
+		 * Returns the text to replace.
+		 *
+		 * @return The text to replace.
+		 */
+		public String getOldText() {
+			return text.substring(starts[index], ends[index]);
+		}
+
+		/**
+		 * Returns the start offset of the text to replace.
+		 *
+		 * @return The start offset.
+		 */
+		public int getStart() {
+			return starts[index];
+		}
+
+		/**
+		 * Returns whether this hunk is included.
+		 *
+		 * @return Whether this hunk is included.
+		 * @see ReplacePreview#setIncluded(int, boolean)
+		 */
+		public boolean isIncluded() {
+			return ReplacePreview.this.isIncluded(index);
+		}
+
+	}
+
+
+	/**
+	 * Marks the preview out of date if the document is modified.
+	 */
+	private final class Listener implements DocumentListener,
+			PropertyChangeListener {
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			markStale();
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			// Our listener must come off the old document
+			Document doc = (Document)e.getOldValue();
+			if (doc != null) {
+				doc.removeDocumentListener(this);
+			}
+			markStale();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			markStale();
+		}
+
+	}
+
+
+	/**
+	 * Finds hunks in a snapshot of the document.  Chunks are posted with
+	 * {@code invokeLater()} so they are guaranteed to arrive in order, and
+	 * before we're told the search is complete.
+	 */
+	private final class PreviewWorker extends SwingWorker<Void, Void> {
+
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private final String snapshot;
+		private final InterruptibleCharSequence seq;
+		private final String template;
+		private final int start;
+		private final int end;
+		private final int firstLine;
+		private volatile boolean matchTimedOut;
+
+		PreviewWorker(Pattern pattern, boolean wholeWord, String text,
+				int start, int end, int firstLine) {
+			this.pattern = pattern;
+			this.wholeWord = wholeWord;
+			this.snapshot = text;
+			this.seq = new InterruptibleCharSequence(text);
+			this.template = replaceWith;
+			this.start = start;
+			this.end = end;
+			this.firstLine = firstLine;
+		}
+
+		@Override
+		protected Void doInBackground() {
+			SearchMatcher matcher = new SearchMatcher(pattern, wholeWord, seq);
+			matcher.setRange(start, end);
+			boolean literal = (pattern.flags() & Pattern.LITERAL) != 0;
+			Chunk chunk = new Chunk();
+			int line = firstLine;
+			int lineScanPos = start;
+			try {
+				while (matcher.find()) {
+					int matchStart = matcher.start();
+					for (; lineScanPos < matchStart; lineScanPos++) {
+						if (snapshot.charAt(lineScanPos) == '\n') {
+							line++;
+						}
+					}
+					chunk.starts[chunk.count] = matchStart;
+					chunk.ends[chunk.count] = matcher.end();
+					chunk.lines[chunk.count] = line;
+					if (!literal) {
+						chunk.replacements[chunk.count] =
+								matcher.getReplacement(template);
+					}
+					if (++chunk.count == CHUNK_SIZE) {
+						post(chunk, false);
+						chunk = new Chunk();
+					}
+				}
+			} catch (MatchTimeoutException mte) {
+				matchTimedOut = true; // Keep what we found
+			} catch (CancellationException ce) {
+				return null;
+			}
+			post(chunk, true);
+			return null;
+		}
+
+		private void handleChunk(Chunk chunk, boolean last) {
+			if (worker == this) {
+				addChunk(chunk);
+				if (last) {
+					timedOut = matchTimedOut;
+					finish();
+				}
+			}
+		}
+
+		void interrupt() {
+			seq.interrupt();
+			cancel(false);
+		}
+
+		private void post(Chunk chunk, boolean last) {
+			SwingUtilities.invokeLater(() -> handleChunk(chunk, last));
+		}
+
+	}
+
+
+}
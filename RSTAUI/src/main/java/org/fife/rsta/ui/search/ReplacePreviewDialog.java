@@ -0,0 +1,443 @@
+/*
+ * 10/18/2026
+ *
+ * ReplacePreviewDialog.java - Lets the user review and pick the replacements
+ * a "Replace All" operation will make.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.FlowLayout;
+import java.awt.FontMetrics;
+import java.awt.GridLayout;
+import java.awt.Rectangle;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+import javax.swing.AbstractAction;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.KeyStroke;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.fife.rsta.ui.EscapableDialog;
+import org.fife.rsta.ui.ResizableFrameContentPane;
+import org.fife.rsta.ui.UIUtil;
+import org.fife.ui.rtextarea.RTextArea;
+
+
+/**
+ * A dialog showing the replacements a "Replace All" operation will make,
+ * from a {@link ReplacePreview}.  The user can include or exclude each
+ * replacement, then replace just the included ones in a single edit.
+ * The replacements are made in the background by a
+ * {@link ChunkedReplaceAll}, whose listeners are told of their progress.<p>
+ *
+ * Replacements are listed as they are found.  The list uses a fixed cell
+ * size, so only the visible rows are ever rendered, no matter how many
+ * replacements there are.  Clicking a row's check box, or pressing Space,
+ * toggles the selected replacements; double-clicking a row selects its text
+ * in the text area.<p>
+ *
+ * Example usage:
+ * <pre>
+ * ReplacePreview preview = new ReplacePreview(textArea);
+ * if (preview.start(context)) {
+ *    ReplacePreviewDialog dialog = new ReplacePreviewDialog(window, preview,
+ *          replaceAll);
+ *    dialog.setVisible(true);
+ *    int count = dialog.getReplacedCount();
+ * }
+ * </pre>
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ReplaceDialog
+ * @see ReplaceToolBar
+ */
+public class ReplacePreviewDialog extends EscapableDialog {
+
+	private static final long serialVersionUID = 1L;
+
+	private ReplacePreview preview;
+	private ChunkedReplaceAll replaceAll;
+	private JList<ReplacePreview.Hunk> hunkList;
+	private JLabel statusLabel;
+	private JButton replaceButton;
+	private JButton cancelButton;
+	private Listener listener;
+	private int replacedCount;
+
+	/**
+	 * The number of characters of context shown on each side of a hunk.
+	 */
+	private static final int CONTEXT_CHARS = 30;
+
+	/**
+	 * The maximum number of characters of old or new text shown for a hunk.
+	 */
+	private static final int MAX_TEXT_CHARS = 80;
+
+	private static final ResourceBundle MSG = ResourceBundle.getBundle(
+			"org.fife.rsta.ui.search.Search");
+
+
+	/**
+	 * Creates a new <code>ReplacePreviewDialog</code>.
+	 *
+	 * @param owner The parent window.  This may be a dialog, a frame, or
+	 *        any other kind of window.
+	 * @param preview The replacements to review.  The preview is cleared
+	 *        when this dialog is closed.
+	 * @param replaceAll Makes the selected replacements.  This must be for
+	 *        the same text area as {@code preview}.
+	 */
+	public ReplacePreviewDialog(Window owner, ReplacePreview preview,
+			ChunkedReplaceAll replaceAll) {
+		super(owner);
+		init(preview, replaceAll);
+	}
+
+
+	/**
+	 * Returns a string describing a hunk, with some of the text around it.
+	 */
+	private String describe(ReplacePreview.Hunk hunk) {
+
+		String text = preview.getSnapshot();
+		int start = hunk.getStart();
+		int end = hunk.getEnd();
+		int before = start;
+		while (before > 0 && start - before < CONTEXT_CHARS &&
+				text.charAt(before - 1) != '\n') {
+			before--;
+		}
+		int after = end;
+		while (after < text.length() && after - end < CONTEXT_CHARS &&
+				text.charAt(after) != '\n') {
+			after++;
+		}
+
+		StringBuilder sb = new StringBuilder("<html><nobr>");
+		sb.append(hunk.getLine() + 1).append(": ");
+		SearchUtil.escapeHtml(sb, text.substring(before, start), MAX_TEXT_CHARS);
+		sb.append("<strike>");
+		SearchUtil.escapeHtml(sb, hunk.getOldText(), MAX_TEXT_CHARS);
+		sb.append("</strike><b>");
+		SearchUtil.escapeHtml(sb, hunk.getNewText(), MAX_TEXT_CHARS);
+		sb.append("</b>");
+		SearchUtil.escapeHtml(sb, text.substring(end, after), MAX_TEXT_CHARS);
+		return sb.toString();
+	}
+
+
+	@Override
+	protected void escapePressed() {
+		close();
+	}
+
+
+	private void close() {
+		preview.removeListDataListener(listener);
+		preview.removePropertyChangeListener(listener);
+		preview.clear();
+		setVisible(false);
+		dispose();
+	}
+
+
+	/**
+	 * Returns the number of replacements started when the user clicked
+	 * "Replace Selected."  They may still be being made when this dialog
+	 * closes.
+	 *
+	 * @return The number of replacements, or {@code 0} if the dialog was
+	 *         cancelled.
+	 */
+	public int getReplacedCount() {
+		return replacedCount;
+	}
+
+
+	private static String getString(String key, Object... args) {
+		return MessageFormat.format(MSG.getString(key), args);
+	}
+
+
+	private void init(ReplacePreview preview, ChunkedReplaceAll replaceAll) {
+
+		this.preview = preview;
+		this.replaceAll = replaceAll;
+		listener = new Listener();
+		ComponentOrientation orientation = ComponentOrientation.
+									getOrientation(getLocale());
+
+		JPanel contentPane = new ResizableFrameContentPane(new BorderLayout());
+		contentPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		setContentPane(contentPane);
+
+		statusLabel = new JLabel(" ");
+		statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+
+		// A fixed cell size keeps JList from measuring every row
+		hunkList = new JList<>(preview);
+		HunkCellRenderer renderer = new HunkCellRenderer();
+		FontMetrics fm = hunkList.getFontMetrics(hunkList.getFont());
+		hunkList.setFixedCellHeight(Math.max(fm.getHeight(),
+				renderer.checkBox.getPreferredSize().height) + 2);
+		hunkList.setFixedCellWidth(fm.charWidth('m') *
+				(2 * CONTEXT_CHARS + MAX_TEXT_CHARS / 2));
+		hunkList.setVisibleRowCount(15);
+		hunkList.setCellRenderer(renderer);
+		hunkList.addMouseListener(listener);
+		hunkList.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0),
+				"toggleIncluded");
+		hunkList.getActionMap().put("toggleIncluded", new ToggleIncludedAction());
+		JScrollPane sp = new JScrollPane(hunkList);
+
+		JButton selectAllButton = new JButton(MSG.getString("SelectAll"));
+		selectAllButton.setActionCommand("SelectAll");
+		selectAllButton.addActionListener(listener);
+		JButton selectNoneButton = new JButton(MSG.getString("SelectNone"));
+		selectNoneButton.setActionCommand("SelectNone");
+		selectNoneButton.addActionListener(listener);
+		JPanel selectPanel = new JPanel(new FlowLayout(FlowLayout.LEADING, 0, 0));
+		JPanel temp = new JPanel(new GridLayout(1, 2, 5, 0));
+		temp.add(selectAllButton);
+		temp.add(selectNoneButton);
+		selectPanel.add(temp);
+
+		replaceButton = new JButton(MSG.getString("ReplaceSelected"));
+		replaceButton.setActionCommand("ReplaceSelected");
+		replaceButton.addActionListener(listener);
+		cancelButton = UIUtil.newButton(MSG, "Cancel");
+		cancelButton.setActionCommand("Cancel");
+		cancelButton.addActionListener(listener);
+		JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.TRAILING, 0, 0));
+		temp = new JPanel(new GridLayout(1, 2, 5, 0));
+		temp.add(replaceButton);
+		temp.add(cancelButton);
+		buttonPanel.add(temp);
+
+		JPanel bottomPanel = new JPanel(new BorderLayout());
+		bottomPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
+		bottomPanel.add(selectPanel, BorderLayout.LINE_START);
+		bottomPanel.add(buttonPanel, BorderLayout.LINE_END);
+
+		contentPane.add(statusLabel, BorderLayout.NORTH);
+		contentPane.add(sp);
+		contentPane.add(bottomPanel, BorderLayout.SOUTH);
+		getRootPane().setDefaultButton(replaceButton);
+		setTitle(MSG.getString("ReplacePreviewTitle"));
+		setModal(true);
+		setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				close();
+			}
+		});
+		applyComponentOrientation(orientation);
+		pack();
+		setLocationRelativeTo(getParent());
+
+		preview.addListDataListener(listener);
+		preview.addPropertyChangeListener(listener);
+		updateStatus();
+
+	}
+
+
+	/**
+	 * Selects the text of a hunk in the text area, if the preview is still
+	 * up to date.
+	 */
+	private void selectInTextArea(ReplacePreview.Hunk hunk) {
+		if (!preview.isStale()) {
+			RTextArea textArea = preview.getTextArea();
+			textArea.select(hunk.getStart(), hunk.getEnd());
+		}
+	}
+
+
+	/**
+	 * Updates the status text and the enabled state of the
+	 * "Replace Selected" button.
+	 */
+	private void updateStatus() {
+
+		String status;
+		if (preview.isStale()) {
+			status = MSG.getString("ReplacePreviewStale");
+		}
+		else if (preview.isRunning()) {
+			status = getString("ReplacePreviewSearching", preview.getSize());
+		}
+		else if (preview.wasTimedOut()) {
+			status = MSG.getString("SearchTimedOut");
+		}
+		else {
+			status = getString("ReplacePreviewCount",
+					preview.getIncludedCount(), preview.getSize());
+		}
+		statusLabel.setText(status);
+
+		replaceButton.setEnabled(!preview.isStale() && !preview.isRunning() &&
+				preview.getIncludedCount() > 0);
+
+	}
+
+
+	/**
+	 * Renders a hunk as a check box and a description.
+	 */
+	private final class HunkCellRenderer extends DefaultListCellRenderer {
+
+		private final JPanel panel;
+		private final JCheckBox checkBox;
+
+		HunkCellRenderer() {
+			checkBox = new JCheckBox();
+			checkBox.setOpaque(false);
+			panel = new JPanel(new BorderLayout());
+			panel.add(checkBox, BorderLayout.LINE_START);
+			panel.add(this);
+		}
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list,
+				Object value, int index, boolean selected, boolean focused) {
+			ReplacePreview.Hunk hunk = (ReplacePreview.Hunk)value;
+			super.getListCellRendererComponent(list, describe(hunk), index,
+					selected, focused);
+			checkBox.setSelected(hunk.isIncluded());
+			checkBox.setEnabled(list.isEnabled());
+			panel.setBackground(getBackground());
+			panel.setComponentOrientation(list.getComponentOrientation());
+			return panel;
+		}
+
+		/**
+		 * Returns whether a point in a list cell is over the check box.
+		 */
+		boolean isOverCheckBox(JList<?> list, Rectangle cell, int x) {
+			int width = checkBox.getPreferredSize().width;
+			if (list.getComponentOrientation().isLeftToRight()) {
+				return x < cell.x + width;
+			}
+			return x >= cell.x + cell.width - width;
+		}
+
+	}
+
+
+	/**
+	 * Listens for events in this dialog and the preview.
+	 */
+	private final class Listener extends MouseAdapter implements ActionListener,
+			ListDataListener, PropertyChangeListener {
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			String command = e.getActionCommand();
+			if ("SelectAll".equals(command)) {
+				preview.setAllIncluded(true);
+			}
+			else if ("SelectNone".equals(command)) {
+				preview.setAllIncluded(false);
+			}
+			else if ("ReplaceSelected".equals(command)) {
+				replacedCount = preview.apply(replaceAll);
+				close();
+			}
+			else if ("Cancel".equals(command)) {
+				close();
+			}
+		}
+
+		@Override
+		public void contentsChanged(ListDataEvent e) {
+			updateStatus();
+		}
+
+		@Override
+		public void intervalAdded(ListDataEvent e) {
+			updateStatus();
+		}
+
+		@Override
+		public void intervalRemoved(ListDataEvent e) {
+			updateStatus();
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			int index = hunkList.locationToIndex(e.getPoint());
+			Rectangle cell = index == -1 ? null :
+					hunkList.getCellBounds(index, index);
+			if (cell == null || !cell.contains(e.getPoint())) {
+				return;
+			}
+			HunkCellRenderer renderer = (HunkCellRenderer)hunkList.getCellRenderer();
+			if (e.getClickCount() == 1 &&
+					renderer.isOverCheckBox(hunkList, cell, e.getX())) {
+				preview.setIncluded(index, !preview.isIncluded(index));
+			}
+			else if (e.getClickCount() == 2) {
+				selectInTextArea(preview.getElementAt(index));
+			}
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			updateStatus();
+		}
+
+	}
+
+
+	/**
+	 * Toggles whether the selected hunks are included, based on the lead
+	 * selection.
+	 */
+	private final class ToggleIncludedAction extends AbstractAction {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			int lead = hunkList.getLeadSelectionIndex();
+			if (lead < 0 || lead >= preview.getSize()) {
+				return;
+			}
+			boolean included = !preview.isIncluded(lead);
+			for (int index : hunkList.getSelectedIndices()) {
+				preview.setIncluded(index, included);
+			}
+		}
+
+	}
+
+
+}
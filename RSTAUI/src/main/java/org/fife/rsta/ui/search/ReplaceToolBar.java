@@ -10,20 +10,24 @@ package org.fife.rsta.ui.search;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SpringLayout;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.text.JTextComponent;
 
 import org.fife.rsta.ui.UIUtil;
-import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
 
 
 /**
@@ -39,6 +43,14 @@ public class ReplaceToolBar extends FindToolBar {
 
 	private JButton replaceButton;
 	private JButton replaceAllButton;
+	private JButton previewButton;
+	private ChunkedReplaceAll replaceAll;
+
+	/**
+	 * Limits "Replace All" and "Preview" to the selected text.  This is only
+	 * shown if a text area has been set.
+	 */
+	protected JCheckBox selectionOnlyCheckBox;
 
 	/**
 	 * Our search listener, cached, so we can grab its selected text easily.
@@ -74,10 +86,8 @@ public class ReplaceToolBar extends FindToolBar {
 
 		createFindButtons();
 
-		Component filler = Box.createRigidArea(new Dimension(5, 5));
-
 		bp.add(findButton);       bp.add(replaceButton);
-		bp.add(replaceAllButton); bp.add(filler);
+		bp.add(replaceAllButton); bp.add(previewButton);
 		panel.add(bp);
 
 		JPanel optionPanel = new JPanel(new SpringLayout());
@@ -86,6 +96,7 @@ public class ReplaceToolBar extends FindToolBar {
 		wholeWordCheckBox = createCB("WholeWord");
 		markAllCheckBox = createCB("MarkAll");
 		wrapCheckBox = createCB("Wrap");
+		selectionOnlyCheckBox = createSelectionOnlyCB();
 		// We use a "spacing" middle row, instead of spacing in the call to
 		// UIUtil.makeSpringCompactGrid(), as the latter adds trailing
 		// spacing after the final "row", which screws up our alignment.
@@ -93,7 +104,6 @@ public class ReplaceToolBar extends FindToolBar {
 		Component space1 = Box.createRigidArea(spacing);
 		Component space2 = Box.createRigidArea(spacing);
 		Component space3 = Box.createRigidArea(spacing);
-		Component space4 = Box.createRigidArea(spacing);
 
 		ComponentOrientation orientation = ComponentOrientation.
 				getOrientation(getLocale());
@@ -101,12 +111,13 @@ public class ReplaceToolBar extends FindToolBar {
 		if (orientation.isLeftToRight()) {
 			optionPanel.add(matchCaseCheckBox); optionPanel.add(wholeWordCheckBox); optionPanel.add(wrapCheckBox);
 			optionPanel.add(space1);            optionPanel.add(space2);            optionPanel.add(space3);
-			optionPanel.add(regexCheckBox);     optionPanel.add(markAllCheckBox);   optionPanel.add(space4);
+			optionPanel.add(regexCheckBox);     optionPanel.add(markAllCheckBox);
+			optionPanel.add(selectionOnlyCheckBox);
 		}
 		else {
 			optionPanel.add(wrapCheckBox); optionPanel.add(wholeWordCheckBox); optionPanel.add(matchCaseCheckBox);
 			optionPanel.add(space3);       optionPanel.add(space2);            optionPanel.add(space1);
-			optionPanel.add(space4);       optionPanel.add(markAllCheckBox);   optionPanel.add(regexCheckBox);
+			optionPanel.add(selectionOnlyCheckBox); optionPanel.add(markAllCheckBox); optionPanel.add(regexCheckBox);
 		}
 		UIUtil.makeSpringCompactGrid(optionPanel, 3,3, 0,0, 0,0);
 		panel.add(optionPanel);
@@ -177,6 +188,77 @@ public class ReplaceToolBar extends FindToolBar {
 		replaceAllButton.addActionListener(listener);
 		replaceAllButton.setEnabled(false);
 
+		// Only shown if a text area has been set
+		previewButton = new JButton(SEARCH_MSG.getString("ReplacePreview"));
+		makeEnterActivateButton(previewButton);
+		previewButton.setActionCommand("ReplacePreview");
+		previewButton.addActionListener(listener);
+		previewButton.setEnabled(false);
+		previewButton.setVisible(false);
+
+	}
+
+
+	/**
+	 * Creates the "In selection" check box.  Its state is only read when
+	 * "Replace All" or "Preview" is run, since {@code SearchContext} has no
+	 * such property.
+	 *
+	 * @return The check box.
+	 * @see #getSearchScope()
+	 */
+	protected JCheckBox createSelectionOnlyCB() {
+		JCheckBox cb = new JCheckBox(SEARCH_MSG.getString("InSelection"));
+		cb.setToolTipText(SEARCH_MSG.getString("InSelection.ToolTip"));
+		cb.addMouseListener(listener);
+		cb.setVisible(false); // Only shown if a text area has been set
+		return cb;
+	}
+
+
+	/**
+	 * Shows the replacements "Replace All" would make, and lets the user
+	 * pick which ones to make.  This is only possible if a text area has
+	 * been set.
+	 *
+	 * @see #setTextArea(RTextArea)
+	 */
+	protected void doPreview() {
+
+		findCombo.addItem(getFindText());
+		replaceCombo.addItem(getReplaceText());
+		SearchContext context = getSearchContext();
+		context.setSearchFor(getFindText());
+		context.setReplaceWith(replaceCombo.getSelectedString());
+
+		ReplacePreview preview = new ReplacePreview(getTextArea());
+		if (!preview.start(context, getSearchScope())) {
+			UIManager.getLookAndFeel().provideErrorFeedback(findCombo);
+			return;
+		}
+		Window window = SwingUtilities.getWindowAncestor(this);
+		ReplacePreviewDialog dialog = new ReplacePreviewDialog(window, preview,
+				replaceAll);
+		dialog.setVisible(true); // Progress is shown by our ReplaceAllListener
+		handleToggleButtons();
+
+	}
+
+
+	/**
+	 * Returns the part of the document "Replace All" and "Preview" work on,
+	 * as selected by the "In selection" check box.  The check box is only
+	 * shown if a text area has been set, so this is always
+	 * {@link SearchScope#DOCUMENT} if one hasn't.
+	 *
+	 * @return The search scope.
+	 * @see #setSearchScope(SearchScope)
+	 * @see #setTextArea(RTextArea)
+	 */
+	public SearchScope getSearchScope() {
+		return selectionOnlyCheckBox.isVisible() &&
+				selectionOnlyCheckBox.isSelected() ? SearchScope.SELECTION :
+				SearchScope.DOCUMENT;
 	}
 
 
@@ -194,9 +276,37 @@ public class ReplaceToolBar extends FindToolBar {
 	}
 
 
+	/**
+	 * Overridden to perform "Replace All" operations ourselves, if a text
+	 * area has been set.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	protected void fireSearchEvent(SearchEvent e) {
+		if (e.getType()==SearchEvent.Type.REPLACE_ALL && replaceAll!=null) {
+			if (!replaceAll.start(e.getSearchContext(), getSearchScope())) {
+				UIManager.getLookAndFeel().provideErrorFeedback(getTextArea());
+			}
+		}
+		else {
+			super.fireSearchEvent(e);
+		}
+	}
+
+
 	@Override
 	protected void handleSearchAction(ActionEvent e) {
 		String command = e.getActionCommand();
+		if ("ReplaceAll".equals(command) && replaceAll!=null &&
+				replaceAll.isRunning()) {
+			replaceAll.cancel(); // Button is a "Stop" button while running
+			return;
+		}
+		if ("ReplacePreview".equals(command)) {
+			doPreview();
+			return;
+		}
 		super.handleSearchAction(e);
 		if ("FindNext".equals(command) || "FindPrevious".equals(command)) {
 			handleToggleButtons(); // Replace button could toggle state
@@ -208,8 +318,10 @@ public class ReplaceToolBar extends FindToolBar {
 	protected FindReplaceButtonsEnableResult handleToggleButtons() {
 
 		FindReplaceButtonsEnableResult er = super.handleToggleButtons();
-		boolean shouldReplace = er.getEnable();
-		replaceAllButton.setEnabled(shouldReplace);
+		boolean shouldReplace = er.getEnable() && !isSearchPending();
+		boolean running = replaceAll!=null && replaceAll.isRunning();
+		replaceAllButton.setEnabled(shouldReplace || running);
+		previewButton.setEnabled(shouldReplace && !running);
 
 		// "Replace" is only enabled if text to search for is selected in
 		// the UI.
@@ -223,34 +335,10 @@ public class ReplaceToolBar extends FindToolBar {
 	}
 
 
-	// TODO: Share this code with AbstractSearchDialog
 	protected boolean matchesSearchFor(String text) {
-		if (text==null || text.isEmpty()) {
-			return false;
-		}
-		String searchFor = findCombo.getSelectedString();
-		if (searchFor!=null && !searchFor.isEmpty()) {
-			boolean matchCase = matchCaseCheckBox.isSelected();
-			if (regexCheckBox.isSelected()) {
-				int flags = Pattern.MULTILINE; // '^' and '$' are done per line.
-				flags = RSyntaxUtilities.getPatternFlags(matchCase, flags);
-				Pattern pattern;
-				try {
-					pattern = Pattern.compile(searchFor, flags);
-				} catch (PatternSyntaxException pse) {
-					pse.printStackTrace(); // Never happens
-					return false;
-				}
-				return pattern.matcher(text).matches();
-			}
-			else {
-				if (matchCase) {
-					return searchFor.equals(text);
-				}
-				return searchFor.equalsIgnoreCase(text);
-			}
-		}
-		return false;
+		return SearchUtil.matchesSearchFor(text,
+				findCombo.getSelectedString(), matchCaseCheckBox.isSelected(),
+				regexCheckBox.isSelected());
 	}
 
 
@@ -271,6 +359,68 @@ public class ReplaceToolBar extends FindToolBar {
     }
 
 
+	/**
+	 * Sets the part of the document "Replace All" and "Preview" work on.
+	 *
+	 * @param scope The search scope.  This cannot be {@code null}.
+	 * @see #getSearchScope()
+	 */
+	public void setSearchScope(SearchScope scope) {
+		selectionOnlyCheckBox.setSelected(scope == SearchScope.SELECTION);
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 * "Replace All" is also performed by this toolbar directly, in chunks
+	 * that don't lock up the UI, rather than by firing a {@code REPLACE_ALL}
+	 * event.  Progress is displayed in this toolbar, and the "Replace All"
+	 * button can be used to stop the operation.  A "Preview" button is also
+	 * shown, which shows the replacements "Replace All" would make, so the
+	 * user can pick which ones to make, and an "In selection" check box
+	 * limits both to the selected text.
+	 */
+	@Override
+	public void setTextArea(RTextArea textArea) {
+		super.setTextArea(textArea);
+		if (replaceAll!=null) {
+			replaceAll.cancel();
+			replaceAll = null;
+		}
+		if (textArea!=null) {
+			replaceAll = new ChunkedReplaceAll(textArea);
+			replaceAll.addPropertyChangeListener(new ReplaceAllListener());
+		}
+		previewButton.setVisible(textArea!=null);
+		selectionOnlyCheckBox.setVisible(textArea!=null);
+	}
+
+
+	/**
+	 * Updates the UI as "Replace All" operations progress.
+	 */
+	private final class ReplaceAllListener implements PropertyChangeListener {
+
+		private String replaceAllButtonText;
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			if (ChunkedReplaceAll.RUNNING_PROPERTY.equals(e.getPropertyName())) {
+				if ((Boolean)e.getNewValue()) {
+					replaceAllButtonText = replaceAllButton.getText();
+					replaceAllButton.setText(SEARCH_MSG.getString("Stop"));
+				}
+				else {
+					replaceAllButton.setText(replaceAllButtonText);
+					handleToggleButtons();
+				}
+			}
+			getToolBarSearch().setInfoText(SearchUtil.getReplaceAllText(replaceAll));
+		}
+
+	}
+
+
 	/**
 	 * Listens for the user typing into the search field.
 	 */
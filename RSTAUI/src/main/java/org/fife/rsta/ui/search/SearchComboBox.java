@@ -8,18 +8,32 @@
  */
 package org.fife.rsta.ui.search;
 
+import java.util.List;
 import java.util.Vector;
 
 import javax.swing.InputMap;
+import javax.swing.JList;
 import javax.swing.KeyStroke;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.plaf.basic.ComboPopup;
 import javax.swing.text.JTextComponent;
 
+import org.fife.rsta.ui.RComboBoxModel;
 import org.fife.rsta.ui.UIUtil;
 
 
 /**
  * The combo box used for entering text to "find" and "replace" in both the
- * Find/Replace dialogs and toolbars.
+ * Find/Replace dialogs and toolbars.<p>
+ *
+ * Items searched for can be recorded in a {@link SearchHistory}, which can
+ * be shared by several combo boxes and saved between runs of an application.
+ * Items added to a shared history by another combo box are added to this one
+ * too.  Search histories can contain thousands of items, so this combo box
+ * doesn't render each item to compute its own size or the size of the items
+ * in its popup, as combo boxes do by default; only visible items are ever
+ * rendered.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -29,6 +43,15 @@ import org.fife.rsta.ui.UIUtil;
 public class SearchComboBox extends RegexAwareComboBox<String> {
 
 	private FindToolBar toolBar;
+	private SearchHistory history;
+	private HistoryListener historyListener;
+
+	/**
+	 * Used to size this combo box and the items in its popup list, instead
+	 * of rendering every item.  This is wider than the maximum width of the
+	 * combo box.
+	 */
+	private static final String PROTOTYPE_VALUE = "XXXXXXXXXXXXXXXXXXXXXXXXXXXXXX";
 
 
 	/**
@@ -44,19 +67,26 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 		this.toolBar = toolBar;
 		UIUtil.fixComboOrientation(this);
 		updateTextFieldKeyMap();
+		updatePopupList();
 	}
 
 
 	/**
 	 * Overridden to always select the newly-added item.  If the item is
 	 * already in the list of choices, it is moved to the top before being
-	 * selected.
+	 * selected.  If this combo box has a search history, the item is
+	 * added to it too.
 	 *
 	 * @param item The item to add.
+	 * @see #setSearchHistory(SearchHistory)
 	 */
 	@Override
 	public void addItem(String item) {
 
+		if (history != null) {
+			history.add(item);
+		}
+
 		// If they just searched for an item that's already in the list
 		// other than the first, move it to the first position.
 		int curIndex = getIndexOf(item);
@@ -64,8 +94,7 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 			super.addItem(item);
 		}
 		else if (curIndex>0) {
-			removeItem(item);
-			insertItemAt(item, 0);
+			moveToFront(item);
 		}
 
 		// Always leave with the new item selected
@@ -74,6 +103,9 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 
 
 	private int getIndexOf(String item) {
+		if (dataModel instanceof RComboBoxModel) {
+			return ((RComboBoxModel<?>)dataModel).getIndexOf(item);
+		}
 		for (int i=0; i<dataModel.getSize(); i++) {
 			if (dataModel.getElementAt(i).equals(item)) {
 				return i;
@@ -83,6 +115,17 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 	}
 
 
+	/**
+	 * Returns the search history items searched for are recorded in.
+	 *
+	 * @return The search history, or {@code null} if there is none.
+	 * @see #setSearchHistory(SearchHistory)
+	 */
+	public SearchHistory getSearchHistory() {
+		return history;
+	}
+
+
 	/**
 	 * Returns the text in the text field of the combo box.
 	 *
@@ -100,6 +143,7 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 	 * @return A <code>java.util.Vector</code> of strings found in this
 	 *         combo box.  If that combo box is empty, then a zero-length
 	 *         <code>Vector</code> is returned.
+	 * @see #getSearchHistory()
 	 */
 	public Vector<String> getSearchStrings() {
 
@@ -113,9 +157,7 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 		// If they just searched for an item that's already in the list other
 		// than the first, move it to the first position.
 		else if (selectedIndex>0) {
-			String item = (String)getSelectedItem();
-			removeItem(item);
-			insertItemAt(item, 0);
+			moveToFront((String)getSelectedItem());
 			setSelectedIndex(0);
 		}
 
@@ -130,6 +172,93 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 	}
 
 
+	/**
+	 * Moves an item to the front of the list.
+	 */
+	private void moveToFront(String item) {
+		if (dataModel instanceof RComboBoxModel) {
+			insertItemAt(item, 0); // Moves it, firing a single event
+		}
+		else {
+			removeItem(item);
+			insertItemAt(item, 0);
+		}
+	}
+
+
+	/**
+	 * Sets the search history items searched for are recorded in.  This
+	 * combo box's items are replaced with the items in the history, and it
+	 * remembers as many items as the history does.  Until another history
+	 * is set, this combo box listens for changes to the history.
+	 *
+	 * @param history The search history, or {@code null} for none.  This
+	 *        may be shared with other search combo boxes, such as the
+	 *        "Find" combo boxes in a find dialog and a find toolbar.
+	 * @see #getSearchHistory()
+	 */
+	public void setSearchHistory(SearchHistory history) {
+		if (this.history != null) {
+			this.history.removeChangeListener(historyListener);
+		}
+		this.history = history;
+		if (history != null) {
+			if (historyListener == null) {
+				historyListener = new HistoryListener();
+			}
+			history.addChangeListener(historyListener);
+			// A single model change instead of an event per item
+			List<String> items = history.getEntries();
+			setModel(new RComboBoxModel<>(items.toArray(new String[0]),
+					history.getMaxSize()));
+			setPrototypeDisplayValue(PROTOTYPE_VALUE);
+		}
+	}
+
+
+	/**
+	 * Brings this combo box's items up to date after its search history
+	 * changes, without changing the text being edited.
+	 */
+	private void syncWithHistory() {
+
+		JTextComponent comp = UIUtil.getTextComponent(this);
+		String text = comp.getText();
+
+		String mostRecent = history.getMostRecent();
+		if (mostRecent == null) { // Cleared
+			removeAllItems();
+		}
+		else if (getItemCount() == 0 || !mostRecent.equals(getItemAt(0))) {
+			if (getIndexOf(mostRecent) == -1) {
+				insertItemAt(mostRecent, 0);
+			}
+			else {
+				moveToFront(mostRecent);
+			}
+		}
+
+		if (!text.equals(comp.getText())) {
+			comp.setText(text);
+		}
+	}
+
+
+	/**
+	 * Gives the list in this combo box's popup a prototype value, so it
+	 * renders only that value to size its cells, instead of every item.
+	 */
+	private void updatePopupList() {
+		Object popup = getUI().getAccessibleChild(this, 0);
+		if (popup instanceof ComboPopup) {
+			JList<?> list = ((ComboPopup)popup).getList();
+			@SuppressWarnings("unchecked")
+			JList<Object> objectList = (JList<Object>)list;
+			objectList.setPrototypeCellValue(PROTOTYPE_VALUE);
+		}
+	}
+
+
 	/**
 	 * Updates the input map of the text field inside this search combo.
 	 */
@@ -149,6 +278,21 @@ public class SearchComboBox extends RegexAwareComboBox<String> {
 			toolBar.searchComboUpdateUICallback(this);
 		}
 		updateTextFieldKeyMap();
+		updatePopupList();
+	}
+
+
+	/**
+	 * Keeps this combo box's items in sync with its search history, which
+	 * may be shared with other combo boxes.
+	 */
+	private final class HistoryListener implements ChangeListener {
+
+		@Override
+		public void stateChanged(ChangeEvent e) {
+			syncWithHistory();
+		}
+
 	}
 
 
@@ -0,0 +1,433 @@
+/*
+ * 10/18/2026
+ *
+ * SearchHistory - The strings recently searched for, optionally saved to disk.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+
+/**
+ * The strings recently searched for (or replaced with), most recent first,
+ * without duplicates.  A {@link SearchComboBox} records what's searched for
+ * in its history, if it has one; see
+ * {@link SearchComboBox#setSearchHistory(SearchHistory)}.<p>
+ *
+ * Adding a string and checking whether a string is in the history take
+ * constant time, no matter how large the history is, since the history is
+ * a hash map in access order.<p>
+ *
+ * A history can optionally be saved to a file, so it's kept between runs of
+ * an application.  Strings are appended to the file as they're added, so
+ * little is lost if the application exits abnormally, and nothing has to be
+ * written when it exits normally.  The file is written by a single
+ * background thread shared by all histories, so searching never waits for
+ * the disk; strings added while a write is pending are appended together.
+ * Applications can call {@link #flush()} before exiting to make sure the
+ * most recent strings are saved.  When a history is loaded, strings that
+ * were added more than once, and the oldest strings beyond the maximum
+ * size, are dropped, and the file is rewritten if anything was dropped.
+ * The file is UTF-8 text with one string per line, oldest first, with
+ * backslashes and line breaks escaped.<p>
+ *
+ * A history can be shared by several combo boxes; registered
+ * {@code ChangeListener}s are notified whenever a string is added or the
+ * history is cleared.  Other than {@link #flush()}, this class should only
+ * be used on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class SearchHistory {
+
+	private final Map<String, Boolean> entries; // Oldest first
+	private final int maxSize;
+	private String mostRecent;
+	private Path file;
+	private List<ChangeListener> listeners;
+
+	/**
+	 * Escaped strings waiting to be appended to the file.  This and the
+	 * two flags below are shared with the writer thread, and guarded by
+	 * {@code this}.
+	 */
+	private StringBuilder pendingWrites;
+	private boolean truncatePending;
+	private boolean writeScheduled;
+
+	/**
+	 * Writes the files of all histories, in the order they were changed.
+	 */
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "SearchHistoryWriter");
+		t.setDaemon(true);
+		return t;
+	});
+
+	/**
+	 * The default maximum number of strings remembered.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+
+	/**
+	 * Creates a history that isn't saved to disk.
+	 *
+	 * @param maxSize The maximum number of strings to remember.  This must
+	 *        be greater than zero.
+	 * @see #load(Path, int)
+	 */
+	public SearchHistory(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be > 0");
+		}
+		this.maxSize = maxSize;
+		entries = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> e) {
+				return size() > SearchHistory.this.maxSize;
+			}
+		};
+		listeners = new CopyOnWriteArrayList<>();
+	}
+
+
+	/**
+	 * Adds a string to this history, or makes it the most recent string if
+	 * it's already in it.  If this history is saved to a file, the string is
+	 * appended to the file in the background.
+	 *
+	 * @param text The string to add.  Empty strings are ignored.
+	 * @return Whether the history changed.  This is {@code false} if the
+	 *         string was empty or already the most recent one.
+	 */
+	public boolean add(String text) {
+
+		if (text == null || text.isEmpty() || text.equals(mostRecent)) {
+			return false;
+		}
+		entries.put(text, Boolean.TRUE);
+		mostRecent = text;
+
+		if (file != null) {
+			synchronized (this) {
+				pendingWrites.append(escape(text)).append('\n');
+				scheduleWrite();
+			}
+		}
+		fireStateChanged();
+		return true;
+	}
+
+
+	/**
+	 * Adds a listener notified whenever a string is added to this history,
+	 * or it is cleared.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeChangeListener(ChangeListener)
+	 */
+	public void addChangeListener(ChangeListener l) {
+		listeners.add(l);
+	}
+
+
+	/**
+	 * Removes all strings from this history.  If this history is saved to
+	 * a file, the file is emptied in the background.
+	 */
+	public void clear() {
+		entries.clear();
+		mostRecent = null;
+		if (file != null) {
+			synchronized (this) {
+				pendingWrites.setLength(0);
+				truncatePending = true;
+				scheduleWrite();
+			}
+		}
+		fireStateChanged();
+	}
+
+
+	/**
+	 * Returns whether a string is in this history.
+	 *
+	 * @param text The string.
+	 * @return Whether the string is in this history.
+	 */
+	public boolean contains(String text) {
+		return entries.containsKey(text);
+	}
+
+
+	private static String escape(String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char ch = text.charAt(i);
+			switch (ch) {
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				default:
+					sb.append(ch);
+					break;
+			}
+		}
+		return sb.toString();
+	}
+
+
+	private void fireStateChanged() {
+		if (!listeners.isEmpty()) {
+			ChangeEvent e = new ChangeEvent(this);
+			for (ChangeListener l : listeners) {
+				l.stateChanged(e);
+			}
+		}
+	}
+
+
+	/**
+	 * Waits until the changes made to this history have been written to its
+	 * file.  Applications should call this before exiting, since the writer
+	 * thread is a daemon thread.  This may be called on any thread.
+	 *
+	 * @throws IOException If this thread is interrupted while waiting.
+	 */
+	public void flush() throws IOException {
+		try {
+			WRITER.submit(() -> { }).get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException ee) { // Never happens
+			throw new IOException(ee.getCause());
+		}
+	}
+
+
+	/**
+	 * Returns the strings in this history.
+	 *
+	 * @return The strings, most recent first.  This is a copy.
+	 */
+	public List<String> getEntries() {
+		List<String> list = new ArrayList<>(entries.keySet());
+		Collections.reverse(list);
+		return list;
+	}
+
+
+	/**
+	 * Returns the file this history is saved to.
+	 *
+	 * @return The file, or {@code null} if this history isn't saved.
+	 * @see #load(Path, int)
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+
+	/**
+	 * Returns the maximum number of strings remembered.
+	 *
+	 * @return The maximum number of strings.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+
+	/**
+	 * Returns the most recent string in this history.
+	 *
+	 * @return The most recent string, or {@code null} if this history is
+	 *         empty.
+	 */
+	public String getMostRecent() {
+		return mostRecent;
+	}
+
+
+	/**
+	 * Loads a history from a file, and saves all strings added to it to
+	 * that file.  If the file contains strings added more than once, or more
+	 * than {@code maxSize} strings, it is compacted.
+	 *
+	 * @param file The file.  This doesn't have to exist yet.
+	 * @param maxSize The maximum number of strings to remember.
+	 * @return The history.
+	 * @throws IOException If an IO error occurs reading or compacting the
+	 *         file.
+	 */
+	public static SearchHistory load(Path file, int maxSize) throws IOException {
+
+		SearchHistory history = new SearchHistory(maxSize);
+		int recordCount = 0;
+
+		try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = r.readLine()) != null) {
+				if (!line.isEmpty()) {
+					history.mostRecent = unescape(line);
+					history.entries.put(history.mostRecent, Boolean.TRUE);
+					recordCount++;
+				}
+			}
+		} catch (NoSuchFileException nsfe) {
+			// Nothing searched for yet
+		}
+
+		if (recordCount > history.entries.size()) {
+			history.save(file);
+		}
+		history.file = file;
+		history.pendingWrites = new StringBuilder();
+		return history;
+	}
+
+
+	/**
+	 * Removes a listener notified whenever a string is added to this
+	 * history, or it is cleared.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addChangeListener(ChangeListener)
+	 */
+	public void removeChangeListener(ChangeListener l) {
+		listeners.remove(l);
+	}
+
+
+	/**
+	 * Rewrites a file with just the strings in this history.  The file is
+	 * written to a temporary file first, so it isn't lost if this fails.
+	 */
+	private void save(Path file) throws IOException {
+
+		Path parent = file.toAbsolutePath().getParent();
+		Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try {
+			try (Writer w = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				for (String text : entries.keySet()) {
+					w.write(escape(text));
+					w.write('\n');
+				}
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException amnse) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+
+	/**
+	 * Has the writer thread write the pending changes, if it isn't already
+	 * going to.  This must be called while holding this object's lock.
+	 */
+	private void scheduleWrite() {
+		if (!writeScheduled) {
+			writeScheduled = true;
+			WRITER.execute(this::writePending);
+		}
+	}
+
+
+	/**
+	 * Returns the number of strings in this history.
+	 *
+	 * @return The number of strings.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+
+	private static String unescape(String line) {
+		if (line.indexOf('\\') == -1) {
+			return line;
+		}
+		StringBuilder sb = new StringBuilder(line.length());
+		for (int i = 0; i < line.length(); i++) {
+			char ch = line.charAt(i);
+			if (ch == '\\' && i + 1 < line.length()) {
+				ch = line.charAt(++i);
+				if (ch == 'n') {
+					ch = '\n';
+				}
+				else if (ch == 'r') {
+					ch = '\r';
+				}
+			}
+			sb.append(ch);
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Writes the pending changes to the file.  Called on the writer thread.
+	 */
+	private void writePending() {
+
+		String text;
+		boolean truncate;
+		synchronized (this) {
+			text = pendingWrites.toString();
+			pendingWrites.setLength(0);
+			truncate = truncatePending;
+			truncatePending = false;
+			writeScheduled = false;
+		}
+
+		OpenOption[] options = truncate ? new OpenOption[0] :
+				new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.APPEND };
+		try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8, options)) {
+			w.write(text);
+		} catch (IOException ioe) {
+			// Keep going; the history still works, it just isn't saved
+			ioe.printStackTrace();
+		}
+	}
+
+
+}
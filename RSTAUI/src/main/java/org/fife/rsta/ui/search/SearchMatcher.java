@@ -0,0 +1,288 @@
+/*
+ * 10/18/2026
+ *
+ * SearchMatcher - Finds occurrences of searched-for text in a character
+ * sequence.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Finds the occurrences of the text described by a {@code SearchContext} in
+ * a {@code CharSequence}.  Unlike {@code SearchEngine}, this class does not
+ * operate on a text area, so it can be used to search a snapshot of a
+ * document's content from a background thread.<p>
+ *
+ * Zero-length matches are skipped, since they cannot be highlighted or
+ * selected.<p>
+ *
+ * If the text is an {@link InterruptibleCharSequence}, finding each match
+ * has its own budget, and a {@link MatchTimeoutException} is thrown if a
+ * match takes too long to find.<p>
+ *
+ * Matching can be restricted to a range of the text with
+ * {@link #setRange(int, int)}, so searching in a selection only scans the
+ * selected text.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class SearchMatcher {
+
+	private final Matcher matcher;
+	private final boolean wholeWord;
+	private final CharSequence text;
+	private final InterruptibleCharSequence budget;
+	private int rangeStart;
+	private int rangeEnd;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pattern The pattern to search for, typically created via
+	 *        {@link #createPattern(SearchContext)}.
+	 * @param wholeWord Whether only whole-word matches should be returned.
+	 * @param text The text to search in.
+	 */
+	SearchMatcher(Pattern pattern, boolean wholeWord, CharSequence text) {
+		this.matcher = pattern.matcher(text);
+		// Anchors and lookarounds see the text outside of any range
+		matcher.useTransparentBounds(true);
+		matcher.useAnchoringBounds(false);
+		rangeEnd = text.length();
+		this.wholeWord = wholeWord;
+		this.text = text;
+		budget = text instanceof InterruptibleCharSequence ?
+				(InterruptibleCharSequence)text : null;
+	}
+
+
+	/**
+	 * Appends the value of a group reference in a replacement template.
+	 *
+	 * @param template The replacement template.
+	 * @param index The index of the first digit of the group reference.
+	 * @param sb The buffer to append to.
+	 * @return The index just past the group reference.
+	 */
+	private int appendGroup(String template, int index, StringBuilder sb) {
+		int group = template.charAt(index++) - '0';
+		// Like Matcher, consume digits as long as the group number is valid
+		while (index < template.length() &&
+				Character.isDigit(template.charAt(index))) {
+			int next = group * 10 + template.charAt(index) - '0';
+			if (next > matcher.groupCount()) {
+				break;
+			}
+			group = next;
+			index++;
+		}
+		if (group <= matcher.groupCount() && matcher.group(group) != null) {
+			sb.append(matcher.group(group));
+		}
+		return index;
+	}
+
+
+	/**
+	 * Returns the pattern to use to search for the text in a search context.
+	 * This must be called on the EDT, since search contexts are not
+	 * thread-safe, but the returned pattern can be used on any thread.
+	 *
+	 * @param context The search context.
+	 * @return The pattern.
+	 * @throws java.util.regex.PatternSyntaxException If the context
+	 *         specifies an invalid regular expression.
+	 */
+	static Pattern createPattern(SearchContext context) {
+		return getPattern(context.getSearchFor(),
+				context.isRegularExpression(), context.getMatchCase());
+	}
+
+
+	/**
+	 * Returns the end offset of the most recent match.
+	 *
+	 * @return The end offset.
+	 */
+	int end() {
+		return matcher.end();
+	}
+
+
+	/**
+	 * Finds the next match.
+	 *
+	 * @return Whether a match was found.
+	 * @see #find(int)
+	 */
+	boolean find() {
+		startBudget();
+		while (matcher.find()) {
+			if (isValidMatch()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Finds the next match at or after the specified offset.
+	 *
+	 * @param from The offset at which to start searching.
+	 * @return Whether a match was found.
+	 * @see #find()
+	 */
+	boolean find(int from) {
+		startBudget();
+		from = Math.min(Math.max(from, rangeStart), rangeEnd);
+		matcher.region(from, rangeEnd);
+		return matcher.find() && (isValidMatch() || find());
+	}
+
+
+	/**
+	 * Returns the pattern to use to search for text.  Patterns come from
+	 * the shared {@link PatternCache}, so validating the text in a "Find"
+	 * field and then searching for it only compiles it once.
+	 *
+	 * @param searchFor The text to search for.
+	 * @param regex Whether {@code searchFor} is a regular expression.
+	 * @param matchCase Whether the search is case-sensitive.
+	 * @return The pattern.
+	 * @throws java.util.regex.PatternSyntaxException If {@code regex} is
+	 *         {@code true} and {@code searchFor} is invalid.
+	 */
+	static Pattern getPattern(String searchFor, boolean regex,
+			boolean matchCase) {
+		int flags = regex ?
+				Pattern.MULTILINE : // '^' and '$' are done per line.
+				Pattern.LITERAL;
+		flags = RSyntaxUtilities.getPatternFlags(matchCase, flags);
+		return PatternCache.getSharedInstance().compile(searchFor, flags);
+	}
+
+
+	/**
+	 * Returns the text to replace the most recent match with.  For regular
+	 * expression searches, {@code $n} group references and the {@code \n}
+	 * and {@code \t} escapes in the template are expanded, as
+	 * {@code SearchEngine} does.  For literal searches, the template is
+	 * returned as-is.
+	 *
+	 * @param template The replacement template.
+	 * @return The replacement text.
+	 */
+	String getReplacement(String template) {
+
+		if ((matcher.pattern().flags() & Pattern.LITERAL) != 0) {
+			return template;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		int i = 0;
+		while (i < template.length()) {
+			char ch = template.charAt(i++);
+			if (ch == '\\' && i < template.length()) {
+				ch = template.charAt(i++);
+				switch (ch) {
+					case 'n':
+						ch = '\n';
+						break;
+					case 't':
+						ch = '\t';
+						break;
+					default:
+						break;
+				}
+				sb.append(ch);
+			}
+			else if (ch == '$' && i < template.length() &&
+					Character.isDigit(template.charAt(i))) {
+				i = appendGroup(template, i, sb);
+			}
+			else {
+				sb.append(ch);
+			}
+		}
+		return sb.toString();
+
+	}
+
+
+	/**
+	 * Returns whether the current match is one we should report to callers.
+	 *
+	 * @return Whether the match is valid.
+	 */
+	private boolean isValidMatch() {
+		int start = matcher.start();
+		int end = matcher.end();
+		return end > start && (!wholeWord || isWholeWord(text, start, end));
+	}
+
+
+	/**
+	 * Returns whether a range of text is a "whole word," i.e. is not
+	 * immediately preceded or followed by a letter or digit.
+	 *
+	 * @param text The text.
+	 * @param start The start offset of the range.
+	 * @param end The end offset of the range.
+	 * @return Whether the range is a whole word.
+	 */
+	static boolean isWholeWord(CharSequence text, int start, int end) {
+		boolean wsBefore = start == 0 ||
+				!Character.isLetterOrDigit(text.charAt(start - 1));
+		boolean wsAfter = end == text.length() ||
+				!Character.isLetterOrDigit(text.charAt(end));
+		return wsBefore && wsAfter;
+	}
+
+
+	/**
+	 * Restricts matching to a range of the text.  Matches must lie entirely
+	 * within the range, but {@code ^}, {@code $}, lookarounds and
+	 * whole-word checks still see the text around it, so a match in the
+	 * range is found exactly when it would be found searching all of the
+	 * text.  This resets the matcher.
+	 *
+	 * @param start The start offset of the range.
+	 * @param end The end offset of the range, exclusive.
+	 */
+	void setRange(int start, int end) {
+		rangeStart = start;
+		rangeEnd = end;
+		matcher.region(start, end);
+	}
+
+
+	/**
+	 * Returns the start offset of the most recent match.
+	 *
+	 * @return The start offset.
+	 */
+	int start() {
+		return matcher.start();
+	}
+
+
+	private void startBudget() {
+		if (budget != null) {
+			budget.startBudget();
+		}
+	}
+
+
+}
@@ -0,0 +1,643 @@
+/*
+ * 10/18/2026
+ *
+ * SearchResultsPanel.java - Lists every match found by a search.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.License.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FontMetrics;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.ResourceBundle;
+import javax.swing.AbstractListModel;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * A panel listing every match found by a search, with its line number and
+ * the text around it.  This is meant to be docked below the text areas of
+ * an application with
+ * {@link org.fife.rsta.ui.CollapsibleSectionPanel#addBottomComponent(javax.swing.JComponent)}.
+ * <p>
+ *
+ * Matches come from a background search: either this panel's own
+ * {@link MultiDocumentSearch}, started with
+ * {@link #search(SearchContext, Collection)}, or a
+ * {@link FindInFilesSearch} that {@link #getFindInFilesListener()} has been
+ * added to.  Only the offsets of matches in documents are kept; the text of
+ * a match's line is read from its document when its row is displayed, so
+ * the list uses a fixed cell size, and only the visible rows are ever
+ * rendered, no matter how many matches there are.  Hovering over a match in
+ * a document shows the lines around it in a tool tip.<p>
+ *
+ * Double-clicking a match, or pressing Enter on it, selects it.  Matches in
+ * documents are selected in their text areas (see
+ * {@link #selectMatch(JTextComponent, DocumentRange)}); for matches in
+ * files, {@link FileMatchListener}s added with
+ * {@link #addFileMatchListener(FileMatchListener)} are notified.
+ * <p>
+ *
+ * Example usage:
+ * <pre>
+ * SearchResultsPanel resultsPanel = new SearchResultsPanel();
+ * csp.addBottomComponent(resultsPanel);
+ * ...
+ * if (resultsPanel.search(context, Collections.singletonList(textArea))) {
+ *    csp.showBottomComponent(resultsPanel);
+ * }
+ * </pre>
+ *
+ * All methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see MultiDocumentSearch
+ * @see FindInFilesSearch
+ */
+public class SearchResultsPanel extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	private MultiDocumentSearch search;
+	private ResultsModel model;
+	private JList<Row> resultsList;
+	private JLabel statusLabel;
+	private Listener listener;
+	private int contextLineCount;
+	private int timedOutCount;
+
+	/**
+	 * The number of characters of text shown on each side of a match.
+	 */
+	private static final int CONTEXT_CHARS = 40;
+
+	/**
+	 * The maximum number of characters shown for a match, or for a line in
+	 * a tool tip.
+	 */
+	private static final int MAX_TEXT_CHARS = 120;
+
+	private static final ResourceBundle MSG = ResourceBundle.getBundle(
+			"org.fife.rsta.ui.search.Search");
+
+
+	/**
+	 * Constructor.  Searches will run on the common {@code ForkJoinPool}.
+	 */
+	public SearchResultsPanel() {
+		this(new MultiDocumentSearch());
+	}
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param search The search to list the results of.  This cannot be
+	 *        {@code null}.
+	 */
+	public SearchResultsPanel(MultiDocumentSearch search) {
+
+		super(new BorderLayout());
+		this.search = search;
+		listener = new Listener();
+		search.addMultiDocumentSearchListener(listener);
+		contextLineCount = 2;
+
+		model = new ResultsModel();
+		resultsList = new JList<Row>(model) {
+			@Override
+			public String getToolTipText(MouseEvent e) {
+				int index = locationToIndex(e.getPoint());
+				if (index == -1 || !getCellBounds(index, index).contains(e.getPoint())) {
+					return null;
+				}
+				return getContextLines(model.getElementAt(index));
+			}
+		};
+		// A fixed cell size keeps JList from measuring every row
+		FontMetrics fm = resultsList.getFontMetrics(resultsList.getFont());
+		resultsList.setFixedCellHeight(fm.getHeight() + 2);
+		resultsList.setFixedCellWidth(fm.charWidth('m') *
+				(2 * CONTEXT_CHARS + MAX_TEXT_CHARS / 4));
+		resultsList.setVisibleRowCount(8);
+		resultsList.setCellRenderer(new ResultsRenderer());
+		resultsList.addMouseListener(listener);
+		resultsList.addKeyListener(listener.keyListener);
+
+		statusLabel = new JLabel(" ");
+		statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 3, 0));
+
+		setBorder(BorderFactory.createEmptyBorder(3, 5, 3, 5));
+		add(statusLabel, BorderLayout.NORTH);
+		add(new JScrollPane(resultsList));
+
+	}
+
+
+	/**
+	 * Adds a listener to be notified when the user chooses a match in a
+	 * file.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeFileMatchListener(FileMatchListener)
+	 */
+	public void addFileMatchListener(FileMatchListener l) {
+		listenerList.add(FileMatchListener.class, l);
+	}
+
+
+	/**
+	 * Removes all matches from this panel, and cancels the search in
+	 * progress, if any.
+	 */
+	public void clear() {
+		search.cancel();
+		model.clear();
+		timedOutCount = 0;
+		updateStatus();
+	}
+
+
+	private void fireMatchSelected(FileMatch match) {
+		FileMatchListener[] listeners = listenerList.getListeners(
+				FileMatchListener.class);
+		for (FileMatchListener l : listeners) {
+			l.matchSelected(match);
+		}
+	}
+
+
+	/**
+	 * Returns a tool tip showing the lines around a match in a document.
+	 *
+	 * @param row The match.
+	 * @return The tool tip, or {@code null} if the match is in a file, or
+	 *         no context lines are shown.
+	 */
+	private String getContextLines(Row row) {
+
+		JTextComponent textArea = row.source.textArea;
+		if (textArea == null || contextLineCount == 0) {
+			return null;
+		}
+
+		Document doc = textArea.getDocument();
+		Element root = doc.getDefaultRootElement();
+		int line = root.getElementIndex(row.getStartOffset());
+		int first = Math.max(0, line - contextLineCount);
+		int last = Math.min(root.getElementCount() - 1, line + contextLineCount);
+		StringBuilder sb = new StringBuilder("<html><pre>");
+		try {
+			for (int i = first; i <= last; i++) {
+				Element elem = root.getElement(i);
+				int start = elem.getStartOffset();
+				int end = Math.min(elem.getEndOffset() - 1, doc.getLength());
+				sb.append(i == line ? "<b>" : "").append(i + 1).append(": ");
+				SearchUtil.escapeHtml(sb, doc.getText(start, end - start),
+						MAX_TEXT_CHARS);
+				sb.append(i == line ? "</b>" : "").append('\n');
+			}
+		} catch (BadLocationException ble) {
+			ble.printStackTrace(); // Never happens
+			return null;
+		}
+		return sb.append("</pre>").toString();
+	}
+
+
+	/**
+	 * Returns the number of lines shown above and below a match in a
+	 * document when the mouse hovers over it.
+	 *
+	 * @return The number of context lines.
+	 * @see #setContextLineCount(int)
+	 */
+	public int getContextLineCount() {
+		return contextLineCount;
+	}
+
+
+	/**
+	 * Returns the name displayed for a document containing matches.  The
+	 * default implementation returns the text area's name, if it has one.
+	 * Applications can override this to return a file name, for example.
+	 *
+	 * @param textArea The text area.
+	 * @return The name, or {@code null} for none.
+	 */
+	protected String getDisplayName(JTextComponent textArea) {
+		return textArea.getName();
+	}
+
+
+	/**
+	 * Returns a listener that adds the results of a
+	 * {@link FindInFilesSearch} to this panel.  Add it to the search (or to
+	 * a {@link FindInFilesDialog}) and call {@link #clear()} before each
+	 * search starts.
+	 *
+	 * @return The listener.
+	 */
+	public FindInFilesListener getFindInFilesListener() {
+		return listener;
+	}
+
+
+	/**
+	 * Returns the number of matches listed.
+	 *
+	 * @return The number of matches.
+	 */
+	public int getMatchCount() {
+		return model.getSize();
+	}
+
+
+	/**
+	 * Returns the search run by {@link #search(SearchContext, Collection)}.
+	 *
+	 * @return The search.
+	 */
+	public MultiDocumentSearch getSearch() {
+		return search;
+	}
+
+
+	/**
+	 * Removes a listener notified when the user chooses a match in a file.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addFileMatchListener(FileMatchListener)
+	 */
+	public void removeFileMatchListener(FileMatchListener l) {
+		listenerList.remove(FileMatchListener.class, l);
+	}
+
+
+	/**
+	 * Lists all matches of the text described by a search context in a set
+	 * of text areas, replacing the matches currently listed.  The documents
+	 * are searched in the background, and matches are added as each one is
+	 * searched.
+	 *
+	 * @param context The search context.  Its "match case," "whole word" and
+	 *        "regular expression" options are honored.
+	 * @param textAreas The text areas to search.
+	 * @return Whether a search was started.
+	 * @see MultiDocumentSearch#start(SearchContext, Collection)
+	 */
+	public boolean search(SearchContext context,
+			Collection<? extends JTextComponent> textAreas) {
+		clear();
+		boolean started = search.start(context, textAreas);
+		updateStatus();
+		return started;
+	}
+
+
+	/**
+	 * Called when the user chooses a match in a document.  The default
+	 * implementation selects the match and gives its text area focus.
+	 * Applications that show each document in a tab, for example, can
+	 * override this to select the text area's tab first.<p>
+	 *
+	 * Offsets are those of the document when it was searched, so if it has
+	 * been edited since then, the wrong text may be selected.
+	 *
+	 * @param textArea The text area.
+	 * @param range The match.  This is always in the bounds of the
+	 *        document.
+	 */
+	protected void selectMatch(JTextComponent textArea, DocumentRange range) {
+		if (textArea instanceof RTextArea) {
+			RSyntaxUtilities.selectAndPossiblyCenter((RTextArea)textArea,
+					range, true);
+		}
+		else {
+			textArea.select(range.getStartOffset(), range.getEndOffset());
+		}
+		textArea.requestFocusInWindow();
+	}
+
+
+	private void selectRow(Row row) {
+		if (row.source.textArea != null) {
+			selectMatch(row.source.textArea, new DocumentRange(
+					row.getStartOffset(), row.getEndOffset()));
+		}
+		else {
+			fireMatchSelected(row.source.fileMatches.get(row.index));
+		}
+	}
+
+
+	/**
+	 * Sets the number of lines shown above and below a match in a document
+	 * when the mouse hovers over it.
+	 *
+	 * @param count The number of context lines.  If this is {@code 0}, no
+	 *        tool tip is shown.
+	 * @see #getContextLineCount()
+	 */
+	public void setContextLineCount(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count must be >= 0: " + count);
+		}
+		contextLineCount = count;
+	}
+
+
+	/**
+	 * Updates the status text.
+	 */
+	private void updateStatus() {
+		String key = search.isRunning() ? "SearchResultsSearching" :
+				"SearchResultsCount";
+		String status = MessageFormat.format(MSG.getString(key),
+				model.getSize(), model.getSourceCount());
+		if (timedOutCount > 0) {
+			status = MessageFormat.format(MSG.getString("SearchResultsTimedOut"),
+					status, timedOutCount);
+		}
+		statusLabel.setText(status);
+	}
+
+
+	/**
+	 * Listens for search results and for the user choosing a match.
+	 */
+	private final class Listener extends MouseAdapter
+			implements FindInFilesListener, MultiDocumentSearchListener {
+
+		private final KeyAdapter keyListener = new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent e) {
+				if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+					selectMatch();
+					e.consume();
+				}
+			}
+		};
+
+		@Override
+		public void documentSearched(JTextComponent textArea,
+				List<DocumentRange> matches) {
+			model.add(new Source(textArea, matches, null));
+			updateStatus();
+		}
+
+		@Override
+		public void documentTimedOut(JTextComponent textArea) {
+			timedOutCount++;
+			updateStatus();
+		}
+
+		@Override
+		public void fileSearched(Path file, List<FileMatch> matches) {
+			model.add(new Source(null, null, matches));
+			updateStatus();
+		}
+
+		@Override
+		public void fileTimedOut(Path file) {
+			timedOutCount++;
+			updateStatus();
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			if (e.getClickCount() == 2) {
+				selectMatch();
+			}
+		}
+
+		@Override
+		public void searchCompleted(boolean cancelled) {
+			updateStatus();
+		}
+
+		private void selectMatch() {
+			Row row = resultsList.getSelectedValue();
+			if (row != null) {
+				selectRow(row);
+			}
+		}
+
+	}
+
+
+	/**
+	 * The matches listed.  Matches are added a document or file at a time,
+	 * and rows are only created when they are displayed.  Documents and
+	 * files without matches aren't added.
+	 */
+	private final class ResultsModel extends AbstractListModel<Row> {
+
+		private static final long serialVersionUID = 1L;
+
+		private List<Source> sources = new ArrayList<>();
+		private int[] firstRows = new int[16];
+		private int size;
+
+		void add(Source source) {
+			int count = source.getMatchCount();
+			if (count == 0) {
+				return;
+			}
+			if (sources.size() == firstRows.length) {
+				firstRows = Arrays.copyOf(firstRows, firstRows.length * 2);
+			}
+			firstRows[sources.size()] = size;
+			sources.add(source);
+			size += count;
+			fireIntervalAdded(this, size - count, size - 1);
+		}
+
+		void clear() {
+			int oldSize = size;
+			sources = new ArrayList<>();
+			size = 0;
+			if (oldSize > 0) {
+				fireIntervalRemoved(this, 0, oldSize - 1);
+			}
+		}
+
+		@Override
+		public Row getElementAt(int index) {
+			int i = Arrays.binarySearch(firstRows, 0, sources.size(), index);
+			if (i < 0) {
+				i = -i - 2;
+			}
+			return new Row(sources.get(i), index - firstRows[i]);
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+
+		int getSourceCount() {
+			return sources.size();
+		}
+
+	}
+
+
+	/**
+	 * Renders a match as its document or file, line number and the text
+	 * around it.
+	 */
+	private final class ResultsRenderer extends DefaultListCellRenderer {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list,
+				Object value, int index, boolean selected, boolean focused) {
+			Row row = (Row)value;
+			return super.getListCellRendererComponent(list, row.describe(),
+					index, selected, focused);
+		}
+
+	}
+
+
+	/**
+	 * A single match.  The text of a match in a document is read from the
+	 * document when it's needed.
+	 */
+	private final class Row {
+
+		private final Source source;
+		private final int index;
+
+		Row(Source source, int index) {
+			this.source = source;
+			this.index = index;
+		}
+
+		/**
+		 * Returns HTML describing this match.
+		 */
+		String describe() {
+			FileMatch match = source.textArea == null ?
+					source.fileMatches.get(index) : readMatch();
+			String name = source.textArea == null ?
+					match.getFile().toString() : getDisplayName(source.textArea);
+			String text = match.getText();
+			int start = Math.min(match.getStartOffset() - match.getTextOffset(),
+					text.length());
+			int end = Math.min(match.getEndOffset() - match.getTextOffset(),
+					text.length());
+
+			StringBuilder sb = new StringBuilder("<html><nobr><b>");
+			if (name != null) {
+				SearchUtil.escapeHtml(sb, name, MAX_TEXT_CHARS);
+				sb.append(':');
+			}
+			sb.append(match.getLine()).append(":</b> ");
+			int before = Math.max(0, start - CONTEXT_CHARS);
+			SearchUtil.escapeHtml(sb, text.substring(before, start), MAX_TEXT_CHARS);
+			sb.append("<b>");
+			SearchUtil.escapeHtml(sb, text.substring(start, end), MAX_TEXT_CHARS);
+			sb.append("</b>");
+			SearchUtil.escapeHtml(sb, text.substring(end), MAX_TEXT_CHARS);
+			return sb.toString();
+		}
+
+		/**
+		 * Returns the end offset of this match, limited to the document's
+		 * length.
+		 */
+		int getEndOffset() {
+			int length = source.textArea.getDocument().getLength();
+			return Math.min(source.ranges.get(index).getEndOffset(), length);
+		}
+
+		/**
+		 * Returns the start offset of this match, limited to the document's
+		 * length.
+		 */
+		int getStartOffset() {
+			int length = source.textArea.getDocument().getLength();
+			return Math.min(source.ranges.get(index).getStartOffset(), length);
+		}
+
+		/**
+		 * Reads the line containing a match in a document.  Only the part
+		 * of the line after the match that can be displayed is read.
+		 */
+		private FileMatch readMatch() {
+			Document doc = source.textArea.getDocument();
+			int start = getStartOffset();
+			int end = getEndOffset();
+			Element root = doc.getDefaultRootElement();
+			int line = root.getElementIndex(start);
+			Element elem = root.getElement(line);
+			int lineStart = Math.max(elem.getStartOffset(), start - CONTEXT_CHARS);
+			int lineEnd = Math.min(elem.getEndOffset() - 1, doc.getLength());
+			lineEnd = Math.max(end, Math.min(lineEnd, end + MAX_TEXT_CHARS));
+			String text;
+			try {
+				text = doc.getText(lineStart, lineEnd - lineStart);
+			} catch (BadLocationException ble) {
+				ble.printStackTrace(); // Never happens
+				text = "";
+			}
+			return new FileMatch(null, line + 1, start, end, text, lineStart);
+		}
+
+	}
+
+
+	/**
+	 * The matches in a single document or file.
+	 */
+	private static final class Source {
+
+		private final JTextComponent textArea;
+		private final List<DocumentRange> ranges;
+		private final List<FileMatch> fileMatches;
+
+		Source(JTextComponent textArea, List<DocumentRange> ranges,
+				List<FileMatch> fileMatches) {
+			this.textArea = textArea;
+			this.ranges = ranges;
+			this.fileMatches = fileMatches;
+		}
+
+		int getMatchCount() {
+			return textArea == null ? fileMatches.size() : ranges.size();
+		}
+
+	}
+
+
+}
@@ -0,0 +1,36 @@
+/*
+ * 10/18/2026
+ *
+ * SearchScope - The part of a document a search operates on.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+
+/**
+ * The part of a document a search operates on.  {@code SearchContext}
+ * does not support searching only in the selection, so this is kept track
+ * of separately.  The Replace dialog and toolbar offer it for the "Replace
+ * All" and "Preview" operations they perform themselves, when a text area
+ * has been set.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ChunkedReplaceAll
+ * @see ReplacePreview
+ */
+public enum SearchScope {
+
+	/**
+	 * The entire document is searched.
+	 */
+	DOCUMENT,
+
+	/**
+	 * Only the selected text is searched.
+	 */
+	SELECTION
+
+}
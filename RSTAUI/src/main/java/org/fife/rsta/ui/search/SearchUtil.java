@@ -8,6 +8,18 @@
  */
 package org.fife.rsta.ui.search;
 
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.JTextArea;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchResult;
+
 
 /**
  * Utility methods for this package.
@@ -17,6 +29,11 @@ package org.fife.rsta.ui.search;
  */
 final class SearchUtil {
 
+	/**
+	 * The longest a search done on the EDT may take, in milliseconds, no
+	 * matter how large the document is.
+	 */
+	static final long EDT_TIME_BUDGET = 250;
 
     /**
      * Private constructor to prevent instantiation.
@@ -24,6 +41,290 @@ final class SearchUtil {
     private SearchUtil() {
     }
 
+
+	/**
+	 * Appends text to an HTML string, escaped, and with line breaks made
+	 * visible.  Very long text is shortened.
+	 *
+	 * @param sb The buffer to append to.
+	 * @param text The text to append.
+	 * @param maxChars The maximum number of characters of {@code text} to
+	 *        append.  If {@code text} is longer, an ellipsis is appended
+	 *        after that many characters.
+	 */
+	static void escapeHtml(StringBuilder sb, String text, int maxChars) {
+		int len = Math.min(text.length(), maxChars);
+		for (int i = 0; i < len; i++) {
+			char ch = text.charAt(i);
+			switch (ch) {
+				case '<':
+					sb.append("&lt;");
+					break;
+				case '>':
+					sb.append("&gt;");
+					break;
+				case '&':
+					sb.append("&amp;");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+				case '\t':
+					sb.append(' ');
+					break;
+				default:
+					sb.append(ch);
+					break;
+			}
+		}
+		if (len < text.length()) {
+			sb.append("...");
+		}
+	}
+
+
+	/**
+	 * Returns a matcher for a search done on the EDT.  All of its match
+	 * attempts together may take at most {@link #EDT_TIME_BUDGET}
+	 * milliseconds.
+	 *
+	 * @param text The text to search.
+	 * @param context The search context.
+	 * @return The matcher.
+	 * @throws PatternSyntaxException If the context specifies an invalid
+	 *         regular expression.
+	 */
+	private static SearchMatcher createEdtMatcher(CharSequence text,
+			SearchContext context) {
+		InterruptibleCharSequence seq = new InterruptibleCharSequence(text);
+		seq.setTotalBudget(EDT_TIME_BUDGET);
+		return new SearchMatcher(SearchMatcher.createPattern(context),
+				context.getWholeWord(), seq);
+	}
+
+
+	/**
+	 * Selects the next or previous match of a search in a text component,
+	 * like {@code SearchEngine.find()} does.  {@code SearchEngine} searches
+	 * on the EDT and can't be interrupted, so here the text is searched
+	 * with a budget of {@link #EDT_TIME_BUDGET} milliseconds in all, no
+	 * matter how large it is.  That way a regular expression that
+	 * backtracks catastrophically is reported instead of hanging the
+	 * application.
+	 *
+	 * @param textArea The text component to search in.
+	 * @param text The text component's text, e.g. from a
+	 *        {@link DocumentSnapshot}.
+	 * @param context The search context.  Its direction and "wrap" options
+	 *        are honored.
+	 * @return The result of the search, or {@code null} if it timed out.
+	 *         Nothing is found for invalid regular expressions.
+	 */
+	static SearchResult find(JTextArea textArea, CharSequence text,
+			SearchContext context) {
+
+		String searchFor = context.getSearchFor();
+		if (searchFor==null || searchFor.isEmpty()) {
+			return new SearchResult();
+		}
+		SearchMatcher matcher;
+		try {
+			matcher = createEdtMatcher(text, context);
+		} catch (PatternSyntaxException pse) {
+			return new SearchResult();
+		}
+
+		boolean forward = context.getSearchForward();
+		DocumentRange range;
+		boolean wrapped = false;
+		try {
+			range = find(matcher, forward ? textArea.getSelectionEnd() :
+					textArea.getSelectionStart(), forward);
+			if (range==null && context.getSearchWrap()) {
+				range = find(matcher, forward ? 0 : text.length(), forward);
+				wrapped = range!=null;
+			}
+		} catch (MatchTimeoutException mte) {
+			return null;
+		}
+
+		if (range==null) {
+			return new SearchResult();
+		}
+		RSyntaxUtilities.selectAndPossiblyCenter(textArea, range, true);
+		return new SearchResult(range, 1, 0, wrapped);
+	}
+
+
+	/**
+	 * Returns the first match after, or the last match before, an offset.
+	 *
+	 * @param matcher The matcher.
+	 * @param offs The offset.
+	 * @param forward Whether to search forward.
+	 * @return The match, or {@code null} if there is none.
+	 */
+	private static DocumentRange find(SearchMatcher matcher, int offs,
+			boolean forward) {
+		if (forward) {
+			return matcher.find(offs) ?
+					new DocumentRange(matcher.start(), matcher.end()) : null;
+		}
+		DocumentRange last = null;
+		matcher.setRange(0, offs);
+		while (matcher.find()) {
+			last = new DocumentRange(matcher.start(), matcher.end());
+		}
+		return last;
+	}
+
+
+	/**
+	 * Returns the offsets of all matches in a text component's content.
+	 * This is used when the offsets found by "mark all" aren't available.
+	 * The search is done with a budget of {@link #EDT_TIME_BUDGET}
+	 * milliseconds, as in {@link #find(JTextArea, CharSequence,
+	 * SearchContext)}, so a regular expression that backtracks
+	 * catastrophically doesn't hang the application.
+	 *
+	 * @param text The text component's content, e.g. from a
+	 *        {@link DocumentSnapshot}.
+	 * @param context The search context.
+	 * @return The matches, or {@code null} if the text to search for is
+	 *         empty or invalid.
+	 * @throws MatchTimeoutException If the search timed out.
+	 */
+	static List<DocumentRange> findAll(CharSequence text,
+			SearchContext context) {
+
+		String searchFor = context.getSearchFor();
+		if (searchFor==null || searchFor.isEmpty()) {
+			return null;
+		}
+
+		SearchMatcher matcher;
+		try {
+			matcher = createEdtMatcher(text, context);
+		} catch (PatternSyntaxException pse) {
+			return null;
+		}
+		List<DocumentRange> ranges = new ArrayList<>();
+		while (matcher.find()) {
+			ranges.add(new DocumentRange(matcher.start(), matcher.end()));
+		}
+		return ranges;
+	}
+
+	/**
+	 * Replaces the match at the start of the selection in a text component
+	 * (or its end, if searching backward), then selects the next match,
+	 * like {@code SearchEngine.replace()} does.  Each search is done with
+	 * a budget of {@link #EDT_TIME_BUDGET} milliseconds, as in
+	 * {@link #find(JTextArea, CharSequence, SearchContext)}.
+	 *
+	 * @param textArea The text component to replace text in.
+	 * @param snapshot A snapshot of the text component's content.
+	 * @param context The search context.  Its direction, "wrap" options
+	 *        and replacement text are honored.
+	 * @return The result of searching for the next match after the
+	 *         replacement, or {@code null} if a search timed out.  If
+	 *         nothing was replaced, nothing is found.
+	 */
+	static SearchResult replace(JTextArea textArea, DocumentSnapshot snapshot,
+			SearchContext context) {
+
+		String searchFor = context.getSearchFor();
+		if (searchFor==null || searchFor.isEmpty()) {
+			return new SearchResult();
+		}
+		String text = snapshot.getText();
+		SearchMatcher matcher;
+		try {
+			matcher = createEdtMatcher(text, context);
+		} catch (PatternSyntaxException pse) {
+			return new SearchResult();
+		}
+
+		boolean forward = context.getSearchForward();
+		String replaceWith = context.getReplaceWith();
+		DocumentRange range;
+		String replacement;
+		try {
+			range = find(matcher, forward ? textArea.getSelectionStart() :
+					textArea.getSelectionEnd(), forward);
+			if (range==null && context.getSearchWrap()) {
+				range = find(matcher, forward ? 0 : text.length(), forward);
+			}
+			if (range==null) {
+				return new SearchResult();
+			}
+			// Position the matcher on the match, for its groups
+			matcher.setRange(0, text.length());
+			matcher.find(range.getStartOffset());
+			replacement = matcher.getReplacement(replaceWith==null ? "" :
+					replaceWith);
+		} catch (MatchTimeoutException mte) {
+			return null;
+		}
+
+		int start = range.getStartOffset();
+		textArea.replaceRange(replacement, start, range.getEndOffset());
+		textArea.setCaretPosition(forward ? start + replacement.length() : start);
+		return find(textArea, snapshot.getText(), context);
+	}
+
+
+	/**
+	 * Returns a warning to display if a regular expression contains a nested
+	 * quantifier, which can make searches take a very long time.
+	 *
+	 * @param combo The combo box containing the regular expression.
+	 * @return The warning, or <code>null</code> if there is no nested
+	 *         quantifier.
+	 * @see RegexStructure#getFirstNestedQuantifier()
+	 */
+	static String getNestedQuantifierWarning(RegexAwareComboBox<?> combo) {
+		RegexStructure.Token quantifier = combo.getRegexStructure().
+				getFirstNestedQuantifier();
+		if (quantifier==null) {
+			return null;
+		}
+		return MessageFormat.format(
+				AbstractSearchDialog.getString("NestedQuantifier"),
+				quantifier.getText(), quantifier.getStart());
+	}
+
+
+	/**
+	 * Returns text describing the progress or result of a "Replace All"
+	 * operation.
+	 *
+	 * @param replaceAll The operation.
+	 * @return The text to display.
+	 */
+	static String getReplaceAllText(ChunkedReplaceAll replaceAll) {
+		if (replaceAll.isRunning()) {
+			return MessageFormat.format(
+					AbstractSearchDialog.getString("ReplaceAllProgress"),
+					replaceAll.getProgress());
+		}
+		else if (replaceAll.wasTimedOut()) {
+			return MessageFormat.format(
+					AbstractSearchDialog.getString("ReplaceAllTimedOut"),
+					replaceAll.getReplacedCount());
+		}
+		else if (replaceAll.wasCancelled()) {
+			return MessageFormat.format(
+					AbstractSearchDialog.getString("ReplaceAllStopped"),
+					replaceAll.getReplacedCount());
+		}
+		return MessageFormat.format(
+				AbstractSearchDialog.getString("ReplaceAllResult"),
+				replaceAll.getReplacedCount(), replaceAll.getMatchesPerSecond());
+	}
+
+
 	/**
 	 * Formats an error message from a find/replace button enable result for
 	 * use in a tool tip.  This assumes the error (if any) came from a
@@ -43,4 +344,53 @@ final class SearchUtil {
 	}
 
 
+	/**
+	 * Returns whether the result of a search event means that the
+	 * operation failed or found nothing.  "Mark all" operations finding
+	 * nothing aren't considered failures.
+	 *
+	 * @param e The event.
+	 * @param result The result, or {@code null} if the operation failed.
+	 * @return Whether the operation failed or found nothing.
+	 */
+	static boolean isFailure(SearchEvent e, SearchResult result) {
+		return result==null ||
+				(e.getType()!=SearchEvent.Type.MARK_ALL && !result.wasFound());
+	}
+
+
+	/**
+	 * Returns whether text matches the text being searched for in its
+	 * entirety.  This is used to decide whether "Replace" buttons should be
+	 * enabled.
+	 *
+	 * @param text The text to check, typically the selected text.
+	 * @param searchFor The text being searched for.
+	 * @param matchCase Whether the search is case-sensitive.
+	 * @param regex Whether {@code searchFor} is a regular expression.
+	 * @return Whether the text matches.
+	 */
+	static boolean matchesSearchFor(String text, String searchFor,
+			boolean matchCase, boolean regex) {
+		if (text==null || text.isEmpty() ||
+				searchFor==null || searchFor.isEmpty()) {
+			return false;
+		}
+		if (regex) {
+			Pattern pattern;
+			try {
+				pattern = SearchMatcher.getPattern(searchFor, true, matchCase);
+			} catch (PatternSyntaxException pse) {
+				pse.printStackTrace(); // Never happens
+				return false;
+			}
+			return pattern.matcher(text).matches();
+		}
+		if (matchCase) {
+			return searchFor.equals(text);
+		}
+		return searchFor.equalsIgnoreCase(text);
+	}
+
+
 }
@@ -0,0 +1,257 @@
+/*
+ * 10/18/2026
+ *
+ * ToolBarSearch - Performs or dispatches the searches of a FindToolBar.
+ *
+ * This library is distributed under a modified BSD license.  See the included
+ * RSTAUI.license.txt file for details.
+ */
+package org.fife.rsta.ui.search;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.JLabel;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Performs the searches of a {@link FindToolBar}, or fires them to its
+ * listeners, and displays their results in the toolbar's informational
+ * label.<p>
+ *
+ * If the toolbar was given a text area, some searches are done in it
+ * directly, rather than by firing events: "mark all" on a worker thread,
+ * counting matches, and "Find" and "Replace" if a {@link FindInTextArea} is
+ * attached.
+ * The text area's content is copied once per edit and shared by all of
+ * these, and by any {@link IncrementalFind} or {@link OccurrenceActions}
+ * attached to the toolbar.  Other events are fired through a
+ * {@link PendingSearch}, so the results of {@link AsyncSearchListener}s
+ * are tracked.<p>
+ *
+ * Changes to the toolbar's search context are forwarded to this object,
+ * which notifies its listeners of them, so attached features don't need to
+ * track the toolbar's search context being replaced.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FindToolBar#setTextArea(RTextArea)
+ */
+final class ToolBarSearch implements PropertyChangeListener {
+
+	private final JLabel infoLabel;
+	private final MatchCounter matchCounter;
+	private final PendingSearch pendingSearch;
+	private final List<PropertyChangeListener> contextListeners;
+	private BackgroundMarkAll markAll;
+	private DocumentSnapshot snapshot;
+	private FindInTextArea findInTextArea;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param toolBar The toolbar whose searches we perform.
+	 */
+	ToolBarSearch(FindToolBar toolBar) {
+		infoLabel = new JLabel();
+		matchCounter = new MatchCounter(toolBar, this);
+		pendingSearch = new PendingSearch(new PendingSearchStatus(toolBar, this));
+		contextListeners = new CopyOnWriteArrayList<>();
+	}
+
+
+	/**
+	 * Adds a listener notified when a property of the toolbar's search
+	 * context changes.
+	 *
+	 * @param l The listener to add.
+	 * @see #removePropertyChangeListener(PropertyChangeListener)
+	 */
+	void addPropertyChangeListener(PropertyChangeListener l) {
+		contextListeners.add(l);
+	}
+
+
+	/**
+	 * Cancels the "mark all" search in progress, if any, since the text
+	 * being searched for has changed.
+	 */
+	void cancelMarkAll() {
+		if (markAll != null) {
+			markAll.cancel();
+		}
+	}
+
+
+	/**
+	 * Cancels the pending results of the last search event, if any, since
+	 * the user changed the search.
+	 */
+	void cancelPendingSearch() {
+		pendingSearch.cancel();
+	}
+
+
+	/**
+	 * Fires a search event to the toolbar's listeners.  {@code FIND} and
+	 * {@code REPLACE} events are handled in the text area instead, if a
+	 * {@link FindInTextArea} is attached to the toolbar.
+	 *
+	 * @param e The event.
+	 * @param listeners The toolbar's listeners.
+	 */
+	void fire(SearchEvent e, SearchListener[] listeners) {
+		if (findInTextArea == null || !findInTextArea.handle(e)) {
+			pendingSearch.fire(e, listeners);
+		}
+	}
+
+
+	/**
+	 * Returns the "mark all" engine for the text area.
+	 *
+	 * @return The engine, or {@code null} if there is no text area.
+	 */
+	BackgroundMarkAll getBackgroundMarkAll() {
+		return markAll;
+	}
+
+
+	FindInTextArea getFindInTextArea() {
+		return findInTextArea;
+	}
+
+
+	/**
+	 * Returns the label displaying the results of searches.
+	 *
+	 * @return The label.
+	 * @see #setInfoText(String)
+	 */
+	JLabel getInfoLabel() {
+		return infoLabel;
+	}
+
+
+	String getInfoText() {
+		return infoLabel.getText();
+	}
+
+
+	MatchCounter getMatchCounter() {
+		return matchCounter;
+	}
+
+
+	/**
+	 * Returns the copy of the text area's content shared by the background
+	 * operations on it.
+	 *
+	 * @return The snapshot, or {@code null} if there is no text area.
+	 */
+	DocumentSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+
+	RTextArea getTextArea() {
+		return markAll == null ? null : markAll.getTextArea();
+	}
+
+
+	/**
+	 * Returns whether the results of an {@link AsyncSearchListener} are
+	 * pending.
+	 *
+	 * @return Whether results are pending.
+	 */
+	boolean isSearchPending() {
+		return pendingSearch.isPending();
+	}
+
+
+	/**
+	 * Marks all occurrences in the background, if there is a text area.
+	 *
+	 * @param context The search context.
+	 * @return Whether the search was started.  If this is {@code false}, a
+	 *         {@code MARK_ALL} event should be fired as usual.
+	 */
+	boolean markAll(SearchContext context) {
+		if (markAll == null) {
+			return false;
+		}
+		markAll.markAll(context);
+		return true;
+	}
+
+
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+		matchCounter.searchContextChanged();
+		for (PropertyChangeListener l : contextListeners) {
+			l.propertyChange(e);
+		}
+	}
+
+
+	void removePropertyChangeListener(PropertyChangeListener l) {
+		contextListeners.remove(l);
+	}
+
+
+	/**
+	 * Sets the object performing "Find" and "Replace" operations in the
+	 * text area.
+	 *
+	 * @param findInTextArea The object, or {@code null} to fire
+	 *        {@code FIND} and {@code REPLACE} events as usual.
+	 * @see #fire(SearchEvent, SearchListener[])
+	 */
+	void setFindInTextArea(FindInTextArea findInTextArea) {
+		this.findInTextArea = findInTextArea;
+	}
+
+
+	/**
+	 * Displays the result of a search, or clears it.
+	 *
+	 * @param text The text to display.  This may be {@code null}.
+	 * @see #getInfoText()
+	 */
+	void setInfoText(String text) {
+		infoLabel.setText(text);
+	}
+
+
+	/**
+	 * Sets the text area to search in.  Pending results of searches in the
+	 * previous one are ignored.
+	 *
+	 * @param textArea The text area.  This may be {@code null}.
+	 */
+	void setTextArea(RTextArea textArea) {
+		pendingSearch.cancel();
+		if (markAll != null) {
+			markAll.uninstall();
+			markAll = null;
+		}
+		if (snapshot != null) {
+			snapshot.uninstall();
+			snapshot = null;
+		}
+		if (textArea != null) {
+			snapshot = new DocumentSnapshot(textArea);
+			markAll = new BackgroundMarkAll(textArea, snapshot);
+		}
+		matchCounter.setSnapshot(snapshot, markAll);
+		matchCounter.scheduleUpdate();
+	}
+
+
+}
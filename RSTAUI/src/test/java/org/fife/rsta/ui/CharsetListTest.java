@@ -0,0 +1,90 @@
+package org.fife.rsta.ui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CharsetList}.
+ */
+class CharsetListTest {
+
+	@Test
+	void testGet_shared() {
+		assertSame(CharsetList.get(), CharsetList.get());
+	}
+
+	@Test
+	void testGetNames() {
+		List<String> names = CharsetList.get().getNames();
+		assertEquals(new ArrayList<>(Charset.availableCharsets().keySet()), names);
+		assertThrows(UnsupportedOperationException.class, () -> names.add("foo"));
+	}
+
+	@Test
+	void testIndexOf_canonicalName() {
+		CharsetList list = CharsetList.get();
+		int index = list.indexOf(StandardCharsets.UTF_8.name());
+		assertEquals(StandardCharsets.UTF_8.name(), list.getNames().get(index));
+	}
+
+	@Test
+	void testIndexOf_aliasIgnoringCase() {
+		CharsetList list = CharsetList.get();
+		assertEquals(list.indexOf("UTF-8"), list.indexOf("utf8"));
+		assertEquals(list.indexOf("ISO-8859-1"), list.indexOf("LATIN1"));
+	}
+
+	@Test
+	void testIndexOf_unknown() {
+		assertEquals(-1, CharsetList.get().indexOf("no-such-charset"));
+		assertEquals(-1, CharsetList.get().indexOf(null));
+	}
+
+	@Test
+	void testCreateComboBoxModel() {
+		ComboBoxModel<String> model = CharsetList.get().createComboBoxModel();
+		assertEquals(CharsetList.get().getNames().size(), model.getSize());
+		assertNull(model.getSelectedItem());
+		assertNotSame(model, CharsetList.get().createComboBoxModel());
+	}
+
+	@Test
+	void testCreateComboBoxModel_setSelectedItem() {
+		ComboBoxModel<String> model = CharsetList.get().createComboBoxModel();
+		List<ListDataEvent> events = new ArrayList<>();
+		model.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				events.add(e);
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				events.add(e);
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				events.add(e);
+			}
+		});
+		model.setSelectedItem("UTF-8");
+		model.setSelectedItem("UTF-8");
+		assertEquals("UTF-8", model.getSelectedItem());
+		assertEquals(1, events.size());
+	}
+
+	@Test
+	void testPreload() {
+		assertDoesNotThrow(CharsetList::preload);
+	}
+}
@@ -0,0 +1,129 @@
+package org.fife.rsta.ui;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DocumentStatistics}.
+ */
+@ExtendWith(SwingRunnerExtension.class)
+class DocumentStatisticsTest {
+
+	private TextEditorPane textArea;
+	private DocumentStatistics stats;
+
+	@BeforeEach
+	void setUp() {
+		textArea = new TextEditorPane();
+		textArea.setText("The quick brown fox\njumped over\n\nthe lazy dogs.");
+		stats = DocumentStatistics.install(textArea);
+	}
+
+	@AfterEach
+	void tearDown() {
+		stats.uninstall();
+	}
+
+	private void assertMatchesFullCount() {
+		TextStatistics expected = TextStatistics.compute(textArea.getDocument());
+		assertEquals(expected.toString(), stats.getStatistics().toString());
+	}
+
+	@Test
+	void testInstall() {
+		assertSame(stats, DocumentStatistics.get(textArea));
+		assertSame(stats, DocumentStatistics.install(textArea));
+		assertSame(textArea, stats.getTextArea());
+		TextStatistics s = stats.getStatistics();
+		assertEquals(9, s.getWordCount());
+		assertEquals(4, s.getLineCount());
+		assertEquals(19, s.getLongestLineLength());
+		assertMatchesFullCount();
+	}
+
+	@Test
+	void testUninstall() {
+		stats.uninstall();
+		assertNull(DocumentStatistics.get(textArea));
+		stats = DocumentStatistics.install(textArea);
+	}
+
+	@Test
+	void testEdits_withinLine() throws BadLocationException {
+		Document doc = textArea.getDocument();
+		doc.insertString(4, "very ", null);
+		assertEquals(10, stats.getStatistics().getWordCount());
+		doc.remove(0, 4);
+		assertMatchesFullCount();
+	}
+
+	@Test
+	void testEdits_addAndRemoveLines() throws BadLocationException {
+		Document doc = textArea.getDocument();
+		doc.insertString(doc.getLength(), "\nmore\nlines here", null);
+		assertEquals(6, stats.getStatistics().getLineCount());
+		assertMatchesFullCount();
+		doc.remove(5, 20); // Joins lines
+		assertMatchesFullCount();
+	}
+
+	@Test
+	void testEdits_longestLineRemoved() throws BadLocationException {
+		Document doc = textArea.getDocument();
+		doc.remove(0, 20); // The longest line, "The quick brown fox"
+		assertEquals(14, stats.getStatistics().getLongestLineLength());
+		assertMatchesFullCount();
+	}
+
+	@Test
+	void testEdits_random() throws BadLocationException {
+		Random random = new Random(42);
+		String[] inserts = { "a", "word ", "\n", "don't", " 3.14\n", "x\ny\nz", "  ", "1,000" };
+		Document doc = textArea.getDocument();
+		for (int i = 0; i < 500; i++) {
+			int length = doc.getLength();
+			if (length > 0 && random.nextInt(3) == 0) {
+				int offs = random.nextInt(length);
+				doc.remove(offs, Math.min(length - offs, 1 + random.nextInt(10)));
+			}
+			else {
+				String text = inserts[random.nextInt(inserts.length)];
+				doc.insertString(random.nextInt(length + 1), text, null);
+			}
+			assertMatchesFullCount();
+		}
+	}
+
+	@Test
+	void testDocumentReplaced() {
+		textArea.setDocument(new RSyntaxDocument(null));
+		assertEquals(0, stats.getStatistics().getWordCount());
+		textArea.setText("one two three");
+		assertEquals(3, stats.getStatistics().getWordCount());
+	}
+
+	@Test
+	void testChangeListener() throws BadLocationException {
+		AtomicInteger count = new AtomicInteger();
+		stats.addChangeListener(e -> count.incrementAndGet());
+		textArea.getDocument().insertString(0, "foo ", null);
+		assertEquals(1, count.get());
+		assertEquals(10, stats.getStatistics().getWordCount());
+	}
+
+	@Test
+	void testGetStatistics_cached() {
+		assertSame(stats.getStatistics(), stats.getStatistics());
+	}
+}
@@ -0,0 +1,154 @@
+package org.fife.rsta.ui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EncodingProbe}.
+ */
+class EncodingProbeTest {
+
+	private static final String TEXT = "Caf" + (char)0xe9 + " cr" + (char)0xe8 + "me br" +
+		(char)0xfb + "l" + (char)0xe9 + "e\r\nna" + (char)0xef + "ve\n";
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.createTempFile("encodingProbe", ".txt");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	void testProbe_utf8() throws IOException {
+		Files.write(file, TEXT.getBytes(StandardCharsets.UTF_8));
+		List<Charset> candidates = Arrays.asList(StandardCharsets.US_ASCII,
+			StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1);
+		EncodingProbe probe = EncodingProbe.probe(file, candidates);
+
+		assertFalse(probe.isSampled());
+		EncodingProbe.Result best = probe.getResults().get(0);
+		assertEquals(StandardCharsets.UTF_8, best.getCharset());
+		assertEquals(0, best.getMalformedCount());
+		assertEquals(TEXT, best.getPreview());
+
+		EncodingProbe.Result ascii = probe.getResult(StandardCharsets.US_ASCII);
+		assertEquals(10, ascii.getMalformedCount()); // 5 two-byte chars
+		assertEquals(StandardCharsets.US_ASCII, probe.getResults().get(2).getCharset());
+
+		// Every byte sequence is valid ISO-8859-1, so it ties with UTF-8
+		assertEquals(0, probe.getResult(StandardCharsets.ISO_8859_1).getMalformedCount());
+	}
+
+	@Test
+	void testProbe_latin1() throws IOException {
+		Files.write(file, TEXT.getBytes(StandardCharsets.ISO_8859_1));
+		EncodingProbe probe = EncodingProbe.probe(file,
+			Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1));
+
+		assertEquals(StandardCharsets.ISO_8859_1, probe.getResults().get(0).getCharset());
+		EncodingProbe.Result utf8 = probe.getResult(StandardCharsets.UTF_8);
+		assertEquals(5, utf8.getMalformedCount());
+		assertTrue(utf8.getPreview().indexOf((char)0xfffd) > -1);
+	}
+
+	@Test
+	void testProbe_utf16WithoutBom_rankedBySuspiciousChars() throws IOException {
+		Files.write(file, "Hello world\n".getBytes(StandardCharsets.UTF_16LE));
+		EncodingProbe probe = EncodingProbe.probe(file,
+			Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.UTF_16LE));
+
+		EncodingProbe.Result best = probe.getResults().get(0);
+		assertEquals(StandardCharsets.UTF_16LE, best.getCharset());
+		assertEquals("Hello world\n", best.getPreview());
+		EncodingProbe.Result utf8 = probe.getResult(StandardCharsets.UTF_8);
+		assertEquals(0, utf8.getMalformedCount()); // NULs are valid UTF-8
+		assertEquals(12, utf8.getSuspiciousCount());
+	}
+
+	@Test
+	void testProbe_tiesKeepCandidateOrder() throws IOException {
+		Files.write(file, "plain ASCII".getBytes(StandardCharsets.US_ASCII));
+		List<Charset> candidates = Arrays.asList(StandardCharsets.ISO_8859_1,
+			StandardCharsets.UTF_8, StandardCharsets.US_ASCII);
+		EncodingProbe probe = EncodingProbe.probe(file, candidates);
+
+		for (int i = 0; i < candidates.size(); i++) {
+			assertEquals(candidates.get(i), probe.getResults().get(i).getCharset());
+		}
+	}
+
+	@Test
+	void testProbe_emptyFile() throws IOException {
+		EncodingProbe probe = EncodingProbe.probe(file,
+			Arrays.asList(StandardCharsets.UTF_8));
+		EncodingProbe.Result result = probe.getResults().get(0);
+		assertEquals(0, result.getMalformedCount());
+		assertEquals("", result.getPreview());
+	}
+
+	@Test
+	void testProbe_largeFileIsSampled() throws IOException {
+
+		// Multibyte characters cut by sample boundaries aren't errors
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < 100000) {
+			sb.append(TEXT);
+		}
+		Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+		EncodingProbe probe = EncodingProbe.probe(file,
+			Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.US_ASCII), 4, 1001);
+
+		assertTrue(probe.isSampled());
+		assertEquals(StandardCharsets.UTF_8, probe.getResults().get(0).getCharset());
+		assertEquals(0, probe.getResults().get(0).getMalformedCount());
+		assertTrue(probe.getResult(StandardCharsets.US_ASCII).getMalformedCount() > 0);
+		assertTrue(probe.getResult(StandardCharsets.UTF_8).getPreview().startsWith(TEXT));
+	}
+
+	@Test
+	void testProbe_interrupted() throws IOException {
+		Files.write(file, TEXT.getBytes(StandardCharsets.UTF_8));
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(CancellationException.class, () -> EncodingProbe.probe(file,
+				Arrays.asList(StandardCharsets.UTF_8)));
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	void testGetResult_notTried() throws IOException {
+		EncodingProbe probe = EncodingProbe.probe(file,
+			Arrays.asList(StandardCharsets.UTF_8));
+		assertNull(probe.getResult(StandardCharsets.UTF_16));
+	}
+
+	@Test
+	void testGetDefaultCandidates() {
+		List<Charset> candidates = EncodingProbe.getDefaultCandidates(
+			"utf-16be", null, "no-such-charset", "UTF-8");
+		assertEquals(StandardCharsets.UTF_8, candidates.get(0));
+		assertEquals(StandardCharsets.UTF_16BE, candidates.get(1));
+		assertTrue(candidates.contains(StandardCharsets.ISO_8859_1));
+		assertEquals(candidates.size(), candidates.stream().distinct().count());
+	}
+}
@@ -1,5 +1,6 @@
 package org.fife.rsta.ui;
 
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +9,7 @@ import org.mockito.Mockito;
 
 import javax.swing.*;
 import java.awt.*;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,6 +87,39 @@ public class GoToDialogTest {
 		Assertions.assertEquals("title", dialog.getErrorDialogTitle());
 	}
 
+	@Test
+	void testResolveTarget() throws Exception {
+		RSyntaxTextArea textArea = new RSyntaxTextArea("first\nsecond line\n\nlast");
+		LineStartIndex index = new LineStartIndex(textArea.getDocument(),
+			StandardCharsets.UTF_8, "\n");
+
+		assertEquals(6, GoToDialog.resolveTarget("2", index));
+		assertEquals(9, GoToDialog.resolveTarget(" 2:4 ", index));
+		assertEquals(17, GoToDialog.resolveTarget("2:12", index)); // End of line
+		assertEquals(7, GoToDialog.resolveTarget("@7", index));
+		assertEquals(7, GoToDialog.resolveTarget("#7", index));
+		assertEquals(0, GoToDialog.resolveTarget("0%", index));
+		assertEquals(6, GoToDialog.resolveTarget("50%", index));
+		assertEquals(19, GoToDialog.resolveTarget("100%", index));
+
+		String[] invalid = { "", "0", "5", "2:0", "2:13", "@24", "#99", "101%", "1:2:3", "@", "%" };
+		for (String text : invalid) {
+			assertEquals(-1, GoToDialog.resolveTarget(text, index), text);
+		}
+	}
+
+	@Test
+	void testSetTextArea_okButton() {
+		RSyntaxTextArea textArea = new RSyntaxTextArea("one\ntwo\nthree");
+		GoToDialog dialog = new GoToDialog((Frame) null);
+		dialog.setTextArea(textArea);
+		assertEquals(3, dialog.getMaxLineNumberAllowed());
+		dialog.setLineNumber(3);
+		dialog.clickOkButton();
+		assertEquals(3, dialog.getLineNumber());
+		assertEquals(8, dialog.getOffset());
+	}
+
 	@Test
 	void testSetVisible_false() {
 		GoToDialog dialog = new GoToDialog((Frame) null);
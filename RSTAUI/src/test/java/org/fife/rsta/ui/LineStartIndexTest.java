@@ -0,0 +1,86 @@
+package org.fife.rsta.ui;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LineStartIndex}.
+ */
+class LineStartIndexTest {
+
+	// The e-acute is 2 bytes in UTF-8
+	private static final String TEXT = "line one\ncaf" + (char)0xe9 + "\n\nlast";
+
+	private static LineStartIndex createIndex(String text, Charset charset,
+			String lineSeparator) throws BadLocationException {
+		Document doc = new RSyntaxDocument(null);
+		doc.insertString(0, text, null);
+		return new LineStartIndex(doc, charset, lineSeparator);
+	}
+
+	@Test
+	void testLines() throws BadLocationException {
+		LineStartIndex index = createIndex(TEXT, StandardCharsets.UTF_8, "\n");
+		assertEquals(4, index.getLineCount());
+		assertEquals(TEXT.length(), index.getLength());
+		assertEquals(0, index.getLineStartOffset(0));
+		assertEquals(9, index.getLineStartOffset(1));
+		assertEquals(14, index.getLineStartOffset(2));
+		assertEquals(15, index.getLineStartOffset(3));
+		assertEquals(8, index.getLineLength(0));
+		assertEquals(0, index.getLineLength(2));
+		assertEquals(4, index.getLineLength(3));
+	}
+
+	@Test
+	void testGetLineOfOffset() throws BadLocationException {
+		LineStartIndex index = createIndex(TEXT, StandardCharsets.UTF_8, "\n");
+		assertEquals(0, index.getLineOfOffset(0));
+		assertEquals(0, index.getLineOfOffset(8)); // The '\n'
+		assertEquals(1, index.getLineOfOffset(9));
+		assertEquals(2, index.getLineOfOffset(14));
+		assertEquals(3, index.getLineOfOffset(TEXT.length()));
+		assertEquals(3, index.getLineOfOffset(1000));
+		assertEquals(0, index.getLineOfOffset(-5));
+	}
+
+	@Test
+	void testGetOffsetOfByte_utf8() throws BadLocationException {
+		LineStartIndex index = createIndex(TEXT, StandardCharsets.UTF_8, "\n");
+		assertEquals(TEXT.length() + 1, index.getByteLength());
+		assertEquals(0, index.getOffsetOfByte(0));
+		assertEquals(9, index.getOffsetOfByte(9));
+		assertEquals(12, index.getOffsetOfByte(12)); // First byte of the e-acute
+		assertEquals(12, index.getOffsetOfByte(13)); // Second byte
+		assertEquals(13, index.getOffsetOfByte(14)); // The '\n'
+		assertEquals(15, index.getOffsetOfByte(16));
+		assertEquals(TEXT.length(), index.getOffsetOfByte(index.getByteLength()));
+		assertEquals(-1, index.getOffsetOfByte(index.getByteLength() + 1));
+	}
+
+	@Test
+	void testGetOffsetOfByte_crlf() throws BadLocationException {
+		LineStartIndex index = createIndex(TEXT, StandardCharsets.UTF_8, "\r\n");
+		assertEquals(TEXT.length() + 1 + 3, index.getByteLength());
+		assertEquals(8, index.getOffsetOfByte(9)); // The "\n" of the "\r\n"
+		assertEquals(9, index.getOffsetOfByte(10));
+		assertEquals(15, index.getOffsetOfByte(19));
+	}
+
+	@Test
+	void testGetOffsetOfByte_utf16WithByteOrderMark() throws BadLocationException {
+		LineStartIndex index = createIndex(TEXT, StandardCharsets.UTF_16, "\n");
+		assertEquals(2 + 2 * TEXT.length(), index.getByteLength());
+		assertEquals(0, index.getOffsetOfByte(1)); // In the BOM
+		assertEquals(0, index.getOffsetOfByte(2));
+		assertEquals(1, index.getOffsetOfByte(4));
+		assertEquals(9, index.getOffsetOfByte(20));
+	}
+}
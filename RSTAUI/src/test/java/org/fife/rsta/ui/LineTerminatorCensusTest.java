@@ -0,0 +1,105 @@
+package org.fife.rsta.ui;
+
+import org.fife.rsta.ui.search.ChunkedReplaceAll;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LineTerminatorCensus}.
+ */
+class LineTerminatorCensusTest {
+
+	private static final String MIXED = "one\r\ntwo\nthree\rfour\r\n\r\rfive";
+
+	@Test
+	void testCompute_charSequence() {
+		LineTerminatorCensus census = LineTerminatorCensus.compute(MIXED);
+		assertEquals(2, census.getCRLFCount());
+		assertEquals(1, census.getLFCount());
+		assertEquals(3, census.getCRCount());
+		assertEquals(6, census.getTotalCount());
+		assertTrue(census.isMixed());
+	}
+
+	@Test
+	void testCompute_trailingCR() {
+		LineTerminatorCensus census = LineTerminatorCensus.compute("a\rb\r");
+		assertEquals(2, census.getCRCount());
+		assertFalse(census.isMixed());
+	}
+
+	@Test
+	void testCompute_noTerminators() {
+		LineTerminatorCensus census = LineTerminatorCensus.compute("no newlines");
+		assertEquals(0, census.getTotalCount());
+		assertFalse(census.isMixed());
+	}
+
+	@Test
+	void testCompute_document() {
+		RSyntaxTextArea textArea = new RSyntaxTextArea();
+		textArea.setText(MIXED);
+		assertEquals(LineTerminatorCensus.compute(MIXED).toString(),
+			LineTerminatorCensus.compute(textArea.getDocument()).toString());
+	}
+
+	@Test
+	void testCompute_reader_crlfSplitBetweenReads() throws IOException {
+		Reader r = new FilterReader(new StringReader(MIXED)) {
+			@Override
+			public int read(char[] buf, int off, int len) throws IOException {
+				return super.read(buf, off, Math.min(len, 4)); // "one\r" then "\ntwo"
+			}
+		};
+		assertEquals(LineTerminatorCensus.compute(MIXED).toString(),
+			LineTerminatorCensus.compute(r).toString());
+	}
+
+	@Test
+	void testNormalize() throws Exception {
+
+		RSyntaxTextArea textArea = new RSyntaxTextArea(MIXED);
+		AtomicInteger maxLength = new AtomicInteger();
+		textArea.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				maxLength.accumulateAndGet(e.getLength(), Math::max);
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				maxLength.accumulateAndGet(e.getLength(), Math::max);
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+			}
+		});
+
+		AtomicReference<ChunkedReplaceAll> normalize = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> {
+			normalize.set(LineTerminatorCensus.normalize(textArea));
+			assertTrue(normalize.get().isRunning());
+		});
+		TestUtil.waitUntil(() -> !normalize.get().isRunning());
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(5, normalize.get().getReplacedCount());
+			assertEquals("one\ntwo\nthree\nfour\n\n\nfive", textArea.getText());
+			assertEquals(2, maxLength.get()); // Only the terminators were edited
+			assertTrue(textArea.isEditable());
+		});
+	}
+}
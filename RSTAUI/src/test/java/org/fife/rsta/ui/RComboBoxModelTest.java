@@ -2,6 +2,11 @@ package org.fife.rsta.ui;
 
 import org.junit.jupiter.api.Test;
 
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Vector;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -140,4 +145,107 @@ public class RComboBoxModelTest {
 		model.setMaxNumElements(-1);
 		assertEquals(4, model.getMaxNumElements());
 	}
+
+	@Test
+	public void testAddElement_full_dropsLastWithOneEvent() {
+		RComboBoxModel<String> model = new RComboBoxModel<>(new String[] { "1", "2", "3" }, 3);
+		List<ListDataEvent> events = recordEvents(model);
+		model.addElement("4");
+		assertEquals(Arrays.asList("4", "1", "2"), toList(model));
+		assertEquals(1, events.size());
+		assertEquals(ListDataEvent.CONTENTS_CHANGED, events.get(0).getType());
+		assertEquals(0, events.get(0).getIndex0());
+		assertEquals(2, events.get(0).getIndex1());
+		assertEquals(-1, model.getIndexOf("3"));
+	}
+
+	@Test
+	public void testAddElement_existing_movesToTopWithOneEvent() {
+		RComboBoxModel<String> model = new RComboBoxModel<>(new String[] { "1", "2", "3", "4" }, 10);
+		List<ListDataEvent> events = recordEvents(model);
+		model.addElement("3");
+		assertEquals(Arrays.asList("3", "1", "2", "4"), toList(model));
+		assertEquals(1, events.size());
+		assertEquals(ListDataEvent.CONTENTS_CHANGED, events.get(0).getType());
+		assertEquals(0, events.get(0).getIndex0());
+		assertEquals(2, events.get(0).getIndex1());
+		for (int i = 0; i < model.getSize(); i++) {
+			assertEquals(i, model.getIndexOf(model.getElementAt(i)));
+		}
+	}
+
+	@Test
+	public void testManyElements_indexStaysConsistent() {
+		RComboBoxModel<Integer> model = new RComboBoxModel<>();
+		model.setMaxNumElements(100);
+		for (int i = 0; i < 1000; i++) {
+			model.addElement(i % 150);
+			if (i % 7 == 0) {
+				model.removeElementAt(model.getSize() / 2);
+			}
+			if (i % 11 == 0) {
+				model.insertElementAt(i % 13, model.getSize() / 3);
+			}
+		}
+		assertTrue(model.getSize() <= 100);
+		for (int i = 0; i < model.getSize(); i++) {
+			assertEquals(i, model.getIndexOf(model.getElementAt(i)));
+		}
+		assertNull(model.getElementAt(model.getSize()));
+	}
+
+	@Test
+	public void testRemoveElementAt_selectionMoves() {
+		RComboBoxModel<String> model = new RComboBoxModel<>(new String[] { "1", "2", "3" });
+		assertEquals("1", model.getSelectedItem());
+		model.removeElementAt(0);
+		assertEquals("2", model.getSelectedItem());
+		assertEquals(Arrays.asList("2", "3"), toList(model));
+		model.removeElement("3");
+		assertEquals(Arrays.asList("2"), toList(model));
+		model.removeAllElements();
+		assertEquals(0, model.getSize());
+		assertNull(model.getSelectedItem());
+	}
+
+	@Test
+	public void testSetMaxNumElements_trimsWithOneEvent() {
+		RComboBoxModel<String> model = new RComboBoxModel<>(new String[] { "1", "2", "3", "4" });
+		List<ListDataEvent> events = recordEvents(model);
+		model.setMaxNumElements(2);
+		assertEquals(Arrays.asList("1", "2"), toList(model));
+		assertEquals(1, events.size());
+		assertEquals(ListDataEvent.INTERVAL_REMOVED, events.get(0).getType());
+		assertEquals(2, events.get(0).getIndex0());
+		assertEquals(3, events.get(0).getIndex1());
+	}
+
+	private static List<ListDataEvent> recordEvents(RComboBoxModel<?> model) {
+		List<ListDataEvent> events = new ArrayList<>();
+		model.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				events.add(e);
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				events.add(e);
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				events.add(e);
+			}
+		});
+		return events;
+	}
+
+	private static <E> List<E> toList(RComboBoxModel<E> model) {
+		List<E> list = new ArrayList<>();
+		for (int i = 0; i < model.getSize(); i++) {
+			list.add(model.getElementAt(i));
+		}
+		return list;
+	}
 }
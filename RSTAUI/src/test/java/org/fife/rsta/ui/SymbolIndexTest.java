@@ -0,0 +1,125 @@
+package org.fife.rsta.ui;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.text.Segment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SymbolIndex}.  These don't run on the EDT, since the
+ * index is built by a {@code SwingWorker} that reports back on it.
+ */
+class SymbolIndexTest {
+
+	private static final String CODE = "public class SymbolIndex {\n" +
+		"\tprivate int symbolCount;\n" +
+		"\tpublic int getSymbolCount() {\n" +
+		"\t\treturn foo(symbolCount);\n" +
+		"\t}\n" +
+		"\t/* void commented(int a) {\n" +
+		"\t*/\n" +
+		"\tstatic List<String> getSymbols(int a) { return null; }\n" +
+		"}\n";
+
+	private static List<String> getSymbolNames(String line) {
+		Segment s = new Segment(line.toCharArray(), 0, line.length());
+		return SymbolIndex.tokenize(TokenMakerFactory.getDefaultInstance().getTokenMaker(
+			SyntaxConstants.SYNTAX_STYLE_JAVA), s, 0).getSymbolNames();
+	}
+
+	private static List<String> names(List<SymbolIndex.Symbol> symbols) {
+		List<String> names = new ArrayList<>();
+		for (SymbolIndex.Symbol symbol : symbols) {
+			names.add(symbol.getName());
+		}
+		return names;
+	}
+
+	/**
+	 * Installs an index on a text area and waits for it to be built.
+	 */
+	private static SymbolIndex installAndWait(RSyntaxTextArea textArea) throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicReference<SymbolIndex> index = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> {
+			index.set(SymbolIndex.install(textArea));
+			index.get().addChangeListener(e -> latch.countDown());
+		});
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		return index.get();
+	}
+
+	@Test
+	void testTokenize() {
+		assertEquals(Collections.singletonList("Foo"), getSymbolNames("public class Foo extends Bar {"));
+		assertEquals(Collections.singletonList("main"), getSymbolNames("public static void main(String[] args) {"));
+		assertEquals(Collections.singletonList("getCount"), getSymbolNames("int getCount() {"));
+		assertEquals(Collections.singletonList("getList"), getSymbolNames("List<String> getList() {"));
+		assertEquals(Collections.singletonList("getMap"),
+			getSymbolNames("Map<String, List<Integer>> getMap() {"));
+		assertEquals(Collections.emptyList(), getSymbolNames("if (a > max(b)) {"));
+		assertEquals(Collections.emptyList(), getSymbolNames("if (a < b && c > max(d)) {"));
+		assertEquals(Collections.emptyList(), getSymbolNames("boolean b = x > foo(y);"));
+		assertEquals(Collections.emptyList(), getSymbolNames("return foo(bar);"));
+		assertEquals(Collections.emptyList(), getSymbolNames("x = new Foo(bar);"));
+		assertEquals(Collections.emptyList(), getSymbolNames("// void foo() {"));
+	}
+
+	@Test
+	void testFind() throws Exception {
+
+		RSyntaxTextArea textArea = new RSyntaxTextArea(CODE);
+		textArea.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_JAVA);
+		SymbolIndex index = installAndWait(textArea);
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertTrue(index.isReady());
+			assertEquals(3, index.getSymbolCount());
+			List<SymbolIndex.Symbol> results = index.find("gsc", 10);
+			assertEquals(Collections.singletonList("getSymbolCount"), names(results));
+			assertEquals(2, results.get(0).getLine());
+			assertEquals(CODE.indexOf("getSymbolCount"), results.get(0).getOffset());
+			assertEquals(Arrays.asList("SymbolIndex", "getSymbolCount"), names(index.find("", 2)));
+			assertEquals(Collections.singletonList("getSymbols"), names(index.find("gs", 1)));
+			index.uninstall();
+			assertNull(SymbolIndex.get(textArea));
+		});
+	}
+
+	@Test
+	void testFind_afterEdits() throws Exception {
+
+		RSyntaxTextArea textArea = new RSyntaxTextArea(CODE);
+		textArea.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_JAVA);
+		SymbolIndex index = installAndWait(textArea);
+
+		SwingUtilities.invokeAndWait(() -> {
+
+			// Closing the comment early makes "commented" a symbol
+			int offs = CODE.indexOf("void commented");
+			textArea.insert("*/ ", offs);
+			assertEquals(Collections.singletonList("commented"), names(index.find("commented", 10)));
+			assertEquals(4, index.getSymbolCount());
+
+			// Removing the comment start line re-tokenizes the lines after it
+			textArea.replaceRange("", CODE.indexOf("\t/*"), offs + 3);
+			assertEquals(4, index.getSymbolCount());
+
+			textArea.setText("class Other {}");
+			assertEquals(Collections.singletonList("Other"), names(index.find("o", 10)));
+			index.uninstall();
+		});
+	}
+}
@@ -0,0 +1,30 @@
+package org.fife.rsta.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SymbolMatcher}.
+ */
+class SymbolMatcherTest {
+
+	@Test
+	void testScore() {
+		String query = "gsc";
+		int wordStarts = SymbolMatcher.score(query, "getSymbolCount");
+		int scattered = SymbolMatcher.score(query, "gasCan");
+		assertTrue(wordStarts > scattered);
+		assertTrue(SymbolMatcher.score("foo", "foo") > SymbolMatcher.score("foo", "fooBar"));
+		assertTrue(SymbolMatcher.score("foo", "fooBar") > SymbolMatcher.score("foo", "xFooBar"));
+		assertEquals(SymbolMatcher.NO_MATCH, SymbolMatcher.score("abc", "cab"));
+		assertEquals(SymbolMatcher.NO_MATCH, SymbolMatcher.score("abcd", "abc"));
+	}
+
+	@Test
+	void testCharMask() {
+		long mask = SymbolMatcher.charMask("fooBar");
+		assertEquals(mask, mask | SymbolMatcher.charMask("FB"));
+		assertNotEquals(mask, mask | SymbolMatcher.charMask("z"));
+	}
+}
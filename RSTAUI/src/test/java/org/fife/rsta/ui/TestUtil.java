@@ -1,7 +1,12 @@
 package org.fife.rsta.ui;
 
+import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Utility methods for testing.
@@ -25,4 +30,24 @@ public final class TestUtil {
 		g.setClip(0, 0, width, height);
 		return g;
 	}
+
+
+	/**
+	 * Waits for a condition to become true.  This should be called off the
+	 * EDT; the condition is checked on the EDT, so it can safely query Swing
+	 * components and objects that are only updated on the EDT.  Fails if the
+	 * condition is still false after 10 seconds.
+	 *
+	 * @param condition The condition to wait for.
+	 */
+	public static void waitUntil(BooleanSupplier condition) throws Exception {
+		AtomicBoolean done = new AtomicBoolean();
+		long timeout = System.currentTimeMillis() + 10_000;
+		SwingUtilities.invokeAndWait(() -> done.set(condition.getAsBoolean()));
+		while (!done.get() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+			SwingUtilities.invokeAndWait(() -> done.set(condition.getAsBoolean()));
+		}
+		assertTrue(done.get(), "Timed out waiting for condition");
+	}
 }
@@ -0,0 +1,104 @@
+package org.fife.rsta.ui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.PlainDocument;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TextStatistics}.
+ */
+class TextStatisticsTest {
+
+	private static PlainDocument createDocument(String text) throws BadLocationException {
+		PlainDocument doc = new PlainDocument();
+		doc.insertString(0, text, null);
+		return doc;
+	}
+
+	@Test
+	void testCompute_empty() {
+		TextStatistics stats = TextStatistics.compute("");
+		assertEquals(0, stats.getWordCount());
+		assertEquals(1, stats.getLineCount());
+		assertEquals(0, stats.getCharCount());
+		assertEquals(0, stats.getNonWhitespaceCharCount());
+		assertEquals(0, stats.getLongestLineLength());
+	}
+
+	@Test
+	void testCompute_charSequence() {
+		TextStatistics stats = TextStatistics.compute("one two 333 fff%$$#$\nfive six\n");
+		assertEquals(6, stats.getWordCount());
+		assertEquals(3, stats.getLineCount());
+		assertEquals(30, stats.getCharCount());
+		assertEquals(24, stats.getNonWhitespaceCharCount());
+		assertEquals(20, stats.getLongestLineLength());
+	}
+
+	@Test
+	void testCompute_wordJoiners() {
+		assertEquals(1, TextStatistics.compute("don't").getWordCount());
+		assertEquals(1, TextStatistics.compute("3.14").getWordCount());
+		assertEquals(1, TextStatistics.compute("1,000").getWordCount());
+		assertEquals(1, TextStatistics.compute("foo_bar").getWordCount());
+		assertEquals(2, TextStatistics.compute("foo,bar").getWordCount());
+		assertEquals(2, TextStatistics.compute("1,a").getWordCount());
+		assertEquals(2, TextStatistics.compute("end. Start").getWordCount());
+		assertEquals(2, TextStatistics.compute("a..b").getWordCount());
+		assertEquals(1, TextStatistics.compute("'quoted'").getWordCount());
+	}
+
+	@Test
+	void testCompute_lineTerminators() {
+		TextStatistics stats = TextStatistics.compute("a\r\nbb\rccc\ndddd");
+		assertEquals(4, stats.getLineCount());
+		assertEquals(4, stats.getLongestLineLength());
+		assertEquals(10, stats.getNonWhitespaceCharCount());
+	}
+
+	@Test
+	void testCompute_document() throws BadLocationException {
+		String text = "The quick brown fox\njumped over\n\nthe lazy dogs.";
+		TextStatistics stats = TextStatistics.compute(createDocument(text));
+		assertEquals(9, stats.getWordCount());
+		assertEquals(4, stats.getLineCount());
+		assertEquals(text.length(), stats.getCharCount());
+		assertEquals(19, stats.getLongestLineLength());
+	}
+
+	@Test
+	void testCompute_document_smallChunks() throws BadLocationException {
+		// Words, "\r\n" pairs and joiners split across chunk boundaries
+		String text = "don't stop\r\nbelieving 3.14159 and 1,000,000 more\r\n";
+		TextStatistics expected = TextStatistics.compute(text);
+		for (int chunkSize = 1; chunkSize < 8; chunkSize++) {
+			TextStatistics stats = TextStatistics.compute(createDocument(text), chunkSize);
+			assertEquals(expected.toString(), stats.toString());
+		}
+		assertEquals(7, expected.getWordCount());
+		assertEquals(3, expected.getLineCount());
+	}
+
+	@Test
+	void testCompute_document_interrupted() throws BadLocationException {
+		PlainDocument doc = createDocument("foo bar");
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(CancellationException.class, () -> TextStatistics.compute(doc));
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	void testCompute_document_listenerRemoved() throws BadLocationException {
+		PlainDocument doc = createDocument("foo bar");
+		int listenerCount = doc.getDocumentListeners().length;
+		TextStatistics.compute(doc);
+		assertEquals(listenerCount, doc.getDocumentListeners().length);
+	}
+}
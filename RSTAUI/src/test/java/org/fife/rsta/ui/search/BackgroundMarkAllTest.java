@@ -0,0 +1,140 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.SwingRunnerExtension;
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BackgroundMarkAll}.
+ */
+@ExtendWith(SwingRunnerExtension.class)
+class BackgroundMarkAllTest {
+
+	private RTextArea textArea;
+	private BackgroundMarkAll markAll;
+
+	@BeforeEach
+	void setUp() {
+		textArea = new RTextArea("foo bar foo");
+		markAll = new BackgroundMarkAll(textArea);
+	}
+
+	@Test
+	void testGetTextArea() {
+		assertSame(textArea, markAll.getTextArea());
+	}
+
+	@Test
+	void testMarkAll_startsSearch() {
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(true);
+		markAll.markAll(context);
+		assertTrue(markAll.isRunning());
+	}
+
+	@Test
+	void testMarkAll_markAllDisabled() {
+		textArea.markAll(Collections.singletonList(new DocumentRange(0, 3)));
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(false);
+		markAll.markAll(context);
+		assertFalse(markAll.isRunning());
+		assertTrue(textArea.getMarkAllHighlightRanges().isEmpty());
+		assertEquals(0, markAll.getMarkedCount());
+	}
+
+	@Test
+	void testMarkAll_invalidRegex() {
+		textArea.markAll(Collections.singletonList(new DocumentRange(0, 3)));
+		SearchContext context = new SearchContext("[a-");
+		context.setRegularExpression(true);
+		context.setMarkAll(true);
+		markAll.markAll(context);
+		assertFalse(markAll.isRunning());
+		assertTrue(textArea.getMarkAllHighlightRanges().isEmpty());
+	}
+
+	@Test
+	void testUninstall_sharedSnapshot() {
+		DocumentSnapshot snapshot = new DocumentSnapshot(textArea);
+		BackgroundMarkAll shared = new BackgroundMarkAll(textArea, snapshot);
+		shared.uninstall();
+		// The snapshot is still used by others, so it still tracks edits
+		int version = snapshot.getVersion();
+		textArea.append(" foo");
+		assertEquals(version + 1, snapshot.getVersion());
+	}
+
+	@Test
+	void testCancel() {
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(true);
+		markAll.markAll(context);
+		markAll.cancel();
+		assertFalse(markAll.isRunning());
+	}
+
+	@Test
+	void testCancel_notifiesChangeListeners() {
+		int[] count = new int[1];
+		markAll.addChangeListener(e -> count[0]++);
+		markAll.cancel();
+		assertEquals(0, count[0]); // Nothing was running
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(true);
+		markAll.markAll(context);
+		markAll.cancel();
+		assertEquals(1, count[0]);
+	}
+
+	@Test
+	void testGetIndex_beforeMarkAllCompletes() {
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(true);
+		markAll.markAll(context);
+		assertNull(markAll.getIndex(context));
+	}
+
+	@Test
+	void testDocumentEditRestartsSearch() {
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(true);
+		markAll.markAll(context);
+		textArea.append(" foo");
+		// The stale search is discarded and restarted after a delay
+		assertTrue(markAll.isRunning());
+	}
+
+	@Test
+	void testFind_beforeMarkAllCompletes() {
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(true);
+		assertNull(markAll.find(context));
+		markAll.markAll(context);
+		// Still searching, so the caller must search the document itself
+		assertNull(markAll.find(context));
+	}
+
+	@Test
+	void testGetOccurrences_beforeMarkAllCompletes() {
+		SearchContext context = new SearchContext("foo");
+		context.setMarkAll(true);
+		assertNull(markAll.getOccurrences(context));
+		markAll.markAll(context);
+		assertNull(markAll.getOccurrences(context));
+	}
+
+	@Test
+	void testUninstall() {
+		markAll.uninstall();
+		assertFalse(markAll.isRunning());
+	}
+}
@@ -0,0 +1,192 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.TestUtil;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.DocumentFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ChunkedReplaceAll}.  These run off the EDT, since
+ * the operation needs the EDT to make progress.
+ */
+class ChunkedReplaceAllTest {
+
+	@Test
+	void testStart_emptySearchFor() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(new RTextArea("foo"));
+			assertFalse(replaceAll.start(new SearchContext("")));
+			assertFalse(replaceAll.isRunning());
+		});
+	}
+
+	@Test
+	void testStart_invalidRegex() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(new RTextArea("foo"));
+			SearchContext context = new SearchContext("[a-");
+			context.setRegularExpression(true);
+			assertFalse(replaceAll.start(context));
+		});
+	}
+
+	@Test
+	void testStart_literal() throws Exception {
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			sb.append("foo bar\n");
+		}
+		RTextArea textArea = new RTextArea(sb.toString());
+		ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+
+		SwingUtilities.invokeAndWait(() -> {
+			SearchContext context = new SearchContext("foo");
+			context.setReplaceWith("hello");
+			assertTrue(replaceAll.start(context));
+			assertTrue(replaceAll.isRunning());
+			assertFalse(textArea.isEditable());
+		});
+		TestUtil.waitUntil(() -> !replaceAll.isRunning());
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(sb.toString().replace("foo", "hello"), textArea.getText());
+			assertEquals(5000, replaceAll.getReplacedCount());
+			assertEquals(100, replaceAll.getProgress());
+			assertFalse(replaceAll.wasCancelled());
+			assertTrue(textArea.isEditable());
+		});
+	}
+
+	@Test
+	void testStart_replaceFails() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo foo foo");
+		((AbstractDocument)textArea.getDocument()).setDocumentFilter(new DocumentFilter() {
+			@Override
+			public void replace(FilterBypass fb, int offset, int length, String text,
+					AttributeSet attrs) {
+				throw new IllegalStateException("Read-only document");
+			}
+		});
+		ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+
+		SwingUtilities.invokeAndWait(() -> {
+			SearchContext context = new SearchContext("foo");
+			context.setReplaceWith("bar");
+			assertTrue(replaceAll.start(context));
+		});
+		TestUtil.waitUntil(() -> !replaceAll.isRunning());
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertTrue(replaceAll.wasCancelled());
+			assertTrue(textArea.isEditable());
+			assertEquals("foo foo foo", textArea.getText());
+		});
+	}
+
+	@Test
+	void testStart_regex() throws Exception {
+
+		RTextArea textArea = new RTextArea("a=1, b=2, c=3");
+		ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+
+		SwingUtilities.invokeAndWait(() -> {
+			SearchContext context = new SearchContext("(\\w)=(\\d)");
+			context.setRegularExpression(true);
+			context.setReplaceWith("$2=$1");
+			assertTrue(replaceAll.start(context));
+		});
+		TestUtil.waitUntil(() -> !replaceAll.isRunning());
+
+		SwingUtilities.invokeAndWait(() ->
+			assertEquals("1=a, 2=b, 3=c", textArea.getText()));
+	}
+
+	@Test
+	void testStart_matchTimesOut() throws Exception {
+
+		RTextArea textArea = new RTextArea("xx aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+		ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+
+		SwingUtilities.invokeAndWait(() -> {
+			SearchContext context = new SearchContext("x|((a+)+)+b");
+			context.setRegularExpression(true);
+			context.setReplaceWith("y");
+			assertTrue(replaceAll.start(context));
+		});
+		TestUtil.waitUntil(() -> !replaceAll.isRunning());
+
+		SwingUtilities.invokeAndWait(() -> {
+			// The matches found before the timeout are replaced
+			assertTrue(textArea.getText().startsWith("yy "));
+			assertEquals(2, replaceAll.getReplacedCount());
+			assertTrue(replaceAll.wasTimedOut());
+			assertTrue(replaceAll.wasCancelled());
+			assertTrue(textArea.isEditable());
+		});
+	}
+
+	@Test
+	void testStart_selectionOnly() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo foo\nfoo foo\nfoo foo");
+		ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+
+		SwingUtilities.invokeAndWait(() -> {
+			textArea.select(4, 15); // "foo\nfoo foo"
+			SearchContext context = new SearchContext("foo");
+			context.setReplaceWith("x");
+			assertTrue(replaceAll.start(context, SearchScope.SELECTION));
+		});
+		TestUtil.waitUntil(() -> !replaceAll.isRunning());
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals("foo x\nx x\nfoo foo", textArea.getText());
+			assertEquals(3, replaceAll.getReplacedCount());
+			assertEquals(4, textArea.getSelectionStart());
+			assertEquals(9, textArea.getSelectionEnd());
+		});
+	}
+
+	@Test
+	void testStart_selectionOnly_noSelection() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(new RTextArea("foo"));
+			assertFalse(replaceAll.start(new SearchContext("foo"), SearchScope.SELECTION));
+			assertFalse(replaceAll.isRunning());
+		});
+	}
+
+	@Test
+	void testCancel() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			RTextArea textArea = new RTextArea("foo foo foo");
+			ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+			replaceAll.start(new SearchContext("foo"));
+			replaceAll.cancel();
+			assertFalse(replaceAll.isRunning());
+			assertTrue(replaceAll.wasCancelled());
+			assertTrue(textArea.isEditable());
+		});
+	}
+
+	@Test
+	void testExternalEditCancels() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			RTextArea textArea = new RTextArea("foo foo foo");
+			ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(textArea);
+			replaceAll.start(new SearchContext("foo"));
+			textArea.append("bar");
+			assertFalse(replaceAll.isRunning());
+			assertTrue(replaceAll.wasCancelled());
+		});
+	}
+}
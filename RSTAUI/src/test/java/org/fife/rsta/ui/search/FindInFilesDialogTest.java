@@ -0,0 +1,31 @@
+package org.fife.rsta.ui.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FindInFilesDialog}.  Only the parts that don't need
+ * the dialog to be displayed are tested, since tests run headless.
+ */
+class FindInFilesDialogTest {
+
+	@Test
+	void testDescribe() {
+		Path file = Paths.get("src", "Foo.java");
+		FileMatch match = new FileMatch(file, 3, 24, 27, "\tif (a < b && c > d) foo();  ", 10);
+		assertEquals("<html><nobr>" + file + ":3: if (a &lt; b &amp;&amp; <b>c &gt;</b> d) foo();",
+			FindInFilesDialog.describe(match, file));
+	}
+
+	@Test
+	void testDescribe_escapesMarkup() {
+		Path file = Paths.get("<html><b>x");
+		FileMatch match = new FileMatch(file, 1, 0, 4, "<img src=x>", 0);
+		assertEquals("<html><nobr>&lt;html&gt;&lt;b&gt;x:1: <b>&lt;img</b> src=x&gt;",
+			FindInFilesDialog.describe(match, file));
+	}
+}
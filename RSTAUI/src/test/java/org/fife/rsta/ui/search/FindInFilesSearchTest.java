@@ -0,0 +1,222 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FindInFilesSearch}.  These run off the EDT, since
+ * results are delivered on the EDT.
+ */
+class FindInFilesSearchTest {
+
+	private Path dir;
+	private FindInFilesSearch search;
+	private Map<Path, List<FileMatch>> results;
+	private CountDownLatch completed;
+	private AtomicBoolean cancelled;
+	private List<Path> timedOut;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		dir = Files.createTempDirectory("findInFiles");
+		results = new ConcurrentHashMap<>();
+		completed = new CountDownLatch(1);
+		cancelled = new AtomicBoolean();
+		timedOut = new CopyOnWriteArrayList<>();
+		SwingUtilities.invokeAndWait(() -> {
+			search = new FindInFilesSearch();
+			search.addFindInFilesListener(new FindInFilesListener() {
+				@Override
+				public void fileSearched(Path file, List<FileMatch> matches) {
+					results.put(file, matches);
+				}
+
+				@Override
+				public void fileTimedOut(Path file) {
+					timedOut.add(file);
+				}
+
+				@Override
+				public void searchCompleted(boolean wasCancelled) {
+					cancelled.set(wasCancelled);
+					completed.countDown();
+				}
+			});
+		});
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	private static List<FileMatch> search(String text, String searchFor) {
+		SearchContext context = new SearchContext(searchFor);
+		SearchMatcher matcher = new SearchMatcher(SearchMatcher.createPattern(context),
+				false, text);
+		List<FileMatch> matches = new ArrayList<>();
+		FindInFilesSearch.search(Paths.get("test.txt"), text, matcher, matches);
+		return matches;
+	}
+
+	@Test
+	void testCreateFileNameMatcher() {
+		PathMatcher matcher = FindInFilesSearch.createFileNameMatcher("*.java; *.xml");
+		assertTrue(matcher.matches(Paths.get("Foo.java")));
+		assertTrue(matcher.matches(Paths.get("pom.xml")));
+		assertFalse(matcher.matches(Paths.get("README.md")));
+	}
+
+	@Test
+	void testCreateFileNameMatcher_groups() {
+		PathMatcher matcher = FindInFilesSearch.createFileNameMatcher("*.{java,xml}, README.*");
+		assertTrue(matcher.matches(Paths.get("Foo.java")));
+		assertTrue(matcher.matches(Paths.get("pom.xml")));
+		assertTrue(matcher.matches(Paths.get("README.md")));
+		assertFalse(matcher.matches(Paths.get("build.gradle")));
+	}
+
+	@Test
+	void testCreateFileNameMatcher_empty() {
+		PathMatcher matcher = FindInFilesSearch.createFileNameMatcher(" ");
+		assertTrue(matcher.matches(Paths.get("anything.txt")));
+	}
+
+	@Test
+	void testRead() throws Exception {
+		Path file = dir.resolve("latin1.txt");
+		Files.write(file, new byte[] { 'c', 'a', 'f', (byte)0xe9 });
+		CharBuffer text = FindInFilesSearch.read(file, StandardCharsets.ISO_8859_1);
+		assertEquals("caf" + (char)0xe9, text.toString());
+	}
+
+	@Test
+	void testRead_binary() throws Exception {
+		Path file = dir.resolve("binary.bin");
+		Files.write(file, new byte[] { 'a', 0, 'b', 0 });
+		assertNull(FindInFilesSearch.read(file, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testSearch() {
+		List<FileMatch> matches = search("one\ntwo foo\r\nthree\rfoo four", "foo");
+		assertEquals(2, matches.size());
+		assertEquals(2, matches.get(0).getLine());
+		assertEquals(8, matches.get(0).getStartOffset());
+		assertEquals(11, matches.get(0).getEndOffset());
+		assertEquals("two foo", matches.get(0).getText());
+		assertEquals(4, matches.get(0).getTextOffset());
+		assertEquals(4, matches.get(1).getLine());
+		assertEquals("foo four", matches.get(1).getText());
+	}
+
+	@Test
+	void testSearch_longLine() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append('x');
+		}
+		sb.append("foo");
+		List<FileMatch> matches = search(sb.toString(), "foo");
+		assertEquals(1, matches.size());
+		FileMatch match = matches.get(0);
+		String text = match.getText();
+		assertTrue(text.length() < sb.length());
+		int index = match.getStartOffset() - match.getTextOffset();
+		assertEquals("foo", text.substring(index, index + 3));
+	}
+
+	@Test
+	void testStart() throws Exception {
+
+		Files.write(dir.resolve("a.txt"), "foo\nbar foo".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve("b.txt"), "nothing here".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve("c.xml"), "foo".getBytes(StandardCharsets.UTF_8));
+		Path sub = Files.createDirectory(dir.resolve("sub"));
+		Files.write(sub.resolve("d.txt"), "food".getBytes(StandardCharsets.UTF_8));
+
+		SearchContext context = new SearchContext("foo");
+		AtomicBoolean started = new AtomicBoolean();
+		SwingUtilities.invokeAndWait(() -> started.set(search.start(context, dir, "*.txt",
+				true, StandardCharsets.UTF_8)));
+		assertTrue(started.get());
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+
+		assertFalse(cancelled.get());
+		assertEquals(2, results.size());
+		assertEquals(2, results.get(dir.resolve("a.txt")).size());
+		assertEquals(1, results.get(sub.resolve("d.txt")).size());
+		SwingUtilities.invokeAndWait(() -> {
+			assertFalse(search.isRunning());
+			assertEquals(3, search.getFileCount());
+			assertEquals(3, search.getMatchCount());
+			assertEquals(2, search.getMatchingFileCount());
+		});
+	}
+
+	@Test
+	void testStart_notRecursive() throws Exception {
+
+		Files.write(dir.resolve("a.txt"), "foo".getBytes(StandardCharsets.UTF_8));
+		Path sub = Files.createDirectory(dir.resolve("sub"));
+		Files.write(sub.resolve("b.txt"), "foo".getBytes(StandardCharsets.UTF_8));
+
+		SearchContext context = new SearchContext("foo");
+		SwingUtilities.invokeAndWait(() -> assertTrue(search.start(context, dir, null,
+				false, StandardCharsets.UTF_8)));
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		assertEquals(1, results.size());
+		assertTrue(results.containsKey(dir.resolve("a.txt")));
+	}
+
+	@Test
+	void testStart_timesOut() throws Exception {
+
+		Files.write(dir.resolve("a.txt"), "foo aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa".getBytes(StandardCharsets.UTF_8));
+
+		SearchContext context = new SearchContext("foo|((a+)+)+b");
+		context.setRegularExpression(true);
+		SwingUtilities.invokeAndWait(() -> assertTrue(search.start(context, dir, null,
+				true, StandardCharsets.UTF_8)));
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+
+		// The match found before the timeout is still reported
+		assertEquals(1, results.get(dir.resolve("a.txt")).size());
+		assertEquals(Collections.singletonList(dir.resolve("a.txt")), timedOut);
+		SwingUtilities.invokeAndWait(() -> assertEquals(1, search.getTimedOutFileCount()));
+	}
+
+	@Test
+	void testStart_invalidRegex() throws Exception {
+		SearchContext context = new SearchContext("[");
+		context.setRegularExpression(true);
+		SwingUtilities.invokeAndWait(() -> assertFalse(search.start(context, dir, null,
+				true, StandardCharsets.UTF_8)));
+	}
+
+}
@@ -1,7 +1,9 @@
 package org.fife.rsta.ui.search;
 
 import org.fife.rsta.ui.SwingRunnerExtension;
+import org.fife.ui.rtextarea.RTextArea;
 import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +13,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -57,6 +60,14 @@ class FindToolBarTest {
 		assertEquals(1, listener.events.size());;
 	}
 
+	@Test
+	void testDoMarkAll_noDelay_textAreaSet() {
+		toolBar.setTextArea(new RTextArea("foo bar foo"));
+		toolBar.doMarkAll(false);
+		// Marking is done by the toolbar itself
+		assertEquals(0, listener.events.size());
+	}
+
 	@Test
 	void testDoSearch_backward() {
 		toolBar.doSearch(false);
@@ -81,6 +92,16 @@ class FindToolBarTest {
 		assertEquals(500, toolBar.getMarkAllDelay());
 	}
 
+	@Test
+	void testGetSetTextArea() {
+		assertNull(toolBar.getTextArea());
+		RTextArea textArea = new RTextArea();
+		toolBar.setTextArea(textArea);
+		assertSame(textArea, toolBar.getTextArea());
+		toolBar.setTextArea(null);
+		assertNull(toolBar.getTextArea());
+	}
+
 	@Test
 	void testGetSetSearchContext() {
 		SearchContext context = new SearchContext();
@@ -149,11 +170,67 @@ class FindToolBarTest {
 		assertEquals(SearchEvent.Type.FIND, listener.events.get(0).getType());
 	}
 
+	@Test
+	void testHandleSearchAction_findNext_textAreaSet() {
+		toolBar.setTextArea(new RTextArea("foo bar foo"));
+		toolBar.setFindText("foo");
+		ActionEvent event = new ActionEvent(toolBar.findButton, ActionEvent.ACTION_PERFORMED, "FindNext");
+		toolBar.handleSearchAction(event);
+		// Listeners still get "Find" events unless the toolbar is told otherwise
+		assertEquals(SearchEvent.Type.FIND, listener.events.get(0).getType());
+	}
+
+	@Test
+	void testFindInTextArea() {
+		RTextArea textArea = new RTextArea("foo bar foo");
+		toolBar.setTextArea(textArea);
+		toolBar.getSearchContext().setMarkAll(false);
+		toolBar.setFindText("bar");
+		FindInTextArea findInTextArea = new FindInTextArea(toolBar);
+		ActionEvent event = new ActionEvent(toolBar.findButton, ActionEvent.ACTION_PERFORMED, "FindNext");
+		toolBar.handleSearchAction(event);
+		assertTrue(listener.events.isEmpty());
+		assertEquals("bar", textArea.getSelectedText());
+
+		findInTextArea.uninstall();
+		toolBar.handleSearchAction(event);
+		assertEquals(SearchEvent.Type.FIND, listener.events.get(0).getType());
+	}
+
 	@Test
 	void testSearchContextUpdated_markAll() {
 		assertDoesNotThrow(() -> toolBar.getSearchContext().setMarkAll(false));
 	}
 
+	@Test
+	void testSearchPending_asyncListener() {
+		CompletableFuture<SearchResult> future = new CompletableFuture<>();
+		toolBar.addSearchListener(new AsyncSearchListener() {
+			@Override
+			public CompletableFuture<SearchResult> searchEventAsync(SearchEvent e) {
+				return future;
+			}
+
+			@Override
+			public String getSelectedText() {
+				return "";
+			}
+		});
+		toolBar.setFindText("foo");
+		assertTrue(toolBar.findButton.isEnabled());
+
+		toolBar.doSearch(true);
+		assertTrue(toolBar.isSearchPending());
+		assertFalse(toolBar.findButton.isEnabled());
+		assertEquals(1, listener.events.size());
+
+		// New input cancels the pending search
+		toolBar.setFindText("bar");
+		assertTrue(future.isCancelled());
+		assertFalse(toolBar.isSearchPending());
+		assertTrue(toolBar.findButton.isEnabled());
+	}
+
 	@Test
 	void testSearchContextUpdated_matchCase() {
 		assertDoesNotThrow(() -> toolBar.getSearchContext().setMatchCase(true));
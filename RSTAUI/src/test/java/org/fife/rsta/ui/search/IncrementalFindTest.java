@@ -0,0 +1,112 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.TestUtil;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link IncrementalFind}.  These run off the EDT, since
+ * searches need the EDT to complete.
+ */
+class IncrementalFindTest {
+
+	private RTextArea textArea;
+	private FindToolBar toolBar;
+	private IncrementalFind find;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			textArea = new RTextArea("one two three two one");
+			toolBar = new FindToolBar(new TestSearchListener());
+			toolBar.setTextArea(textArea);
+			find = new IncrementalFind(toolBar);
+			find.setEnabled(true);
+			toolBar.getSearchContext().setMarkAll(false);
+		});
+	}
+
+	private String typeAndWait(String text) throws Exception {
+		SwingUtilities.invokeAndWait(() -> toolBar.setFindText(text));
+		TestUtil.waitUntil(() -> !find.isSearching());
+		AtomicReference<String> selected = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> selected.set(textArea.getSelectedText()));
+		return selected.get();
+	}
+
+	@Test
+	void testSelectsMatchAsUserTypes() throws Exception {
+		assertEquals("t", typeAndWait("t"));
+		assertEquals(4, textArea.getSelectionStart());
+		assertEquals("tw", typeAndWait("tw"));
+		assertEquals(4, textArea.getSelectionStart());
+		// Extending the query to no longer match here moves on
+		assertEquals("th", typeAndWait("th"));
+		assertEquals(8, textArea.getSelectionStart());
+	}
+
+	@Test
+	void testWrapsAround() throws Exception {
+		SwingUtilities.invokeAndWait(() -> textArea.setCaretPosition(15));
+		assertEquals("one", typeAndWait("one"));
+		assertEquals(18, textArea.getSelectionStart());
+		SwingUtilities.invokeAndWait(() -> textArea.setCaretPosition(19));
+		assertNull(typeAndWait("on"));
+		SwingUtilities.invokeAndWait(() -> {
+			textArea.setCaretPosition(19);
+			toolBar.getSearchContext().setSearchWrap(true);
+		});
+		assertEquals("one", typeAndWait("one"));
+		assertEquals(0, textArea.getSelectionStart());
+	}
+
+	@Test
+	void testDisabled() throws Exception {
+		SwingUtilities.invokeAndWait(() -> find.setEnabled(false));
+		assertNull(typeAndWait("two"));
+	}
+
+	@Test
+	void testGetSetEnabled() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			assertTrue(find.isEnabled());
+			find.setEnabled(false);
+			assertFalse(find.isEnabled());
+		});
+	}
+
+	@Test
+	void testFollowsNewSearchContext() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			SearchContext context = new SearchContext();
+			context.setMarkAll(false);
+			toolBar.setSearchContext(context);
+		});
+		assertEquals("two", typeAndWait("two"));
+	}
+
+	@Test
+	void testUninstall() throws Exception {
+		SwingUtilities.invokeAndWait(() -> find.uninstall());
+		assertNull(typeAndWait("two"));
+	}
+
+	private static class TestSearchListener implements SearchListener {
+
+		@Override
+		public void searchEvent(SearchEvent e) {
+		}
+
+		@Override
+		public String getSelectedText() {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.SwingRunnerExtension;
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.RTextArea;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LinkedOccurrenceEdit}.
+ */
+@ExtendWith(SwingRunnerExtension.class)
+class LinkedOccurrenceEditTest {
+
+	private static final List<DocumentRange> RANGES = Arrays.asList(
+		new DocumentRange(0, 3), new DocumentRange(8, 11), new DocumentRange(16, 19));
+
+	@Test
+	void testStart_selectsOccurrenceAtCaret() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		textArea.setCaretPosition(5);
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		edit.start();
+		assertTrue(edit.isActive());
+		assertEquals(3, edit.getOccurrenceCount());
+		assertEquals(8, textArea.getSelectionStart());
+		assertEquals(11, textArea.getSelectionEnd());
+	}
+
+	@Test
+	void testStart_caretAfterLastOccurrence() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo!");
+		textArea.setCaretPosition(20);
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		edit.start();
+		assertEquals(16, textArea.getSelectionStart());
+	}
+
+	@Test
+	void testCommit() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		textArea.setCaretPosition(8);
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		edit.start();
+		textArea.replaceSelection("xy");
+		textArea.insert("z", 10);
+		assertTrue(edit.commit());
+		assertFalse(edit.isActive());
+		assertEquals("xyz bar xyz bar xyz", textArea.getText());
+		assertEquals(11, textArea.getCaretPosition());
+	}
+
+	@Test
+	void testCommit_firstOccurrence() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		edit.start();
+		textArea.replaceSelection("");
+		assertTrue(edit.commit());
+		assertEquals(" bar  bar ", textArea.getText());
+		assertEquals(0, textArea.getCaretPosition());
+	}
+
+	@Test
+	void testCommit_keepsCaretWhereUserPutIt() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		textArea.setCaretPosition(8);
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		edit.start();
+		textArea.replaceSelection("xy");
+		textArea.setCaretPosition(13); // Before the "r" of the second "bar"
+		assertTrue(edit.commit());
+		assertEquals("xy bar xy bar xy", textArea.getText());
+		assertEquals(12, textArea.getCaretPosition());
+	}
+
+	@Test
+	void testCommit_notActive() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		assertFalse(edit.commit());
+	}
+
+	@Test
+	void testStop() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		edit.start();
+		textArea.replaceSelection("x");
+		edit.stop();
+		assertFalse(edit.isActive());
+		assertFalse(edit.commit());
+		assertEquals("x bar foo bar foo", textArea.getText());
+	}
+
+	@Test
+	void testEditOutsideOccurrenceStops() {
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		LinkedOccurrenceEdit edit = new LinkedOccurrenceEdit(textArea, RANGES);
+		edit.start();
+		textArea.insert("z", 5);
+		assertFalse(edit.isActive());
+		assertEquals("foo bzar foo bar foo", textArea.getText());
+	}
+}
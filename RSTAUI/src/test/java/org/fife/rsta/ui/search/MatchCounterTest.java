@@ -0,0 +1,162 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.TestUtil;
+import org.fife.ui.rtextarea.RTextArea;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MatchCounter}.  These run off the EDT, since
+ * counting needs the EDT to complete.
+ */
+class MatchCounterTest {
+
+	private RTextArea textArea;
+	private FindToolBar toolBar;
+	private MatchCounter counter;
+	private volatile boolean showing;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		showing = true;
+		SwingUtilities.invokeAndWait(() -> {
+			textArea = new RTextArea("one two three two one");
+			toolBar = new FindToolBar(new TestSearchListener()) {
+				@Override
+				public boolean isShowing() {
+					return showing;
+				}
+			};
+			toolBar.getSearchContext().setMarkAll(false);
+			counter = new MatchCounter(toolBar, toolBar.getToolBarSearch());
+			counter.setSnapshot(new DocumentSnapshot(textArea), null);
+		});
+	}
+
+	private void setFindText(String text) throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			toolBar.setFindText(text);
+			counter.searchContextChanged();
+		});
+	}
+
+	private String waitForInfoText() throws Exception {
+		TestUtil.waitUntil(() -> !counter.isUpdatePending());
+		AtomicReference<String> text = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> text.set(toolBar.getToolBarSearch().getInfoText()));
+		return text.get();
+	}
+
+	@Test
+	void testCount() throws Exception {
+		setFindText("two");
+		assertEquals("2 matches", waitForInfoText());
+		setFindText("three");
+		assertEquals("1 match", waitForInfoText());
+		setFindText("four");
+		assertEquals("No matches", waitForInfoText());
+		setFindText("");
+		String text = waitForInfoText();
+		assertTrue(text == null || text.isEmpty());
+	}
+
+	@Test
+	void testCurrentMatchIndex() throws Exception {
+		setFindText("one");
+		assertEquals("2 matches", waitForInfoText());
+		SwingUtilities.invokeAndWait(() -> {
+			textArea.select(18, 21);
+			assertEquals("Match 2 of 2", toolBar.getToolBarSearch().getInfoText());
+			textArea.select(0, 3);
+			assertEquals("Match 1 of 2", toolBar.getToolBarSearch().getInfoText());
+			textArea.select(4, 7);
+			assertEquals("2 matches", toolBar.getToolBarSearch().getInfoText());
+		});
+	}
+
+	@Test
+	void testCountsMarkAllMatches() throws Exception {
+		AtomicReference<BackgroundMarkAll> markAll = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> {
+			DocumentSnapshot snapshot = new DocumentSnapshot(textArea);
+			markAll.set(new BackgroundMarkAll(textArea, snapshot));
+			counter.setSnapshot(snapshot, markAll.get());
+			toolBar.getSearchContext().setMarkAll(true);
+			toolBar.setFindText("one");
+			markAll.get().markAll(toolBar.getSearchContext());
+			counter.searchContextChanged();
+		});
+		assertEquals("2 matches", waitForInfoText());
+		SwingUtilities.invokeAndWait(() -> {
+			assertFalse(markAll.get().isRunning());
+			assertNotNull(markAll.get().getIndex(toolBar.getSearchContext()));
+			textArea.select(18, 21);
+			assertEquals("Match 2 of 2", toolBar.getToolBarSearch().getInfoText());
+		});
+	}
+
+	@Test
+	void testRecountsAfterEdit() throws Exception {
+		setFindText("one");
+		assertEquals("2 matches", waitForInfoText());
+		SwingUtilities.invokeAndWait(() -> textArea.append(" one"));
+		assertEquals("3 matches", waitForInfoText());
+	}
+
+	@Test
+	void testMatchCaseChange() throws Exception {
+		SwingUtilities.invokeAndWait(() -> textArea.setText("One one ONE"));
+		setFindText("one");
+		assertEquals("3 matches", waitForInfoText());
+		SwingUtilities.invokeAndWait(() -> {
+			toolBar.getSearchContext().setMatchCase(true);
+			counter.searchContextChanged();
+		});
+		assertEquals("1 match", waitForInfoText());
+	}
+
+	@Test
+	void testDoesNotCountWhileHidden() throws Exception {
+		showing = false;
+		SwingUtilities.invokeAndWait(() -> {
+			toolBar.setFindText("one");
+			counter.searchContextChanged();
+			assertFalse(counter.isUpdatePending());
+			textArea.append(" one");
+			assertFalse(counter.isUpdatePending());
+			String text = toolBar.getToolBarSearch().getInfoText();
+			assertTrue(text == null || text.isEmpty());
+		});
+	}
+
+	@Test
+	void testDoesNotReplaceUnseenMessage() throws Exception {
+		setFindText("one");
+		assertEquals("2 matches", waitForInfoText());
+		SwingUtilities.invokeAndWait(() -> {
+			textArea.append(" one");
+			toolBar.getToolBarSearch().setInfoText("1 occurrence replaced");
+		});
+		assertEquals("1 occurrence replaced", waitForInfoText());
+		assertEquals(3, counter.getCount());
+		setFindText("two");
+		assertEquals("2 matches", waitForInfoText());
+	}
+
+	private static class TestSearchListener implements SearchListener {
+
+		@Override
+		public void searchEvent(SearchEvent e) {
+		}
+
+		@Override
+		public String getSelectedText() {
+			return null;
+		}
+	}
+}
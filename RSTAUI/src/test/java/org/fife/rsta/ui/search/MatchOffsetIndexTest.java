@@ -0,0 +1,133 @@
+package org.fife.rsta.ui.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MatchOffsetIndex}.
+ */
+class MatchOffsetIndexTest {
+
+	private MatchOffsetIndex index;
+
+	@BeforeEach
+	void setUp() {
+		// Matches of "foo" in "foo bar foo bar foo"
+		index = new MatchOffsetIndex(4);
+		index.add(0, 3);
+		index.add(8, 11);
+		index.add(16, 19);
+	}
+
+	@Test
+	void testAdd_growsArrays() {
+		MatchOffsetIndex index = new MatchOffsetIndex(1);
+		for (int i = 0; i < 1000; i++) {
+			index.add(i * 2, i * 2 + 1);
+		}
+		assertEquals(1000, index.size());
+		assertEquals(1998, index.getStart(999));
+		assertEquals(1999, index.getEnd(999));
+	}
+
+	@Test
+	void testNext() {
+		assertFalse(index.isDirty());
+		assertEquals(0, index.next(0));
+		assertEquals(1, index.next(1));
+		assertEquals(1, index.next(8));
+		assertEquals(2, index.next(9));
+		assertEquals(-1, index.next(17));
+	}
+
+	@Test
+	void testPrevious() {
+		assertEquals(-1, index.previous(2));
+		assertEquals(0, index.previous(3));
+		assertEquals(0, index.previous(10));
+		assertEquals(1, index.previous(11));
+		assertEquals(2, index.previous(19));
+	}
+
+	@Test
+	void testInsertUpdate_shiftsLaterMatches() {
+		index.insertUpdate(5, 10);
+		assertTrue(index.isDirty());
+		assertEquals(3, index.size());
+		assertEquals(0, index.getStart(0));
+		assertEquals(18, index.getStart(1));
+		assertEquals(21, index.getEnd(1));
+		assertEquals(26, index.getStart(2));
+		// Far enough from the edit to be known
+		assertEquals(0, index.next(0));
+		assertEquals(2, index.next(20));
+		assertEquals(0, index.previous(3));
+		// Depends on the edited text
+		assertEquals(MatchOffsetIndex.UNKNOWN, index.next(4));
+		assertEquals(MatchOffsetIndex.UNKNOWN, index.previous(18));
+	}
+
+	@Test
+	void testInsertUpdate_dropsTouchedMatches() {
+		index.insertUpdate(9, 1); // Inside the second match
+		assertEquals(2, index.size());
+		assertEquals(17, index.getStart(1));
+		index.insertUpdate(3, 1); // Right after the first match
+		assertEquals(1, index.size());
+		assertEquals(18, index.getStart(0));
+	}
+
+	@Test
+	void testRemoveUpdate() {
+		index.removeUpdate(4, 2); // "ba"
+		assertEquals(3, index.size());
+		assertEquals(6, index.getStart(1));
+		assertEquals(14, index.getStart(2));
+		assertEquals(17, index.getEnd(2));
+		assertEquals(2, index.next(12));
+		assertEquals(MatchOffsetIndex.UNKNOWN, index.next(1));
+	}
+
+	@Test
+	void testRemoveUpdate_dropsTouchedMatches() {
+		index.removeUpdate(2, 7); // "o bar f"
+		assertEquals(1, index.size());
+		assertEquals(9, index.getStart(0));
+	}
+
+	@Test
+	void testEdits_shiftAppliedLazily() {
+		index.insertUpdate(14, 2); // After the second match
+		index.insertUpdate(5, 1); // Before it
+		index.removeUpdate(13, 1); // Between it and the third match
+		assertEquals(3, index.size());
+		assertEquals(0, index.getStart(0));
+		assertEquals(9, index.getStart(1));
+		assertEquals(12, index.getEnd(1));
+		assertEquals(18, index.getStart(2));
+		assertEquals(21, index.getEnd(2));
+		assertEquals(2, index.next(18));
+		assertEquals(1, index.previous(12));
+
+		index.add(30, 33);
+		assertEquals(30, index.getStart(3));
+		assertEquals(33, index.getEnd(3));
+	}
+
+	@Test
+	void testUnboundedReach() {
+		MatchOffsetIndex index = new MatchOffsetIndex(MatchOffsetIndex.UNBOUNDED_REACH);
+		index.add(0, 3);
+		index.add(100, 103);
+		index.insertUpdate(50, 1);
+		assertTrue(index.isDirty());
+		assertEquals(0, index.size());
+		assertEquals(MatchOffsetIndex.UNKNOWN, index.next(0));
+		assertEquals(MatchOffsetIndex.UNKNOWN, index.previous(200));
+		index.removeUpdate(50, 1);
+		assertEquals(0, index.size());
+		assertEquals(MatchOffsetIndex.UNKNOWN, index.next(0));
+	}
+}
@@ -0,0 +1,143 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.text.JTextComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MultiDocumentSearch}.  These run off the EDT, since
+ * results are delivered on the EDT.
+ */
+class MultiDocumentSearchTest {
+
+	private List<RTextArea> textAreas;
+	private MultiDocumentSearch search;
+	private Map<JTextComponent, List<DocumentRange>> results;
+	private CountDownLatch completed;
+	private AtomicBoolean cancelled;
+	private List<JTextComponent> timedOut;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		results = new ConcurrentHashMap<>();
+		completed = new CountDownLatch(1);
+		cancelled = new AtomicBoolean();
+		timedOut = new CopyOnWriteArrayList<>();
+		SwingUtilities.invokeAndWait(() -> {
+			textAreas = new ArrayList<>();
+			textAreas.add(new RTextArea("foo bar foo"));
+			textAreas.add(new RTextArea("no matches here"));
+			textAreas.add(new RTextArea("FOO foo food"));
+			search = new MultiDocumentSearch();
+			search.addMultiDocumentSearchListener(new MultiDocumentSearchListener() {
+				@Override
+				public void documentSearched(JTextComponent textArea, List<DocumentRange> matches) {
+					results.put(textArea, matches);
+				}
+
+				@Override
+				public void documentTimedOut(JTextComponent textArea) {
+					timedOut.add(textArea);
+				}
+
+				@Override
+				public void searchCompleted(boolean wasCancelled) {
+					cancelled.set(wasCancelled);
+					completed.countDown();
+				}
+			});
+		});
+	}
+
+	private void start(SearchContext context) throws Exception {
+		AtomicBoolean started = new AtomicBoolean();
+		SwingUtilities.invokeAndWait(() -> started.set(search.start(context, textAreas)));
+		assertTrue(started.get());
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void testStart() throws Exception {
+		SearchContext context = new SearchContext("foo");
+		context.setMatchCase(true);
+		start(context);
+		assertFalse(cancelled.get());
+		assertEquals(3, results.size());
+		assertEquals(Arrays.asList(new DocumentRange(0, 3), new DocumentRange(8, 11)),
+				results.get(textAreas.get(0)));
+		assertEquals(Collections.emptyList(), results.get(textAreas.get(1)));
+		assertEquals(Arrays.asList(new DocumentRange(4, 7), new DocumentRange(8, 11)),
+				results.get(textAreas.get(2)));
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(4, search.getMatchCount());
+			assertEquals(3, search.getDocumentCount());
+			assertFalse(search.isRunning());
+		});
+	}
+
+	@Test
+	void testStart_timesOut() throws Exception {
+		SwingUtilities.invokeAndWait(() ->
+			textAreas.set(1, new RTextArea("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa")));
+		SearchContext context = new SearchContext("((a+)+)+b|foo");
+		context.setRegularExpression(true);
+		context.setMatchCase(true);
+		start(context);
+		assertEquals(Collections.singletonList(textAreas.get(1)), timedOut);
+		assertEquals(Collections.emptyList(), results.get(textAreas.get(1)));
+		assertEquals(2, results.get(textAreas.get(0)).size());
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(1, search.getTimedOutCount());
+			assertEquals(3, search.getDocumentCount());
+		});
+	}
+
+	@Test
+	void testStart_wholeWordIgnoreCase() throws Exception {
+		SearchContext context = new SearchContext("foo");
+		context.setWholeWord(true);
+		start(context);
+		assertEquals(Arrays.asList(new DocumentRange(0, 3), new DocumentRange(4, 7)),
+				results.get(textAreas.get(2)));
+	}
+
+	@Test
+	void testStart_nothingToSearchFor() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			assertFalse(search.start(new SearchContext(""), textAreas));
+			SearchContext context = new SearchContext("[a-");
+			context.setRegularExpression(true);
+			assertFalse(search.start(context, textAreas));
+			assertFalse(search.start(new SearchContext("foo"), Collections.emptyList()));
+			assertFalse(search.isRunning());
+		});
+	}
+
+	@Test
+	void testCancel() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			search.start(new SearchContext("foo"), textAreas);
+			search.cancel();
+			assertFalse(search.isRunning());
+		});
+		assertTrue(completed.await(10, TimeUnit.SECONDS));
+		assertTrue(cancelled.get());
+	}
+}
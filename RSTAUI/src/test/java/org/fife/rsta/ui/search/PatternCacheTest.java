@@ -0,0 +1,77 @@
+package org.fife.rsta.ui.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PatternCache}.
+ */
+class PatternCacheTest {
+
+	@Test
+	void testConstructor_invalidMaxSize() {
+		assertThrows(IllegalArgumentException.class, () -> new PatternCache(0));
+	}
+
+	@Test
+	void testCompile_hit() {
+		PatternCache cache = new PatternCache(4);
+		Pattern p1 = cache.compile("a+b", 0);
+		Pattern p2 = cache.compile("a+b", 0);
+		assertSame(p1, p2);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getSize());
+	}
+
+	@Test
+	void testCompile_flagsArePartOfKey() {
+		PatternCache cache = new PatternCache(4);
+		Pattern p1 = cache.compile("a+b", 0);
+		Pattern p2 = cache.compile("a+b", Pattern.CASE_INSENSITIVE);
+		assertNotSame(p1, p2);
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	void testCompile_invalidNotCached() {
+		PatternCache cache = new PatternCache(4);
+		assertThrows(PatternSyntaxException.class, () -> cache.compile("[a-", 0));
+		assertThrows(PatternSyntaxException.class, () -> cache.compile("[a-", 0));
+		assertEquals(0, cache.getSize());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	void testCompile_leastRecentlyUsedEvicted() {
+		PatternCache cache = new PatternCache(2);
+		Pattern a = cache.compile("a", 0);
+		cache.compile("b", 0);
+		cache.compile("a", 0); // "b" is now the eldest
+		cache.compile("c", 0);
+		assertEquals(2, cache.getSize());
+		assertEquals(2, cache.getMaxSize());
+		assertSame(a, cache.compile("a", 0));
+		long misses = cache.getMissCount();
+		cache.compile("b", 0);
+		assertEquals(misses + 1, cache.getMissCount());
+	}
+
+	@Test
+	void testClear() {
+		PatternCache cache = new PatternCache(4);
+		cache.compile("a", 0);
+		cache.clear();
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	void testGetSharedInstance() {
+		assertSame(PatternCache.getSharedInstance(), PatternCache.getSharedInstance());
+		assertEquals(PatternCache.DEFAULT_MAX_SIZE, PatternCache.getSharedInstance().getMaxSize());
+	}
+}
@@ -0,0 +1,207 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PendingSearch}.  These run off the EDT, since
+ * results of pending futures are delivered to the EDT.
+ */
+class PendingSearchTest {
+
+	private static SearchEvent createEvent() {
+		return new SearchEvent(new Object(), SearchEvent.Type.FIND,
+				new SearchContext("foo"));
+	}
+
+	@Test
+	void testFire_syncListener() throws Exception {
+		TestListener listener = new TestListener();
+		PendingSearch search = new PendingSearch(listener);
+		List<SearchEvent> events = new ArrayList<>();
+		SearchEvent e = createEvent();
+		SwingUtilities.invokeAndWait(() -> {
+			search.fire(e, new SearchListener[] { new SyncListener(events) });
+			assertFalse(search.isPending());
+		});
+		assertEquals(1, events.size());
+		assertSame(e, events.get(0));
+		assertTrue(listener.results.isEmpty());
+		assertTrue(listener.pendingChanges.isEmpty());
+	}
+
+	@Test
+	void testFire_completedFuture() throws Exception {
+		TestListener listener = new TestListener();
+		PendingSearch search = new PendingSearch(listener);
+		SearchResult result = new SearchResult(null, 1, 0);
+		SwingUtilities.invokeAndWait(() -> {
+			search.fire(createEvent(), new SearchListener[] {
+				new AsyncListener(CompletableFuture.completedFuture(result))
+			});
+			assertFalse(search.isPending());
+			assertEquals(1, listener.results.size());
+			assertSame(result, listener.results.get(0));
+		});
+		assertTrue(listener.pendingChanges.isEmpty());
+	}
+
+	@Test
+	void testFire_pendingFuture() throws Exception {
+		TestListener listener = new TestListener();
+		PendingSearch search = new PendingSearch(listener);
+		CompletableFuture<SearchResult> future = new CompletableFuture<>();
+		SwingUtilities.invokeAndWait(() -> {
+			search.fire(createEvent(), new SearchListener[] { new AsyncListener(future) });
+			assertTrue(search.isPending());
+			assertTrue(listener.results.isEmpty());
+		});
+
+		SearchResult result = new SearchResult(null, 1, 0);
+		future.complete(result); // Completed off the EDT
+		SwingUtilities.invokeAndWait(() -> {
+			assertFalse(search.isPending());
+			assertEquals(1, listener.results.size());
+			assertSame(result, listener.results.get(0));
+			assertEquals(2, listener.pendingChanges.size());
+			assertTrue(listener.pendingChanges.get(0));
+			assertFalse(listener.pendingChanges.get(1));
+		});
+	}
+
+	@Test
+	void testFire_cancelsPreviousFuture() throws Exception {
+		TestListener listener = new TestListener();
+		PendingSearch search = new PendingSearch(listener);
+		CompletableFuture<SearchResult> first = new CompletableFuture<>();
+		CompletableFuture<SearchResult> second = new CompletableFuture<>();
+		SwingUtilities.invokeAndWait(() -> {
+			search.fire(createEvent(), new SearchListener[] { new AsyncListener(first) });
+			search.fire(createEvent(), new SearchListener[] { new AsyncListener(second) });
+			assertTrue(first.isCancelled());
+			assertTrue(search.isPending());
+		});
+
+		second.complete(new SearchResult());
+		SwingUtilities.invokeAndWait(() -> {
+			assertFalse(search.isPending());
+			assertEquals(1, listener.results.size()); // Only the second one
+		});
+	}
+
+	@Test
+	void testCancel() throws Exception {
+		TestListener listener = new TestListener();
+		PendingSearch search = new PendingSearch(listener);
+		CompletableFuture<SearchResult> future = new CompletableFuture<>();
+		SwingUtilities.invokeAndWait(() -> {
+			search.fire(createEvent(), new SearchListener[] { new AsyncListener(future) });
+			search.cancel();
+			assertTrue(future.isCancelled());
+			assertFalse(search.isPending());
+		});
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertTrue(listener.results.isEmpty());
+			assertEquals(2, listener.pendingChanges.size());
+		});
+	}
+
+	@Test
+	void testFire_failedFuture() throws Exception {
+		TestListener listener = new TestListener();
+		PendingSearch search = new PendingSearch(listener);
+		CompletableFuture<SearchResult> future = new CompletableFuture<>();
+		SwingUtilities.invokeAndWait(() ->
+			search.fire(createEvent(), new SearchListener[] { new AsyncListener(future) }));
+
+		future.completeExceptionally(new IllegalStateException());
+		SwingUtilities.invokeAndWait(() -> {
+			assertFalse(search.isPending());
+			assertEquals(1, listener.results.size());
+			assertNull(listener.results.get(0));
+		});
+	}
+
+	@Test
+	void testFire_nullFuture() throws Exception {
+		TestListener listener = new TestListener();
+		PendingSearch search = new PendingSearch(listener);
+		SwingUtilities.invokeAndWait(() -> {
+			search.fire(createEvent(), new SearchListener[] { new AsyncListener(null) });
+			assertFalse(search.isPending());
+		});
+		assertTrue(listener.results.isEmpty());
+	}
+
+	/**
+	 * A search listener that returns a specific future.
+	 */
+	private static final class AsyncListener implements AsyncSearchListener {
+
+		private final CompletableFuture<SearchResult> future;
+
+		private AsyncListener(CompletableFuture<SearchResult> future) {
+			this.future = future;
+		}
+
+		@Override
+		public CompletableFuture<SearchResult> searchEventAsync(SearchEvent e) {
+			return future;
+		}
+
+		@Override
+		public String getSelectedText() {
+			return null;
+		}
+	}
+
+	/**
+	 * A search listener that records the events it receives.
+	 */
+	private static final class SyncListener implements SearchListener {
+
+		private final List<SearchEvent> events;
+
+		private SyncListener(List<SearchEvent> events) {
+			this.events = events;
+		}
+
+		@Override
+		public void searchEvent(SearchEvent e) {
+			events.add(e);
+		}
+
+		@Override
+		public String getSelectedText() {
+			return null;
+		}
+	}
+
+	/**
+	 * Records the notifications it receives.
+	 */
+	private static final class TestListener implements PendingSearch.Listener {
+
+		private final List<Boolean> pendingChanges = new ArrayList<>();
+		private final List<SearchResult> results = new ArrayList<>();
+
+		@Override
+		public void pendingChanged(boolean pending) {
+			pendingChanges.add(pending);
+		}
+
+		@Override
+		public void searchCompleted(SearchEvent e, SearchResult result) {
+			results.add(result);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package org.fife.rsta.ui.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RegexStructure}.
+ */
+class RegexStructureTest {
+
+	private static RegexStructure parse(String pattern) {
+		RegexStructure structure = new RegexStructure();
+		structure.update(pattern);
+		return structure;
+	}
+
+	private static void assertError(String pattern, int expectedIndex) {
+		RegexStructure.Token error = parse(pattern).getFirstError();
+		assertNotNull(error, pattern);
+		assertEquals(expectedIndex, error.getStart(), pattern);
+		assertThrows(PatternSyntaxException.class, () -> Pattern.compile(pattern));
+	}
+
+	private static void assertNoError(String pattern) {
+		assertNull(parse(pattern).getFirstError(), pattern);
+		Pattern.compile(pattern);
+	}
+
+	@Test
+	void testTokens() {
+
+		RegexStructure structure = parse("(?<n>[a-z]+)\\d{2,}|\\p{Alpha}$");
+		List<RegexStructure.Token> tokens = structure.getTokens();
+		assertEquals(9, tokens.size());
+
+		assertEquals(RegexStructure.TokenType.GROUP_START, tokens.get(0).getType());
+		assertEquals("(?<n>", tokens.get(0).getText());
+		assertEquals(RegexStructure.TokenType.CHAR_CLASS, tokens.get(1).getType());
+		assertEquals("[a-z]", tokens.get(1).getText());
+		assertEquals(RegexStructure.TokenType.QUANTIFIER, tokens.get(2).getType());
+		assertEquals(RegexStructure.TokenType.GROUP_END, tokens.get(3).getType());
+		assertSame(tokens.get(0), tokens.get(3).getMatch());
+		assertSame(tokens.get(3), tokens.get(0).getMatch());
+		assertEquals(RegexStructure.TokenType.ESCAPE, tokens.get(4).getType());
+		assertEquals("{2,}", tokens.get(5).getText());
+		assertEquals(RegexStructure.TokenType.ALTERNATION, tokens.get(6).getType());
+		assertEquals("\\p{Alpha}", tokens.get(7).getText());
+		assertEquals(RegexStructure.TokenType.ANCHOR, tokens.get(8).getType());
+
+		assertNull(structure.getFirstError());
+		assertNull(structure.getFirstNestedQuantifier());
+	}
+
+	@Test
+	void testErrors() {
+		assertError("a)", 1);
+		assertError("(a", 0);
+		assertError("*a", 0);
+		assertError("a**", 2);
+		assertError("(|+)", 2);
+		assertError("a{", 1);
+		assertError("[a", 0);
+		assertError("a\\", 1);
+	}
+
+	@Test
+	void testNoErrors() {
+		assertNoError("[]a]");
+		assertNoError("[^]a]");
+		assertNoError("[a[b]]");
+		assertNoError("a{2}{3}");
+		assertNoError("x++");
+		assertNoError("x*?");
+		assertNoError("(?i)foo");
+		assertNoError("(?:a|b)");
+		assertNoError("(?<=a)b");
+		assertNoError("\\Q(*\\E");
+		assertNoError("\\(\\)");
+	}
+
+	@Test
+	void testNestedQuantifiers() {
+
+		RegexStructure structure = parse("x(a+)+");
+		RegexStructure.Token quantifier = structure.getFirstNestedQuantifier();
+		assertNotNull(quantifier);
+		assertEquals(5, quantifier.getStart());
+		assertTrue(quantifier.isNestedQuantifier());
+		assertEquals(1, quantifier.getMatch().getStart());
+
+		assertNotNull(parse("(\\w+\\s?)*").getFirstNestedQuantifier());
+		assertNotNull(parse("((a*)b)*").getFirstNestedQuantifier());
+		assertNotNull(parse("(a{2,})+").getFirstNestedQuantifier());
+
+		assertNull(parse("(a+)++").getFirstNestedQuantifier());
+		assertNull(parse("(a++)+").getFirstNestedQuantifier());
+		assertNull(parse("(?>a+)+").getFirstNestedQuantifier());
+		assertNull(parse("((?>a+)b)+").getFirstNestedQuantifier());
+		assertNull(parse("(ab)+").getFirstNestedQuantifier());
+		assertNull(parse("(a{2,5})+").getFirstNestedQuantifier());
+		assertNull(parse("(a+)?").getFirstNestedQuantifier());
+	}
+
+	@Test
+	void testUpdate_reusesPrefixTokens() {
+
+		RegexStructure structure = parse("(ab");
+		assertNotNull(structure.getFirstError());
+		RegexStructure.Token groupStart = structure.getTokens().get(0);
+		RegexStructure.Token a = structure.getTokens().get(1);
+
+		assertTrue(structure.update("(ab)+"));
+		assertSame(groupStart, structure.getTokens().get(0));
+		assertSame(a, structure.getTokens().get(1));
+		assertNull(structure.getFirstError());
+		assertEquals("(ab)+", structure.getPattern());
+
+		assertFalse(structure.update("(ab)+"));
+
+		// A token ending at the change is re-tokenized
+		structure.update("a\\");
+		assertNotNull(structure.getFirstError());
+		structure.update("a\\d");
+		assertNull(structure.getFirstError());
+		assertEquals("\\d", structure.getTokens().get(1).getText());
+	}
+}
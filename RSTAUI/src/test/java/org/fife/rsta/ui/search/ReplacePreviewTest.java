@@ -0,0 +1,252 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.TestUtil;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ReplacePreview}.  These run off the EDT, since
+ * hunks are delivered to the EDT as they are found.
+ */
+class ReplacePreviewTest {
+
+	private static ReplacePreview startPreview(RTextArea textArea, SearchContext context)
+			throws Exception {
+		ReplacePreview preview = new ReplacePreview(textArea);
+		SwingUtilities.invokeAndWait(() -> assertTrue(preview.start(context)));
+		TestUtil.waitUntil(() -> !preview.isRunning());
+		return preview;
+	}
+
+	private static int apply(ReplacePreview preview) throws Exception {
+		ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(preview.getTextArea());
+		AtomicInteger count = new AtomicInteger();
+		SwingUtilities.invokeAndWait(() -> count.set(preview.apply(replaceAll)));
+		TestUtil.waitUntil(() -> !replaceAll.isRunning());
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(count.get(), replaceAll.getReplacedCount());
+			assertFalse(replaceAll.wasCancelled());
+		});
+		return count.get();
+	}
+
+	@Test
+	void testStart_emptySearchFor() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			ReplacePreview preview = new ReplacePreview(new RTextArea("foo"));
+			assertFalse(preview.start(new SearchContext("")));
+			assertFalse(preview.isRunning());
+		});
+	}
+
+	@Test
+	void testStart_invalidRegex() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			ReplacePreview preview = new ReplacePreview(new RTextArea("foo"));
+			SearchContext context = new SearchContext("[a-");
+			context.setRegularExpression(true);
+			assertFalse(preview.start(context));
+		});
+	}
+
+	@Test
+	void testStart_regexGroupsExpanded() throws Exception {
+
+		RTextArea textArea = new RTextArea("a=1,\nb=2, c=3");
+		SearchContext context = new SearchContext("(\\w)=(\\d)");
+		context.setRegularExpression(true);
+		context.setReplaceWith("$2:$1");
+		ReplacePreview preview = startPreview(textArea, context);
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(3, preview.getSize());
+			assertEquals(3, preview.getIncludedCount());
+			ReplacePreview.Hunk hunk = preview.getElementAt(1);
+			assertEquals(5, hunk.getStart());
+			assertEquals(8, hunk.getEnd());
+			assertEquals(1, hunk.getLine());
+			assertEquals("b=2", hunk.getOldText());
+			assertEquals("2:b", hunk.getNewText());
+			assertTrue(hunk.isIncluded());
+			// The preview doesn't modify the document
+			assertEquals("a=1,\nb=2, c=3", textArea.getText());
+		});
+	}
+
+	@Test
+	void testApply_onlyIncludedHunks() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("x");
+		ReplacePreview preview = startPreview(textArea, context);
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(3, preview.getSize());
+			preview.setIncluded(1, false);
+			assertFalse(preview.getElementAt(1).isIncluded());
+			assertEquals(2, preview.getIncludedCount());
+		});
+		assertEquals(2, apply(preview));
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals("x bar foo bar x", textArea.getText());
+			assertEquals(0, preview.getSize());
+			assertTrue(textArea.isEditable());
+		});
+	}
+
+	@Test
+	void testApply_otherTextArea() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo");
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("x");
+		ReplacePreview preview = startPreview(textArea, context);
+
+		SwingUtilities.invokeAndWait(() -> {
+			ChunkedReplaceAll replaceAll = new ChunkedReplaceAll(new RTextArea("foo"));
+			assertThrows(IllegalArgumentException.class, () -> preview.apply(replaceAll));
+		});
+	}
+
+	@Test
+	void testApply_textBetweenHunksUntouched() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo bar foo bar foo");
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("x");
+		ReplacePreview preview = startPreview(textArea, context);
+
+		AtomicInteger maxLength = new AtomicInteger();
+		SwingUtilities.invokeAndWait(() -> {
+			textArea.getDocument().addDocumentListener(new DocumentListener() {
+				@Override
+				public void insertUpdate(DocumentEvent e) {
+					maxLength.accumulateAndGet(e.getLength(), Math::max);
+				}
+
+				@Override
+				public void removeUpdate(DocumentEvent e) {
+					maxLength.accumulateAndGet(e.getLength(), Math::max);
+				}
+
+				@Override
+				public void changedUpdate(DocumentEvent e) {
+				}
+			});
+		});
+		assertEquals(3, apply(preview));
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals("x bar x bar x", textArea.getText());
+			assertEquals(3, maxLength.get());
+		});
+	}
+
+	@Test
+	void testApply_noneIncluded() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo foo");
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("x");
+		ReplacePreview preview = startPreview(textArea, context);
+
+		SwingUtilities.invokeAndWait(() -> {
+			preview.setAllIncluded(false);
+			assertEquals(0, preview.getIncludedCount());
+			assertEquals(0, preview.apply(new ChunkedReplaceAll(textArea)));
+			assertEquals("foo foo", textArea.getText());
+			preview.setAllIncluded(true);
+			assertEquals(2, preview.getIncludedCount());
+		});
+	}
+
+	@Test
+	void testApply_stale() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo foo");
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("x");
+		ReplacePreview preview = startPreview(textArea, context);
+
+		SwingUtilities.invokeAndWait(() -> {
+			textArea.append(" foo");
+			assertTrue(preview.isStale());
+			assertEquals(0, preview.apply(new ChunkedReplaceAll(textArea)));
+			assertEquals("foo foo foo", textArea.getText());
+		});
+	}
+
+	@Test
+	void testStart_selectionOnly() throws Exception {
+
+		RTextArea textArea = new RTextArea("foo\nfoo foo\nfoo");
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("x");
+		ReplacePreview preview = new ReplacePreview(textArea);
+		SwingUtilities.invokeAndWait(() -> {
+			textArea.select(5, 11);
+			assertTrue(preview.start(context, SearchScope.SELECTION));
+		});
+		TestUtil.waitUntil(() -> !preview.isRunning());
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(1, preview.getSize());
+			assertEquals(8, preview.getElementAt(0).getStart());
+			assertEquals(1, preview.getElementAt(0).getLine());
+		});
+		assertEquals(1, apply(preview));
+
+		SwingUtilities.invokeAndWait(() ->
+			assertEquals("foo\nfoo x\nfoo", textArea.getText()));
+	}
+
+	@Test
+	void testStart_manyHunks() throws Exception {
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100_000; i++) {
+			sb.append("foo\n");
+		}
+		RTextArea textArea = new RTextArea(sb.toString());
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("bar");
+		ReplacePreview preview = startPreview(textArea, context);
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertEquals(100_000, preview.getSize());
+			assertEquals(99_999, preview.getElementAt(99_999).getLine());
+		});
+		assertEquals(100_000, apply(preview));
+
+		SwingUtilities.invokeAndWait(() ->
+			assertEquals(sb.toString().replace("foo", "bar"), textArea.getText()));
+	}
+
+	@Test
+	void testStart_matchTimesOut() throws Exception {
+
+		StringBuilder sb = new StringBuilder("b ");
+		for (int i = 0; i < 40; i++) {
+			sb.append('a');
+		}
+		RTextArea textArea = new RTextArea(sb.toString());
+		SearchContext context = new SearchContext("((a+)+)+b|b");
+		context.setRegularExpression(true);
+		ReplacePreview preview = startPreview(textArea, context);
+
+		SwingUtilities.invokeAndWait(() -> {
+			assertTrue(preview.wasTimedOut());
+			assertEquals(1, preview.getSize()); // Found before the timeout
+		});
+	}
+}
@@ -1,6 +1,7 @@
 package org.fife.rsta.ui.search;
 
 import org.fife.rsta.ui.SwingRunnerExtension;
+import org.fife.ui.rtextarea.RTextArea;
 import org.fife.ui.rtextarea.SearchContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -110,6 +111,21 @@ class ReplaceToolBarTest {
 		assertEquals(SearchEvent.Type.REPLACE_ALL, listener.events.get(0).getType());
 	}
 
+	@Test
+	void testGetSetSearchScope() {
+		toolBar.setSearchScope(SearchScope.SELECTION);
+		assertFalse(toolBar.selectionOnlyCheckBox.isVisible());
+		assertEquals(SearchScope.DOCUMENT, toolBar.getSearchScope()); // No text area
+
+		toolBar.setTextArea(new RTextArea("foo"));
+		assertTrue(toolBar.selectionOnlyCheckBox.isVisible());
+		assertEquals(SearchScope.SELECTION, toolBar.getSearchScope());
+
+		toolBar.setTextArea(null);
+		assertFalse(toolBar.selectionOnlyCheckBox.isVisible());
+		assertEquals(SearchScope.DOCUMENT, toolBar.getSearchScope());
+	}
+
 	@Test
 	void testSetContentAssistImage() {
 		Image img = new ImageIcon(new byte[0]).getImage();
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -70,4 +71,47 @@ class SearchComboBoxTest {
 		Assertions.assertEquals("333", items.get(1));
 		Assertions.assertEquals("111", items.get(2));
 	}
+
+	@Test
+	void testSetSearchHistory() {
+		SearchHistory history = new SearchHistory(100);
+		history.add("111");
+		history.add("222");
+		SearchComboBox comboBox = new SearchComboBox(null, false);
+		comboBox.setSearchHistory(history);
+		Assertions.assertSame(history, comboBox.getSearchHistory());
+		Assertions.assertEquals(2, comboBox.getItemCount());
+		Assertions.assertEquals("222", comboBox.getItemAt(0));
+
+		comboBox.addItem("333");
+		comboBox.addItem("111");
+		Assertions.assertEquals(Arrays.asList("111", "333", "222"), comboBox.getSearchStrings());
+		Assertions.assertEquals(Arrays.asList("111", "333", "222"), history.getEntries());
+	}
+
+	@Test
+	void testSetSearchHistory_shared() {
+		SearchHistory history = new SearchHistory(100);
+		history.add("111");
+		SearchComboBox comboBox = new SearchComboBox(null, false);
+		comboBox.setSearchHistory(history);
+		SearchComboBox other = new SearchComboBox(null, false);
+		other.setSearchHistory(history);
+		UIUtil.getTextComponent(other).setText("typed");
+
+		comboBox.addItem("222");
+		comboBox.addItem("111");
+		Assertions.assertEquals(2, other.getItemCount());
+		Assertions.assertEquals("111", other.getItemAt(0));
+		Assertions.assertEquals("222", other.getItemAt(1));
+		Assertions.assertEquals("typed", other.getSelectedString());
+
+		history.clear();
+		Assertions.assertEquals(0, other.getItemCount());
+
+		// No longer listens once it has another history
+		other.setSearchHistory(null);
+		comboBox.addItem("333");
+		Assertions.assertEquals(0, other.getItemCount());
+	}
 }
@@ -0,0 +1,136 @@
+package org.fife.rsta.ui.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SearchHistory}.
+ */
+class SearchHistoryTest {
+
+	private Path dir;
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		dir = Files.createTempDirectory("searchHistory");
+		file = dir.resolve("history.txt");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	@Test
+	void testConstructor_invalidMaxSize() {
+		assertThrows(IllegalArgumentException.class, () -> new SearchHistory(0));
+	}
+
+	@Test
+	void testAdd() {
+		SearchHistory history = new SearchHistory(3);
+		assertTrue(history.add("one"));
+		assertTrue(history.add("two"));
+		assertFalse(history.add("two"));
+		assertFalse(history.add(""));
+		assertTrue(history.add("one"));
+		assertEquals(Arrays.asList("one", "two"), history.getEntries());
+		assertEquals("one", history.getMostRecent());
+		assertTrue(history.contains("two"));
+		assertFalse(history.contains("three"));
+	}
+
+	@Test
+	void testAdd_notifiesListeners() {
+		SearchHistory history = new SearchHistory(3);
+		int[] count = new int[1];
+		history.addChangeListener(e -> count[0]++);
+		history.add("one");
+		history.add("one");
+		assertEquals(1, count[0]);
+		history.clear();
+		assertEquals(2, count[0]);
+	}
+
+	@Test
+	void testAdd_overMaxSize_dropsOldest() {
+		SearchHistory history = new SearchHistory(2);
+		history.add("one");
+		history.add("two");
+		history.add("three");
+		assertEquals(Arrays.asList("three", "two"), history.getEntries());
+		assertFalse(history.contains("one"));
+	}
+
+	@Test
+	void testLoad_missingFile() throws IOException {
+		SearchHistory history = SearchHistory.load(file, 10);
+		assertEquals(0, history.size());
+		assertNull(history.getMostRecent());
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	void testLoad_addsAreAppended() throws IOException {
+
+		SearchHistory history = SearchHistory.load(file, 10);
+		history.add("foo");
+		history.add("multi\nline \\n");
+		history.add("foo");
+		history.flush();
+		assertEquals(3, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+
+		SearchHistory loaded = SearchHistory.load(file, 10);
+		assertEquals(Arrays.asList("foo", "multi\nline \\n"), loaded.getEntries());
+		assertEquals("foo", loaded.getMostRecent());
+
+		// Duplicates were compacted away
+		assertEquals(Arrays.asList("multi\\nline \\\\n", "foo"),
+			Files.readAllLines(file, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testLoad_compactsToMaxSize() throws IOException {
+		Files.write(file, Arrays.asList("1", "2", "3", "4"), StandardCharsets.UTF_8);
+		SearchHistory history = SearchHistory.load(file, 2);
+		assertEquals(Arrays.asList("4", "3"), history.getEntries());
+		assertEquals(Arrays.asList("3", "4"), Files.readAllLines(file, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testClear() throws IOException {
+		SearchHistory history = SearchHistory.load(file, 10);
+		history.add("foo");
+		history.clear();
+		history.flush();
+		assertEquals(0, history.size());
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertEquals(Collections.emptyList(), lines);
+	}
+
+	@Test
+	void testClear_thenAdd() throws IOException {
+		SearchHistory history = SearchHistory.load(file, 10);
+		history.add("foo");
+		history.clear();
+		history.add("bar");
+		history.flush();
+		assertEquals(Collections.singletonList("bar"), Files.readAllLines(file, StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,190 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SearchMatcher}.
+ */
+class SearchMatcherTest {
+
+	private static SearchMatcher createMatcher(SearchContext context, CharSequence text) {
+		Pattern pattern = SearchMatcher.createPattern(context);
+		return new SearchMatcher(pattern, context.getWholeWord(), text);
+	}
+
+	@Test
+	void testCreatePattern_invalidRegex() {
+		SearchContext context = new SearchContext("[a-");
+		context.setRegularExpression(true);
+		assertThrows(PatternSyntaxException.class, () -> SearchMatcher.createPattern(context));
+	}
+
+	@Test
+	void testCreatePattern_literal() {
+		SearchContext context = new SearchContext("a.c");
+		SearchMatcher matcher = createMatcher(context, "abc a.c");
+		assertTrue(matcher.find());
+		assertEquals(4, matcher.start());
+		assertEquals(7, matcher.end());
+		assertFalse(matcher.find());
+	}
+
+	@Test
+	void testFind_ignoreCase() {
+		SearchContext context = new SearchContext("foo");
+		context.setMatchCase(false);
+		SearchMatcher matcher = createMatcher(context, "FOO foo");
+		assertTrue(matcher.find());
+		assertEquals(0, matcher.start());
+		assertTrue(matcher.find());
+		assertEquals(4, matcher.start());
+	}
+
+	@Test
+	void testFind_matchCase() {
+		SearchContext context = new SearchContext("foo");
+		context.setMatchCase(true);
+		SearchMatcher matcher = createMatcher(context, "FOO foo");
+		assertTrue(matcher.find());
+		assertEquals(4, matcher.start());
+		assertFalse(matcher.find());
+	}
+
+	@Test
+	void testFind_fromOffset() {
+		SearchContext context = new SearchContext("foo");
+		SearchMatcher matcher = createMatcher(context, "foo foo foo");
+		assertTrue(matcher.find(1));
+		assertEquals(4, matcher.start());
+	}
+
+	@Test
+	void testFind_regexSkipsZeroLengthMatches() {
+		SearchContext context = new SearchContext("x*");
+		context.setRegularExpression(true);
+		SearchMatcher matcher = createMatcher(context, "abxxc");
+		assertTrue(matcher.find());
+		assertEquals(2, matcher.start());
+		assertEquals(4, matcher.end());
+		assertFalse(matcher.find());
+	}
+
+	@Test
+	void testFind_wholeWord() {
+		SearchContext context = new SearchContext("foo");
+		context.setWholeWord(true);
+		SearchMatcher matcher = createMatcher(context, "foobar foo barfoo");
+		assertTrue(matcher.find());
+		assertEquals(7, matcher.start());
+		assertFalse(matcher.find());
+	}
+
+	@Test
+	void testFind_interrupted() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200_000; i++) {
+			sb.append('a');
+		}
+		InterruptibleCharSequence text = new InterruptibleCharSequence(sb);
+		text.interrupt();
+		SearchMatcher matcher = createMatcher(new SearchContext("b"), text);
+		assertThrows(CancellationException.class, matcher::find);
+	}
+
+	@Test
+	void testFind_catastrophicBacktrackingTimesOut() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			sb.append('a');
+		}
+		InterruptibleCharSequence text = new InterruptibleCharSequence(sb, 50);
+		SearchContext context = new SearchContext("((a+)+)+b");
+		context.setRegularExpression(true);
+		SearchMatcher matcher = createMatcher(context, text);
+		assertThrows(MatchTimeoutException.class, matcher::find);
+	}
+
+	@Test
+	void testFind_budgetIsPerMatch() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100_000; i++) {
+			sb.append("foo bar\n");
+		}
+		InterruptibleCharSequence text = new InterruptibleCharSequence(sb);
+		SearchMatcher matcher = createMatcher(new SearchContext("foo"), text);
+		int count = 0;
+		while (matcher.find()) {
+			count++;
+		}
+		assertEquals(100_000, count);
+	}
+
+	@Test
+	void testSetRange() {
+		SearchContext context = new SearchContext("foo");
+		SearchMatcher matcher = createMatcher(context, "foo foo foo foo");
+		matcher.setRange(2, 11);
+		assertTrue(matcher.find());
+		assertEquals(4, matcher.start());
+		assertTrue(matcher.find());
+		assertEquals(8, matcher.start());
+		assertFalse(matcher.find()); // "foo" at 12 is outside the range
+
+		assertTrue(matcher.find(0));
+		assertEquals(4, matcher.start());
+		assertFalse(matcher.find(9));
+	}
+
+	@Test
+	void testSetRange_anchorsAndWordsSeeSurroundingText() {
+
+		SearchContext context = new SearchContext("^b");
+		context.setRegularExpression(true);
+		SearchMatcher matcher = createMatcher(context, "ab\nb");
+		matcher.setRange(1, 4);
+		assertTrue(matcher.find());
+		assertEquals(3, matcher.start()); // Not at the start of the range
+
+		context = new SearchContext("oo");
+		context.setWholeWord(true);
+		matcher = createMatcher(context, "foo oo");
+		matcher.setRange(1, 6);
+		assertTrue(matcher.find());
+		assertEquals(4, matcher.start());
+	}
+
+	@Test
+	void testGetReplacement_literal() {
+		SearchContext context = new SearchContext("foo");
+		SearchMatcher matcher = createMatcher(context, "foo");
+		assertTrue(matcher.find());
+		assertEquals("$1\\n", matcher.getReplacement("$1\\n"));
+	}
+
+	@Test
+	void testGetReplacement_regex() {
+		SearchContext context = new SearchContext("(\\w+)=(\\w+)");
+		context.setRegularExpression(true);
+		SearchMatcher matcher = createMatcher(context, "key=value");
+		assertTrue(matcher.find());
+		assertEquals("value=key", matcher.getReplacement("$2=$1"));
+		assertEquals("key\n\tvalue", matcher.getReplacement("$1\\n\\t$2"));
+		assertEquals("$key", matcher.getReplacement("\\$$1"));
+		assertEquals("key0", matcher.getReplacement("$10"));
+	}
+
+	@Test
+	void testIsWholeWord() {
+		assertTrue(SearchMatcher.isWholeWord("foo", 0, 3));
+		assertTrue(SearchMatcher.isWholeWord("a foo.", 2, 5));
+		assertFalse(SearchMatcher.isWholeWord("afoo", 1, 4));
+		assertFalse(SearchMatcher.isWholeWord("foo1", 0, 3));
+	}
+}
@@ -0,0 +1,103 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.TestUtil;
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SearchResultsPanel}.  These run off the EDT, since
+ * results are delivered on the EDT.
+ */
+class SearchResultsPanelTest {
+
+	@Test
+	void testSearch() throws Exception {
+
+		AtomicReference<SearchResultsPanel> panel = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> {
+			panel.set(new SearchResultsPanel());
+			List<RTextArea> textAreas = Arrays.asList(new RTextArea("foo\nbar foo"),
+					new RTextArea("none"), new RTextArea("food"));
+			assertTrue(panel.get().search(new SearchContext("foo"), textAreas));
+		});
+		TestUtil.waitUntil(() -> !panel.get().getSearch().isRunning());
+
+		SwingUtilities.invokeAndWait(() -> assertEquals(3, panel.get().getMatchCount()));
+	}
+
+	@Test
+	void testSearch_replacesPreviousResults() throws Exception {
+
+		AtomicReference<SearchResultsPanel> panel = new AtomicReference<>();
+		RTextArea textArea = new RTextArea("foo foo bar");
+		SwingUtilities.invokeAndWait(() -> {
+			panel.set(new SearchResultsPanel());
+			panel.get().search(new SearchContext("foo"), Collections.singletonList(textArea));
+		});
+		TestUtil.waitUntil(() -> !panel.get().getSearch().isRunning());
+		SwingUtilities.invokeAndWait(() ->
+			assertTrue(panel.get().search(new SearchContext("bar"), Collections.singletonList(textArea))));
+		TestUtil.waitUntil(() -> !panel.get().getSearch().isRunning());
+
+		SwingUtilities.invokeAndWait(() -> assertEquals(1, panel.get().getMatchCount()));
+	}
+
+	@Test
+	void testSearch_nothingToSearchFor() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			SearchResultsPanel panel = new SearchResultsPanel();
+			assertFalse(panel.search(new SearchContext(""),
+					Collections.singletonList(new RTextArea("foo"))));
+			assertEquals(0, panel.getMatchCount());
+		});
+	}
+
+	@Test
+	void testFindInFilesListener() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			SearchResultsPanel panel = new SearchResultsPanel();
+			Path file = Paths.get("Test.txt");
+			FindInFilesListener listener = panel.getFindInFilesListener();
+			listener.fileSearched(file, Arrays.asList(
+				new FileMatch(file, 1, 0, 3, "foo bar", 0),
+				new FileMatch(file, 2, 8, 11, "foo", 8)));
+			listener.searchCompleted(false);
+			assertEquals(2, panel.getMatchCount());
+			panel.clear();
+			assertEquals(0, panel.getMatchCount());
+		});
+	}
+
+	@Test
+	void testSelectMatch() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			RTextArea textArea = new RTextArea("foo bar foo");
+			new SearchResultsPanel().selectMatch(textArea, new DocumentRange(8, 11));
+			assertEquals(8, textArea.getSelectionStart());
+			assertEquals(11, textArea.getSelectionEnd());
+		});
+	}
+
+	@Test
+	void testGetSetContextLineCount() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			SearchResultsPanel panel = new SearchResultsPanel();
+			assertEquals(2, panel.getContextLineCount());
+			panel.setContextLineCount(0);
+			assertEquals(0, panel.getContextLineCount());
+			assertThrows(IllegalArgumentException.class, () -> panel.setContextLineCount(-1));
+		});
+	}
+}
@@ -1,7 +1,13 @@
 package org.fife.rsta.ui.search;
 
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchResult;
 import org.junit.jupiter.api.Test;
 
+import javax.swing.JTextArea;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -9,6 +15,168 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class SearchUtilTest {
 
+	@Test
+	void testFind_forward() {
+
+		JTextArea textArea = new JTextArea("foo bar foo bar");
+		SearchContext context = new SearchContext("bar");
+		context.setSearchWrap(true);
+		SearchResult result = SearchUtil.find(textArea, textArea.getText(), context);
+		assertTrue(result.wasFound());
+		assertFalse(result.isWrapped());
+		assertEquals(4, textArea.getSelectionStart());
+		assertEquals(7, textArea.getSelectionEnd());
+
+		result = SearchUtil.find(textArea, textArea.getText(), context);
+		assertEquals(12, textArea.getSelectionStart());
+
+		result = SearchUtil.find(textArea, textArea.getText(), context);
+		assertTrue(result.isWrapped());
+		assertEquals(4, textArea.getSelectionStart());
+
+		context.setSearchWrap(false);
+		textArea.setCaretPosition(13);
+		assertFalse(SearchUtil.find(textArea, textArea.getText(), context).wasFound());
+	}
+
+	@Test
+	void testFind_backward() {
+
+		JTextArea textArea = new JTextArea("foo bar foo bar");
+		textArea.setCaretPosition(11);
+		SearchContext context = new SearchContext("foo");
+		context.setSearchForward(false);
+		context.setSearchWrap(true);
+		SearchResult result = SearchUtil.find(textArea, textArea.getText(), context);
+		assertTrue(result.wasFound());
+		assertEquals(8, textArea.getSelectionStart());
+
+		result = SearchUtil.find(textArea, textArea.getText(), context);
+		assertEquals(0, textArea.getSelectionStart());
+
+		result = SearchUtil.find(textArea, textArea.getText(), context);
+		assertTrue(result.isWrapped());
+		assertEquals(8, textArea.getSelectionStart());
+	}
+
+	@Test
+	void testFind_invalidRegex() {
+		JTextArea textArea = new JTextArea("foo");
+		SearchContext context = new SearchContext("[a-");
+		context.setRegularExpression(true);
+		assertFalse(SearchUtil.find(textArea, textArea.getText(), context).wasFound());
+	}
+
+	@Test
+	void testFind_timesOut() {
+		JTextArea textArea = new JTextArea("foo aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+		SearchContext context = new SearchContext("((a+)+)+b");
+		context.setRegularExpression(true);
+		assertNull(SearchUtil.find(textArea, textArea.getText(), context));
+	}
+
+	@Test
+	void testFind_timeLimitDoesNotGrowWithLength() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2_000_000; i++) {
+			sb.append('a');
+		}
+		JTextArea textArea = new JTextArea(sb.toString());
+		SearchContext context = new SearchContext("((a+)+)+b");
+		context.setRegularExpression(true);
+		long start = System.nanoTime();
+		assertNull(SearchUtil.find(textArea, textArea.getText(), context));
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		assertTrue(millis < SearchUtil.EDT_TIME_BUDGET + 1000, "Took " + millis + " ms");
+	}
+
+	@Test
+	void testReplace_forward() {
+
+		JTextArea textArea = new JTextArea("foo bar foo bar");
+		textArea.select(4, 7);
+		SearchContext context = new SearchContext("bar");
+		context.setReplaceWith("x");
+		context.setSearchWrap(true);
+		SearchResult result = SearchUtil.replace(textArea, new DocumentSnapshot(textArea), context);
+		assertEquals("foo x foo bar", textArea.getText());
+		assertTrue(result.wasFound());
+		assertEquals(10, textArea.getSelectionStart());
+		assertEquals(13, textArea.getSelectionEnd());
+
+		result = SearchUtil.replace(textArea, new DocumentSnapshot(textArea), context);
+		assertEquals("foo x foo x", textArea.getText());
+		assertFalse(result.wasFound());
+	}
+
+	@Test
+	void testReplace_regexGroups() {
+
+		JTextArea textArea = new JTextArea("a=1 b=2");
+		SearchContext context = new SearchContext("(\\w)=(\\d)");
+		context.setRegularExpression(true);
+		context.setReplaceWith("$2:$1");
+		SearchUtil.replace(textArea, new DocumentSnapshot(textArea), context);
+		assertEquals("1:a b=2", textArea.getText());
+		assertEquals(4, textArea.getSelectionStart());
+		assertEquals(7, textArea.getSelectionEnd());
+	}
+
+	@Test
+	void testReplace_backward() {
+
+		JTextArea textArea = new JTextArea("foo bar foo bar");
+		textArea.setCaretPosition(11);
+		SearchContext context = new SearchContext("foo");
+		context.setReplaceWith("x");
+		context.setSearchForward(false);
+		SearchUtil.replace(textArea, new DocumentSnapshot(textArea), context);
+		assertEquals("foo bar x bar", textArea.getText());
+		assertEquals(0, textArea.getSelectionStart());
+		assertEquals(3, textArea.getSelectionEnd());
+	}
+
+	@Test
+	void testReplace_timesOut() {
+		JTextArea textArea = new JTextArea("foo aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+		SearchContext context = new SearchContext("((a+)+)+b");
+		context.setRegularExpression(true);
+		context.setReplaceWith("x");
+		assertNull(SearchUtil.replace(textArea, new DocumentSnapshot(textArea), context));
+		assertEquals("foo aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa", textArea.getText());
+	}
+
+	@Test
+	void testFindAll() {
+
+		JTextArea textArea = new JTextArea("foo bar Foo food");
+		SearchContext context = new SearchContext("foo");
+		List<DocumentRange> ranges = SearchUtil.findAll(textArea.getText(), context);
+		assertEquals(3, ranges.size());
+		assertEquals(8, ranges.get(1).getStartOffset());
+		assertEquals(11, ranges.get(1).getEndOffset());
+
+		context.setMatchCase(true);
+		context.setWholeWord(true);
+		assertEquals(1, SearchUtil.findAll(textArea.getText(), context).size());
+
+		context.setSearchFor("");
+		assertNull(SearchUtil.findAll(textArea.getText(), context));
+
+		context.setSearchFor("[a-");
+		context.setRegularExpression(true);
+		assertNull(SearchUtil.findAll(textArea.getText(), context));
+	}
+
+	@Test
+	void testFindAll_timesOut() {
+		JTextArea textArea = new JTextArea("foo aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+		SearchContext context = new SearchContext("((a+)+)+b");
+		context.setRegularExpression(true);
+		assertThrows(MatchTimeoutException.class,
+			() -> SearchUtil.findAll(textArea.getText(), context));
+	}
+
 	@Test
 	void testGetToolTip_noError() {
 		FindReplaceButtonsEnableResult result = new FindReplaceButtonsEnableResult(true, null);
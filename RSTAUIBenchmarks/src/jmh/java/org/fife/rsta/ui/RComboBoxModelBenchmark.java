@@ -0,0 +1,57 @@
+package org.fife.rsta.ui;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link RComboBoxModel#insertElementAt(Object, int)} on a model
+ * that is already at capacity, so every insert of a new item also removes
+ * the oldest one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RComboBoxModelBenchmark {
+
+	@Param({ "8", "100", "1000" })
+	private int capacity;
+
+	private RComboBoxModel<String> model;
+	private String[] items;
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		model = new RComboBoxModel<>();
+		model.setMaxNumElements(capacity);
+		items = new String[capacity * 2];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = "item " + i;
+		}
+		for (int i = 0; i < capacity; i++) {
+			model.addElement(items[i]);
+		}
+	}
+
+	/**
+	 * Inserts items not in the model, evicting the oldest item each time.
+	 */
+	@Benchmark
+	public int insertNewItem() {
+		model.insertElementAt(items[(counter++ & 0x7fffffff) % items.length], 0);
+		return model.getSize();
+	}
+
+	/**
+	 * Moves the last (oldest) item to the front.
+	 */
+	@Benchmark
+	public int moveLastToFront() {
+		model.insertElementAt(model.getElementAt(model.getSize() - 1), 0);
+		return model.getSize();
+	}
+}
@@ -0,0 +1,48 @@
+package org.fife.rsta.ui;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.text.BadLocationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks computing the {@link TextStatistics} (word count, etc.) shown
+ * by {@link TextFilePropertiesDialog}, for documents from 1 to 500 MB.  Each
+ * pass takes long enough that this measures single runs rather than
+ * throughput.  The largest documents need a large heap; see this module's
+ * build file.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WordCountBenchmark {
+
+	private static final String LINE = "The quick brown fox, jumped over 2 lazy dogs; again!\n";
+
+	@Param({ "1", "10", "100", "500" })
+	private int megabytes;
+
+	private RSyntaxDocument doc;
+
+	@Setup(Level.Trial)
+	public void setUp() throws BadLocationException {
+		int length = megabytes * 1024 * 1024;
+		StringBuilder sb = new StringBuilder(length + LINE.length());
+		while (sb.length() < length) {
+			sb.append(LINE);
+		}
+		sb.setLength(length);
+		doc = new RSyntaxDocument(SyntaxConstants.SYNTAX_STYLE_NONE);
+		doc.insertString(0, sb.toString(), null);
+	}
+
+	@Benchmark
+	public TextStatistics computeStatistics() {
+		return TextStatistics.compute(doc);
+	}
+}
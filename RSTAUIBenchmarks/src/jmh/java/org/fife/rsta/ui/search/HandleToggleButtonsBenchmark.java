@@ -0,0 +1,60 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.UIUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the regex validation done by {@link FindToolBar#handleToggleButtons()}
+ * each time the user types into the "Find" field.  The "distinct" variant
+ * validates a different pattern each time, as when the user is typing, so
+ * it isn't helped by the pattern cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandleToggleButtonsBenchmark {
+
+	@Param({ "foo", "\\b(?:public|private|protected)\\s+\\w+\\s*\\(" })
+	private String regex;
+
+	private FindToolBar toolBar;
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		toolBar = new FindToolBar(new SearchListener() {
+			@Override
+			public void searchEvent(SearchEvent e) {
+			}
+
+			@Override
+			public String getSelectedText() {
+				return null;
+			}
+		});
+		toolBar.regexCheckBox.setSelected(true);
+		UIUtil.getTextComponent(toolBar.findCombo).setText(regex);
+	}
+
+	@Benchmark
+	public FindReplaceButtonsEnableResult sameRegex() {
+		return toolBar.handleToggleButtons();
+	}
+
+	@Benchmark
+	public FindReplaceButtonsEnableResult distinctRegex() {
+		UIUtil.getTextComponent(toolBar.findCombo).setText(regex + (counter++ & 0xffff));
+		return toolBar.handleToggleButtons();
+	}
+
+	@Benchmark
+	public FindReplaceButtonsEnableResult invalidRegex() {
+		UIUtil.getTextComponent(toolBar.findCombo).setText(regex + "[");
+		return toolBar.handleToggleButtons();
+	}
+}
@@ -0,0 +1,63 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dispatching a "mark all" event through
+ * {@link FindToolBar#fireSearchEvent(SearchEvent)} to a listener that marks
+ * all occurrences with {@link SearchEngine}, as applications not using
+ * {@link FindToolBar#setTextArea(RTextArea)} do.  This is what runs on the
+ * EDT each time the search text changes with "Mark All" enabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MarkAllDispatchBenchmark {
+
+	private static final String LINE = "public void fooBar(int foo) { return foo + bar; }\n";
+
+	@Param({ "1000", "100000" })
+	private int lineCount;
+
+	@Param({ "foo", "xyzzy" })
+	private String searchFor;
+
+	private FindToolBar toolBar;
+	private SearchEvent event;
+
+	@Setup
+	public void setUp() {
+		StringBuilder sb = new StringBuilder(LINE.length() * lineCount);
+		for (int i = 0; i < lineCount; i++) {
+			sb.append(LINE);
+		}
+		RTextArea textArea = new RTextArea(sb.toString());
+		toolBar = new FindToolBar(new SearchListener() {
+			@Override
+			public void searchEvent(SearchEvent e) {
+				SearchEngine.markAll(textArea, e.getSearchContext());
+			}
+
+			@Override
+			public String getSelectedText() {
+				return textArea.getSelectedText();
+			}
+		});
+		SearchContext context = new SearchContext(searchFor);
+		context.setMarkAll(true);
+		event = new SearchEvent(toolBar, SearchEvent.Type.MARK_ALL, context);
+	}
+
+	@Benchmark
+	public void fireMarkAllEvent() {
+		toolBar.fireSearchEvent(event);
+	}
+}
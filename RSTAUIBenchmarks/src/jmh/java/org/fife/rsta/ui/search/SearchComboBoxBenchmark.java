@@ -0,0 +1,65 @@
+package org.fife.rsta.ui.search;
+
+import org.fife.rsta.ui.RComboBoxModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link SearchComboBox#addItem(String)} and
+ * {@link SearchComboBox#getSearchStrings()}, which are called for every
+ * search, against search histories of different sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchComboBoxBenchmark {
+
+	@Param({ "8", "100", "1000" })
+	private int historySize;
+
+	private SearchComboBox combo;
+	private String[] items;
+	private int counter;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		combo = new SearchComboBox(null, false);
+		((RComboBoxModel<String>)combo.getModel()).setMaxNumElements(historySize);
+		items = new String[historySize * 2];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = "search string " + i;
+		}
+		for (int i = 0; i < historySize; i++) {
+			combo.addItem(items[i]);
+		}
+	}
+
+	/**
+	 * Re-searches for an item already in the history, moving it to the front.
+	 */
+	@Benchmark
+	public int addExistingItem() {
+		combo.addItem(items[(counter++ & 0x7fffffff) % historySize]);
+		return combo.getItemCount();
+	}
+
+	/**
+	 * Searches for items both in and not in the history.
+	 */
+	@Benchmark
+	public int addMixedItems() {
+		combo.addItem(items[(counter++ & 0x7fffffff) % items.length]);
+		return combo.getItemCount();
+	}
+
+	@Benchmark
+	public List<String> getSearchStrings() {
+		return combo.getSearchStrings();
+	}
+}
@@ -6,20 +6,27 @@ package org.fife.rsta.ui.demo;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.util.Collections;
 
 import javax.swing.*;
 import javax.swing.UIManager.LookAndFeelInfo;
-import javax.swing.text.BadLocationException;
 
+import org.fife.rsta.ui.CharsetList;
 import org.fife.rsta.ui.CollapsibleSectionPanel;
 //import org.fife.rsta.ui.DocumentMap;
 import org.fife.rsta.ui.GoToDialog;
+import org.fife.rsta.ui.GoToSymbolDialog;
 import org.fife.rsta.ui.SizeGripIcon;
+import org.fife.rsta.ui.SymbolIndex;
 import org.fife.rsta.ui.search.FindDialog;
+import org.fife.rsta.ui.search.FindInTextArea;
+import org.fife.rsta.ui.search.IncrementalFind;
+import org.fife.rsta.ui.search.OccurrenceActions;
 import org.fife.rsta.ui.search.ReplaceDialog;
 import org.fife.rsta.ui.search.ReplaceToolBar;
 import org.fife.rsta.ui.search.SearchEvent;
 import org.fife.rsta.ui.search.SearchListener;
+import org.fife.rsta.ui.search.SearchResultsPanel;
 import org.fife.rsta.ui.search.FindToolBar;
 import org.fife.ui.rsyntaxtextarea.ErrorStrip;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
@@ -47,6 +54,7 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 	private ReplaceDialog replaceDialog;
 	private FindToolBar findToolBar;
 	private ReplaceToolBar replaceToolBar;
+	private SearchResultsPanel searchResultsPanel;
 	private StatusBar statusBar;
 
 
@@ -68,6 +76,16 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 		RTextScrollPane sp = new RTextScrollPane(textArea);
 		csp.add(sp);
 
+		// Let the toolbars "mark all" in the background, the find toolbar
+		// "find" using those matches, Alt+Enter select all of them, and the
+		// toolbar and dialog "replace all" in chunks
+		findToolBar.setTextArea(textArea);
+		new FindInTextArea(findToolBar);
+		new IncrementalFind(findToolBar).setEnabled(true);
+		new OccurrenceActions(findToolBar);
+		replaceToolBar.setTextArea(textArea);
+		replaceDialog.setTextArea(textArea);
+
 		ErrorStrip errorStrip = new ErrorStrip(textArea);
 		contentPane.add(errorStrip, BorderLayout.LINE_END);
 		//org.fife.rsta.ui.DocumentMap docMap = new org.fife.rsta.ui.DocumentMap(textArea);
@@ -98,6 +116,7 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 		menu.add(new JMenuItem(new ShowFindDialogAction()));
 		menu.add(new JMenuItem(new ShowReplaceDialogAction()));
 		menu.add(new JMenuItem(new GoToLineAction()));
+		menu.add(new JMenuItem(new GoToSymbolAction()));
 		menu.addSeparator();
 
 		int ctrl = getToolkit().getMenuShortcutKeyMask();
@@ -110,6 +129,8 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 		a = csp.addBottomComponent(ks, replaceToolBar);
 		a.putValue(Action.NAME, "Show Replace Search Bar");
 		menu.add(new JMenuItem(a));
+		csp.addBottomComponent(searchResultsPanel);
+		menu.add(new JMenuItem(new FindAllAction()));
 
 		mb.add(menu);
 
@@ -151,6 +172,8 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 		replaceToolBar = new ReplaceToolBar(this);
 		replaceToolBar.setSearchContext(context);
 
+		searchResultsPanel = new SearchResultsPanel();
+
 	}
 
 
@@ -215,6 +238,7 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 	 * @param args The command line arguments.
 	 */
 	public static void main(String[] args) {
+		CharsetList.preload(); // Makes the first Properties dialog open faster
 		SwingUtilities.invokeLater(() -> {
 			try {
 				UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -227,6 +251,32 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 	}
 
 
+	/**
+	 * Lists all occurrences of the text in the Find search bar.
+	 */
+	private class FindAllAction extends AbstractAction {
+
+		FindAllAction() {
+			super("Find All");
+			int c = getToolkit().getMenuShortcutKeyMask();
+			int shift = InputEvent.SHIFT_MASK;
+			putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(KeyEvent.VK_L, c|shift));
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			SearchContext context = findToolBar.getSearchContext();
+			if (searchResultsPanel.search(context, Collections.singletonList(textArea))) {
+				csp.showBottomComponent(searchResultsPanel);
+			}
+			else {
+				UIManager.getLookAndFeel().provideErrorFeedback(textArea);
+			}
+		}
+
+	}
+
+
 	/**
 	 * Opens the "Go to Line" dialog.
 	 */
@@ -247,16 +297,36 @@ public final class RSTAUIDemoApp extends JFrame implements SearchListener {
 				replaceDialog.setVisible(false);
 			}
 			GoToDialog dialog = new GoToDialog(RSTAUIDemoApp.this);
-			dialog.setMaxLineNumberAllowed(textArea.getLineCount());
+			dialog.setTextArea(textArea);
 			dialog.setVisible(true);
-			int line = dialog.getLineNumber();
-			if (line>0) {
-				try {
-					textArea.setCaretPosition(textArea.getLineStartOffset(line-1));
-				} catch (BadLocationException ble) { // Never happens
-					UIManager.getLookAndFeel().provideErrorFeedback(textArea);
-					ble.printStackTrace();
-				}
+			int offset = dialog.getOffset();
+			if (offset>-1) {
+				textArea.setCaretPosition(offset);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Opens the "Go to Symbol" dialog.
+	 */
+	private class GoToSymbolAction extends AbstractAction {
+
+		GoToSymbolAction() {
+			super("Go To Symbol...");
+			int c = getToolkit().getMenuShortcutKeyMask();
+			int shift = InputEvent.SHIFT_MASK;
+			putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(KeyEvent.VK_O, c|shift));
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			GoToSymbolDialog dialog = new GoToSymbolDialog(RSTAUIDemoApp.this, textArea);
+			dialog.setVisible(true);
+			SymbolIndex.Symbol symbol = dialog.getSelectedSymbol();
+			if (symbol != null) {
+				textArea.setCaretPosition(symbol.getOffset());
 			}
 		}
 